@@ -0,0 +1,94 @@
+package com.zsq.winter.local.message.benchmark;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * 基准测试使用的嵌入式数据库
+ * <p>
+ * 内存库加HikariCP连接池，与生产一样每次DAO调用都从连接池借出连接；
+ * 表结构与README中的local_task_message一致，只把MySQL专有类型换成两种数据库都支持的写法。
+ * </p>
+ */
+public enum EmbeddedDatabase {
+
+    /**
+     * H2内存库
+     */
+    H2("jdbc:h2:mem:%s;DB_CLOSE_DELAY=-1", "sa", "",
+            "VARCHAR(65535)", "VARBINARY(1048576)"),
+
+    /**
+     * HSQLDB内存库
+     */
+    HSQLDB("jdbc:hsqldb:mem:%s", "SA", "",
+            "LONGVARCHAR", "VARBINARY(1048576)"),
+    ;
+
+    private final String urlPattern;
+
+    private final String username;
+
+    private final String password;
+
+    private final String textType;
+
+    private final String blobType;
+
+    EmbeddedDatabase(String urlPattern, String username, String password, String textType, String blobType) {
+        this.urlPattern = urlPattern;
+        this.username = username;
+        this.password = password;
+        this.textType = textType;
+        this.blobType = blobType;
+    }
+
+    /**
+     * 创建连接池并建表
+     *
+     * @param name 库名，不同基准测试使用不同的库名互不影响
+     * @return 连接池，使用完后关闭
+     */
+    public HikariDataSource start(String name) {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(String.format(urlPattern, name));
+        config.setUsername(username);
+        config.setPassword(password);
+        config.setMaximumPoolSize(Runtime.getRuntime().availableProcessors());
+        config.setPoolName("Benchmark-" + name());
+        HikariDataSource dataSource = new HikariDataSource(config);
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS local_task_message");
+            statement.execute("CREATE TABLE local_task_message (" +
+                    "id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+                    "task_id VARCHAR(64) NOT NULL, " +
+                    "task_name VARCHAR(128) NOT NULL, " +
+                    "notify_type VARCHAR(32) NOT NULL, " +
+                    "notify_config " + textType + " NOT NULL, " +
+                    "status TINYINT DEFAULT 0 NOT NULL, " +
+                    "parameter_json " + textType + ", " +
+                    "payload_codec VARCHAR(16) DEFAULT 'none' NOT NULL, " +
+                    "parameter_blob " + blobType + ", " +
+                    "ordering_key VARCHAR(128), " +
+                    "deliver_at TIMESTAMP, " +
+                    "priority TINYINT DEFAULT 1 NOT NULL, " +
+                    "trace_parent VARCHAR(55), " +
+                    "house_number INT NOT NULL, " +
+                    "create_time TIMESTAMP NOT NULL, " +
+                    "update_time TIMESTAMP NOT NULL, " +
+                    "delivered_at TIMESTAMP(3), " +
+                    "CONSTRAINT uk_task_id UNIQUE (task_id))");
+            statement.execute("CREATE INDEX idx_house_number_status ON local_task_message (house_number, status)");
+            statement.execute("CREATE INDEX idx_scan_route ON local_task_message (house_number, status, deliver_at, id, notify_type, task_id)");
+        } catch (SQLException e) {
+            dataSource.close();
+            throw new IllegalStateException("TASK_MESSAGE_BENCHMARK_ERROR 初始化嵌入式数据库失败 " + e.getMessage(), e);
+        }
+        return dataSource;
+    }
+}
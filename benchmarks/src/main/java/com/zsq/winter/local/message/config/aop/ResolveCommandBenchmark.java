@@ -0,0 +1,275 @@
+package com.zsq.winter.local.message.config.aop;
+
+import com.zsq.winter.local.message.benchmark.TaskMessageFixtures;
+import com.zsq.winter.local.message.entity.TaskMessageEntityCommand;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.aspectj.lang.reflect.SourceLocation;
+import org.aspectj.runtime.internal.AroundClosure;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 切面解析命令对象的基准测试
+ * <p>
+ * 覆盖切面使用的{@link TaskMessageCommandResolver#resolve}的各种路径写法：自动发现、按参数名、getter属性路径、
+ * 以及getter缺失时回退到字段访问的多级路径。每次调用都会执行真实的反射查找，不做缓存。
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx1g"})
+public class ResolveCommandBenchmark {
+
+    /**
+     * 路径写法：auto-留空自动发现，parameter-参数名，path-getter属性路径，field-getter缺失回退字段的多级路径
+     */
+    @Param({"auto", "parameter", "path", "field"})
+    public String pathMode;
+
+    private ProceedingJoinPoint joinPoint;
+
+    private String entityAttributeName;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        TaskMessageEntityCommand command = TaskMessageFixtures.command("TASK-1", TaskMessageFixtures.parameterJson(256));
+        OrderRequest request = new OrderRequest(command);
+        switch (pathMode) {
+            case "auto":
+                entityAttributeName = "";
+                joinPoint = joinPoint("placeOrder", new Object[]{"ORD1", command}, String.class, TaskMessageEntityCommand.class);
+                break;
+            case "parameter":
+                entityAttributeName = "command";
+                joinPoint = joinPoint("placeOrder", new Object[]{"ORD1", command}, String.class, TaskMessageEntityCommand.class);
+                break;
+            case "path":
+                entityAttributeName = "request.command";
+                joinPoint = joinPoint("submit", new Object[]{request}, OrderRequest.class);
+                break;
+            case "field":
+                entityAttributeName = "request.payload.command";
+                joinPoint = joinPoint("submit", new Object[]{request}, OrderRequest.class);
+                break;
+            default:
+                throw new IllegalArgumentException("未知的路径写法: " + pathMode);
+        }
+        if (TaskMessageCommandResolver.resolve(joinPoint, entityAttributeName) != command) {
+            throw new IllegalStateException("路径写法 " + pathMode + " 未解析出命令对象");
+        }
+    }
+
+    @Benchmark
+    public TaskMessageEntityCommand resolveCommand() {
+        return TaskMessageCommandResolver.resolve(joinPoint, entityAttributeName);
+    }
+
+    private static ProceedingJoinPoint joinPoint(String methodName, Object[] args, Class<?>... parameterTypes) throws NoSuchMethodException {
+        Method method = OrderService.class.getDeclaredMethod(methodName, parameterTypes);
+        return new FixedJoinPoint(new FixedMethodSignature(method), args);
+    }
+
+    /**
+     * 被拦截的业务方法，编译时需保留参数名（-parameters）
+     */
+    @SuppressWarnings("unused")
+    static class OrderService {
+
+        void placeOrder(String orderNo, TaskMessageEntityCommand command) {
+        }
+
+        void submit(OrderRequest request) {
+        }
+    }
+
+    /**
+     * 带getter的请求对象，payload只能通过字段访问
+     */
+    public static class OrderRequest {
+
+        private final TaskMessageEntityCommand command;
+
+        @SuppressWarnings("unused")
+        private final OrderPayload payload;
+
+        OrderRequest(TaskMessageEntityCommand command) {
+            this.command = command;
+            this.payload = new OrderPayload(command);
+        }
+
+        public TaskMessageEntityCommand getCommand() {
+            return command;
+        }
+    }
+
+    /**
+     * 没有getter的载荷对象
+     */
+    static class OrderPayload {
+
+        @SuppressWarnings("unused")
+        private final TaskMessageEntityCommand command;
+
+        OrderPayload(TaskMessageEntityCommand command) {
+            this.command = command;
+        }
+    }
+
+    /**
+     * 只提供参数和方法签名的连接点，解析时不访问其他信息
+     */
+    private static final class FixedJoinPoint implements ProceedingJoinPoint {
+
+        private final MethodSignature signature;
+
+        private final Object[] args;
+
+        private FixedJoinPoint(MethodSignature signature, Object[] args) {
+            this.signature = signature;
+            this.args = args;
+        }
+
+        @Override
+        public void set$AroundClosure(AroundClosure arc) {
+        }
+
+        @Override
+        public Object proceed() {
+            return null;
+        }
+
+        @Override
+        public Object proceed(Object[] args) {
+            return null;
+        }
+
+        @Override
+        public String toShortString() {
+            return signature.toShortString();
+        }
+
+        @Override
+        public String toLongString() {
+            return signature.toLongString();
+        }
+
+        @Override
+        public Object getThis() {
+            return null;
+        }
+
+        @Override
+        public Object getTarget() {
+            return null;
+        }
+
+        @Override
+        public Object[] getArgs() {
+            return args;
+        }
+
+        @Override
+        public Signature getSignature() {
+            return signature;
+        }
+
+        @Override
+        public SourceLocation getSourceLocation() {
+            return null;
+        }
+
+        @Override
+        public String getKind() {
+            return METHOD_EXECUTION;
+        }
+
+        @Override
+        public StaticPart getStaticPart() {
+            return null;
+        }
+    }
+
+    /**
+     * 基于反射方法的方法签名
+     */
+    private static final class FixedMethodSignature implements MethodSignature {
+
+        private final Method method;
+
+        private FixedMethodSignature(Method method) {
+            this.method = method;
+        }
+
+        @Override
+        public Class getReturnType() {
+            return method.getReturnType();
+        }
+
+        @Override
+        public Method getMethod() {
+            return method;
+        }
+
+        @Override
+        public Class[] getParameterTypes() {
+            return method.getParameterTypes();
+        }
+
+        @Override
+        public String[] getParameterNames() {
+            return null;
+        }
+
+        @Override
+        public Class[] getExceptionTypes() {
+            return method.getExceptionTypes();
+        }
+
+        @Override
+        public String toShortString() {
+            return method.getName();
+        }
+
+        @Override
+        public String toLongString() {
+            return method.toString();
+        }
+
+        @Override
+        public String getName() {
+            return method.getName();
+        }
+
+        @Override
+        public int getModifiers() {
+            return method.getModifiers();
+        }
+
+        @Override
+        public Class getDeclaringType() {
+            return method.getDeclaringClass();
+        }
+
+        @Override
+        public String getDeclaringTypeName() {
+            return method.getDeclaringClass().getName();
+        }
+    }
+}
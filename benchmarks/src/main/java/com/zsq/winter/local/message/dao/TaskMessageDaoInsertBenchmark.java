@@ -0,0 +1,82 @@
+package com.zsq.winter.local.message.dao;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zsq.winter.local.message.benchmark.EmbeddedDatabase;
+import com.zsq.winter.local.message.benchmark.TaskMessageFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 任务消息插入的基准测试
+ * <p>
+ * 直接测量DAO的单行插入（借出连接、绑定15个参数、执行、归还连接），不含PO转换；
+ * 与{@code SaveTaskMessageBenchmark}对比即可得到转换本身的开销。每轮迭代前清空表。
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class TaskMessageDaoInsertBenchmark {
+
+    @Param({"H2", "HSQLDB"})
+    public EmbeddedDatabase database;
+
+    /**
+     * 业务参数字节数
+     */
+    @Param({"256", "4096"})
+    public int payloadBytes;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private HikariDataSource dataSource;
+
+    private TaskMessageDaoImpl dao;
+
+    private String parameterJson;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataSource = database.start("insert");
+        dao = new TaskMessageDaoImpl(dataSource);
+        parameterJson = TaskMessageFixtures.parameterJson(payloadBytes);
+    }
+
+    @Setup(Level.Iteration)
+    public void truncate() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("TRUNCATE TABLE local_task_message");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dataSource.close();
+    }
+
+    @Benchmark
+    public int insert() throws SQLException {
+        return dao.insert(TaskMessageFixtures.po(0L, "BENCH-" + sequence.incrementAndGet(), parameterJson));
+    }
+}
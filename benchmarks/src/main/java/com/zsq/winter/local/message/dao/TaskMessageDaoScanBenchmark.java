@@ -0,0 +1,101 @@
+package com.zsq.winter.local.message.dao;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zsq.winter.local.message.benchmark.EmbeddedDatabase;
+import com.zsq.winter.local.message.benchmark.TaskMessageFixtures;
+import com.zsq.winter.local.message.entity.TaskMessagePO;
+import com.zsq.winter.local.message.enums.ScanQueryModeEnum;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 任务消息扫描的基准测试
+ * <p>
+ * 启动时写入固定行数的待处理消息，之后表内容不再变化。每次扫描取一半门牌号、每页{@link #LIMIT}条，
+ * 游标按页推进、扫到表尾后从头开始，覆盖IN列表和索引归并两种查询方式，以及两阶段扫描只查路由字段的第一阶段查询。
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx1g"})
+public class TaskMessageDaoScanBenchmark {
+
+    private static final int LIMIT = 100;
+
+    private static final List<Integer> HOUSE_NUMBERS = Arrays.asList(0, 1, 2, 3, 4);
+
+    @Param({"H2", "HSQLDB"})
+    public EmbeddedDatabase database;
+
+    /**
+     * 表中的消息行数
+     */
+    @Param({"20000"})
+    public int rows;
+
+    /**
+     * 扫描查询方式
+     */
+    @Param({"IN_LIST", "INDEX_MERGE"})
+    public ScanQueryModeEnum queryMode;
+
+    private HikariDataSource dataSource;
+
+    private TaskMessageDaoImpl dao;
+
+    private long cursor;
+
+    @Setup
+    public void setUp() throws SQLException {
+        dataSource = database.start("scan");
+        dao = new TaskMessageDaoImpl(dataSource);
+        String parameterJson = TaskMessageFixtures.parameterJson(1024);
+        for (int i = 1; i <= rows; i++) {
+            dao.insert(TaskMessageFixtures.po(i, "SEED-" + i, parameterJson));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        dataSource.close();
+    }
+
+    @Benchmark
+    public List<TaskMessagePO> scan() {
+        List<TaskMessagePO> page = dao.selectByHouseNumber(HOUSE_NUMBERS, cursor, LIMIT, queryMode);
+        advance(page);
+        return page;
+    }
+
+    @Benchmark
+    public List<TaskMessagePO> scanRoute() {
+        List<TaskMessagePO> page = dao.selectRouteByHouseNumber(HOUSE_NUMBERS, cursor, LIMIT, queryMode);
+        advance(page);
+        return page;
+    }
+
+    /**
+     * 游标推进到本页最后一条之后，不足一页说明已到表尾，从头开始
+     */
+    private void advance(List<TaskMessagePO> page) {
+        cursor = page.size() < LIMIT ? 0L : page.get(page.size() - 1).getId() + 1;
+    }
+}
@@ -0,0 +1,56 @@
+package com.zsq.winter.local.message.service;
+
+import com.zsq.winter.local.message.benchmark.TaskMessageFixtures;
+import com.zsq.winter.local.message.config.LocalTaskMessageAutoProperties;
+import com.zsq.winter.local.message.entity.TaskMessageEntityCommand;
+import com.zsq.winter.local.message.entity.TaskMessagePO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 扫描结果转换的基准测试
+ * <p>
+ * 测量{@link TaskMessageConverter#toCommand}，服务层每条扫描出的消息都会执行一次，
+ * 主要开销是通知配置JSON的反序列化；业务参数只赋值不解析，不同大小用于确认这一点。
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx1g"})
+public class ConvertToCommandBenchmark {
+
+    /**
+     * 业务参数字节数
+     */
+    @Param({"256", "4096"})
+    public int payloadBytes;
+
+    private TaskMessageConverter converter;
+
+    private TaskMessagePO po;
+
+    @Setup
+    public void setUp() {
+        converter = new TaskMessageConverter(new LocalTaskMessageAutoProperties.Compression(), null);
+        po = TaskMessageFixtures.po(1L, "TASK-1", TaskMessageFixtures.parameterJson(payloadBytes));
+    }
+
+    @Benchmark
+    public TaskMessageEntityCommand toCommand() {
+        return converter.toCommand(po);
+    }
+}
@@ -0,0 +1,76 @@
+package com.zsq.winter.local.message.service;
+
+import com.zsq.winter.local.message.benchmark.TaskMessageFixtures;
+import com.zsq.winter.local.message.entity.TaskMessageEntityCommand;
+import com.zsq.winter.local.message.id.SnowflakeTaskIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 门牌号计算的基准测试
+ * <p>
+ * 轮流使用预先生成的一批任务ID，避免JIT把结果当作常量；String的hashCode在首次计算后缓存，
+ * 与同一条消息在受理、状态更新时多次计算门牌号的情况一致。按命令计算时有一半消息带顺序键，覆盖按顺序键计算的分支。
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx1g"})
+public class HouseNumberBenchmark {
+
+    private static final int SIZE = 1024;
+
+    /**
+     * 任务ID格式：snowflake-雪花算法生成，uuid-调用方传入的UUID
+     */
+    @Param({"snowflake", "uuid"})
+    public String idFormat;
+
+    private final String[] taskIds = new String[SIZE];
+
+    private final TaskMessageEntityCommand[] commands = new TaskMessageEntityCommand[SIZE];
+
+    private int index;
+
+    @Setup
+    public void setUp() {
+        SnowflakeTaskIdGenerator generator = new SnowflakeTaskIdGenerator(1L);
+        for (int i = 0; i < SIZE; i++) {
+            taskIds[i] = "snowflake".equals(idFormat) ? generator.nextTaskId() : UUID.randomUUID().toString();
+            commands[i] = TaskMessageFixtures.command(taskIds[i], "{}");
+            if ((i & 1) == 0) {
+                commands[i].setOrderingKey("ORD" + (i * 7919));
+            }
+        }
+    }
+
+    @Benchmark
+    public int houseNumberOfTaskId() {
+        return LocalTaskMessageServiceImpl.houseNumberOf(taskIds[next()]);
+    }
+
+    @Benchmark
+    public int houseNumberOfCommand() {
+        return LocalTaskMessageServiceImpl.houseNumberOf(commands[next()]);
+    }
+
+    private int next() {
+        index = (index + 1) & (SIZE - 1);
+        return index;
+    }
+}
@@ -0,0 +1,101 @@
+package com.zsq.winter.local.message.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zsq.winter.local.message.benchmark.EmbeddedDatabase;
+import com.zsq.winter.local.message.benchmark.TaskMessageFixtures;
+import com.zsq.winter.local.message.config.LocalTaskMessageAutoProperties;
+import com.zsq.winter.local.message.dao.TaskMessageColumns;
+import com.zsq.winter.local.message.dao.TaskMessageDaoImpl;
+import com.zsq.winter.local.message.entity.TaskMessageEntityCommand;
+import com.zsq.winter.local.message.enums.PayloadCodecEnum;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 受理入库的基准测试
+ * <p>
+ * 测量{@link LocalTaskMessageServiceImpl#saveTaskMessage}：PO转换（通知配置序列化、按需压缩、门牌号计算）
+ * 加一次经连接池的单行插入。每轮迭代前清空表，避免内存库随插入行数增长影响结果。
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class SaveTaskMessageBenchmark {
+
+    @Param({"H2", "HSQLDB"})
+    public EmbeddedDatabase database;
+
+    /**
+     * 业务参数字节数
+     */
+    @Param({"256", "4096"})
+    public int payloadBytes;
+
+    /**
+     * 业务参数压缩编码，none表示不压缩
+     */
+    @Param({"none", "deflate"})
+    public String codec;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private HikariDataSource dataSource;
+
+    private LocalTaskMessageServiceImpl service;
+
+    private String parameterJson;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataSource = database.start("save");
+        LocalTaskMessageAutoProperties.Compression compression = new LocalTaskMessageAutoProperties.Compression();
+        compression.setEnabled(!"none".equals(codec));
+        compression.setCodec(PayloadCodecEnum.of(codec));
+        compression.setThresholdBytes(128);
+        TaskMessageColumns columns = new TaskMessageColumns();
+        columns.setCompression(compression.getEnabled());
+        service = new LocalTaskMessageServiceImpl(new TaskMessageDaoImpl(dataSource, null, columns), compression);
+        parameterJson = TaskMessageFixtures.parameterJson(payloadBytes);
+    }
+
+    @Setup(Level.Iteration)
+    public void truncate() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("TRUNCATE TABLE local_task_message");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dataSource.close();
+    }
+
+    @Benchmark
+    public TaskMessageEntityCommand saveTaskMessage() throws Exception {
+        TaskMessageEntityCommand command = TaskMessageFixtures.command("BENCH-" + sequence.incrementAndGet(), parameterJson);
+        service.saveTaskMessage(command);
+        return command;
+    }
+}
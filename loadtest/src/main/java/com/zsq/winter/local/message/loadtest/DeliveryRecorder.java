@@ -0,0 +1,162 @@
+package com.zsq.winter.local.message.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 受理与投递记录
+ * <p>
+ * 受理前记录时间，下游确认时按任务ID计数：首次确认记录端到端延迟和所在秒，重复确认计为重复投递。
+ * 注入的故障单独计数，对应扫描任务的重试。
+ * </p>
+ */
+public class DeliveryRecorder {
+
+    /**
+     * 任务ID到受理时间（纳秒），首次确认后移除
+     */
+    private final Map<String, Long> acceptNanos = new ConcurrentHashMap<>();
+
+    /**
+     * 任务ID到确认次数
+     */
+    private final Map<String, AtomicInteger> ackCounts = new ConcurrentHashMap<>();
+
+    private final AtomicLong accepted = new AtomicLong();
+
+    private final AtomicLong acceptFailures = new AtomicLong();
+
+    private final AtomicLong acknowledgements = new AtomicLong();
+
+    private final AtomicLong injectedFailures = new AtomicLong();
+
+    private final AtomicLong firstDeliveries = new AtomicLong();
+
+    /**
+     * 按秒统计的首次投递数，下标为距开始的秒数
+     */
+    private volatile AtomicLongArray deliveriesPerSecond = new AtomicLongArray(1);
+
+    private volatile long startNanos;
+
+    private long[] latencies = new long[1 << 16];
+
+    private int latencyCount;
+
+    /**
+     * 开始一次压测
+     *
+     * @param seconds 统计的总秒数（受理时间加等待时间）
+     */
+    public void start(int seconds) {
+        deliveriesPerSecond = new AtomicLongArray(Math.max(1, seconds + 1));
+        startNanos = System.nanoTime();
+    }
+
+    /**
+     * 受理前调用
+     *
+     * @param taskId 任务ID
+     */
+    public void beforeAccept(String taskId) {
+        acceptNanos.put(taskId, System.nanoTime());
+    }
+
+    /**
+     * 受理成功后调用
+     */
+    public void accepted() {
+        accepted.incrementAndGet();
+    }
+
+    /**
+     * 受理失败后调用
+     *
+     * @param taskId 任务ID
+     */
+    public void acceptFailed(String taskId) {
+        acceptNanos.remove(taskId);
+        acceptFailures.incrementAndGet();
+    }
+
+    /**
+     * 下游确认收到消息
+     *
+     * @param taskId 任务ID
+     */
+    public void acknowledged(String taskId) {
+        long now = System.nanoTime();
+        acknowledgements.incrementAndGet();
+        if (ackCounts.computeIfAbsent(taskId, k -> new AtomicInteger()).incrementAndGet() > 1) {
+            return;
+        }
+        firstDeliveries.incrementAndGet();
+        Long acceptedAt = acceptNanos.remove(taskId);
+        if (acceptedAt != null) {
+            recordLatency(now - acceptedAt);
+        }
+        AtomicLongArray perSecond = deliveriesPerSecond;
+        int second = (int) ((now - startNanos) / 1_000_000_000L);
+        perSecond.incrementAndGet(Math.min(Math.max(second, 0), perSecond.length() - 1));
+    }
+
+    /**
+     * 下游注入了一次故障
+     */
+    public void injectedFailure() {
+        injectedFailures.incrementAndGet();
+    }
+
+    private synchronized void recordLatency(long nanos) {
+        if (latencyCount == latencies.length) {
+            latencies = Arrays.copyOf(latencies, latencies.length * 2);
+        }
+        latencies[latencyCount++] = nanos;
+    }
+
+    /**
+     * 已排序的端到端延迟（纳秒）
+     *
+     * @return 延迟数组副本
+     */
+    public synchronized long[] sortedLatencies() {
+        long[] copy = Arrays.copyOf(latencies, latencyCount);
+        Arrays.sort(copy);
+        return copy;
+    }
+
+    public long getAccepted() {
+        return accepted.get();
+    }
+
+    public long getAcceptFailures() {
+        return acceptFailures.get();
+    }
+
+    public long getAcknowledgements() {
+        return acknowledgements.get();
+    }
+
+    public long getFirstDeliveries() {
+        return firstDeliveries.get();
+    }
+
+    public long getInjectedFailures() {
+        return injectedFailures.get();
+    }
+
+    /**
+     * 第second秒内的首次投递数
+     *
+     * @param second 距开始的秒数
+     * @return 投递数
+     */
+    public long deliveriesAt(int second) {
+        AtomicLongArray perSecond = deliveriesPerSecond;
+        return second >= 0 && second < perSecond.length() ? perSecond.get(second) : 0L;
+    }
+}
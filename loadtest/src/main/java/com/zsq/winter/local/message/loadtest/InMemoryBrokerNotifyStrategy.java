@@ -0,0 +1,54 @@
+package com.zsq.winter.local.message.loadtest;
+
+import com.zsq.winter.local.message.entity.TaskMessageEntityCommand;
+import com.zsq.winter.local.message.enums.TaskNotifyEnum;
+import com.zsq.winter.local.message.service.ILocalTaskMessageService;
+import com.zsq.winter.local.message.strategy.INotifyStrategy;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 代替消息中间件的内存通知策略
+ * <p>
+ * 注册为Kafka类型（压测工程不引入spring-kafka，内置Kafka策略不会注册），
+ * 按配置的延迟模拟发送耗时，按故障比例抛出异常，状态更新与内置MQ策略一致。
+ * </p>
+ */
+public class InMemoryBrokerNotifyStrategy implements INotifyStrategy {
+
+    private final LoadTestProperties.Endpoint config;
+
+    private final DeliveryRecorder recorder;
+
+    private final ILocalTaskMessageService repository;
+
+    public InMemoryBrokerNotifyStrategy(LoadTestProperties.Endpoint config, DeliveryRecorder recorder,
+                                        ILocalTaskMessageService repository) {
+        this.config = config;
+        this.recorder = recorder;
+        this.repository = repository;
+    }
+
+    @Override
+    public String notify(TaskMessageEntityCommand command) throws Exception {
+        StubHttpServer.sleep(config.getLatencyMs(), config.getJitterMs());
+        if (ThreadLocalRandom.current().nextDouble() < config.getErrorRate()) {
+            recorder.injectedFailure();
+            repository.updateTaskStatusToFailed(command.getTaskId());
+            throw new IllegalStateException("TASK_MESSAGE_LOADTEST_ERROR 注入的发送失败 " + command.getTaskId());
+        }
+        recorder.acknowledged(command.getTaskId());
+        repository.updateTaskStatusToSuccess(command);
+        return "success";
+    }
+
+    @Override
+    public void execute(Object... params) {
+
+    }
+
+    @Override
+    public TaskNotifyEnum getStrategyType() {
+        return TaskNotifyEnum.KAFKA;
+    }
+}
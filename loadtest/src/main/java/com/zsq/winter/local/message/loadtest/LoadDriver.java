@@ -0,0 +1,135 @@
+package com.zsq.winter.local.message.loadtest;
+
+import com.zsq.winter.local.message.LocalTaskMessageTemplate;
+import com.zsq.winter.local.message.entity.TaskMessageEntityCommand;
+import com.zsq.winter.local.message.enums.TaskNotifyEnum;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 压测驱动
+ * <p>
+ * 每10毫秒按目标速率补齐应受理的条数，由受理线程在独立事务中调用{@link LocalTaskMessageTemplate#acceptTaskMessage}，
+ * 受理线程跟不上时实际受理速率会低于目标。停止受理后等待全部消息投递或等待超时，再生成报告。
+ * </p>
+ */
+@Slf4j
+public class LoadDriver implements ApplicationRunner {
+
+    private static final long TICK_MS = 10L;
+
+    private final LoadTestProperties properties;
+
+    private final LocalTaskMessageTemplate template;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final DeliveryRecorder recorder;
+
+    private final StatementCounter statementCounter;
+
+    private final StubHttpServer stubHttpServer;
+
+    private final AtomicLong submitted = new AtomicLong();
+
+    private volatile LoadTestReport report;
+
+    public LoadDriver(LoadTestProperties properties, LocalTaskMessageTemplate template, TransactionTemplate transactionTemplate,
+                      DeliveryRecorder recorder, StatementCounter statementCounter, StubHttpServer stubHttpServer) {
+        this.properties = properties;
+        this.template = template;
+        this.transactionTemplate = transactionTemplate;
+        this.recorder = recorder;
+        this.statementCounter = statementCounter;
+        this.stubHttpServer = stubHttpServer;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws InterruptedException {
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+        String padding = padding(properties.getPayloadBytes());
+        TaskMessageEntityCommand.NotifyConfig httpConfig = TaskMessageEntityCommand.NotifyConfig.builder()
+                .http(TaskMessageEntityCommand.NotifyConfig.HTTP.builder().url(stubHttpServer.getUrl()).method("POST").build())
+                .build();
+        TaskMessageEntityCommand.NotifyConfig brokerConfig = TaskMessageEntityCommand.NotifyConfig.builder()
+                .kafka(TaskMessageEntityCommand.NotifyConfig.Kafka.builder().topic("loadtest").build())
+                .build();
+
+        log.info("开始压测: {} 条/秒，持续 {} 秒，HTTP比例 {}", properties.getAcceptRate(), properties.getDurationSeconds(), properties.getHttpRatio());
+        recorder.start(properties.getDurationSeconds() + properties.getDrainSeconds() + 5);
+        statementCounter.reset();
+
+        ExecutorService producers = Executors.newFixedThreadPool(Math.max(1, properties.getProducerThreads()));
+        ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor();
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(properties.getDurationSeconds());
+        ticker.scheduleAtFixedRate(() -> {
+            long now = System.nanoTime();
+            if (now >= end) {
+                return;
+            }
+            long due = (long) ((double) properties.getAcceptRate() * (now - start) / 1_000_000_000D);
+            while (submitted.get() < due) {
+                String taskId = runId + "-" + submitted.incrementAndGet();
+                boolean http = ThreadLocalRandom.current().nextDouble() < properties.getHttpRatio();
+                producers.execute(() -> accept(new TaskMessageEntityCommand(taskId, "压测消息",
+                        http ? TaskNotifyEnum.HTTP : TaskNotifyEnum.KAFKA, http ? httpConfig : brokerConfig,
+                        "{\"taskId\":\"" + taskId + "\",\"padding\":\"" + padding + "\"}")));
+            }
+        }, 0L, TICK_MS, TimeUnit.MILLISECONDS);
+
+        TimeUnit.NANOSECONDS.sleep(Math.max(0L, end - System.nanoTime()));
+        ticker.shutdownNow();
+        producers.shutdown();
+        producers.awaitTermination(properties.getDrainSeconds(), TimeUnit.SECONDS);
+        long acceptEnd = System.nanoTime();
+
+        long drainDeadline = acceptEnd + TimeUnit.SECONDS.toNanos(properties.getDrainSeconds());
+        while (recorder.getFirstDeliveries() < recorder.getAccepted() && System.nanoTime() < drainDeadline) {
+            TimeUnit.MILLISECONDS.sleep(50L);
+        }
+        double drainSeconds = recorder.getFirstDeliveries() >= recorder.getAccepted()
+                ? (System.nanoTime() - acceptEnd) / 1_000_000_000D : -1D;
+
+        report = new LoadTestReport(properties, (acceptEnd - start) / 1_000_000_000D, drainSeconds,
+                recorder, statementCounter.snapshot());
+        log.info(report.toText());
+    }
+
+    private void accept(TaskMessageEntityCommand command) {
+        recorder.beforeAccept(command.getTaskId());
+        try {
+            transactionTemplate.executeWithoutResult(status -> template.acceptTaskMessage(command));
+            recorder.accepted();
+        } catch (RuntimeException e) {
+            recorder.acceptFailed(command.getTaskId());
+            log.warn("受理失败 taskId: {} 错误: {}", command.getTaskId(), e.getMessage());
+        }
+    }
+
+    private static String padding(int payloadBytes) {
+        StringBuilder padding = new StringBuilder();
+        while (padding.length() < Math.max(0, payloadBytes - 64)) {
+            padding.append('x');
+        }
+        return padding.toString();
+    }
+
+    /**
+     * 压测报告
+     *
+     * @return 压测结束后的报告，未结束时为null
+     */
+    public LoadTestReport getReport() {
+        return report;
+    }
+}
@@ -0,0 +1,24 @@
+package com.zsq.winter.local.message.loadtest;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * 端到端压测入口
+ * <p>
+ * 启动starter、H2内存库、本地HTTP桩服务和内存消息通道，按固定速率受理消息直到投递完成，
+ * 输出报告后退出；有消息未投递时退出码为1，可直接用于CI。
+ * </p>
+ */
+@SpringBootApplication
+@EnableConfigurationProperties(LoadTestProperties.class)
+public class LoadTestApplication {
+
+    public static void main(String[] args) {
+        ConfigurableApplicationContext context = SpringApplication.run(LoadTestApplication.class, args);
+        LoadTestReport report = context.getBean(LoadDriver.class).getReport();
+        System.exit(SpringApplication.exit(context, () -> report != null && report.getLost() == 0 ? 0 : 1));
+    }
+}
@@ -0,0 +1,62 @@
+package com.zsq.winter.local.message.loadtest;
+
+import com.zsq.winter.local.message.LocalTaskMessageTemplate;
+import com.zsq.winter.local.message.service.ILocalTaskMessageService;
+import com.zsq.winter.local.message.strategy.INotifyStrategy;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+/**
+ * 压测组件配置
+ */
+@Configuration
+public class LoadTestConfig {
+
+    @Bean
+    public DeliveryRecorder deliveryRecorder() {
+        return new DeliveryRecorder();
+    }
+
+    @Bean
+    public static StatementCounter statementCounter() {
+        return new StatementCounter();
+    }
+
+    /**
+     * 包装容器中的数据源，starter的DAO和事务管理器都经过计数
+     *
+     * @param statementCounter 语句计数
+     * @return 数据源后置处理器
+     */
+    @Bean
+    public static BeanPostProcessor statementCountingPostProcessor(StatementCounter statementCounter) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource ? statementCounter.wrap((DataSource) bean) : bean;
+            }
+        };
+    }
+
+    @Bean
+    public StubHttpServer stubHttpServer(LoadTestProperties properties, DeliveryRecorder recorder) {
+        return new StubHttpServer(properties.getStub(), recorder);
+    }
+
+    @Bean
+    public INotifyStrategy inMemoryBrokerNotifyStrategy(LoadTestProperties properties, DeliveryRecorder recorder,
+                                                        ILocalTaskMessageService localTaskMessageService) {
+        return new InMemoryBrokerNotifyStrategy(properties.getBroker(), recorder, localTaskMessageService);
+    }
+
+    @Bean
+    public LoadDriver loadDriver(LoadTestProperties properties, LocalTaskMessageTemplate template,
+                                 TransactionTemplate transactionTemplate, DeliveryRecorder recorder,
+                                 StatementCounter statementCounter, StubHttpServer stubHttpServer) {
+        return new LoadDriver(properties, template, transactionTemplate, recorder, statementCounter, stubHttpServer);
+    }
+}
@@ -0,0 +1,89 @@
+package com.zsq.winter.local.message.loadtest;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 压测配置
+ */
+@Data
+@ConfigurationProperties(prefix = "load-test")
+public class LoadTestProperties {
+
+    /**
+     * 每秒受理条数
+     */
+    private int acceptRate = 500;
+
+    /**
+     * 受理持续时间（秒）
+     */
+    private int durationSeconds = 60;
+
+    /**
+     * 统计持续投递速率时跳过的前几秒
+     */
+    private int warmupSeconds = 10;
+
+    /**
+     * 停止受理后等待全部投递完成的最长时间（秒）
+     */
+    private int drainSeconds = 60;
+
+    /**
+     * 受理线程数，每条消息在独立事务中受理
+     */
+    private int producerThreads = 8;
+
+    /**
+     * 业务参数字节数
+     */
+    private int payloadBytes = 512;
+
+    /**
+     * 走HTTP桩服务的消息比例（0-1），其余走内存消息通道
+     */
+    private double httpRatio = 0.5;
+
+    /**
+     * HTTP桩服务配置
+     */
+    private Endpoint stub = new Endpoint();
+
+    /**
+     * 内存消息通道配置
+     */
+    private Endpoint broker = new Endpoint();
+
+    /**
+     * 下游端点的延迟和故障注入配置
+     */
+    @Data
+    public static class Endpoint {
+
+        /**
+         * 处理线程数（仅HTTP桩服务）
+         */
+        private int threads = 32;
+
+        /**
+         * 固定延迟（毫秒）
+         */
+        private long latencyMs = 5;
+
+        /**
+         * 随机附加延迟上限（毫秒）
+         */
+        private long jitterMs = 5;
+
+        /**
+         * 注入故障的比例（0-1）
+         */
+        private double errorRate = 0.0;
+
+        /**
+         * 注入故障时返回的HTTP状态码，0表示直接断开连接（仅HTTP桩服务）
+         */
+        private int errorStatus = 0;
+    }
+}
@@ -0,0 +1,98 @@
+package com.zsq.winter.local.message.loadtest;
+
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * 压测报告
+ */
+@Getter
+public class LoadTestReport {
+
+    private final int targetRate;
+
+    private final double acceptSeconds;
+
+    private final long accepted;
+
+    private final long acceptFailures;
+
+    private final long delivered;
+
+    private final long lost;
+
+    private final long duplicates;
+
+    private final long injectedFailures;
+
+    private final double sustainedDeliveryRate;
+
+    /**
+     * 停止受理到全部投递完成的秒数，等待超时时为-1
+     */
+    private final double drainSeconds;
+
+    private final long[] sortedLatencies;
+
+    private final Map<String, Long> statements;
+
+    LoadTestReport(LoadTestProperties properties, double acceptSeconds, double drainSeconds,
+                   DeliveryRecorder recorder, Map<String, Long> statements) {
+        this.targetRate = properties.getAcceptRate();
+        this.acceptSeconds = acceptSeconds;
+        this.accepted = recorder.getAccepted();
+        this.acceptFailures = recorder.getAcceptFailures();
+        this.delivered = recorder.getFirstDeliveries();
+        this.lost = Math.max(0L, accepted - delivered);
+        this.duplicates = recorder.getAcknowledgements() - recorder.getFirstDeliveries();
+        this.injectedFailures = recorder.getInjectedFailures();
+        this.drainSeconds = drainSeconds;
+        this.sortedLatencies = recorder.sortedLatencies();
+        this.statements = statements;
+        int from = Math.min(properties.getWarmupSeconds(), properties.getDurationSeconds() - 1);
+        long steady = 0L;
+        for (int second = from; second < properties.getDurationSeconds(); second++) {
+            steady += recorder.deliveriesAt(second);
+        }
+        this.sustainedDeliveryRate = (double) steady / Math.max(1, properties.getDurationSeconds() - from);
+    }
+
+    /**
+     * 延迟百分位
+     *
+     * @param percentile 百分位（0-100）
+     * @return 延迟毫秒，没有样本时为0
+     */
+    public double latencyMillis(double percentile) {
+        if (sortedLatencies.length == 0) {
+            return 0D;
+        }
+        int index = (int) Math.ceil(percentile / 100D * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.min(Math.max(index, 0), sortedLatencies.length - 1)] / 1_000_000D;
+    }
+
+    /**
+     * 格式化为多行文本
+     *
+     * @return 报告文本
+     */
+    public String toText() {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("%n========== 本地任务消息压测报告 ==========%n"));
+        text.append(String.format("受理      目标 %d 条/秒，实际 %.1f 条/秒，成功 %d，失败 %d%n",
+                targetRate, accepted / Math.max(acceptSeconds, 0.001D), accepted, acceptFailures));
+        text.append(String.format("投递      持续速率 %.1f 条/秒，已投递 %d，未投递 %d，重复 %d，注入故障 %d%n",
+                sustainedDeliveryRate, delivered, lost, duplicates, injectedFailures));
+        text.append(drainSeconds < 0
+                ? String.format("排空      等待超时，仍有 %d 条未投递%n", lost)
+                : String.format("排空      停止受理后 %.2f 秒全部投递%n", drainSeconds));
+        text.append(String.format("延迟(ms)  p50 %.1f  p90 %.1f  p99 %.1f  p999 %.1f  max %.1f%n",
+                latencyMillis(50), latencyMillis(90), latencyMillis(99), latencyMillis(99.9), latencyMillis(100)));
+        text.append("数据库    ");
+        statements.forEach((name, count) -> text.append(String.format("%s %d (%.2f/条)  ",
+                name, count, accepted == 0 ? 0D : (double) count / accepted)));
+        text.append(String.format("%n==========================================%n"));
+        return text.toString();
+    }
+}
@@ -0,0 +1,133 @@
+package com.zsq.winter.local.message.loadtest;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 数据库语句计数
+ * <p>
+ * 包装数据源，按SQL首个关键字（INSERT/SELECT/UPDATE/DELETE等）统计执行次数，
+ * 同时统计借出连接、提交和回滚次数，用于换算每条消息的数据库开销。
+ * </p>
+ */
+public class StatementCounter {
+
+    private static final String CONNECTIONS = "CONNECTION";
+
+    private static final String COMMITS = "COMMIT";
+
+    private static final String ROLLBACKS = "ROLLBACK";
+
+    private final Map<String, AtomicLong> counts = new ConcurrentHashMap<>();
+
+    /**
+     * 包装数据源
+     *
+     * @param dataSource 原数据源
+     * @return 计数数据源
+     */
+    public DataSource wrap(DataSource dataSource) {
+        return new DelegatingDataSource(dataSource) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return connection(super.getConnection());
+            }
+
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                return connection(super.getConnection(username, password));
+            }
+        };
+    }
+
+    /**
+     * 清零，压测开始时调用以排除建表和启动阶段的语句
+     */
+    public void reset() {
+        counts.clear();
+    }
+
+    /**
+     * 当前计数快照，按名称排序
+     *
+     * @return 名称到次数
+     */
+    public Map<String, Long> snapshot() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        counts.forEach((name, count) -> snapshot.put(name, count.get()));
+        return snapshot;
+    }
+
+    private void increment(String name) {
+        counts.computeIfAbsent(name, k -> new AtomicLong()).incrementAndGet();
+    }
+
+    private Connection connection(Connection target) {
+        increment(CONNECTIONS);
+        return proxy(Connection.class, target, (proxy, method, args) -> {
+            String name = method.getName();
+            Object result = invoke(method, target, args);
+            if ("commit".equals(name)) {
+                increment(COMMITS);
+            } else if ("rollback".equals(name) && (args == null || args.length == 0)) {
+                increment(ROLLBACKS);
+            } else if ("prepareStatement".equals(name) || "prepareCall".equals(name)) {
+                String sql = (String) args[0];
+                return proxy(PreparedStatement.class, (PreparedStatement) result, statementHandler((Statement) result, sql));
+            } else if ("createStatement".equals(name)) {
+                return proxy(Statement.class, (Statement) result, statementHandler((Statement) result, null));
+            }
+            return result;
+        });
+    }
+
+    private InvocationHandler statementHandler(Statement target, String preparedSql) {
+        return (proxy, method, args) -> {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : preparedSql;
+                increment(keyword(sql));
+            }
+            return invoke(method, target, args);
+        };
+    }
+
+    private static String keyword(String sql) {
+        if (sql == null) {
+            return "BATCH";
+        }
+        String trimmed = sql.trim();
+        int end = 0;
+        while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+            end++;
+        }
+        return end == 0 ? "OTHER" : trimmed.substring(0, end).toUpperCase(Locale.ROOT);
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(StatementCounter.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+}
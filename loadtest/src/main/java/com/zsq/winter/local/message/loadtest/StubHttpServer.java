@@ -0,0 +1,132 @@
+package com.zsq.winter.local.message.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 本地HTTP桩服务
+ * <p>
+ * 监听127.0.0.1的随机端口，按配置的延迟处理请求，按故障比例断开连接或返回错误状态码，
+ * 正常响应时从请求体中读取taskId并记为一次确认。
+ * </p>
+ * 内置HTTP策略不检查响应状态码，返回错误状态码的请求同样会被标记为投递成功，
+ * 因此默认以断开连接注入故障，使其进入重试；配置error-status可观察这类消息在报告中表现为丢失。
+ */
+@Slf4j
+public class StubHttpServer {
+
+    private static final String TASK_ID_FIELD = "\"taskId\":\"";
+
+    private final LoadTestProperties.Endpoint config;
+
+    private final DeliveryRecorder recorder;
+
+    private HttpServer server;
+
+    private ExecutorService executor;
+
+    public StubHttpServer(LoadTestProperties.Endpoint config, DeliveryRecorder recorder) {
+        this.config = config;
+        this.recorder = recorder;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        executor = Executors.newFixedThreadPool(Math.max(1, config.getThreads()));
+        server.setExecutor(executor);
+        server.createContext("/notify", this::handle);
+        server.start();
+        log.info("HTTP桩服务已启动: {}", getUrl());
+    }
+
+    @PreDestroy
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * 通知地址
+     *
+     * @return 桩服务的通知URL
+     */
+    public String getUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/notify";
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String body = readBody(exchange.getRequestBody());
+            sleep(config.getLatencyMs(), config.getJitterMs());
+            if (ThreadLocalRandom.current().nextDouble() < config.getErrorRate()) {
+                recorder.injectedFailure();
+                if (config.getErrorStatus() > 0) {
+                    exchange.sendResponseHeaders(config.getErrorStatus(), -1);
+                }
+                // 未发送响应头时关闭即断开连接，客户端收到异常
+                return;
+            }
+            String taskId = extractTaskId(body);
+            if (taskId != null) {
+                recorder.acknowledged(taskId);
+            }
+            byte[] response = "ok".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, response.length);
+            exchange.getResponseBody().write(response);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static String readBody(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int n;
+        while ((n = in.read(buffer)) > 0) {
+            out.write(buffer, 0, n);
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static String extractTaskId(String body) {
+        int start = body.indexOf(TASK_ID_FIELD);
+        if (start < 0) {
+            return null;
+        }
+        start += TASK_ID_FIELD.length();
+        int end = body.indexOf('"', start);
+        return end < 0 ? null : body.substring(start, end);
+    }
+
+    /**
+     * 按固定延迟加随机附加延迟休眠
+     *
+     * @param latencyMs 固定延迟
+     * @param jitterMs  随机附加延迟上限
+     */
+    static void sleep(long latencyMs, long jitterMs) {
+        long millis = latencyMs + (jitterMs > 0 ? ThreadLocalRandom.current().nextLong(jitterMs + 1) : 0L);
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+-- 与 README 中的 local_task_message 一致，H2 以 MySQL 兼容模式运行
+CREATE TABLE IF NOT EXISTS local_task_message (
+  id bigint NOT NULL AUTO_INCREMENT,
+  task_id varchar(64) NOT NULL,
+  task_name varchar(128) NOT NULL,
+  notify_type varchar(32) NOT NULL,
+  notify_config text NOT NULL,
+  status tinyint NOT NULL DEFAULT '0',
+  parameter_json text,
+  payload_codec varchar(16) NOT NULL DEFAULT 'none',
+  parameter_blob mediumblob,
+  ordering_key varchar(128) DEFAULT NULL,
+  deliver_at datetime DEFAULT NULL,
+  priority tinyint NOT NULL DEFAULT '1',
+  trace_parent varchar(55) DEFAULT NULL,
+  house_number int NOT NULL,
+  create_time datetime NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  update_time datetime NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  delivered_at datetime(3) DEFAULT NULL,
+  PRIMARY KEY (id),
+  UNIQUE KEY uk_task_id (task_id),
+  KEY idx_house_number_status (house_number, status),
+  KEY idx_scan_route (house_number, status, deliver_at, id, notify_type, task_id),
+  KEY idx_ordering_key (ordering_key, status, id),
+  KEY idx_deliver_at (deliver_at, status, house_number),
+  KEY idx_scan_priority (priority, house_number, status, deliver_at, id)
+);
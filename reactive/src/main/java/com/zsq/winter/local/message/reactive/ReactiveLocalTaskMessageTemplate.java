@@ -0,0 +1,134 @@
+package com.zsq.winter.local.message.reactive;
+
+import cn.hutool.json.JSONUtil;
+import com.zsq.winter.local.message.entity.TaskMessageEntityCommand;
+import com.zsq.winter.local.message.reactive.service.IReactiveLocalTaskMessageService;
+import com.zsq.winter.local.message.reactive.trigger.ReactiveTaskMessageDispatcher;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.reactive.TransactionSynchronization;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * 响应式本地任务消息处理模板
+ * <p>
+ * 对应{@link com.zsq.winter.local.message.LocalTaskMessageTemplate}，采用先入库再发送的模式：
+ * 在订阅方的响应式事务中保存消息，事务提交后再投递，事务回滚时消息一起回滚且不会被投递。
+ * </p>
+ *
+ * <p><b>即时投递：</b></p>
+ * <ul>
+ *   <li>存在响应式事务时注册提交后回调，提交后在独立的订阅中投递，不延长事务和调用方的响应时间</li>
+ *   <li>不存在事务时保存后立即投递</li>
+ *   <li>计划投递时间未到的延迟消息和顺序消息不即时投递，分别由延迟消息加载任务和扫描任务投递</li>
+ *   <li>即时投递失败或进程在投递前退出时，由扫描任务重新投递</li>
+ * </ul>
+ *
+ * @see com.zsq.winter.local.message.reactive.config.aop.ReactiveLocalTaskMessageAop
+ */
+@Slf4j
+public class ReactiveLocalTaskMessageTemplate {
+
+    private final IReactiveLocalTaskMessageService repository;
+
+    private final ReactiveTaskMessageDispatcher dispatcher;
+
+    /**
+     * 是否在事务提交后立即投递
+     */
+    private final boolean immediateDispatch;
+
+    /**
+     * 构造方法
+     *
+     * @param repository        响应式任务消息仓储服务
+     * @param dispatcher        响应式任务消息投递器
+     * @param immediateDispatch 是否在事务提交后立即投递，关闭时只由扫描任务投递
+     */
+    public ReactiveLocalTaskMessageTemplate(IReactiveLocalTaskMessageService repository, ReactiveTaskMessageDispatcher dispatcher,
+                                            boolean immediateDispatch) {
+        this.repository = repository;
+        this.dispatcher = dispatcher;
+        this.immediateDispatch = immediateDispatch;
+    }
+
+    /**
+     * 受理任务消息
+     * <p>
+     * 应在业务操作所在的响应式事务中订阅（如TransactionalOperator或@Transactional标注的返回Mono的方法），
+     * 保证业务数据与消息的原子性。
+     * </p>
+     *
+     * @param command 任务消息命令
+     * @return 受理成功时为true，保存失败时为错误信号
+     */
+    public Mono<Boolean> acceptTaskMessage(TaskMessageEntityCommand command) {
+        return Mono.defer(() -> {
+                    log.info("受理任务消息: {}", command);
+                    // 1. 保存任务消息
+                    return repository.saveTaskMessage(command)
+                            // 2. 事务提交后投递
+                            .then(dispatchAfterCommit(command))
+                            .thenReturn(true);
+                })
+                .onErrorMap(e -> {
+                    log.error("受理任务消息执行失败 {}", JSONUtil.toJsonStr(command), e);
+                    return new RuntimeException(e);
+                });
+    }
+
+    /**
+     * 存在响应式事务同步时注册到提交后投递，否则立即投递
+     *
+     * @param command 任务消息命令
+     * @return 注册完成的信号
+     */
+    private Mono<Void> dispatchAfterCommit(TaskMessageEntityCommand command) {
+        if (!immediateDispatch) {
+            return Mono.empty();
+        }
+        if (command.getDeliverAt() != null && command.getDeliverAt().isAfter(LocalDateTime.now())) {
+            // 延迟消息到期后再投递
+            log.info("延迟消息暂不投递 - taskId: {}, deliverAt: {}", command.getTaskId(), command.getDeliverAt());
+            return Mono.empty();
+        }
+        if (command.getOrderingKey() != null) {
+            // 顺序消息只由扫描任务按顺序键串行投递
+            log.info("顺序消息交由扫描任务投递 - taskId: {}, orderingKey: {}", command.getTaskId(), command.getOrderingKey());
+            return Mono.empty();
+        }
+        return TransactionSynchronizationManager.forCurrentTransaction()
+                .flatMap(synchronizationManager -> {
+                    if (synchronizationManager.isSynchronizationActive()) {
+                        synchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                            @Override
+                            public Mono<Void> afterCommit() {
+                                dispatchDetached(command);
+                                return Mono.empty();
+                            }
+                        });
+                    } else {
+                        dispatchDetached(command);
+                    }
+                    return Mono.<Void>empty();
+                })
+                .onErrorResume(NoTransactionException.class, e -> {
+                    dispatchDetached(command);
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * 在独立的订阅中投递，结果不回传给调用方
+     *
+     * @param command 任务消息命令
+     */
+    private void dispatchDetached(TaskMessageEntityCommand command) {
+        dispatcher.dispatch(command).subscribe(
+                result -> log.debug("任务消息即时投递完成 taskId: {}", command.getTaskId()),
+                e -> log.warn("任务消息即时投递失败，交由扫描任务投递 taskId: {} 错误: {}", command.getTaskId(), e.getMessage()));
+    }
+}
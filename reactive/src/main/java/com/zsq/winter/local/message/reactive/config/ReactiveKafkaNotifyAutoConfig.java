@@ -0,0 +1,38 @@
+package com.zsq.winter.local.message.reactive.config;
+
+import com.zsq.winter.local.message.reactive.service.IReactiveLocalTaskMessageService;
+import com.zsq.winter.local.message.reactive.strategy.IReactiveNotifyStrategy;
+import com.zsq.winter.local.message.reactive.strategy.impl.ReactiveKafkaNotifyStrategy;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 响应式Kafka通知策略自动配置类
+ * <p>
+ * 只有当Kafka相关类存在于classpath时才会加载此配置
+ * </p>
+ */
+@Configuration
+@ConditionalOnClass(KafkaTemplate.class)
+public class ReactiveKafkaNotifyAutoConfig {
+
+    /**
+     * 创建响应式Kafka通知策略
+     * <p>
+     * required=false避免用户未配置Kafka时报错。
+     * </p>
+     *
+     * @param kafkaTemplate Kafka模板
+     * @param reactiveLocalTaskMessageService 响应式任务消息仓储服务
+     * @return 响应式Kafka通知策略Bean
+     */
+    @Bean
+    public IReactiveNotifyStrategy reactiveKafkaNotifyStrategy(
+            @Autowired(required = false) KafkaTemplate<String, String> kafkaTemplate,
+            IReactiveLocalTaskMessageService reactiveLocalTaskMessageService) {
+        return new ReactiveKafkaNotifyStrategy(kafkaTemplate, reactiveLocalTaskMessageService);
+    }
+}
@@ -0,0 +1,216 @@
+package com.zsq.winter.local.message.reactive.config;
+
+import com.zsq.winter.local.message.config.LocalTaskMessageAutoProperties;
+import com.zsq.winter.local.message.dao.TaskMessageColumns;
+import com.zsq.winter.local.message.id.ITaskIdGenerator;
+import com.zsq.winter.local.message.id.SnowflakeTaskIdGenerator;
+import com.zsq.winter.local.message.reactive.ReactiveLocalTaskMessageTemplate;
+import com.zsq.winter.local.message.reactive.config.aop.ReactiveLocalTaskMessageAop;
+import com.zsq.winter.local.message.reactive.dao.IReactiveTaskMessageDao;
+import com.zsq.winter.local.message.reactive.dao.R2dbcTaskMessageDao;
+import com.zsq.winter.local.message.reactive.service.IReactiveLocalTaskMessageService;
+import com.zsq.winter.local.message.reactive.service.ReactiveLocalTaskMessageServiceImpl;
+import com.zsq.winter.local.message.reactive.strategy.IReactiveNotifyStrategy;
+import com.zsq.winter.local.message.reactive.strategy.ReactiveNotifyFactory;
+import com.zsq.winter.local.message.reactive.strategy.impl.WebClientNotifyStrategy;
+import com.zsq.winter.local.message.reactive.trigger.ReactiveTaskMessageDispatcher;
+import com.zsq.winter.local.message.reactive.trigger.ReactiveTaskMessageScanJob;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 响应式本地任务消息自动配置类
+ * <p>
+ * 类路径上存在R2DBC的DatabaseClient和WebClient时生效，与JDBC版本共用任务组、压缩和任务ID生成器配置。
+ * JDBC版本的自动配置在缺少spring-jdbc时不生效；应用同时引入了spring-jdbc（如Flyway）时，
+ * 需要通过spring.autoconfigure.exclude排除LocalTaskMessageAutoConfig。
+ * </p>
+ *
+ * @see ReactiveLocalTaskMessageProperties
+ * @see LocalTaskMessageAutoProperties
+ */
+@Configuration
+@ConditionalOnClass(name = {"org.springframework.r2dbc.core.DatabaseClient",
+        "org.springframework.web.reactive.function.client.WebClient"})
+@EnableConfigurationProperties(value = {LocalTaskMessageAutoProperties.class, ReactiveLocalTaskMessageProperties.class})
+@Import({ReactiveKafkaNotifyAutoConfig.class, ReactiveRocketMQNotifyAutoConfig.class, ReactiveRabbitMQNotifyAutoConfig.class})
+public class ReactiveLocalTaskMessageAutoConfig {
+
+    /**
+     * 创建响应式任务消息DAO
+     *
+     * @param databaseClient R2DBC数据库客户端
+     * @param properties     自动配置属性
+     * @return 响应式任务消息DAO Bean
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public IReactiveTaskMessageDao reactiveTaskMessageDao(DatabaseClient databaseClient, LocalTaskMessageAutoProperties properties) {
+        // 与JDBC版本一致，只读写已开启功能对应的可选列
+        TaskMessageColumns columns = new TaskMessageColumns();
+        columns.setCompression(Boolean.TRUE.equals(properties.getCompression().getEnabled()));
+        columns.setOrdering(Boolean.TRUE.equals(properties.getOrdering().getEnabled()));
+        columns.setDelay(Boolean.TRUE.equals(properties.getDelay().getEnabled()));
+        columns.setPriority(Boolean.TRUE.equals(properties.getPriority().getEnabled()));
+        columns.setDeliveredAt(Boolean.TRUE.equals(properties.getMetrics().getDeliveredAt()));
+        columns.setTraceParent(Boolean.TRUE.equals(properties.getTracing().getPersistTraceParent()));
+        return new R2dbcTaskMessageDao(databaseClient, columns);
+    }
+
+    /**
+     * 创建任务ID生成器
+     * <p>
+     * 调用方未设置taskId时生成按时间递增的ID，允许使用者自定义实现。
+     * </p>
+     *
+     * @param properties 自动配置属性
+     * @return 任务ID生成器Bean
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public ITaskIdGenerator taskIdGenerator(LocalTaskMessageAutoProperties properties) {
+        Long workerId = properties.getIdGenerator().getWorkerId();
+        if (workerId == null) {
+            workerId = SnowflakeTaskIdGenerator.defaultWorkerId(ManagementFactory.getRuntimeMXBean().getName());
+        }
+        return new SnowflakeTaskIdGenerator(workerId);
+    }
+
+    /**
+     * 创建响应式任务消息仓储服务
+     *
+     * @param reactiveTaskMessageDao 响应式任务消息DAO
+     * @param properties             自动配置属性
+     * @param taskIdGenerator        任务ID生成器
+     * @return 响应式任务消息仓储服务Bean
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public IReactiveLocalTaskMessageService reactiveLocalTaskMessageService(IReactiveTaskMessageDao reactiveTaskMessageDao,
+                                                                            LocalTaskMessageAutoProperties properties,
+                                                                            ITaskIdGenerator taskIdGenerator) {
+        return new ReactiveLocalTaskMessageServiceImpl(reactiveTaskMessageDao, properties.getCompression(), taskIdGenerator);
+    }
+
+    /**
+     * 创建响应式事务操作器
+     * <p>
+     * 应用已定义TransactionalOperator时使用应用的定义。
+     * </p>
+     *
+     * @param reactiveTransactionManager 响应式事务管理器，spring-boot-starter-data-r2dbc默认提供R2dbcTransactionManager
+     * @return 响应式事务操作器Bean
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public TransactionalOperator transactionalOperator(ReactiveTransactionManager reactiveTransactionManager) {
+        return TransactionalOperator.create(reactiveTransactionManager);
+    }
+
+    /**
+     * 创建基于WebClient的HTTP通知策略
+     * <p>
+     * 优先使用应用的WebClient.Builder，继承应用配置的编解码器和过滤器。
+     * </p>
+     *
+     * @param webClientBuilder                WebClient构建器
+     * @param reactiveLocalTaskMessageService 响应式任务消息仓储服务
+     * @return HTTP通知策略Bean
+     */
+    @Bean
+    public IReactiveNotifyStrategy webClientNotifyStrategy(ObjectProvider<WebClient.Builder> webClientBuilder,
+                                                           IReactiveLocalTaskMessageService reactiveLocalTaskMessageService) {
+        WebClient webClient = webClientBuilder.getIfAvailable(WebClient::builder).build();
+        return new WebClientNotifyStrategy(webClient, reactiveLocalTaskMessageService);
+    }
+
+    /**
+     * 创建响应式通知策略工厂
+     *
+     * @param notifyStrategyList 所有响应式通知策略列表
+     * @return 响应式通知策略工厂Bean
+     */
+    @Bean
+    public ReactiveNotifyFactory reactiveNotifyFactory(List<IReactiveNotifyStrategy> notifyStrategyList) {
+        return new ReactiveNotifyFactory(notifyStrategyList);
+    }
+
+    /**
+     * 创建响应式任务消息投递器
+     *
+     * @param reactiveNotifyFactory           响应式通知策略工厂
+     * @param reactiveLocalTaskMessageService 响应式任务消息仓储服务
+     * @param reactiveProperties              响应式配置属性
+     * @return 响应式任务消息投递器Bean
+     */
+    @Bean
+    public ReactiveTaskMessageDispatcher reactiveTaskMessageDispatcher(ReactiveNotifyFactory reactiveNotifyFactory,
+                                                                       IReactiveLocalTaskMessageService reactiveLocalTaskMessageService,
+                                                                       ReactiveLocalTaskMessageProperties reactiveProperties) {
+        return new ReactiveTaskMessageDispatcher(reactiveNotifyFactory, reactiveLocalTaskMessageService,
+                Duration.ofMillis(reactiveProperties.getNotifyTimeoutMs()));
+    }
+
+    /**
+     * 创建响应式本地任务消息处理模板
+     *
+     * @param reactiveLocalTaskMessageService 响应式任务消息仓储服务
+     * @param reactiveTaskMessageDispatcher   响应式任务消息投递器
+     * @param reactiveProperties              响应式配置属性
+     * @return 响应式本地任务消息处理模板Bean
+     */
+    @Bean
+    public ReactiveLocalTaskMessageTemplate reactiveLocalTaskMessageTemplate(IReactiveLocalTaskMessageService reactiveLocalTaskMessageService,
+                                                                             ReactiveTaskMessageDispatcher reactiveTaskMessageDispatcher,
+                                                                             ReactiveLocalTaskMessageProperties reactiveProperties) {
+        return new ReactiveLocalTaskMessageTemplate(reactiveLocalTaskMessageService, reactiveTaskMessageDispatcher,
+                Boolean.TRUE.equals(reactiveProperties.getImmediateDispatch()));
+    }
+
+    /**
+     * 创建响应式任务消息AOP切面
+     * <p>
+     * 拦截返回Mono或Flux且标注了@LocalTaskMessage注解的方法。
+     * </p>
+     *
+     * @param reactiveLocalTaskMessageTemplate 响应式本地任务消息处理模板
+     * @param transactionalOperator            响应式事务操作器
+     * @return 响应式任务消息AOP切面Bean
+     */
+    @Bean
+    public ReactiveLocalTaskMessageAop reactiveLocalTaskMessageAop(ReactiveLocalTaskMessageTemplate reactiveLocalTaskMessageTemplate,
+                                                                   TransactionalOperator transactionalOperator) {
+        return new ReactiveLocalTaskMessageAop(reactiveLocalTaskMessageTemplate, transactionalOperator);
+    }
+
+    /**
+     * 创建响应式任务消息扫描任务
+     *
+     * @param properties                      自动配置属性
+     * @param reactiveProperties              响应式配置属性
+     * @param reactiveLocalTaskMessageService 响应式任务消息仓储服务
+     * @param reactiveTaskMessageDispatcher   响应式任务消息投递器
+     * @return 响应式任务消息扫描任务Bean
+     */
+    @Bean
+    public ReactiveTaskMessageScanJob reactiveTaskMessageScanJob(LocalTaskMessageAutoProperties properties,
+                                                                 ReactiveLocalTaskMessageProperties reactiveProperties,
+                                                                 IReactiveLocalTaskMessageService reactiveLocalTaskMessageService,
+                                                                 ReactiveTaskMessageDispatcher reactiveTaskMessageDispatcher) {
+        return new ReactiveTaskMessageScanJob(properties, reactiveLocalTaskMessageService, reactiveTaskMessageDispatcher,
+                reactiveProperties.getConcurrency() == null ? 16 : reactiveProperties.getConcurrency());
+    }
+}
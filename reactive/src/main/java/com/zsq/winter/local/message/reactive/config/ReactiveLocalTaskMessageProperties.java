@@ -0,0 +1,44 @@
+package com.zsq.winter.local.message.reactive.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 响应式本地任务消息配置属性类
+ * <p>
+ * 任务组、门牌号、压缩和任务ID生成器沿用{@code winter-local-task-message}下的配置，
+ * 这里只包含响应式版本特有的配置。
+ * </p>
+ *
+ * <p><b>配置示例：</b></p>
+ * <pre>
+ * winter-local-task-message:
+ *   groups:
+ *     - group-id: group1
+ *       house-numbers: [0, 1, 2, 3, 4]
+ *       fixed-delay-ms: 5000
+ *       limit: 100
+ *   reactive:
+ *     concurrency: 16
+ *     notify-timeout-ms: 10000
+ * </pre>
+ */
+@Data
+@ConfigurationProperties(prefix = "winter-local-task-message.reactive", ignoreInvalidFields = true)
+public class ReactiveLocalTaskMessageProperties {
+
+    /**
+     * 扫描投递的最大并发数，即同时在途的投递请求数，默认16
+     */
+    private Integer concurrency = 16;
+
+    /**
+     * 单条消息投递超时（毫秒），超时按投递失败处理，默认10000
+     */
+    private Long notifyTimeoutMs = 10000L;
+
+    /**
+     * 是否在事务提交后立即投递，默认开启；关闭后只由扫描任务投递
+     */
+    private Boolean immediateDispatch = true;
+}
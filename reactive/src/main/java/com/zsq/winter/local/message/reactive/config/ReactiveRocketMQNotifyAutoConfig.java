@@ -0,0 +1,38 @@
+package com.zsq.winter.local.message.reactive.config;
+
+import com.zsq.winter.local.message.reactive.service.IReactiveLocalTaskMessageService;
+import com.zsq.winter.local.message.reactive.strategy.IReactiveNotifyStrategy;
+import com.zsq.winter.local.message.reactive.strategy.impl.ReactiveRocketMQNotifyStrategy;
+import org.apache.rocketmq.spring.core.RocketMQTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 响应式RocketMQ通知策略自动配置类
+ * <p>
+ * 只有当RocketMQ相关类存在于classpath时才会加载此配置
+ * </p>
+ */
+@Configuration
+@ConditionalOnClass(RocketMQTemplate.class)
+public class ReactiveRocketMQNotifyAutoConfig {
+
+    /**
+     * 创建响应式RocketMQ通知策略
+     * <p>
+     * required=false避免用户未配置RocketMQ时报错。
+     * </p>
+     *
+     * @param rocketMQTemplate RocketMQ模板
+     * @param reactiveLocalTaskMessageService 响应式任务消息仓储服务
+     * @return 响应式RocketMQ通知策略Bean
+     */
+    @Bean
+    public IReactiveNotifyStrategy reactiveRocketMQNotifyStrategy(
+            @Autowired(required = false) RocketMQTemplate rocketMQTemplate,
+            IReactiveLocalTaskMessageService reactiveLocalTaskMessageService) {
+        return new ReactiveRocketMQNotifyStrategy(rocketMQTemplate, reactiveLocalTaskMessageService);
+    }
+}
@@ -0,0 +1,130 @@
+package com.zsq.winter.local.message.reactive.config.aop;
+
+import com.zsq.winter.local.message.annotation.LocalTaskMessage;
+import com.zsq.winter.local.message.config.aop.TaskMessageCommandResolver;
+import com.zsq.winter.local.message.entity.TaskMessageEntityCommand;
+import com.zsq.winter.local.message.reactive.ReactiveLocalTaskMessageTemplate;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.reactivestreams.Publisher;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * 响应式本地任务消息AOP切面
+ * <p>
+ * 拦截标注了@LocalTaskMessage且返回Mono或Flux的方法，在业务流正常结束后保存任务消息，
+ * 业务流与消息保存由TransactionalOperator包装在同一个响应式事务中：
+ * 订阅方已开启事务时加入该事务，否则开启新事务。
+ * </p>
+ *
+ * <p><b>切面执行流程：</b></p>
+ * <ol>
+ *   <li>订阅时调用目标方法，得到业务流</li>
+ *   <li>Mono在发出结果或为空时、Flux在完成时，从方法参数中提取TaskMessageEntityCommand</li>
+ *   <li>调用ReactiveLocalTaskMessageTemplate在同一事务中保存任务消息</li>
+ *   <li>业务流或消息保存出错时事务回滚，错误原样传递给订阅方</li>
+ * </ol>
+ *
+ * 返回类型不是Mono或Flux的方法无法加入响应式事务，调用时直接抛出异常，避免消息被静默丢弃。
+ *
+ * @see LocalTaskMessage 本地任务消息注解
+ * @see ReactiveLocalTaskMessageTemplate 响应式本地任务消息处理模板
+ */
+@Slf4j
+@Aspect
+public class ReactiveLocalTaskMessageAop {
+
+    /** 响应式本地任务消息处理模板，用于保存消息和投递 */
+    private final ReactiveLocalTaskMessageTemplate handleService;
+
+    /** 响应式事务操作器，用于把业务流和消息保存包装在同一事务中 */
+    private final TransactionalOperator transactionalOperator;
+
+    /**
+     * 构造函数
+     *
+     * @param handleService         响应式本地任务消息处理模板
+     * @param transactionalOperator 响应式事务操作器
+     */
+    public ReactiveLocalTaskMessageAop(ReactiveLocalTaskMessageTemplate handleService,
+                                       TransactionalOperator transactionalOperator) {
+        this.handleService = handleService;
+        this.transactionalOperator = transactionalOperator;
+    }
+
+    /**
+     * 定义切点：拦截所有标注了@LocalTaskMessage注解的方法
+     */
+    @Pointcut("@annotation(com.zsq.winter.local.message.annotation.LocalTaskMessage)")
+    public void aopPoint() {
+    }
+
+    /**
+     * 环绕通知：按返回类型包装业务流
+     *
+     * @param joinPoint        连接点，包含目标方法的信息和参数
+     * @param localTaskMessage 本地任务消息注解实例，包含配置信息
+     * @return 包装后的Mono或Flux
+     */
+    @Around("aopPoint() && @annotation(localTaskMessage)")
+    public Object notify(ProceedingJoinPoint joinPoint, LocalTaskMessage localTaskMessage) {
+        String signature = joinPoint.getSignature().toShortString();
+        String entityAttributeName = localTaskMessage.entityAttributeName();
+        Class<?> returnType = ((MethodSignature) joinPoint.getSignature()).getReturnType();
+
+        if (Mono.class.isAssignableFrom(returnType)) {
+            Mono<Object> source = Mono.defer(() -> Mono.from(proceed(joinPoint)));
+            return transactionalOperator.transactional(source
+                    .flatMap(result -> accept(joinPoint, entityAttributeName, signature).thenReturn(result))
+                    .switchIfEmpty(accept(joinPoint, entityAttributeName, signature).then(Mono.empty())));
+        }
+        if (Flux.class.isAssignableFrom(returnType)) {
+            Flux<Object> source = Flux.defer(() -> proceed(joinPoint));
+            return transactionalOperator.transactional(source
+                    .concatWith(accept(joinPoint, entityAttributeName, signature).then(Mono.empty())));
+        }
+        throw new IllegalStateException("TASK_MESSAGE_AOP_ERROR 响应式版本只支持返回Mono或Flux的方法 " + signature);
+    }
+
+    /**
+     * 调用目标方法，同步抛出的异常转换为错误信号
+     *
+     * @param joinPoint 连接点
+     * @return 目标方法返回的业务流，返回null时为空
+     */
+    @SuppressWarnings("unchecked")
+    private static Publisher<Object> proceed(ProceedingJoinPoint joinPoint) {
+        try {
+            Object result = joinPoint.proceed();
+            return result == null ? Mono.empty() : (Publisher<Object>) result;
+        } catch (Throwable e) {
+            return Mono.error(e);
+        }
+    }
+
+    /**
+     * 提取命令并受理任务消息
+     *
+     * @param joinPoint           连接点
+     * @param entityAttributeName 实体属性名称路径
+     * @param signature           方法签名，用于日志
+     * @return 受理结果，未能提取命令时为false
+     */
+    private Mono<Boolean> accept(ProceedingJoinPoint joinPoint, String entityAttributeName, String signature) {
+        return Mono.defer(() -> {
+            TaskMessageEntityCommand command = TaskMessageCommandResolver.resolve(joinPoint, entityAttributeName);
+            if (command == null) {
+                log.warn("ReactiveLocalTaskMessageAop 未能提取命令对象: 方法={} 路径={}", signature, entityAttributeName);
+                return Mono.just(false);
+            }
+            log.info("ReactiveLocalTaskMessageAop 提取到命令对象: 方法={} 路径={} 命令={}", signature, entityAttributeName, command);
+            return handleService.acceptTaskMessage(command);
+        }).doOnError(e -> log.error("ReactiveLocalTaskMessageAop 处理失败: 方法={} 路径={} 错误={}", signature, entityAttributeName, e.getMessage(), e));
+    }
+}
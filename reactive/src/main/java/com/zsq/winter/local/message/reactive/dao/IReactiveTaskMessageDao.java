@@ -0,0 +1,83 @@
+package com.zsq.winter.local.message.reactive.dao;
+
+import com.zsq.winter.local.message.entity.TaskMessagePO;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 响应式任务消息DAO接口
+ * <p>
+ * 与{@link com.zsq.winter.local.message.dao.ITaskMessageDao}使用同一张local_task_message表，
+ * 只包含受理、投递和增量扫描需要的操作，所有方法都不阻塞调用线程。
+ * </p>
+ *
+ * @see R2dbcTaskMessageDao
+ */
+public interface IReactiveTaskMessageDao {
+
+    /**
+     * 插入任务消息
+     * <p>
+     * 在订阅方所在的响应式事务中执行，事务回滚时消息一起回滚。
+     * </p>
+     *
+     * @param taskMessagePO 任务消息PO对象
+     * @return 影响行数，成功返回1
+     */
+    Mono<Integer> insert(TaskMessagePO taskMessagePO);
+
+    /**
+     * 根据任务ID修改状态
+     * <p>
+     * 更新为已完成时同时记录投递完成时间，且只更新尚未完成的记录。
+     * </p>
+     *
+     * @param taskId 任务ID
+     * @param status 状态（0-待处理，1-处理中，2-已完成，3-失败）
+     * @return 影响行数，更新为已完成时为0表示记录不存在或已经完成
+     */
+    Mono<Integer> updateStatusByTaskId(String taskId, Integer status);
+
+    /**
+     * 根据门牌号列表查询待处理的即时消息
+     *
+     * @param houseNumbers 门牌号列表
+     * @param id           起始ID（包含）
+     * @param limit        最大条数
+     * @return 按ID升序的任务消息，状态为0或3
+     */
+    Flux<TaskMessagePO> selectByHouseNumber(List<Integer> houseNumbers, Long id, Integer limit);
+
+    /**
+     * 根据门牌号列表查询待处理即时消息的最小ID
+     *
+     * @param houseNumbers 门牌号列表
+     * @return 最小ID，没有待处理消息时为空
+     */
+    Mono<Long> selectMinIdByHouseNumber(List<Integer> houseNumbers);
+
+    /**
+     * 根据门牌号列表查询已到期的延迟消息
+     * <p>
+     * 与{@link com.zsq.winter.local.message.dao.ITaskMessageDao#selectDueDelayed}的条件一致，
+     * 包括已经过期仍未投递成功的消息。未启用延迟消息时返回空。
+     * </p>
+     *
+     * @param houseNumbers  门牌号列表
+     * @param deliverBefore 计划投递时间上限
+     * @param limit         最大条数
+     * @return 按计划投递时间升序的任务消息，状态为0或3
+     */
+    Flux<TaskMessagePO> selectDueDelayed(List<Integer> houseNumbers, LocalDateTime deliverBefore, Integer limit);
+
+    /**
+     * 根据任务ID查询任务消息
+     *
+     * @param taskId 任务ID
+     * @return 任务消息，不存在时为空
+     */
+    Mono<TaskMessagePO> selectByTaskId(String taskId);
+}
@@ -0,0 +1,266 @@
+package com.zsq.winter.local.message.reactive.dao;
+
+import com.zsq.winter.local.message.dao.TaskMessageColumns;
+import com.zsq.winter.local.message.entity.TaskMessagePO;
+import com.zsq.winter.local.message.enums.TaskPriorityEnum;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 基于R2DBC的任务消息DAO实现
+ * <p>
+ * 使用{@link DatabaseClient}访问数据库，SQL使用命名参数，由DatabaseClient按驱动转换为对应的绑定标记
+ * （MySQL为?，PostgreSQL为$1），门牌号列表参数自动展开为IN列表。
+ * DatabaseClient会加入订阅上下文中由TransactionalOperator开启的事务，不需要显式传递连接。
+ * </p>
+ */
+@Slf4j
+public class R2dbcTaskMessageDao implements IReactiveTaskMessageDao {
+
+    private static final String UPDATE_STATUS_SQL = "UPDATE local_task_message SET status = :status, update_time = NOW() WHERE task_id = :taskId";
+
+    private final DatabaseClient databaseClient;
+
+    /**
+     * 表中存在的可选列
+     */
+    private final TaskMessageColumns columns;
+
+    private final String insertSql;
+
+    /**
+     * 更新为已完成的语句，已完成的记录不再更新；开启时同时记录投递完成时间
+     */
+    private final String updateSuccessSql;
+
+    private final String scanSql;
+
+    private final String minIdSql;
+
+    private final String dueDelayedSql;
+
+    private final String byTaskIdSql;
+
+    public R2dbcTaskMessageDao(DatabaseClient databaseClient) {
+        this(databaseClient, new TaskMessageColumns());
+    }
+
+    /**
+     * 构造方法
+     *
+     * @param databaseClient R2DBC数据库客户端
+     * @param columns        表中存在的可选列，只读写其中开启的列
+     */
+    public R2dbcTaskMessageDao(DatabaseClient databaseClient, TaskMessageColumns columns) {
+        this.databaseClient = databaseClient;
+        this.columns = columns;
+
+        StringBuilder insertColumns = new StringBuilder("task_id, task_name, notify_type, notify_config, status, parameter_json");
+        StringBuilder insertValues = new StringBuilder(":taskId, :taskName, :notifyType, :notifyConfig, :status, :parameterJson");
+        if (columns.isCompression()) {
+            insertColumns.append(", payload_codec, parameter_blob");
+            insertValues.append(", :payloadCodec, :parameterBlob");
+        }
+        if (columns.isOrdering()) {
+            insertColumns.append(", ordering_key");
+            insertValues.append(", :orderingKey");
+        }
+        if (columns.isDelay()) {
+            insertColumns.append(", deliver_at");
+            insertValues.append(", :deliverAt");
+        }
+        if (columns.isPriority()) {
+            insertColumns.append(", priority");
+            insertValues.append(", :priority");
+        }
+        if (columns.isTraceParent()) {
+            insertColumns.append(", trace_parent");
+            insertValues.append(", :traceParent");
+        }
+        insertColumns.append(", house_number, create_time, update_time");
+        insertValues.append(", :houseNumber, :createTime, :updateTime");
+
+        // 设置了deliver_at的延迟消息不参与扫描
+        String immediateCondition = columns.isDelay() ? " AND deliver_at IS NULL" : "";
+        String fullColumns = "id, " + insertColumns;
+        this.insertSql = "INSERT INTO local_task_message (" + insertColumns + ") VALUES (" + insertValues + ")";
+        this.updateSuccessSql = "UPDATE local_task_message SET status = :status, update_time = NOW()"
+                + (columns.isDeliveredAt() ? ", delivered_at = CURRENT_TIMESTAMP(3)" : "") + " WHERE task_id = :taskId AND status <> 2";
+        this.scanSql = "SELECT " + fullColumns + " FROM local_task_message WHERE id >= :id AND house_number IN (:houseNumbers) " +
+                "AND status IN (0, 3)" + immediateCondition + " ORDER BY id ASC LIMIT :limit";
+        this.minIdSql = "SELECT MIN(id) AS min_id FROM local_task_message WHERE house_number IN (:houseNumbers) " +
+                "AND status IN (0, 3)" + immediateCondition;
+        this.dueDelayedSql = "SELECT " + fullColumns + " FROM local_task_message WHERE status IN (0, 3) AND deliver_at <= :deliverBefore " +
+                "AND house_number IN (:houseNumbers) ORDER BY deliver_at ASC LIMIT :limit";
+        this.byTaskIdSql = "SELECT " + fullColumns + " FROM local_task_message WHERE task_id = :taskId";
+    }
+
+    @Override
+    public Mono<Integer> insert(TaskMessagePO taskMessagePO) {
+        if (!columns.isDelay() && taskMessagePO.getDeliverAt() != null) {
+            // 不保存计划投递时间会使消息被立即投递，直接拒绝
+            return Mono.error(new IllegalStateException("TASK_MESSAGE_DELAY_DISABLED_ERROR 未启用延迟消息（delay.enabled），不能设置计划投递时间 taskId: "
+                    + taskMessagePO.getTaskId()));
+        }
+        if (!columns.isOrdering() && taskMessagePO.getOrderingKey() != null) {
+            // 不保存顺序键会使消息被乱序投递，直接拒绝
+            return Mono.error(new IllegalStateException("TASK_MESSAGE_ORDERING_DISABLED_ERROR 未启用顺序消息（ordering.enabled），不能设置顺序键 taskId: "
+                    + taskMessagePO.getTaskId()));
+        }
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(insertSql);
+        spec = bind(spec, "taskId", taskMessagePO.getTaskId(), String.class);
+        spec = bind(spec, "taskName", taskMessagePO.getTaskName(), String.class);
+        spec = bind(spec, "notifyType", taskMessagePO.getNotifyType(), String.class);
+        spec = bind(spec, "notifyConfig", taskMessagePO.getNotifyConfig(), String.class);
+        spec = bind(spec, "status", taskMessagePO.getStatus(), Integer.class);
+        spec = bind(spec, "parameterJson", taskMessagePO.getParameterJson(), String.class);
+        if (columns.isCompression()) {
+            spec = bind(spec, "payloadCodec", taskMessagePO.getPayloadCodec(), String.class);
+            spec = bind(spec, "parameterBlob", taskMessagePO.getParameterBlob(), byte[].class);
+        }
+        if (columns.isOrdering()) {
+            spec = bind(spec, "orderingKey", taskMessagePO.getOrderingKey(), String.class);
+        }
+        if (columns.isDelay()) {
+            spec = bind(spec, "deliverAt", taskMessagePO.getDeliverAt(), LocalDateTime.class);
+        }
+        if (columns.isPriority()) {
+            spec = bind(spec, "priority", taskMessagePO.getPriority() == null ? TaskPriorityEnum.NORMAL.getCode() : taskMessagePO.getPriority(), Integer.class);
+        }
+        if (columns.isTraceParent()) {
+            spec = bind(spec, "traceParent", taskMessagePO.getTraceParent(), String.class);
+        }
+        spec = bind(spec, "houseNumber", taskMessagePO.getHouseNumber(), Integer.class);
+        spec = bind(spec, "createTime", taskMessagePO.getCreateTime(), LocalDateTime.class);
+        spec = bind(spec, "updateTime", taskMessagePO.getUpdateTime(), LocalDateTime.class);
+        return spec.fetch()
+                .rowsUpdated()
+                .doOnError(e -> log.error("插入任务消息失败，taskId: {}", taskMessagePO.getTaskId(), e));
+    }
+
+    @Override
+    public Mono<Integer> updateStatusByTaskId(String taskId, Integer status) {
+        String sql = status != null && status == 2 ? updateSuccessSql : UPDATE_STATUS_SQL;
+        return databaseClient.sql(sql)
+                .bind("status", status)
+                .bind("taskId", taskId)
+                .fetch()
+                .rowsUpdated()
+                .onErrorMap(e -> {
+                    log.error("更新任务消息状态失败，taskId: {}, status: {}", taskId, status, e);
+                    return new RuntimeException("TASK_MESSAGE_UPDATE_STATUS_ERROR 更新任务消息状态失败 " + e.getMessage());
+                });
+    }
+
+    @Override
+    public Flux<TaskMessagePO> selectByHouseNumber(List<Integer> houseNumbers, Long id, Integer limit) {
+        if (houseNumbers == null || houseNumbers.isEmpty()) {
+            return Flux.empty();
+        }
+        return databaseClient.sql(scanSql)
+                .bind("id", id)
+                .bind("houseNumbers", houseNumbers)
+                .bind("limit", limit)
+                .map(this::mapRow)
+                .all()
+                .onErrorMap(e -> {
+                    log.error("根据门牌号列表查询任务消息失败，houseNumbers: {}, id: {}, limit: {}", houseNumbers, id, limit, e);
+                    return new RuntimeException("TASK_MESSAGE_SELECT_BY_HOUSE_NUMBER_ERROR 根据门牌号列表查询任务消息失败 " + e.getMessage());
+                });
+    }
+
+    @Override
+    public Mono<Long> selectMinIdByHouseNumber(List<Integer> houseNumbers) {
+        if (houseNumbers == null || houseNumbers.isEmpty()) {
+            return Mono.empty();
+        }
+        return databaseClient.sql(minIdSql)
+                .bind("houseNumbers", houseNumbers)
+                // 没有待处理消息时MIN(id)为NULL，Mono中不能携带null
+                .map((row, metadata) -> Optional.ofNullable(row.get("min_id", Long.class)))
+                .first()
+                .flatMap(Mono::justOrEmpty)
+                .onErrorMap(e -> {
+                    log.error("根据门牌号列表查询最小ID失败，houseNumbers: {}", houseNumbers, e);
+                    return new RuntimeException("TASK_MESSAGE_SELECT_MIN_ID_ERROR 根据门牌号列表查询最小ID失败 " + e.getMessage());
+                });
+    }
+
+    @Override
+    public Flux<TaskMessagePO> selectDueDelayed(List<Integer> houseNumbers, LocalDateTime deliverBefore, Integer limit) {
+        if (!columns.isDelay() || houseNumbers == null || houseNumbers.isEmpty()) {
+            return Flux.empty();
+        }
+        return databaseClient.sql(dueDelayedSql)
+                .bind("deliverBefore", deliverBefore)
+                .bind("houseNumbers", houseNumbers)
+                .bind("limit", limit)
+                .map(this::mapRow)
+                .all()
+                .onErrorMap(e -> {
+                    log.error("查询到期延迟消息失败，houseNumbers: {}, deliverBefore: {}, limit: {}", houseNumbers, deliverBefore, limit, e);
+                    return new RuntimeException("TASK_MESSAGE_SELECT_DUE_DELAYED_ERROR 查询到期延迟消息失败 " + e.getMessage());
+                });
+    }
+
+    @Override
+    public Mono<TaskMessagePO> selectByTaskId(String taskId) {
+        return databaseClient.sql(byTaskIdSql)
+                .bind("taskId", taskId)
+                .map(this::mapRow)
+                .first()
+                .onErrorMap(e -> {
+                    log.error("根据任务ID查询任务消息失败，taskId: {}", taskId, e);
+                    return new RuntimeException("TASK_MESSAGE_SELECT_BY_TASK_ID_ERROR 根据任务ID查询任务消息失败 " + e.getMessage());
+                });
+    }
+
+    /**
+     * 绑定可能为null的参数，DatabaseClient不接受null值，需要按类型绑定NULL
+     */
+    private static DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec, String name, Object value, Class<?> type) {
+        return value == null ? spec.bindNull(name, type) : spec.bind(name, value);
+    }
+
+    /**
+     * 将结果行映射为完整的任务消息PO
+     */
+    private TaskMessagePO mapRow(Row row, RowMetadata metadata) {
+        TaskMessagePO taskMessagePO = new TaskMessagePO();
+        taskMessagePO.setId(row.get("id", Long.class));
+        taskMessagePO.setTaskId(row.get("task_id", String.class));
+        taskMessagePO.setTaskName(row.get("task_name", String.class));
+        taskMessagePO.setNotifyType(row.get("notify_type", String.class));
+        taskMessagePO.setNotifyConfig(row.get("notify_config", String.class));
+        taskMessagePO.setStatus(row.get("status", Integer.class));
+        taskMessagePO.setParameterJson(row.get("parameter_json", String.class));
+        if (columns.isCompression()) {
+            taskMessagePO.setPayloadCodec(row.get("payload_codec", String.class));
+            taskMessagePO.setParameterBlob(row.get("parameter_blob", byte[].class));
+        }
+        if (columns.isOrdering()) {
+            taskMessagePO.setOrderingKey(row.get("ordering_key", String.class));
+        }
+        if (columns.isDelay()) {
+            taskMessagePO.setDeliverAt(row.get("deliver_at", LocalDateTime.class));
+        }
+        if (columns.isPriority()) {
+            taskMessagePO.setPriority(row.get("priority", Integer.class));
+        }
+        if (columns.isTraceParent()) {
+            taskMessagePO.setTraceParent(row.get("trace_parent", String.class));
+        }
+        taskMessagePO.setHouseNumber(row.get("house_number", Integer.class));
+        taskMessagePO.setCreateTime(row.get("create_time", LocalDateTime.class));
+        taskMessagePO.setUpdateTime(row.get("update_time", LocalDateTime.class));
+        return taskMessagePO;
+    }
+}
@@ -0,0 +1,83 @@
+package com.zsq.winter.local.message.reactive.service;
+
+import com.zsq.winter.local.message.entity.TaskMessageEntityCommand;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 响应式任务消息仓储服务接口
+ * <p>
+ * 对应{@link com.zsq.winter.local.message.service.ILocalTaskMessageService}，
+ * 负责命令与PO的转换以及状态更新，返回值均为Mono/Flux，不阻塞调用线程。
+ * </p>
+ *
+ * @see ReactiveLocalTaskMessageServiceImpl
+ */
+public interface IReactiveLocalTaskMessageService {
+
+    /**
+     * 保存任务消息
+     * <p>
+     * 命令未设置taskId时生成并回填，按压缩配置处理业务参数后插入。
+     * </p>
+     *
+     * @param command 任务消息命令
+     * @return 插入完成信号，插入失败时为错误信号
+     */
+    Mono<Void> saveTaskMessage(TaskMessageEntityCommand command);
+
+    /**
+     * 更新任务状态为成功
+     *
+     * @param command 任务消息命令
+     * @return 更新完成信号
+     */
+    Mono<Void> updateTaskStatusToSuccess(TaskMessageEntityCommand command);
+
+    /**
+     * 更新任务状态为失败
+     *
+     * @param taskId 任务ID
+     * @return 更新完成信号
+     */
+    Mono<Void> updateTaskStatusToFailed(String taskId);
+
+    /**
+     * 根据门牌号列表查询待处理的即时消息
+     *
+     * @param houseNumbers 门牌号列表
+     * @param id           起始ID（包含）
+     * @param limit        最大条数
+     * @return 按ID升序的任务消息命令
+     */
+    Flux<TaskMessageEntityCommand> selectByHouseNumber(List<Integer> houseNumbers, Long id, Integer limit);
+
+    /**
+     * 根据门牌号列表查询待处理即时消息的最小ID
+     *
+     * @param houseNumbers 门牌号列表
+     * @return 最小ID，没有待处理消息时为空
+     */
+    Mono<Long> selectMinIdByHouseNumber(List<Integer> houseNumbers);
+
+    /**
+     * 根据门牌号列表查询已到期的延迟消息
+     *
+     * @param houseNumbers  门牌号列表
+     * @param deliverBefore 计划投递时间上限
+     * @param limit         最大条数
+     * @return 按计划投递时间升序的任务消息命令
+     */
+    Flux<TaskMessageEntityCommand> selectDueDelayed(List<Integer> houseNumbers, LocalDateTime deliverBefore, Integer limit);
+
+    /**
+     * 根据任务ID查询任务消息
+     *
+     * @param taskId 任务ID
+     * @return 任务消息命令，不存在时为空
+     */
+    Mono<TaskMessageEntityCommand> selectByTaskId(String taskId);
+}
@@ -0,0 +1,106 @@
+package com.zsq.winter.local.message.reactive.service;
+
+import cn.hutool.json.JSONUtil;
+import com.zsq.winter.local.message.config.LocalTaskMessageAutoProperties;
+import com.zsq.winter.local.message.entity.TaskMessageEntityCommand;
+import com.zsq.winter.local.message.entity.TaskMessagePO;
+import com.zsq.winter.local.message.id.ITaskIdGenerator;
+import com.zsq.winter.local.message.reactive.dao.IReactiveTaskMessageDao;
+import com.zsq.winter.local.message.service.TaskMessageConverter;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 响应式任务消息仓储服务实现类
+ * <p>
+ * 命令与PO的转换复用{@link TaskMessageConverter}，与JDBC版本写入的数据格式完全一致，
+ * 两个版本可以读写同一张表。
+ * </p>
+ */
+@Slf4j
+public class ReactiveLocalTaskMessageServiceImpl implements IReactiveLocalTaskMessageService {
+
+    private final IReactiveTaskMessageDao taskMessageDao;
+
+    /**
+     * 任务消息命令与PO的转换器，负责生成任务ID、计算门牌号和压缩业务参数
+     */
+    private final TaskMessageConverter converter;
+
+    /**
+     * 构造方法
+     *
+     * @param taskMessageDao  响应式任务消息DAO
+     * @param compression     压缩配置
+     * @param taskIdGenerator 任务ID生成器，可为null
+     */
+    public ReactiveLocalTaskMessageServiceImpl(IReactiveTaskMessageDao taskMessageDao, LocalTaskMessageAutoProperties.Compression compression,
+                                               ITaskIdGenerator taskIdGenerator) {
+        this.taskMessageDao = taskMessageDao;
+        this.converter = new TaskMessageConverter(compression, taskIdGenerator);
+    }
+
+    @Override
+    public Mono<Void> saveTaskMessage(TaskMessageEntityCommand command) {
+        // 转换包含压缩等CPU计算，放在订阅时执行
+        return Mono.fromCallable(() -> converter.toPO(command))
+                .flatMap(taskMessageDao::insert)
+                .flatMap(result -> 1 == result
+                        ? Mono.<Void>empty()
+                        : Mono.error(new RuntimeException("result is not 1 taskId:" + command.getTaskId())))
+                .doOnError(e -> log.error("保存任务消息失败，taskId: {} {}", command.getTaskId(), JSONUtil.toJsonStr(command), e));
+    }
+
+    @Override
+    public Mono<Void> updateTaskStatusToSuccess(TaskMessageEntityCommand command) {
+        String taskId = command.getTaskId();
+        // 状态 2 表示已完成，已是完成状态的记录不再更新
+        return taskMessageDao.updateStatusByTaskId(taskId, 2)
+                .doOnNext(result -> {
+                    if (result > 0) {
+                        log.info("更新任务状态为成功，taskId: {}", taskId);
+                    } else {
+                        log.warn("更新任务状态为成功失败，未找到对应任务或任务已完成，taskId: {}", taskId);
+                    }
+                })
+                .then();
+    }
+
+    @Override
+    public Mono<Void> updateTaskStatusToFailed(String taskId) {
+        // 状态 3 表示失败
+        return taskMessageDao.updateStatusByTaskId(taskId, 3)
+                .doOnNext(result -> {
+                    if (result > 0) {
+                        log.info("更新任务状态为失败，taskId: {}", taskId);
+                    } else {
+                        log.warn("更新任务状态为失败失败，未找到对应任务，taskId: {}", taskId);
+                    }
+                })
+                .then();
+    }
+
+    @Override
+    public Flux<TaskMessageEntityCommand> selectByHouseNumber(List<Integer> houseNumbers, Long id, Integer limit) {
+        return taskMessageDao.selectByHouseNumber(houseNumbers, id, limit).map(converter::toCommand);
+    }
+
+    @Override
+    public Mono<Long> selectMinIdByHouseNumber(List<Integer> houseNumbers) {
+        return taskMessageDao.selectMinIdByHouseNumber(houseNumbers);
+    }
+
+    @Override
+    public Flux<TaskMessageEntityCommand> selectDueDelayed(List<Integer> houseNumbers, LocalDateTime deliverBefore, Integer limit) {
+        return taskMessageDao.selectDueDelayed(houseNumbers, deliverBefore, limit).map(converter::toCommand);
+    }
+
+    @Override
+    public Mono<TaskMessageEntityCommand> selectByTaskId(String taskId) {
+        return taskMessageDao.selectByTaskId(taskId).map(converter::toCommand);
+    }
+}
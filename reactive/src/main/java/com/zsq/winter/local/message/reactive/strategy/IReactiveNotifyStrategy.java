@@ -0,0 +1,30 @@
+package com.zsq.winter.local.message.reactive.strategy;
+
+import com.zsq.winter.design.strategy.BaseStrategy;
+import com.zsq.winter.local.message.entity.TaskMessageEntityCommand;
+import com.zsq.winter.local.message.enums.TaskNotifyEnum;
+import reactor.core.publisher.Mono;
+
+/**
+ * 响应式通知策略接口
+ * <p>
+ * 对应{@link com.zsq.winter.local.message.strategy.INotifyStrategy}，通知结果以Mono返回，
+ * 实现类不能阻塞订阅线程：HTTP使用WebClient，Kafka和RocketMQ使用异步发送，
+ * 只有阻塞客户端的通知方式才切换到{@code Schedulers.boundedElastic()}执行。
+ * </p>
+ * @see TaskNotifyEnum
+ */
+public interface IReactiveNotifyStrategy extends BaseStrategy<TaskNotifyEnum> {
+
+    /**
+     * 执行通知
+     * <p>
+     * 发送成功后更新任务状态为2（已完成），失败后更新为3（失败）并以错误信号结束。
+     * </p>
+     *
+     * @param command 任务消息实体命令
+     * @return 通知结果
+     */
+    Mono<String> notify(TaskMessageEntityCommand command);
+
+}
@@ -0,0 +1,24 @@
+package com.zsq.winter.local.message.reactive.strategy;
+
+import com.zsq.winter.design.strategy.AbstractStrategyFactory;
+import com.zsq.winter.local.message.enums.TaskNotifyEnum;
+
+import java.util.List;
+
+/**
+ * 响应式通知策略工厂
+ * <p>
+ * 在初始化时将所有响应式通知策略注册到Map中，根据通知类型路由到对应的策略。
+ * </p>
+ */
+public class ReactiveNotifyFactory extends AbstractStrategyFactory<TaskNotifyEnum, IReactiveNotifyStrategy> {
+
+    /**
+     * 构造方法
+     * @param notifyStrategyList 所有响应式通知策略列表
+     */
+    public ReactiveNotifyFactory(List<IReactiveNotifyStrategy> notifyStrategyList) {
+        super(IReactiveNotifyStrategy.class, notifyStrategyList);
+    }
+
+}
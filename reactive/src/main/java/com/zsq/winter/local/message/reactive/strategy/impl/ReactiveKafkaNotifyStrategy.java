@@ -0,0 +1,95 @@
+package com.zsq.winter.local.message.reactive.strategy.impl;
+
+import cn.hutool.json.JSONUtil;
+import com.zsq.winter.local.message.entity.TaskMessageEntityCommand;
+import com.zsq.winter.local.message.enums.TaskNotifyEnum;
+import com.zsq.winter.local.message.reactive.service.IReactiveLocalTaskMessageService;
+import com.zsq.winter.local.message.reactive.strategy.IReactiveNotifyStrategy;
+import com.zsq.winter.local.message.trace.ITaskMessageTracing;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.springframework.kafka.core.KafkaTemplate;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 响应式Kafka通知策略
+ * <p>
+ * KafkaTemplate的发送本身是异步的，这里把发送结果的Future转换为Mono，
+ * 等待broker确认后才更新任务状态，确认失败时按投递失败处理。
+ * </p>
+ */
+@Slf4j
+public class ReactiveKafkaNotifyStrategy implements IReactiveNotifyStrategy {
+
+    private final KafkaTemplate<String, String> kafkaTemplate;
+
+    private final IReactiveLocalTaskMessageService repository;
+
+    /**
+     * 构造方法
+     *
+     * @param kafkaTemplate Kafka模板，可为null
+     * @param repository    响应式任务消息仓储服务
+     */
+    public ReactiveKafkaNotifyStrategy(KafkaTemplate<String, String> kafkaTemplate, IReactiveLocalTaskMessageService repository) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.repository = repository;
+    }
+
+    @Override
+    public Mono<String> notify(TaskMessageEntityCommand command) {
+        return Mono.defer(() -> {
+                    if (null == kafkaTemplate) {
+                        return Mono.error(new IllegalStateException("应用服务方，尚未配置 Kafka Template 不能完成 Kafka 发送"));
+                    }
+                    TaskMessageEntityCommand.NotifyConfig.Kafka kafka = command.getNotifyConfig().getKafka();
+                    ProducerRecord<String, String> record = buildRecord(kafka.getTopic(), kafka.getPartition(), kafka.getPartitionKey(),
+                            command.getParameterJson(), command.outboundTraceParent());
+                    return Mono.fromFuture(kafkaTemplate.send(record).completable())
+                            .doOnNext(result -> log.info("Kafka消息发送成功 - TaskId: {}, Topic: {}, Partition: {}, Offset: {}",
+                                    command.getTaskId(), kafka.getTopic(),
+                                    result.getRecordMetadata().partition(),
+                                    result.getRecordMetadata().offset()))
+                            // 通知成功，更新状态为成功
+                            .then(repository.updateTaskStatusToSuccess(command))
+                            .thenReturn("success");
+                })
+                .onErrorResume(e -> {
+                    log.error("Kafka通知失败 - TaskId: {}, 配置: {}",
+                            command.getTaskId(), JSONUtil.toJsonStr(command.getNotifyConfig()), e);
+                    // 通知失败，更新状态为失败
+                    return repository.updateTaskStatusToFailed(command.getTaskId()).then(Mono.error(e));
+                });
+    }
+
+    /**
+     * 构建Kafka消息记录
+     *
+     * @param topic       主题
+     * @param partition   分区，为空时由分区键或默认分区器决定
+     * @param key         分区键
+     * @param message     消息内容
+     * @param traceParent 链路上下文，不为空时写入traceparent消息头
+     * @return 消息记录
+     */
+    private static ProducerRecord<String, String> buildRecord(String topic, Integer partition, String key, String message, String traceParent) {
+        ProducerRecord<String, String> record = new ProducerRecord<>(topic, partition, key, message);
+        if (traceParent != null) {
+            record.headers().add(new RecordHeader(ITaskMessageTracing.TRACEPARENT, traceParent.getBytes(StandardCharsets.UTF_8)));
+        }
+        return record;
+    }
+
+    @Override
+    public void execute(Object... params) {
+
+    }
+
+    @Override
+    public TaskNotifyEnum getStrategyType() {
+        return TaskNotifyEnum.KAFKA;
+    }
+}
@@ -0,0 +1,90 @@
+package com.zsq.winter.local.message.reactive.strategy.impl;
+
+import cn.hutool.json.JSONUtil;
+import com.zsq.winter.local.message.entity.TaskMessageEntityCommand;
+import com.zsq.winter.local.message.enums.TaskNotifyEnum;
+import com.zsq.winter.local.message.reactive.service.IReactiveLocalTaskMessageService;
+import com.zsq.winter.local.message.reactive.strategy.IReactiveNotifyStrategy;
+import com.zsq.winter.local.message.trace.ITaskMessageTracing;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * 响应式RabbitMQ通知策略
+ * <p>
+ * RabbitTemplate的发送是阻塞调用，切换到{@code Schedulers.boundedElastic()}执行，
+ * 不占用事件循环线程。
+ * </p>
+ */
+@Slf4j
+public class ReactiveRabbitMQNotifyStrategy implements IReactiveNotifyStrategy {
+
+    private final RabbitTemplate rabbitTemplate;
+
+    private final IReactiveLocalTaskMessageService repository;
+
+    /**
+     * 构造方法
+     *
+     * @param rabbitTemplate RabbitMQ模板，可为null
+     * @param repository     响应式任务消息仓储服务
+     */
+    public ReactiveRabbitMQNotifyStrategy(RabbitTemplate rabbitTemplate, IReactiveLocalTaskMessageService repository) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.repository = repository;
+    }
+
+    @Override
+    public Mono<String> notify(TaskMessageEntityCommand command) {
+        return Mono.defer(() -> {
+                    if (null == rabbitTemplate) {
+                        return Mono.error(new IllegalStateException("应用服务方，尚未配置 RabbitMQ Template 不能完成 MQ 发送"));
+                    }
+                    TaskMessageEntityCommand.NotifyConfig.MQ mq = command.getNotifyConfig().getMq();
+                    String message = command.getParameterJson();
+                    String traceParent = command.outboundTraceParent();
+                    return Mono.fromRunnable(() -> publish(mq.getExchange(), mq.getTopic(), message, traceParent))
+                            .subscribeOn(Schedulers.boundedElastic())
+                            // 通知成功，更新状态为成功
+                            .then(repository.updateTaskStatusToSuccess(command))
+                            .thenReturn("success");
+                })
+                .onErrorResume(e -> {
+                    log.error("rabbitmq notify error {}", JSONUtil.toJsonStr(command), e);
+                    // 通知失败，更新状态为失败
+                    return repository.updateTaskStatusToFailed(command.getTaskId()).then(Mono.error(e));
+                });
+    }
+
+    /**
+     * 发送持久化消息
+     *
+     * @param exchange    交换机
+     * @param routingKey  路由键
+     * @param message     消息内容
+     * @param traceParent 链路上下文，不为空时写入traceparent消息头
+     */
+    private void publish(String exchange, String routingKey, String message, String traceParent) {
+        rabbitTemplate.convertAndSend(exchange, routingKey, message, m -> {
+            // 持久化消息配置
+            m.getMessageProperties().setDeliveryMode(MessageDeliveryMode.PERSISTENT);
+            if (traceParent != null) {
+                m.getMessageProperties().setHeader(ITaskMessageTracing.TRACEPARENT, traceParent);
+            }
+            return m;
+        });
+    }
+
+    @Override
+    public void execute(Object... params) {
+
+    }
+
+    @Override
+    public TaskNotifyEnum getStrategyType() {
+        return TaskNotifyEnum.RABBIT_MQ;
+    }
+}
@@ -0,0 +1,130 @@
+package com.zsq.winter.local.message.reactive.strategy.impl;
+
+import cn.hutool.json.JSONUtil;
+import com.zsq.winter.local.message.entity.TaskMessageEntityCommand;
+import com.zsq.winter.local.message.enums.TaskNotifyEnum;
+import com.zsq.winter.local.message.reactive.service.IReactiveLocalTaskMessageService;
+import com.zsq.winter.local.message.reactive.strategy.IReactiveNotifyStrategy;
+import com.zsq.winter.local.message.trace.ITaskMessageTracing;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.rocketmq.client.producer.SendCallback;
+import org.apache.rocketmq.client.producer.SendResult;
+import org.apache.rocketmq.spring.core.RocketMQTemplate;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+import reactor.core.publisher.Mono;
+
+/**
+ * 响应式RocketMQ通知策略
+ * <p>
+ * 使用RocketMQTemplate的异步发送，在发送回调中结束Mono，不阻塞订阅线程。
+ * </p>
+ */
+@Slf4j
+public class ReactiveRocketMQNotifyStrategy implements IReactiveNotifyStrategy {
+
+    /**
+     * 发送超时毫秒，与JDBC版本的同步发送保持一致
+     */
+    private static final long SEND_TIMEOUT_MS = 3000L;
+
+    private final RocketMQTemplate rocketMQTemplate;
+
+    private final IReactiveLocalTaskMessageService repository;
+
+    /**
+     * 构造方法
+     *
+     * @param rocketMQTemplate RocketMQ模板，可为null
+     * @param repository       响应式任务消息仓储服务
+     */
+    public ReactiveRocketMQNotifyStrategy(RocketMQTemplate rocketMQTemplate, IReactiveLocalTaskMessageService repository) {
+        this.rocketMQTemplate = rocketMQTemplate;
+        this.repository = repository;
+    }
+
+    @Override
+    public Mono<String> notify(TaskMessageEntityCommand command) {
+        return Mono.defer(() -> {
+                    if (null == rocketMQTemplate) {
+                        return Mono.error(new IllegalStateException("应用服务方，尚未配置 RocketMQ Template 不能完成 RocketMQ 发送"));
+                    }
+                    TaskMessageEntityCommand.NotifyConfig.RocketMQ rocketMQ = command.getNotifyConfig().getRocketMQ();
+                    return send(rocketMQ, command.getParameterJson(), command.getTaskId(), command.outboundTraceParent())
+                            .doOnNext(result -> log.info("RocketMQ通知成功 - TaskId: {}, Topic: {}, MsgId: {}",
+                                    command.getTaskId(), rocketMQ.getTopic(), result.getMsgId()))
+                            // 通知成功，更新状态为成功
+                            .then(repository.updateTaskStatusToSuccess(command))
+                            .thenReturn("success");
+                })
+                .onErrorResume(e -> {
+                    log.error("RocketMQ通知失败 - TaskId: {}, 配置: {}",
+                            command.getTaskId(), JSONUtil.toJsonStr(command.getNotifyConfig()), e);
+                    // 通知失败，更新状态为失败
+                    return repository.updateTaskStatusToFailed(command.getTaskId()).then(Mono.error(e));
+                });
+    }
+
+    /**
+     * 异步发送RocketMQ消息
+     *
+     * @param rocketMQ       RocketMQ配置
+     * @param messageContent 消息内容
+     * @param taskId         任务ID
+     * @param traceParent    链路上下文，不为空时写入traceparent用户属性
+     * @return 发送结果
+     */
+    private Mono<SendResult> send(TaskMessageEntityCommand.NotifyConfig.RocketMQ rocketMQ, String messageContent,
+                                  String taskId, String traceParent) {
+        String destination = buildDestination(rocketMQ);
+        Message<String> message = MessageBuilder
+                .withPayload(messageContent)
+                .setHeader("taskId", taskId)
+                // 值为null时不设置该属性
+                .setHeader(ITaskMessageTracing.TRACEPARENT, traceParent)
+                .build();
+        return Mono.create(sink -> {
+            SendCallback callback = new SendCallback() {
+                @Override
+                public void onSuccess(SendResult sendResult) {
+                    sink.success(sendResult);
+                }
+
+                @Override
+                public void onException(Throwable e) {
+                    sink.error(e);
+                }
+            };
+            // 根据是否有延迟级别选择发送方式
+            if (rocketMQ.getDelayLevel() != null && rocketMQ.getDelayLevel() > 0) {
+                rocketMQTemplate.asyncSend(destination, message, callback, SEND_TIMEOUT_MS, rocketMQ.getDelayLevel());
+            } else {
+                rocketMQTemplate.asyncSend(destination, message, callback, SEND_TIMEOUT_MS);
+            }
+        });
+    }
+
+    /**
+     * 构建RocketMQ目标地址
+     *
+     * @param rocketMQ RocketMQ配置
+     * @return 目标地址 (topic:tag格式)
+     */
+    private static String buildDestination(TaskMessageEntityCommand.NotifyConfig.RocketMQ rocketMQ) {
+        StringBuilder destination = new StringBuilder(rocketMQ.getTopic());
+        if (rocketMQ.getTag() != null && !rocketMQ.getTag().trim().isEmpty()) {
+            destination.append(":").append(rocketMQ.getTag());
+        }
+        return destination.toString();
+    }
+
+    @Override
+    public void execute(Object... params) {
+
+    }
+
+    @Override
+    public TaskNotifyEnum getStrategyType() {
+        return TaskNotifyEnum.ROCKET_MQ;
+    }
+}
@@ -0,0 +1,100 @@
+package com.zsq.winter.local.message.reactive.strategy.impl;
+
+import cn.hutool.core.util.StrUtil;
+import cn.hutool.json.JSONUtil;
+import com.zsq.winter.local.message.entity.TaskMessageEntityCommand;
+import com.zsq.winter.local.message.enums.TaskNotifyEnum;
+import com.zsq.winter.local.message.reactive.service.IReactiveLocalTaskMessageService;
+import com.zsq.winter.local.message.reactive.strategy.IReactiveNotifyStrategy;
+import com.zsq.winter.local.message.trace.ITaskMessageTracing;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+
+/**
+ * 基于WebClient的HTTP通知策略
+ * <p>
+ * 请求在Netty事件循环上异步执行，不占用线程等待响应。
+ * 与JDBC版本不同，响应状态码为4xx/5xx时按投递失败处理。
+ * </p>
+ */
+@Slf4j
+public class WebClientNotifyStrategy implements IReactiveNotifyStrategy {
+
+    private final WebClient webClient;
+
+    private final IReactiveLocalTaskMessageService repository;
+
+    /**
+     * 构造方法
+     *
+     * @param webClient  WebClient，通常由应用的WebClient.Builder构建
+     * @param repository 响应式任务消息仓储服务
+     */
+    public WebClientNotifyStrategy(WebClient webClient, IReactiveLocalTaskMessageService repository) {
+        this.webClient = webClient;
+        this.repository = repository;
+    }
+
+    @Override
+    public Mono<String> notify(TaskMessageEntityCommand command) {
+        return Mono.defer(() -> {
+                    TaskMessageEntityCommand.NotifyConfig.HTTP http = command.getNotifyConfig().getHttp();
+                    return send(http, command.getParameterJson(), command.outboundTraceParent())
+                            // 通知成功，更新状态为成功
+                            .flatMap(result -> repository.updateTaskStatusToSuccess(command)
+                                    .doOnSuccess(v -> log.info("HTTP通知成功 - TaskId: {}, URL: {}", command.getTaskId(), http.getUrl()))
+                                    .thenReturn(result));
+                })
+                .onErrorResume(e -> {
+                    log.error("HTTP通知失败 - TaskId: {}, 配置: {}",
+                            command.getTaskId(), JSONUtil.toJsonStr(command.getNotifyConfig()), e);
+                    // 通知失败，更新状态为失败
+                    return repository.updateTaskStatusToFailed(command.getTaskId()).then(Mono.error(e));
+                });
+    }
+
+    /**
+     * 发送HTTP请求
+     *
+     * @param http        HTTP配置
+     * @param bodyJson    请求体JSON
+     * @param traceParent 链路上下文，不为空时写入traceparent请求头
+     * @return 响应体，响应体为空时为空字符串
+     */
+    private Mono<String> send(TaskMessageEntityCommand.NotifyConfig.HTTP http, String bodyJson, String traceParent) {
+        return webClient.post()
+                .uri(URI.create(http.getUrl()))
+                .headers(headers -> {
+                    // 设置Content-Type
+                    headers.set(HttpHeaders.CONTENT_TYPE, StrUtil.isNotBlank(http.getContentType())
+                            ? http.getContentType()
+                            : "application/json");
+                    // 设置Authorization
+                    if (StrUtil.isNotBlank(http.getAuthorization())) {
+                        headers.set(HttpHeaders.AUTHORIZATION, http.getAuthorization());
+                    }
+                    // 传递链路上下文
+                    if (traceParent != null) {
+                        headers.set(ITaskMessageTracing.TRACEPARENT, traceParent);
+                    }
+                })
+                .bodyValue(bodyJson == null ? "" : bodyJson)
+                .retrieve()
+                .bodyToMono(String.class)
+                .defaultIfEmpty("");
+    }
+
+    @Override
+    public void execute(Object... params) {
+
+    }
+
+    @Override
+    public TaskNotifyEnum getStrategyType() {
+        return TaskNotifyEnum.HTTP;
+    }
+}
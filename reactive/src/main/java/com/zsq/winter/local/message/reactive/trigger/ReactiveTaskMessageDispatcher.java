@@ -0,0 +1,66 @@
+package com.zsq.winter.local.message.reactive.trigger;
+
+import com.zsq.winter.local.message.entity.TaskMessageEntityCommand;
+import com.zsq.winter.local.message.enums.TaskNotifyEnum;
+import com.zsq.winter.local.message.reactive.service.IReactiveLocalTaskMessageService;
+import com.zsq.winter.local.message.reactive.strategy.IReactiveNotifyStrategy;
+import com.zsq.winter.local.message.reactive.strategy.ReactiveNotifyFactory;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 响应式任务消息投递器
+ * <p>
+ * 受理后的即时投递和扫描任务共用：按通知类型选择策略并限制单条投递的耗时。
+ * 策略在发送失败时已更新任务状态，超时由这里取消发送并把任务状态更新为失败。
+ * </p>
+ *
+ * @see ReactiveTaskMessageScanJob
+ * @see com.zsq.winter.local.message.reactive.ReactiveLocalTaskMessageTemplate
+ */
+@Slf4j
+public class ReactiveTaskMessageDispatcher {
+
+    private final ReactiveNotifyFactory factory;
+
+    private final IReactiveLocalTaskMessageService repository;
+
+    private final Duration notifyTimeout;
+
+    /**
+     * 构造方法
+     *
+     * @param factory       响应式通知策略工厂
+     * @param repository    响应式任务消息仓储服务
+     * @param notifyTimeout 单条消息投递超时
+     */
+    public ReactiveTaskMessageDispatcher(ReactiveNotifyFactory factory, IReactiveLocalTaskMessageService repository, Duration notifyTimeout) {
+        this.factory = factory;
+        this.repository = repository;
+        this.notifyTimeout = notifyTimeout;
+    }
+
+    /**
+     * 投递任务消息
+     *
+     * @param command 任务消息命令
+     * @return 通知结果，投递失败或超时时为错误信号
+     */
+    public Mono<String> dispatch(TaskMessageEntityCommand command) {
+        return Mono.defer(() -> {
+            IReactiveNotifyStrategy strategy = factory.getStrategy(command.getNotifyType(), TaskNotifyEnum.class);
+            if (strategy == null) {
+                return Mono.error(new IllegalStateException("TASK_MESSAGE_NOTIFY_STRATEGY_ERROR 未找到通知策略 " + command.getNotifyType()));
+            }
+            return strategy.notify(command)
+                    .timeout(notifyTimeout)
+                    .onErrorResume(TimeoutException.class, e -> {
+                        log.warn("任务消息投递超时 taskId: {} 超时: {}ms", command.getTaskId(), notifyTimeout.toMillis());
+                        return repository.updateTaskStatusToFailed(command.getTaskId()).then(Mono.error(e));
+                    });
+        });
+    }
+}
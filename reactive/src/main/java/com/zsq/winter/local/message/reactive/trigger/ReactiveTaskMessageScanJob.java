@@ -0,0 +1,257 @@
+package com.zsq.winter.local.message.reactive.trigger;
+
+import com.zsq.winter.local.message.config.LocalTaskMessageAutoProperties;
+import com.zsq.winter.local.message.entity.TaskMessageEntityCommand;
+import com.zsq.winter.local.message.reactive.service.IReactiveLocalTaskMessageService;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 响应式任务消息扫描任务
+ * <p>
+ * 每个任务组使用{@code Flux.interval}按固定延迟触发扫描，上次扫描未完成时丢弃本次触发，
+ * 同一任务组的扫描不会重叠。扫描到的消息以{@code flatMap}并发投递，
+ * 同时在途的投递数不超过配置的并发数，投递线程只在等待IO完成时才被让出，不需要为每条消息占用一个线程。
+ * </p>
+ *
+ * <p><b>处理流程：</b></p>
+ * <ol>
+ *   <li>首次扫描时以门牌号范围内待处理消息的最小ID作为游标</li>
+ *   <li>查询ID大于等于游标的待处理消息（status=0或3），不含延迟消息</li>
+ *   <li>无顺序键的消息各自并发投递，同一顺序键的消息按ID顺序串行投递，前一条失败时停止</li>
+ *   <li>全部投递结束后推进游标到本次扫描的最大ID；顺序消息投递失败时游标停在失败的消息，下次扫描从它开始重试</li>
+ * </ol>
+ *
+ * <p>只支持fixedDelayMs调度，配置了cron的任务组按默认5000ms固定延迟扫描。</p>
+ *
+ * <p>开启delay.enabled时，每个任务组另有一个按delay.loadIntervalMs触发的加载任务，
+ * 查询已到期（包括过期仍未投递成功）的延迟消息并发投递，投递精度为加载间隔。
+ * 与JDBC版本一致，延迟消息不参与顺序投递。</p>
+ *
+ * @see ReactiveTaskMessageDispatcher
+ */
+@Slf4j
+public class ReactiveTaskMessageScanJob {
+
+    /**
+     * 未配置fixedDelayMs时的默认扫描间隔
+     */
+    private static final long DEFAULT_FIXED_DELAY_MS = 5000L;
+
+    private final LocalTaskMessageAutoProperties properties;
+
+    private final IReactiveLocalTaskMessageService repository;
+
+    private final ReactiveTaskMessageDispatcher dispatcher;
+
+    /**
+     * 同时在途的最大投递数
+     */
+    private final int concurrency;
+
+    private final List<Disposable> subscriptions = new ArrayList<>();
+
+    /**
+     * 构造方法
+     *
+     * @param properties  自动配置属性，提供任务组配置
+     * @param repository  响应式任务消息仓储服务
+     * @param dispatcher  响应式任务消息投递器
+     * @param concurrency 同时在途的最大投递数，小于1时按1处理
+     */
+    public ReactiveTaskMessageScanJob(LocalTaskMessageAutoProperties properties, IReactiveLocalTaskMessageService repository,
+                                      ReactiveTaskMessageDispatcher dispatcher, int concurrency) {
+        this.properties = properties;
+        this.repository = repository;
+        this.dispatcher = dispatcher;
+        this.concurrency = Math.max(1, concurrency);
+    }
+
+    /**
+     * 为每个任务组启动扫描
+     */
+    @PostConstruct
+    public synchronized void start() {
+        for (LocalTaskMessageAutoProperties.TaskGroupConfig group : properties.getGroups()) {
+            String groupId = group.getGroupId();
+            if (group.getHouseNumbers() == null || group.getHouseNumbers().isEmpty()) {
+                log.warn("任务组 [{}] 未配置门牌号，跳过调度", groupId);
+                continue;
+            }
+            if (group.getCron() != null) {
+                log.warn("任务组 [{}] 响应式扫描不支持 cron，按固定延迟调度", groupId);
+            }
+            long delay = group.getFixedDelayMs() != null ? group.getFixedDelayMs() : DEFAULT_FIXED_DELAY_MS;
+            // 游标小于0表示尚未初始化
+            AtomicLong cursor = new AtomicLong(-1L);
+            Disposable subscription = Flux.interval(Duration.ofMillis(delay), Duration.ofMillis(delay))
+                    .onBackpressureDrop(tick -> log.debug("任务组 [{}] 上次扫描尚未完成，跳过本次调度", groupId))
+                    .concatMap(tick -> executeGroup(group, cursor), 1)
+                    .subscribe();
+            subscriptions.add(subscription);
+            log.info("任务组 [{}] 已按固定延迟 [{}ms] 调度，并发数: {}", groupId, delay, concurrency);
+
+            if (Boolean.TRUE.equals(properties.getDelay().getEnabled())) {
+                Long loadIntervalMs = properties.getDelay().getLoadIntervalMs();
+                long interval = loadIntervalMs != null && loadIntervalMs > 0 ? loadIntervalMs : DEFAULT_FIXED_DELAY_MS;
+                Disposable delayedSubscription = Flux.interval(Duration.ofMillis(interval), Duration.ofMillis(interval))
+                        .onBackpressureDrop(tick -> log.debug("任务组 [{}] 上次延迟消息加载尚未完成，跳过本次调度", groupId))
+                        .concatMap(tick -> executeDueDelayed(group), 1)
+                        .subscribe();
+                subscriptions.add(delayedSubscription);
+                log.info("任务组 [{}] 已按 [{}ms] 间隔加载到期的延迟消息", groupId, interval);
+            }
+        }
+    }
+
+    /**
+     * 停止全部任务组的扫描，在途的投递被取消，消息仍在数据库中，重启后重新扫描
+     */
+    @PreDestroy
+    public synchronized void stop() {
+        for (Disposable subscription : subscriptions) {
+            subscription.dispose();
+        }
+        subscriptions.clear();
+    }
+
+    /**
+     * 执行一次任务组扫描
+     *
+     * @param group  任务组配置
+     * @param cursor 任务组的游标
+     * @return 扫描到的消息数量，异常时为-1
+     */
+    private Mono<Integer> executeGroup(LocalTaskMessageAutoProperties.TaskGroupConfig group, AtomicLong cursor) {
+        String groupId = group.getGroupId();
+        List<Integer> houseNumbers = group.getHouseNumbers();
+        Mono<Long> lastIdMono = cursor.get() >= 0
+                ? Mono.just(cursor.get())
+                : repository.selectMinIdByHouseNumber(houseNumbers)
+                        .defaultIfEmpty(0L)
+                        .doOnNext(startId -> {
+                            cursor.set(startId);
+                            log.info("任务组 [{}] 初始化起始ID为 {}，houseNumbers={}", groupId, startId, houseNumbers);
+                        });
+
+        return lastIdMono
+                .flatMap(lastId -> repository.selectByHouseNumber(houseNumbers, lastId, group.getLimit())
+                        .collectList()
+                        .flatMap(cmdList -> {
+                            if (cmdList.isEmpty()) {
+                                return Mono.just(0);
+                            }
+                            AtomicLong nextId = new AtomicLong(cmdList.get(cmdList.size() - 1).getId());
+                            return deliver(groupId, cmdList, nextId).then(Mono.fromCallable(() -> {
+                                cursor.set(nextId.get());
+                                log.info("任务组 [{}] 处理完成：扫描{}条，lastId: {} -> {}", groupId, cmdList.size(), lastId, nextId.get());
+                                return cmdList.size();
+                            }));
+                        }))
+                .onErrorResume(e -> {
+                    log.error("任务组 [{}] 执行异常: {}", groupId, e.getMessage(), e);
+                    return Mono.just(-1);
+                });
+    }
+
+    /**
+     * 加载并投递一次任务组内已到期的延迟消息
+     * <p>
+     * 投递失败的消息保持失败状态，下次加载时重新投递。
+     * </p>
+     *
+     * @param group 任务组配置
+     * @return 加载到的消息数量，异常时为-1
+     */
+    private Mono<Integer> executeDueDelayed(LocalTaskMessageAutoProperties.TaskGroupConfig group) {
+        String groupId = group.getGroupId();
+        Integer loadLimit = properties.getDelay().getLoadLimit();
+        return repository.selectDueDelayed(group.getHouseNumbers(), LocalDateTime.now(), loadLimit == null ? 1000 : loadLimit)
+                .flatMap(cmd -> dispatcher.dispatch(cmd)
+                        .onErrorResume(e -> {
+                            log.warn("任务组 [{}] 延迟消息投递失败 taskId: {} 错误: {}", groupId, cmd.getTaskId(), e.getMessage());
+                            return Mono.empty();
+                        })
+                        .thenReturn(cmd), concurrency)
+                .collectList()
+                .map(List::size)
+                .doOnNext(count -> {
+                    if (count > 0) {
+                        log.info("任务组 [{}] 到期延迟消息处理完成：{}条", groupId, count);
+                    }
+                })
+                .onErrorResume(e -> {
+                    log.error("任务组 [{}] 加载到期延迟消息异常: {}", groupId, e.getMessage(), e);
+                    return Mono.just(-1);
+                });
+    }
+
+    /**
+     * 投递一批消息
+     * <p>
+     * 无顺序键的消息各自作为一个投递单元，同一顺序键的消息按ID顺序组成一个投递单元，
+     * 各单元以不超过并发数的方式同时投递。
+     * </p>
+     *
+     * @param groupId 任务组ID
+     * @param cmdList 按ID升序的消息列表
+     * @param nextId  下次扫描的起始ID，顺序消息投递失败时下调为失败消息的ID
+     * @return 全部投递结束的信号，单条投递失败不会使其失败
+     */
+    private Mono<Void> deliver(String groupId, List<TaskMessageEntityCommand> cmdList, AtomicLong nextId) {
+        List<List<TaskMessageEntityCommand>> units = new ArrayList<>();
+        Map<String, List<TaskMessageEntityCommand>> orderedMap = new LinkedHashMap<>();
+        for (TaskMessageEntityCommand cmd : cmdList) {
+            if (cmd.getOrderingKey() == null) {
+                units.add(Collections.singletonList(cmd));
+            } else {
+                orderedMap.computeIfAbsent(cmd.getOrderingKey(), k -> new ArrayList<>()).add(cmd);
+            }
+        }
+        units.addAll(orderedMap.values());
+
+        return Flux.fromIterable(units)
+                .flatMap(unit -> deliverUnit(groupId, unit, nextId), concurrency)
+                .then();
+    }
+
+    /**
+     * 串行投递一个投递单元
+     *
+     * @param groupId 任务组ID
+     * @param unit    投递单元
+     * @param nextId  下次扫描的起始ID
+     * @return 投递结束的信号
+     */
+    private Mono<Void> deliverUnit(String groupId, List<TaskMessageEntityCommand> unit, AtomicLong nextId) {
+        return Flux.fromIterable(unit)
+                .concatMap(cmd -> dispatcher.dispatch(cmd)
+                        .onErrorResume(e -> {
+                            String orderingKey = cmd.getOrderingKey();
+                            if (orderingKey == null) {
+                                log.warn("任务组 [{}] 消息投递失败 taskId: {} 错误: {}", groupId, cmd.getTaskId(), e.getMessage());
+                                return Mono.empty();
+                            }
+                            // 同一顺序键后续的消息不再投递，下次扫描从失败的消息开始
+                            nextId.accumulateAndGet(cmd.getId(), Math::min);
+                            log.warn("任务组 [{}] 顺序键 [{}] 投递失败，停止投递后续消息 taskId: {} 错误: {}",
+                                    groupId, orderingKey, cmd.getTaskId(), e.getMessage());
+                            return Mono.error(e);
+                        }))
+                .then()
+                .onErrorResume(e -> Mono.empty());
+    }
+}
@@ -3,9 +3,19 @@ package com.zsq.winter.local.message;
 import cn.hutool.json.JSONUtil;
 import com.zsq.winter.local.message.entity.TaskMessageEntityCommand;
 import com.zsq.winter.local.message.event.SpringTaskMessageEvent;
+import com.zsq.winter.local.message.event.TaskMessageWakeupEvent;
+import com.zsq.winter.local.message.metrics.ITaskMessageMetrics;
+import com.zsq.winter.local.message.metrics.NoopTaskMessageMetrics;
 import com.zsq.winter.local.message.service.ILocalTaskMessageService;
+import com.zsq.winter.local.message.service.LocalTaskMessageServiceImpl;
+import com.zsq.winter.local.message.service.RecentTaskIdCache;
+import com.zsq.winter.local.message.trace.ITaskMessageTracing;
+import com.zsq.winter.local.message.trace.NoopTaskMessageTracing;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
  * 本地任务消息处理服务实现类
@@ -25,10 +35,85 @@ public class LocalTaskMessageTemplate {
      */
     private final ApplicationEventPublisher eventPublisher;
 
+    /**
+     * 是否幂等受理：任务ID重复时不抛出异常，不发布事件
+     */
+    private final boolean idempotent;
+
+    /**
+     * 最近受理的任务ID缓存，幂等受理时用于跳过明显的重复提交，为null时每次都访问数据库
+     */
+    private final RecentTaskIdCache recentTaskIdCache;
+
+    /**
+     * 任务消息指标
+     */
+    private final ITaskMessageMetrics metrics;
+
+    /**
+     * 任务消息链路追踪，受理时记录当前链路
+     */
+    private final ITaskMessageTracing tracing;
+
     public LocalTaskMessageTemplate(ApplicationEventPublisher eventPublisher,
                                     ILocalTaskMessageService repository) {
+        this(eventPublisher, repository, false, null);
+    }
+
+    /**
+     * 构造方法
+     *
+     * @param eventPublisher    Spring事件发布器
+     * @param repository        任务消息仓储服务
+     * @param idempotent        是否幂等受理
+     * @param recentTaskIdCache 最近受理的任务ID缓存，可为null
+     */
+    public LocalTaskMessageTemplate(ApplicationEventPublisher eventPublisher,
+                                    ILocalTaskMessageService repository,
+                                    boolean idempotent,
+                                    RecentTaskIdCache recentTaskIdCache) {
+        this(eventPublisher, repository, idempotent, recentTaskIdCache, NoopTaskMessageMetrics.INSTANCE);
+    }
+
+    /**
+     * 构造方法
+     *
+     * @param eventPublisher    Spring事件发布器
+     * @param repository        任务消息仓储服务
+     * @param idempotent        是否幂等受理
+     * @param recentTaskIdCache 最近受理的任务ID缓存，可为null
+     * @param metrics           任务消息指标
+     */
+    public LocalTaskMessageTemplate(ApplicationEventPublisher eventPublisher,
+                                    ILocalTaskMessageService repository,
+                                    boolean idempotent,
+                                    RecentTaskIdCache recentTaskIdCache,
+                                    ITaskMessageMetrics metrics) {
+        this(eventPublisher, repository, idempotent, recentTaskIdCache, metrics, NoopTaskMessageTracing.INSTANCE);
+    }
+
+    /**
+     * 构造方法
+     *
+     * @param eventPublisher    Spring事件发布器
+     * @param repository        任务消息仓储服务
+     * @param idempotent        是否幂等受理
+     * @param recentTaskIdCache 最近受理的任务ID缓存，可为null
+     * @param metrics           任务消息指标
+     * @param tracing           任务消息链路追踪
+     */
+    public LocalTaskMessageTemplate(ApplicationEventPublisher eventPublisher,
+                                    ILocalTaskMessageService repository,
+                                    boolean idempotent,
+                                    RecentTaskIdCache recentTaskIdCache,
+                                    ITaskMessageMetrics metrics,
+                                    ITaskMessageTracing tracing) {
         this.repository = repository;
-        this.eventPublisher =eventPublisher;
+        this.eventPublisher = eventPublisher;
+        this.idempotent = idempotent;
+        this.recentTaskIdCache = recentTaskIdCache;
+        this.metrics = metrics == null ? NoopTaskMessageMetrics.INSTANCE : metrics;
+        this.tracing = tracing == null ? NoopTaskMessageTracing.INSTANCE : tracing;
     }
 
     /**
@@ -37,27 +122,116 @@ public class LocalTaskMessageTemplate {
      * 1. 保存任务消息
      * 2. 发布事件消息
      * </p>
+     * 异步投递线程池已满时不再让业务失败：消息已入库，事务提交后唤醒扫描任务投递。
+     * <p>
+     * 开启幂等受理时，任务ID已存在的消息直接返回false，不抛出异常也不重复发布事件；
+     * 最近受理过的任务ID先在本地缓存中判定，命中时不访问数据库。
+     * </p>
+     * 调用方未设置traceParent时记录当前链路，随消息入库供投递时关联。
      *
      * @param command 任务消息命令
+     * @return 新受理时返回true；幂等受理下任务ID已存在时返回false
      */
-    public void acceptTaskMessage(TaskMessageEntityCommand command) {
+    public boolean acceptTaskMessage(TaskMessageEntityCommand command) {
+        long start = System.nanoTime();
+        long insertNanos = 0L;
         try {
             log.info("受理任务消息: {}", command);
+            if (command.getTraceParent() == null) {
+                command.setTraceParent(tracing.currentTraceParent());
+            }
 
             // 1. 保存任务消息
-            repository.saveTaskMessage(command);
+            if (idempotent) {
+                if (recentTaskIdCache != null && recentTaskIdCache.contains(command.getTaskId())) {
+                    log.info("任务消息已受理过（本地缓存），忽略重复提交 taskId: {}", command.getTaskId());
+                    metrics.recordAccept(ITaskMessageMetrics.OUTCOME_DUPLICATE, System.nanoTime() - start, 0L);
+                    return false;
+                }
+                long insertStart = System.nanoTime();
+                boolean created = repository.saveTaskMessageIfAbsent(command);
+                insertNanos = System.nanoTime() - insertStart;
+                if (!created) {
+                    // 数据库判定重复时已有记录提交，可以直接记入缓存
+                    rememberTaskId(command.getTaskId(), false);
+                    log.info("任务消息已存在，忽略重复提交 taskId: {}", command.getTaskId());
+                    metrics.recordAccept(ITaskMessageMetrics.OUTCOME_DUPLICATE, System.nanoTime() - start, insertNanos);
+                    return false;
+                }
+                rememberTaskId(command.getTaskId(), true);
+            } else {
+                long insertStart = System.nanoTime();
+                repository.saveTaskMessage(command);
+                insertNanos = System.nanoTime() - insertStart;
+            }
 
             // 2. 发布事件消息
             // 构建事件
             SpringTaskMessageEvent springTaskMessageEvent = new SpringTaskMessageEvent(this, command);
             // 发布事件
-            eventPublisher.publishEvent(springTaskMessageEvent);
+            try {
+                eventPublisher.publishEvent(springTaskMessageEvent);
+            } catch (TaskRejectedException e) {
+                log.warn("异步投递线程池已满，交由扫描任务投递 taskId: {}", command.getTaskId());
+                wakeupScannerAfterCommit(command);
+            }
+            metrics.recordAccept(ITaskMessageMetrics.OUTCOME_CREATED, System.nanoTime() - start, insertNanos);
+            return true;
 
         } catch (Exception e) {
             log.error("受理任务消息执行失败 {}", JSONUtil.toJsonStr(command), e);
+            metrics.recordAccept(ITaskMessageMetrics.OUTCOME_FAILURE, System.nanoTime() - start, insertNanos);
 
             throw new RuntimeException(e);
         }
     }
 
+    /**
+     * 将任务ID记入最近受理缓存
+     * <p>
+     * 新插入的记录在事务提交后才记入，事务回滚时不记入，避免回滚后的重试被误判为重复。
+     * </p>
+     *
+     * @param taskId      任务ID
+     * @param afterCommit 是否等待事务提交后再记入
+     */
+    private void rememberTaskId(String taskId, boolean afterCommit) {
+        if (recentTaskIdCache == null || taskId == null) {
+            return;
+        }
+        if (afterCommit && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recentTaskIdCache.put(taskId);
+                }
+            });
+        } else {
+            recentTaskIdCache.put(taskId);
+        }
+    }
+
+    /**
+     * 事务提交后唤醒负责该消息门牌号的扫描任务
+     * <p>
+     * 提交前扫描任务查询不到该消息，因此存在事务同步时注册到提交后发布，否则立即发布。
+     * </p>
+     *
+     * @param command 任务消息命令
+     */
+    private void wakeupScannerAfterCommit(TaskMessageEntityCommand command) {
+        TaskMessageWakeupEvent wakeupEvent = new TaskMessageWakeupEvent(this,
+                LocalTaskMessageServiceImpl.houseNumberOf(command), "dispatch rejected: " + command.getTaskId());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eventPublisher.publishEvent(wakeupEvent);
+                }
+            });
+        } else {
+            eventPublisher.publishEvent(wakeupEvent);
+        }
+    }
+
 }
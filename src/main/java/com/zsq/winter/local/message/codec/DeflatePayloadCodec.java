@@ -0,0 +1,69 @@
+package com.zsq.winter.local.message.codec;
+
+import com.zsq.winter.local.message.enums.PayloadCodecEnum;
+
+import java.io.ByteArrayOutputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Deflate压缩编解码实现
+ * <p>
+ * 基于JDK内置的Deflater/Inflater实现，无需额外依赖。
+ * 每次调用创建独立的Deflater/Inflater并在结束时释放本地内存，保证线程安全。
+ * </p>
+ */
+public class DeflatePayloadCodec implements IPayloadCodec {
+
+    /**
+     * 压缩/解压缓冲区大小
+     */
+    private static final int BUFFER_SIZE = 4096;
+
+    @Override
+    public PayloadCodecEnum getCodecType() {
+        return PayloadCodecEnum.DEFLATE;
+    }
+
+    @Override
+    public byte[] compress(byte[] source) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(source);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, source.length / 4));
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!deflater.finished()) {
+                int count = deflater.deflate(buffer);
+                out.write(buffer, 0, count);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    @Override
+    public byte[] decompress(byte[] compressed) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(compressed.length * 4);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!inflater.finished()) {
+                int count = inflater.inflate(buffer);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("Deflate数据不完整，无法解压");
+                }
+                out.write(buffer, 0, count);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Deflate数据格式错误: " + e.getMessage(), e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+}
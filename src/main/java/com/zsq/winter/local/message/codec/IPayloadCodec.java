@@ -0,0 +1,40 @@
+package com.zsq.winter.local.message.codec;
+
+import com.zsq.winter.local.message.enums.PayloadCodecEnum;
+
+/**
+ * 业务参数压缩编解码接口
+ * <p>
+ * 定义parameter_json大字段的压缩与解压操作，不同的实现对应不同的压缩算法。
+ * 实现类需保证线程安全，同一实例会被多个线程并发使用。
+ * </p>
+ *
+ * @see PayloadCodecEnum
+ * @see PayloadCodecFactory
+ */
+public interface IPayloadCodec {
+
+    /**
+     * 获取编码类型
+     *
+     * @return 编码类型枚举
+     */
+    PayloadCodecEnum getCodecType();
+
+    /**
+     * 压缩
+     *
+     * @param source 原始字节
+     * @return 压缩后的字节
+     */
+    byte[] compress(byte[] source);
+
+    /**
+     * 解压
+     *
+     * @param compressed 压缩后的字节
+     * @return 原始字节
+     */
+    byte[] decompress(byte[] compressed);
+
+}
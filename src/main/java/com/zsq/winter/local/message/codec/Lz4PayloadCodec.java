@@ -0,0 +1,45 @@
+package com.zsq.winter.local.message.codec;
+
+import com.zsq.winter.local.message.enums.PayloadCodecEnum;
+import net.jpountz.lz4.LZ4CompressorWithLength;
+import net.jpountz.lz4.LZ4DecompressorWithLength;
+import net.jpountz.lz4.LZ4Factory;
+
+/**
+ * LZ4压缩编解码实现
+ * <p>
+ * 基于lz4-java实现，压缩结果头部携带原始长度，解压时无需额外记录长度。
+ * 仅当classpath中存在lz4-java时才会被{@link PayloadCodecFactory}加载。
+ * </p>
+ */
+public class Lz4PayloadCodec implements IPayloadCodec {
+
+    private final LZ4CompressorWithLength compressor;
+
+    private final LZ4DecompressorWithLength decompressor;
+
+    /**
+     * 构造方法，使用当前平台最快的LZ4实现
+     */
+    public Lz4PayloadCodec() {
+        LZ4Factory factory = LZ4Factory.fastestInstance();
+        this.compressor = new LZ4CompressorWithLength(factory.fastCompressor());
+        this.decompressor = new LZ4DecompressorWithLength(factory.fastDecompressor());
+    }
+
+    @Override
+    public PayloadCodecEnum getCodecType() {
+        return PayloadCodecEnum.LZ4;
+    }
+
+    @Override
+    public byte[] compress(byte[] source) {
+        return compressor.compress(source);
+    }
+
+    @Override
+    public byte[] decompress(byte[] compressed) {
+        return decompressor.decompress(compressed);
+    }
+
+}
@@ -0,0 +1,87 @@
+package com.zsq.winter.local.message.codec;
+
+import com.zsq.winter.local.message.enums.PayloadCodecEnum;
+import org.springframework.util.ClassUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 业务参数压缩编解码工厂
+ * <p>
+ * 按编码类型提供编解码实现，并封装字符串与字节之间的转换。
+ * 保存时由仓储服务调用{@link #compress}，扫描出的压缩行在策略真正读取业务参数时才调用{@link #decompress}。
+ * LZ4实现仅在classpath存在lz4-java时注册。
+ * </p>
+ *
+ * @see IPayloadCodec
+ */
+public final class PayloadCodecFactory {
+
+    private static final Map<PayloadCodecEnum, IPayloadCodec> CODEC_MAP = new EnumMap<>(PayloadCodecEnum.class);
+
+    static {
+        register(new DeflatePayloadCodec());
+        if (ClassUtils.isPresent("net.jpountz.lz4.LZ4Factory", PayloadCodecFactory.class.getClassLoader())) {
+            register(new Lz4PayloadCodec());
+        }
+    }
+
+    private PayloadCodecFactory() {
+    }
+
+    private static void register(IPayloadCodec codec) {
+        CODEC_MAP.put(codec.getCodecType(), codec);
+    }
+
+    /**
+     * 判断编码类型是否可用
+     *
+     * @param codecType 编码类型
+     * @return NONE或已注册实现时返回true
+     */
+    public static boolean isAvailable(PayloadCodecEnum codecType) {
+        return codecType == PayloadCodecEnum.NONE || CODEC_MAP.containsKey(codecType);
+    }
+
+    /**
+     * 获取编解码实现
+     *
+     * @param codecType 编码类型
+     * @return 编解码实现
+     * @throws IllegalStateException 编码类型未注册（如缺少lz4-java依赖）
+     */
+    public static IPayloadCodec getCodec(PayloadCodecEnum codecType) {
+        IPayloadCodec codec = CODEC_MAP.get(codecType);
+        if (codec == null) {
+            throw new IllegalStateException("业务参数压缩编码不可用: " + codecType.getCode());
+        }
+        return codec;
+    }
+
+    /**
+     * 压缩字符串
+     *
+     * @param codecType 编码类型
+     * @param text      原始字符串（UTF-8）
+     * @return 压缩后的字节
+     */
+    public static byte[] compress(PayloadCodecEnum codecType, String text) {
+        return getCodec(codecType).compress(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解压为字符串
+     *
+     * @param codeOfCodec payload_codec列的取值
+     * @param compressed  parameter_blob列的字节
+     * @return 原始字符串（UTF-8）
+     */
+    public static String decompress(String codeOfCodec, byte[] compressed) {
+        PayloadCodecEnum codecType = PayloadCodecEnum.of(codeOfCodec);
+        byte[] bytes = getCodec(codecType).decompress(compressed);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,99 @@
+package com.zsq.winter.local.message.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Hikari预编译语句缓存自动配置类
+ * <p>
+ * 只有当HikariCP存在于classpath时才会加载此配置。MySQL Connector/J默认既不缓存预编译语句，也不使用服务端预编译，
+ * 每次prepareStatement都在客户端拼接完整SQL发送；定时扫描每次执行数百条相同的状态更新时，
+ * 开启缓存后同一连接上的相同SQL只在服务端解析一次。
+ * 只补充数据源上和jdbcUrl中都未设置的驱动属性，应用自己的配置优先；连接池已启动时不修改。
+ * PostgreSQL驱动在同一个PreparedStatement执行达到prepareThreshold（默认5次）后自动使用服务端预编译，无需配置。
+ * </p>
+ */
+@Slf4j
+@Configuration
+@ConditionalOnClass(name = "com.zaxxer.hikari.HikariDataSource")
+@ConditionalOnProperty(prefix = "winter-local-task-message.jdbc", name = "prepared-statement-cache", havingValue = "true", matchIfMissing = true)
+public class HikariStatementCacheAutoConfig {
+
+    /**
+     * MySQL/MariaDB驱动的预编译语句缓存属性，取值参考HikariCP文档的推荐配置
+     */
+    private static final Map<String, String> STATEMENT_CACHE_PROPERTIES = new LinkedHashMap<>();
+
+    static {
+        STATEMENT_CACHE_PROPERTIES.put("cachePrepStmts", "true");
+        STATEMENT_CACHE_PROPERTIES.put("prepStmtCacheSize", "250");
+        STATEMENT_CACHE_PROPERTIES.put("prepStmtCacheSqlLimit", "2048");
+        STATEMENT_CACHE_PROPERTIES.put("useServerPrepStmts", "true");
+    }
+
+    /**
+     * 创建数据源后置处理器，在Hikari数据源完成属性绑定后、首次获取连接前补充驱动属性
+     *
+     * @return Bean后置处理器
+     */
+    @Bean
+    public static BeanPostProcessor taskMessageHikariStatementCachePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource) {
+                    enableStatementCache((HikariDataSource) bean, beanName);
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static void enableStatementCache(HikariDataSource dataSource, String beanName) {
+        if (dataSource.isRunning() || !isMySql(dataSource)) {
+            return;
+        }
+        String jdbcUrl = dataSource.getJdbcUrl() == null ? "" : dataSource.getJdbcUrl().toLowerCase(Locale.ROOT);
+        Properties configured = dataSource.getDataSourceProperties();
+        // 只记录本类补充的属性，应用的驱动属性中可能包含密码等凭据
+        Map<String, String> added = new LinkedHashMap<>();
+        try {
+            for (Map.Entry<String, String> entry : STATEMENT_CACHE_PROPERTIES.entrySet()) {
+                String name = entry.getKey();
+                if (!configured.containsKey(name) && !jdbcUrl.contains(name.toLowerCase(Locale.ROOT) + "=")) {
+                    dataSource.addDataSourceProperty(name, entry.getValue());
+                    added.put(name, entry.getValue());
+                }
+            }
+            if (!added.isEmpty()) {
+                log.info("数据源 [{}] 已开启预编译语句缓存: {}", beanName, added);
+            }
+        } catch (IllegalStateException e) {
+            // 连接池配置已锁定（已启动），保持原样
+            log.debug("数据源 [{}] 配置已锁定，跳过预编译语句缓存配置: {}", beanName, e.getMessage());
+        }
+    }
+
+    private static boolean isMySql(HikariDataSource dataSource) {
+        String[] hints = {dataSource.getJdbcUrl(), dataSource.getDriverClassName(), dataSource.getDataSourceClassName()};
+        for (String hint : hints) {
+            if (hint != null) {
+                String lower = hint.toLowerCase(Locale.ROOT);
+                if (lower.contains("mysql") || lower.contains("mariadb")) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -12,11 +12,11 @@ import org.springframework.kafka.core.KafkaTemplate;
 /**
  * Kafka通知策略自动配置类
  * <p>
- * 只有当Kafka相关类存在于classpath时才会加载此配置
+ * 只有当Kafka相关类和spring-jdbc存在于classpath时才会加载此配置
  * </p>
  */
 @Configuration
-@ConditionalOnClass(KafkaTemplate.class)
+@ConditionalOnClass(value = KafkaTemplate.class, name = "org.springframework.jdbc.datasource.TransactionAwareDataSourceProxy")
 public class KafkaNotifyAutoConfig {
 
     /**
@@ -2,21 +2,43 @@ package com.zsq.winter.local.message.config;
 
 import com.zsq.winter.local.message.LocalTaskMessageTemplate;
 import com.zsq.winter.local.message.config.aop.LocalTaskMessageAop;
+import com.zsq.winter.local.message.dao.BacklogStatsDaoImpl;
+import com.zsq.winter.local.message.dao.IBacklogStatsDao;
+import com.zsq.winter.local.message.dao.IPartitionOwnerDao;
 import com.zsq.winter.local.message.dao.ITaskMessageDao;
+import com.zsq.winter.local.message.dao.PartitionOwnerDaoImpl;
+import com.zsq.winter.local.message.dao.TaskMessageColumns;
 import com.zsq.winter.local.message.dao.TaskMessageDaoImpl;
+import com.zsq.winter.local.message.enums.ChangeNotifyTransportEnum;
+import com.zsq.winter.local.message.id.ITaskIdGenerator;
+import com.zsq.winter.local.message.id.SnowflakeTaskIdGenerator;
+import com.zsq.winter.local.message.metrics.ITaskMessageMetrics;
+import com.zsq.winter.local.message.metrics.NoopTaskMessageMetrics;
+import com.zsq.winter.local.message.trace.ITaskMessageTracing;
+import com.zsq.winter.local.message.trace.NoopTaskMessageTracing;
 import com.zsq.winter.local.message.service.*;
 import com.zsq.winter.local.message.strategy.INotifyStrategy;
 import com.zsq.winter.local.message.strategy.LocalTaskMessageNotifyFactory;
 import com.zsq.winter.local.message.strategy.impl.HTTPNotifyStrategy;
+import com.zsq.winter.local.message.trigger.job.DelayedMessageDispatcher;
+import com.zsq.winter.local.message.trigger.job.PartitionAssignmentManager;
+import com.zsq.winter.local.message.trigger.job.TaskMessageBacklogMonitor;
 import com.zsq.winter.local.message.trigger.job.TaskMessageEventJob;
+import com.zsq.winter.local.message.trigger.listener.PriorityTaskMessageEventListener;
+import com.zsq.winter.local.message.trigger.listener.TaskGroupRefreshListener;
+import com.zsq.winter.local.message.trigger.listener.TaskMessageChangeWatcher;
 import com.zsq.winter.local.message.trigger.listener.TaskMessageEventListener;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
+import org.springframework.core.env.Environment;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
@@ -24,6 +46,7 @@ import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
 import java.util.List;
 
 
@@ -33,30 +56,35 @@ import java.util.List;
  * Spring Boot Starter的自动配置类，负责自动装配本地任务消息的核心组件。
  * 启用异步支持和定时任务调度，扫描并加载相关Bean。
  * 配置了专用的线程池调度器用于定时任务执行。
+ * 基于JDBC实现，classpath上没有spring-jdbc时（如只使用R2DBC的WebFlux应用，应改用reactive模块）不加载。
  * </p>
  *
  * @see LocalTaskMessageAutoProperties
  * @see org.springframework.boot.autoconfigure.EnableAutoConfiguration
  */
 @Configuration
+@ConditionalOnClass(name = "org.springframework.jdbc.datasource.TransactionAwareDataSourceProxy")
 @EnableAsync
 @EnableScheduling
 @EnableConfigurationProperties(value = {LocalTaskMessageAutoProperties.class})
-@Import({KafkaNotifyAutoConfig.class, RocketMQNotifyAutoConfig.class, RabbitMQNotifyAutoConfig.class})
+@Import({KafkaNotifyAutoConfig.class, RocketMQNotifyAutoConfig.class, RabbitMQNotifyAutoConfig.class, TaskMessageMetricsAutoConfig.class,
+        TaskMessageEndpointAutoConfig.class, TaskMessageTracingAutoConfig.class, HikariStatementCacheAutoConfig.class})
 public class LocalTaskMessageAutoConfig {
     /**
      * 创建任务消息调度器
      * <p>
      * 配置专用的线程池调度器，用于执行定时任务扫描。
-     * 设置池大小为2，支持多个任务组并发调度。
+     * 池大小由scheduler.pool-size配置（默认2），开启独立调度器的任务组不占用该线程池。
      * </p>
      *
+     * @param properties 自动配置属性
      * @return 线程池调度器Bean
      */
     @Bean("taskMessageScheduler")
-    public ThreadPoolTaskScheduler taskMessageScheduler() {
+    public ThreadPoolTaskScheduler taskMessageScheduler(LocalTaskMessageAutoProperties properties) {
         ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
-        scheduler.setPoolSize(2);
+        Integer poolSize = properties.getScheduler().getPoolSize();
+        scheduler.setPoolSize(poolSize != null && poolSize > 0 ? poolSize : 2);
         scheduler.setThreadNamePrefix("TaskMessageScheduler-");
         scheduler.initialize();
         return scheduler;
@@ -84,11 +112,40 @@ public class LocalTaskMessageAutoConfig {
      * </p>
      *
      * @param dataSource 数据源
+     * @param properties 自动配置属性
      * @return 任务消息DAO Bean
      */
     @Bean
-    public ITaskMessageDao taskMessageDao(DataSource dataSource) {
-        return new TaskMessageDaoImpl(dataSource);
+    public ITaskMessageDao taskMessageDao(DataSource dataSource, LocalTaskMessageAutoProperties properties) {
+        // 开启跨节点变更通知且未指定探测方式时，插入后在PostgreSQL上发送NOTIFY
+        LocalTaskMessageAutoProperties.ChangeNotify changeNotify = properties.getChangeNotify();
+        String notifyChannel = Boolean.TRUE.equals(changeNotify.getEnabled()) && changeNotify.getTransport() != ChangeNotifyTransportEnum.PROBE
+                ? changeNotify.getChannel() : null;
+        // 只读写已开启功能对应的可选列，未执行对应ALTER TABLE的表在默认配置下也能使用
+        TaskMessageColumns columns = new TaskMessageColumns();
+        columns.setCompression(Boolean.TRUE.equals(properties.getCompression().getEnabled()));
+        columns.setOrdering(Boolean.TRUE.equals(properties.getOrdering().getEnabled()));
+        columns.setDelay(Boolean.TRUE.equals(properties.getDelay().getEnabled()));
+        columns.setPriority(Boolean.TRUE.equals(properties.getPriority().getEnabled()));
+        columns.setDeliveredAt(Boolean.TRUE.equals(properties.getMetrics().getDeliveredAt()));
+        columns.setTraceParent(Boolean.TRUE.equals(properties.getTracing().getPersistTraceParent()));
+        return new TaskMessageDaoImpl(dataSource, notifyChannel, columns);
+    }
+
+    /**
+     * 创建事务管理器检查
+     * <p>
+     * 启动完成后检查是否有事务管理器管理任务消息使用的数据源，没有时任务消息写入不会加入业务事务。
+     * </p>
+     *
+     * @param dataSource          数据源
+     * @param transactionManagers 容器中的事务管理器
+     * @return 事务管理器检查Bean
+     */
+    @Bean
+    public TaskMessageTransactionVerifier taskMessageTransactionVerifier(DataSource dataSource,
+                                                                         ObjectProvider<PlatformTransactionManager> transactionManagers) {
+        return new TaskMessageTransactionVerifier(dataSource, transactionManagers);
     }
 
     /**
@@ -99,13 +156,104 @@ public class LocalTaskMessageAutoConfig {
      * 允许使用者自定义实现
      * 如果用户已经配置了自己的 ILocalTaskMessageService 实现，就用用户的；否则用这个默认实现
      *
-     * @param taskMessageDao 任务消息DAO
+     * @param taskMessageDao  任务消息DAO
+     * @param properties      自动配置属性
+     * @param taskIdGenerator 任务ID生成器
+     * @param backlogEstimator 积压估算器（未开启时不存在）
      * @return 任务消息仓储服务Bean
      */
     @Bean
     @ConditionalOnMissingBean // 默认检查容器中是否存在 ILocalTaskMessageService 类型的 Bean
-    public ILocalTaskMessageService localTaskMessageService(ITaskMessageDao taskMessageDao) {
-        return new LocalTaskMessageServiceImpl(taskMessageDao);
+    public ILocalTaskMessageService localTaskMessageService(ITaskMessageDao taskMessageDao,
+                                                            LocalTaskMessageAutoProperties properties,
+                                                            ITaskIdGenerator taskIdGenerator,
+                                                            ObjectProvider<TaskMessageBacklogEstimator> backlogEstimator) {
+        return new LocalTaskMessageServiceImpl(taskMessageDao, properties.getCompression(), taskIdGenerator,
+                backlogEstimator.getIfAvailable());
+    }
+
+    /**
+     * 创建积压统计DAO
+     * <p>
+     * 仅在开启积压估算时创建，负责local_task_message_backlog表的读写。
+     * </p>
+     *
+     * @param dataSource 数据源
+     * @return 积压统计DAO Bean
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "winter-local-task-message.backlog-estimate", name = "enabled", havingValue = "true")
+    public IBacklogStatsDao backlogStatsDao(DataSource dataSource) {
+        return new BacklogStatsDaoImpl(dataSource);
+    }
+
+    /**
+     * 创建任务消息积压估算器
+     * <p>
+     * 仅在开启积压估算时创建，按门牌号维护待处理消息数，积压指标不再对任务消息表执行COUNT。
+     * </p>
+     *
+     * @param backlogStatsDao 积压统计DAO
+     * @param taskMessageDao  任务消息DAO
+     * @param scheduler       任务调度器
+     * @param properties      自动配置属性
+     * @return 积压估算器Bean
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "winter-local-task-message.backlog-estimate", name = "enabled", havingValue = "true")
+    public TaskMessageBacklogEstimator taskMessageBacklogEstimator(
+            IBacklogStatsDao backlogStatsDao,
+            ITaskMessageDao taskMessageDao,
+            ThreadPoolTaskScheduler scheduler,
+            LocalTaskMessageAutoProperties properties) {
+        return new TaskMessageBacklogEstimator(backlogStatsDao, taskMessageDao, scheduler, properties.getBacklogEstimate());
+    }
+
+    /**
+     * 创建任务ID生成器
+     * <p>
+     * 调用方未设置taskId时生成按时间递增的ID，允许使用者自定义实现。
+     * </p>
+     *
+     * @param properties 自动配置属性
+     * @return 任务ID生成器Bean
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public ITaskIdGenerator taskIdGenerator(LocalTaskMessageAutoProperties properties) {
+        Long workerId = properties.getIdGenerator().getWorkerId();
+        if (workerId == null) {
+            workerId = SnowflakeTaskIdGenerator.defaultWorkerId(ManagementFactory.getRuntimeMXBean().getName());
+        }
+        return new SnowflakeTaskIdGenerator(workerId);
+    }
+
+    /**
+     * 创建空的任务消息指标
+     * <p>
+     * 类路径上没有Micrometer时使用，不记录任何指标。
+     * </p>
+     *
+     * @return 任务消息指标Bean
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public ITaskMessageMetrics taskMessageMetrics() {
+        return NoopTaskMessageMetrics.INSTANCE;
+    }
+
+    /**
+     * 创建空的任务消息链路追踪
+     * <p>
+     * 类路径上没有OpenTelemetry API时使用，不记录链路，调用方设置的traceParent仍会传递给下游。
+     * </p>
+     *
+     * @return 任务消息链路追踪Bean
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public ITaskMessageTracing taskMessageTracing() {
+        return NoopTaskMessageTracing.INSTANCE;
     }
 
     /**
@@ -116,13 +264,26 @@ public class LocalTaskMessageAutoConfig {
      *
      * @param eventPublisher          Spring事件发布器
      * @param localTaskMessageService 任务消息仓储服务
+     * @param properties              自动配置属性
+     * @param metrics                 任务消息指标
+     * @param tracing                 任务消息链路追踪，受理时记录当前链路
      * @return 任务消息处理服务Bean
      */
     @Bean
     public LocalTaskMessageTemplate localTaskMessageTemplate(
             ApplicationEventPublisher eventPublisher,
-            ILocalTaskMessageService localTaskMessageService) {
-        return new LocalTaskMessageTemplate(eventPublisher, localTaskMessageService);
+            ILocalTaskMessageService localTaskMessageService,
+            LocalTaskMessageAutoProperties properties,
+            ITaskMessageMetrics metrics,
+            ITaskMessageTracing tracing) {
+        LocalTaskMessageAutoProperties.Idempotent idempotent = properties.getIdempotent();
+        if (!Boolean.TRUE.equals(idempotent.getEnabled())) {
+            return new LocalTaskMessageTemplate(eventPublisher, localTaskMessageService, false, null, metrics, tracing);
+        }
+        RecentTaskIdCache cache = idempotent.getCacheSize() != null && idempotent.getCacheSize() > 0
+                ? new RecentTaskIdCache(idempotent.getCacheSize(), idempotent.getCacheTtlMs() == null ? 0L : idempotent.getCacheTtlMs())
+                : null;
+        return new LocalTaskMessageTemplate(eventPublisher, localTaskMessageService, true, cache, metrics, tracing);
     }
 
 
@@ -149,11 +310,15 @@ public class LocalTaskMessageAutoConfig {
      * </p>
      *
      * @param notifyStrategyList 所有通知策略列表
+     * @param metrics            任务消息指标，启用时各策略被包装以记录发送耗时和结果
+     * @param tracing            任务消息链路追踪，启用时各策略被包装以开启投递span
      * @return 任务消息通知工厂Bean
      */
     @Bean
-    public LocalTaskMessageNotifyFactory localTaskMessageNotifyFactory(List<INotifyStrategy> notifyStrategyList) {
-        return new LocalTaskMessageNotifyFactory(notifyStrategyList);
+    public LocalTaskMessageNotifyFactory localTaskMessageNotifyFactory(List<INotifyStrategy> notifyStrategyList,
+                                                                       ITaskMessageMetrics metrics,
+                                                                       ITaskMessageTracing tracing) {
+        return new LocalTaskMessageNotifyFactory(notifyStrategyList, metrics, tracing);
     }
 
     /**
@@ -180,11 +345,75 @@ public class LocalTaskMessageAutoConfig {
      * </p>
      *
      * @param localTaskMessageNotifyFactory 任务消息通知工厂
+     * @param eventPublisher                Spring事件发布器，用于投递失败后唤醒扫描任务
+     * @param delayedMessageDispatcher      延迟消息调度器（未启用时不存在）
      * @return 任务消息事件监听器Bean
      */
     @Bean
-    public TaskMessageEventListener taskMessageEventListener(LocalTaskMessageNotifyFactory localTaskMessageNotifyFactory) {
-        return new TaskMessageEventListener(localTaskMessageNotifyFactory);
+    @ConditionalOnProperty(prefix = "winter-local-task-message.priority", name = "separate-executors", havingValue = "false", matchIfMissing = true)
+    public TaskMessageEventListener taskMessageEventListener(LocalTaskMessageNotifyFactory localTaskMessageNotifyFactory,
+                                                             ApplicationEventPublisher eventPublisher,
+                                                             ObjectProvider<DelayedMessageDispatcher> delayedMessageDispatcher) {
+        return new TaskMessageEventListener(localTaskMessageNotifyFactory, eventPublisher, delayedMessageDispatcher.getIfAvailable());
+    }
+
+    /**
+     * 创建按优先级分线程池的任务消息事件监听器
+     * <p>
+     * 仅在开启priority.separate-executors时创建，替代默认的异步事件监听器，
+     * 各优先级的即时投递使用独立的线程池。
+     * </p>
+     *
+     * @param localTaskMessageNotifyFactory 任务消息通知工厂
+     * @param eventPublisher                Spring事件发布器，用于投递失败后唤醒扫描任务
+     * @param delayedMessageDispatcher      延迟消息调度器（未启用时不存在）
+     * @param properties                    自动配置属性
+     * @return 按优先级分线程池的事件监听器Bean
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "winter-local-task-message.priority", name = "separate-executors", havingValue = "true")
+    public PriorityTaskMessageEventListener priorityTaskMessageEventListener(LocalTaskMessageNotifyFactory localTaskMessageNotifyFactory,
+                                                                             ApplicationEventPublisher eventPublisher,
+                                                                             ObjectProvider<DelayedMessageDispatcher> delayedMessageDispatcher,
+                                                                             LocalTaskMessageAutoProperties properties) {
+        TaskMessageEventListener delegate = new TaskMessageEventListener(localTaskMessageNotifyFactory, eventPublisher,
+                delayedMessageDispatcher.getIfAvailable());
+        return new PriorityTaskMessageEventListener(delegate, properties.getPriority());
+    }
+
+    /**
+     * 创建门牌号分区归属DAO
+     * <p>
+     * 仅在开启动态分区时创建，负责local_task_message_partition_owner表的心跳读写。
+     * </p>
+     *
+     * @param dataSource 数据源
+     * @return 分区归属DAO Bean
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "winter-local-task-message.partition", name = "enabled", havingValue = "true")
+    public IPartitionOwnerDao partitionOwnerDao(DataSource dataSource) {
+        return new PartitionOwnerDaoImpl(dataSource);
+    }
+
+    /**
+     * 创建门牌号动态分区管理器
+     * <p>
+     * 仅在开启动态分区时创建，多实例通过心跳自动均分各任务组的门牌号。
+     * </p>
+     *
+     * @param partitionOwnerDao 分区归属DAO
+     * @param scheduler         任务调度器
+     * @param properties        自动配置属性
+     * @return 动态分区管理器Bean
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "winter-local-task-message.partition", name = "enabled", havingValue = "true")
+    public PartitionAssignmentManager partitionAssignmentManager(
+            IPartitionOwnerDao partitionOwnerDao,
+            ThreadPoolTaskScheduler scheduler,
+            LocalTaskMessageAutoProperties properties) {
+        return new PartitionAssignmentManager(partitionOwnerDao, scheduler, properties.getPartition());
     }
 
     /**
@@ -197,6 +426,8 @@ public class LocalTaskMessageAutoConfig {
      * @param scheduler                     任务调度器
      * @param localTaskMessageNotifyFactory 任务消息通知工厂
      * @param localTaskMessageService       任务消息仓储服务
+     * @param partitionAssignmentManager    门牌号动态分区管理器（未开启时不存在）
+     * @param metrics                       任务消息指标
      * @return 任务消息定时任务Bean
      */
     @Bean
@@ -204,8 +435,105 @@ public class LocalTaskMessageAutoConfig {
             LocalTaskMessageAutoProperties properties,
             ThreadPoolTaskScheduler scheduler,
             LocalTaskMessageNotifyFactory localTaskMessageNotifyFactory,
-            ILocalTaskMessageService localTaskMessageService) {
-        return new TaskMessageEventJob(properties, scheduler, localTaskMessageNotifyFactory, localTaskMessageService);
+            ILocalTaskMessageService localTaskMessageService,
+            ObjectProvider<PartitionAssignmentManager> partitionAssignmentManager,
+            ITaskMessageMetrics metrics) {
+        return new TaskMessageEventJob(properties, scheduler, localTaskMessageNotifyFactory, localTaskMessageService,
+                partitionAssignmentManager.getIfAvailable(), metrics);
+    }
+
+    /**
+     * 创建任务消息积压监控
+     * <p>
+     * 按metrics.backlog-interval-ms采样各任务组游标滞后，开启积压估算时同时记录各门牌号积压；
+     * 未开启积压估算时只在配置了metrics.backlog-count-interval-ms后按该间隔COUNT积压。指标未启用时不采样。
+     * </p>
+     *
+     * @param taskMessageDao      任务消息DAO
+     * @param taskMessageEventJob 任务消息定时任务
+     * @param scheduler           任务调度器
+     * @param metrics             任务消息指标
+     * @param properties          自动配置属性
+     * @param backlogEstimator    积压估算器（未开启时不存在）
+     * @return 积压监控Bean
+     */
+    @Bean
+    public TaskMessageBacklogMonitor taskMessageBacklogMonitor(
+            ITaskMessageDao taskMessageDao,
+            TaskMessageEventJob taskMessageEventJob,
+            ThreadPoolTaskScheduler scheduler,
+            ITaskMessageMetrics metrics,
+            LocalTaskMessageAutoProperties properties,
+            ObjectProvider<TaskMessageBacklogEstimator> backlogEstimator) {
+        Long intervalMs = properties.getMetrics().getBacklogIntervalMs();
+        Long countIntervalMs = properties.getMetrics().getBacklogCountIntervalMs();
+        return new TaskMessageBacklogMonitor(taskMessageDao, taskMessageEventJob, scheduler, metrics,
+                intervalMs == null ? 0L : intervalMs, countIntervalMs == null ? 0L : countIntervalMs,
+                backlogEstimator.getIfAvailable());
+    }
+
+    /**
+     * 创建延迟消息调度器
+     * <p>
+     * 仅在开启delay.enabled时创建，将即将到期的延迟消息加载到时间轮，到期后投递。
+     * </p>
+     *
+     * @param localTaskMessageService       任务消息仓储服务
+     * @param localTaskMessageNotifyFactory 任务消息通知工厂
+     * @param scheduler                     任务调度器
+     * @param taskMessageEventJob           任务消息定时任务
+     * @param properties                    自动配置属性
+     * @return 延迟消息调度器Bean
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "winter-local-task-message.delay", name = "enabled", havingValue = "true", matchIfMissing = false)
+    public DelayedMessageDispatcher delayedMessageDispatcher(
+            ILocalTaskMessageService localTaskMessageService,
+            LocalTaskMessageNotifyFactory localTaskMessageNotifyFactory,
+            ThreadPoolTaskScheduler scheduler,
+            TaskMessageEventJob taskMessageEventJob,
+            LocalTaskMessageAutoProperties properties) {
+        return new DelayedMessageDispatcher(localTaskMessageService, localTaskMessageNotifyFactory, scheduler,
+                taskMessageEventJob, properties.getDelay());
+    }
+
+    /**
+     * 创建跨节点任务消息变更监听器
+     * <p>
+     * 仅在开启变更通知时创建，感知其他节点插入的新消息并唤醒本节点对应任务组扫描。
+     * </p>
+     *
+     * @param dataSource     数据源
+     * @param taskMessageDao 任务消息DAO
+     * @param scheduler      任务调度器
+     * @param eventPublisher Spring事件发布器
+     * @param properties     自动配置属性
+     * @return 变更监听器Bean
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "winter-local-task-message.change-notify", name = "enabled", havingValue = "true")
+    public TaskMessageChangeWatcher taskMessageChangeWatcher(
+            DataSource dataSource,
+            ITaskMessageDao taskMessageDao,
+            ThreadPoolTaskScheduler scheduler,
+            ApplicationEventPublisher eventPublisher,
+            LocalTaskMessageAutoProperties properties) {
+        return new TaskMessageChangeWatcher(dataSource, taskMessageDao, scheduler, eventPublisher, properties.getChangeNotify());
+    }
+
+    /**
+     * 创建任务组配置刷新监听器
+     * <p>
+     * 配置中心推送变更（Spring Cloud刷新事件）后重新加载任务组，无需重启。
+     * </p>
+     *
+     * @param environment         Spring环境
+     * @param taskMessageEventJob 任务消息定时任务
+     * @return 任务组配置刷新监听器Bean
+     */
+    @Bean
+    public TaskGroupRefreshListener taskGroupRefreshListener(Environment environment, TaskMessageEventJob taskMessageEventJob) {
+        return new TaskGroupRefreshListener(environment, taskMessageEventJob);
     }
 
 }
@@ -1,9 +1,13 @@
 package com.zsq.winter.local.message.config;
 
+import com.zsq.winter.local.message.enums.ChangeNotifyTransportEnum;
+import com.zsq.winter.local.message.enums.PayloadCodecEnum;
+import com.zsq.winter.local.message.enums.ScanQueryModeEnum;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -17,6 +21,10 @@ import java.util.List;
  *   <li>cron: 执行调度的 cron 表达式（可选）</li>
  *   <li>fixedDelayMs: 固定延迟毫秒（可选，和 cron 二选一）</li>
  *   <li>limit: 每次拉取的最大任务条数（默认 100）</li>
+ *   <li>lazyPayload: 是否开启两阶段扫描（默认 false）</li>
+ *   <li>queryMode: 扫描查询模式（默认 in_list）</li>
+ *   <li>streaming: 是否开启流式扫描（默认 false），fetchSize: 每批拉取行数（默认 500）</li>
+ *   <li>adaptive: 自适应调度配置（默认关闭）</li>
  * </ul>
  * 
  * <p><b>配置示例：</b></p>
@@ -31,6 +39,10 @@ import java.util.List;
  *       house-numbers: [3, 4, 5]
  *       fixed-delay-ms: 5000
  *       limit: 100
+ *   compression:
+ *     enabled: true
+ *     threshold-bytes: 4096
+ *     codec: lz4
  * </pre>
  * 
  * 
@@ -45,6 +57,71 @@ public class LocalTaskMessageAutoProperties {
      */
     private List<TaskGroupConfig> groups = new ArrayList<>();
 
+    /**
+     * 业务参数压缩配置
+     */
+    private Compression compression = new Compression();
+
+    /**
+     * 门牌号动态分区配置
+     */
+    private Partition partition = new Partition();
+
+    /**
+     * 共享调度器配置
+     */
+    private Scheduler scheduler = new Scheduler();
+
+    /**
+     * 跨节点变更通知配置
+     */
+    private ChangeNotify changeNotify = new ChangeNotify();
+
+    /**
+     * 顺序消息投递配置
+     */
+    private Ordering ordering = new Ordering();
+
+    /**
+     * 延迟消息配置
+     */
+    private Delay delay = new Delay();
+
+    /**
+     * 优先级投递配置
+     */
+    private Priority priority = new Priority();
+
+    /**
+     * 幂等受理配置
+     */
+    private Idempotent idempotent = new Idempotent();
+
+    /**
+     * 任务ID生成器配置
+     */
+    private IdGenerator idGenerator = new IdGenerator();
+
+    /**
+     * 指标配置
+     */
+    private Metrics metrics = new Metrics();
+
+    /**
+     * 积压估算配置
+     */
+    private BacklogEstimate backlogEstimate = new BacklogEstimate();
+
+    /**
+     * 链路追踪配置
+     */
+    private Tracing tracing = new Tracing();
+
+    /**
+     * JDBC访问配置
+     */
+    private Jdbc jdbc = new Jdbc();
+
     /**
      * 任务组配置类
      * <p>
@@ -77,6 +154,439 @@ public class LocalTaskMessageAutoProperties {
          * 每次批量处理限制条数
          */
         private Integer limit = 100;
+
+        /**
+         * 是否开启两阶段扫描：先通过覆盖索引查询路由字段，
+         * 再只为可投递的消息按ID加载通知配置和业务参数
+         */
+        private Boolean lazyPayload = false;
+
+        /**
+         * 扫描查询模式：in_list（默认，单条IN查询）或 index_merge（按门牌号和状态逐对走索引后多路归并）
+         */
+        private ScanQueryModeEnum queryMode = ScanQueryModeEnum.IN_LIST;
+
+        /**
+         * 是否开启流式扫描：游标打开期间逐条投递，不在内存中构建整批结果，适合调大limit清理积压。
+         * 开启后优先于lazyPayload和queryMode生效
+         */
+        private Boolean streaming = false;
+
+        /**
+         * 流式扫描时驱动每批拉取的行数（MySQL会自动改为逐行流式读取），同时作为读取与投递之间缓冲队列的容量
+         */
+        private Integer fetchSize = 500;
+
+        /**
+         * 流式扫描时游标的最长打开时间（毫秒），默认10000。
+         * 游标打开期间只读事务一直存在，PostgreSQL会保留快照使vacuum无法回收死元组，
+         * 超过该时间后停止读取并结束事务，剩余消息由下次扫描处理；小于等于0表示不限制
+         */
+        private Long streamMaxOpenMs = 10000L;
+
+        /**
+         * 自适应调度配置，开启后忽略cron，按扫描结果动态调整批量大小和调度间隔
+         */
+        private Adaptive adaptive = new Adaptive();
+
+        /**
+         * 是否使用独立的单线程调度器，开启后该组的慢扫描不会占用共享调度器线程，默认关闭
+         */
+        private Boolean isolatedScheduler = false;
+
+        /**
+         * 是否响应扫描唤醒事件：即时投递失败等情况下提前触发扫描，开启后可适当调大定时间隔，默认关闭
+         */
+        private Boolean wakeupEnabled = false;
+
+        /**
+         * 唤醒合并窗口毫秒：收到唤醒后等待该时长再扫描，窗口内的多次唤醒只触发一次扫描
+         */
+        private Long wakeupDelayMs = 200L;
+
+        /**
+         * 是否开启优先级扫描：每个优先级维护独立游标，高优先级先扫描，默认关闭。
+         * 开启后使用按优先级的IN查询，lazyPayload、streaming和queryMode不再生效
+         */
+        private Boolean priorityScan = false;
+
+        /**
+         * 优先级扫描时各优先级（高、普通、低）的批量配额权重，默认6:3:1；
+         * 某个优先级没有用完的配额在同一次扫描中按优先级顺序分给其他优先级
+         */
+        private List<Integer> priorityWeights = new ArrayList<>(Arrays.asList(6, 3, 1));
     }
 
+    /**
+     * 共享调度器配置类
+     * <p>
+     * 未开启独立调度器的任务组共用该调度器，线程数小于任务组数时，慢任务组会推迟其他组的执行。
+     * </p>
+     */
+    @Data
+    public static class Scheduler {
+        /**
+         * 调度线程数，默认2
+         */
+        private Integer poolSize = 2;
+    }
+
+    /**
+     * 自适应调度配置类
+     * <p>
+     * 拉满一批时立即再次扫描（受每秒最大扫描次数限制），没有数据时按指数退避到空闲间隔；
+     * 批量大小根据单次扫描耗时在[minLimit, maxLimit]之间翻倍或减半。
+     * 基础间隔取fixedDelayMs（默认5000），初始批量取limit。
+     * </p>
+     */
+    @Data
+    public static class Adaptive {
+        /**
+         * 是否开启自适应调度，默认关闭
+         */
+        private Boolean enabled = false;
+
+        /**
+         * 最小批量大小
+         */
+        private Integer minLimit = 10;
+
+        /**
+         * 最大批量大小
+         */
+        private Integer maxLimit = 1000;
+
+        /**
+         * 空闲退避上限（毫秒）
+         */
+        private Long idleDelayMs = 60000L;
+
+        /**
+         * 连续拉满时每秒最大扫描次数，0表示不限制
+         */
+        private Integer maxTicksPerSecond = 10;
+
+        /**
+         * 单次扫描的目标耗时（毫秒），用于调整批量大小
+         */
+        private Long targetTickMs = 1000L;
+    }
+
+    /**
+     * 门牌号动态分区配置类
+     * <p>
+     * 开启后，各任务组配置的houseNumbers（为空时为0-9）作为待分配的全部门牌号，
+     * 由该组所有存活实例通过local_task_message_partition_owner表的心跳自动均分，
+     * 实例加入或下线时自动重新分配。同一任务组在所有实例上的配置需保持一致。
+     * </p>
+     */
+    @Data
+    public static class Partition {
+        /**
+         * 是否开启动态分区，默认关闭
+         */
+        private Boolean enabled = false;
+
+        /**
+         * 实例ID，为空时自动生成（进程号@主机名#随机后缀）
+         */
+        private String instanceId;
+
+        /**
+         * 心跳间隔（毫秒）
+         */
+        private Long heartbeatIntervalMs = 10000L;
+
+        /**
+         * 心跳过期时间（毫秒），超过该时间未上报心跳的实例视为下线
+         */
+        private Long expireMs = 30000L;
+    }
+
+    /**
+     * 顺序消息投递配置类
+     * <p>
+     * 设置了orderingKey的消息由扫描任务按顺序键分到固定通道串行投递，不同顺序键并行投递。
+     * </p>
+     */
+    @Data
+    public static class Ordering {
+        /**
+         * 是否启用顺序消息，默认关闭；开启前需为表添加ordering_key列，未开启时设置了顺序键的消息保存失败
+         */
+        private Boolean enabled = false;
+
+        /**
+         * 投递通道数量（线程数），默认4
+         */
+        private Integer laneCount = 4;
+    }
+
+    /**
+     * 优先级投递配置类
+     * <p>
+     * 开启separateExecutors后，即时投递不再使用Spring默认异步线程池，
+     * 而是按消息优先级提交到各自的线程池，低优先级消息占满线程和队列时不影响高优先级消息的即时投递。
+     * </p>
+     */
+    @Data
+    public static class Priority {
+        /**
+         * 是否启用优先级，默认关闭；开启前需为表添加priority列，未开启时不保存优先级，任务组的priorityScan不生效
+         */
+        private Boolean enabled = false;
+
+        /**
+         * 是否按优先级使用独立的即时投递线程池，默认关闭
+         */
+        private Boolean separateExecutors = false;
+
+        /**
+         * 高优先级投递线程数，默认4
+         */
+        private Integer highPoolSize = 4;
+
+        /**
+         * 普通优先级投递线程数，默认4
+         */
+        private Integer normalPoolSize = 4;
+
+        /**
+         * 低优先级投递线程数，默认1
+         */
+        private Integer lowPoolSize = 1;
+
+        /**
+         * 每个线程池的队列容量，队列满后交由扫描任务投递，默认1000
+         */
+        private Integer queueCapacity = 1000;
+    }
+
+    /**
+     * 幂等受理配置类
+     * <p>
+     * 开启后重复的任务ID不再导致业务事务失败：数据库层忽略唯一键冲突，
+     * 受理方法返回false表示重复；最近受理的任务ID记录在本地有界缓存中，明显的重复提交不访问数据库。
+     * </p>
+     */
+    @Data
+    public static class Idempotent {
+        /**
+         * 是否开启幂等受理，默认关闭
+         */
+        private Boolean enabled = false;
+
+        /**
+         * 最近受理任务ID缓存的最大数量，0表示不使用缓存，默认10000
+         */
+        private Integer cacheSize = 10000;
+
+        /**
+         * 缓存有效期（毫秒），默认600000
+         */
+        private Long cacheTtlMs = 600000L;
+    }
+
+    /**
+     * 任务ID生成器配置类
+     * <p>
+     * 调用方未设置taskId时使用雪花算法生成按时间递增的ID。
+     * </p>
+     */
+    @Data
+    public static class IdGenerator {
+        /**
+         * 节点ID（0-1023），多节点部署时每个节点必须不同；为空时按主机名和进程号计算
+         */
+        private Long workerId;
+    }
+
+    /**
+     * 指标配置类
+     * <p>
+     * 类路径上存在Micrometer且容器中有MeterRegistry时生效。
+     * </p>
+     */
+    @Data
+    public static class Metrics {
+        /**
+         * 是否启用指标，默认true
+         */
+        private Boolean enabled = true;
+
+        /**
+         * 积压和游标滞后的采样间隔（毫秒），默认30000，小于等于0时不采样；未开启积压估算时不包含积压
+         */
+        private Long backlogIntervalMs = 30000L;
+
+        /**
+         * 未开启积压估算时按分组COUNT统计积压的间隔（毫秒），默认0不统计；COUNT需要扫描全部待处理消息，建议不小于600000
+         */
+        private Long backlogCountIntervalMs = 0L;
+
+        /**
+         * 状态更新为已完成时是否写入delivered_at列，默认关闭；开启前需为表添加该列
+         */
+        private Boolean deliveredAt = false;
+    }
+
+    /**
+     * JDBC访问配置类
+     */
+    @Data
+    public static class Jdbc {
+        /**
+         * 是否在每次扫描期间复用同一个连接和预编译语句执行状态更新，默认true
+         */
+        private Boolean tickSession = true;
+
+        /**
+         * 是否为MySQL/MariaDB的Hikari连接池开启预编译语句缓存（cachePrepStmts、useServerPrepStmts等），默认true；
+         * 只补充数据源上未设置的驱动属性，连接池已启动时不修改
+         */
+        private Boolean preparedStatementCache = true;
+    }
+
+    /**
+     * 积压估算配置类
+     * <p>
+     * 在local_task_message_backlog统计表中按门牌号维护待处理消息数，积压指标不再对任务消息表执行COUNT。
+     * </p>
+     */
+    @Data
+    public static class BacklogEstimate {
+        /**
+         * 是否开启积压估算，默认关闭；开启前需创建统计表
+         */
+        private Boolean enabled = false;
+
+        /**
+         * 本地增减写入统计表并重新读取的间隔（毫秒），默认5000
+         */
+        private Long flushIntervalMs = 5000L;
+
+        /**
+         * 按精确COUNT校准统计表的间隔（毫秒），默认3600000，小于等于0时只在统计表为空时初始化
+         */
+        private Long calibrateIntervalMs = 3600000L;
+    }
+
+    /**
+     * 延迟消息配置类
+     * <p>
+     * 设置了deliverAt的消息按加载间隔从数据库加载到内存时间轮，到期后按刻度精度投递。
+     * </p>
+     */
+    @Data
+    public static class Delay {
+        /**
+         * 是否启用延迟消息，默认关闭；开启前需为表添加deliver_at列，未开启时设置了deliverAt的消息保存失败
+         */
+        private Boolean enabled = false;
+
+        /**
+         * 时间轮刻度（毫秒），即投递精度，默认10
+         */
+        private Long tickMs = 10L;
+
+        /**
+         * 时间轮槽位数量，向上取整为2的幂，默认512
+         */
+        private Integer wheelSize = 512;
+
+        /**
+         * 加载窗口（毫秒），每次加载计划投递时间在该窗口内的消息，默认60000
+         */
+        private Long horizonMs = 60000L;
+
+        /**
+         * 加载间隔（毫秒），应小于加载窗口，默认10000
+         */
+        private Long loadIntervalMs = 10000L;
+
+        /**
+         * 单次加载的最大消息数，默认1000
+         */
+        private Integer loadLimit = 1000;
+
+        /**
+         * 投递线程数，默认2
+         */
+        private Integer deliveryThreads = 2;
+    }
+
+    /**
+     * 跨节点变更通知配置类
+     * <p>
+     * 开启后，任一节点插入新消息时，其他节点负责该门牌号且开启wakeupEnabled的任务组会被提前唤醒扫描。
+     * PostgreSQL使用LISTEN/NOTIFY，其他数据库按探测间隔沿主键查询新消息所在的门牌号。
+     * </p>
+     */
+    @Data
+    public static class ChangeNotify {
+        /**
+         * 是否开启跨节点变更通知，默认关闭
+         */
+        private Boolean enabled = false;
+
+        /**
+         * 通知方式：auto（默认）、pg_notify、probe
+         */
+        private ChangeNotifyTransportEnum transport = ChangeNotifyTransportEnum.AUTO;
+
+        /**
+         * PostgreSQL NOTIFY通道名，只能包含字母、数字和下划线
+         */
+        private String channel = "local_task_message";
+
+        /**
+         * 最大ID探测间隔（毫秒）
+         */
+        private Long probeIntervalMs = 1000L;
+    }
+
+    /**
+     * 业务参数压缩配置类
+     * <p>
+     * 开启后，超过阈值的parameterJson会被压缩存储到parameter_blob列，
+     * 并在payload_codec列记录编码，扫描时由策略按需解压。
+     * </p>
+     */
+    @Data
+    public static class Compression {
+        /**
+         * 是否开启压缩，默认关闭
+         */
+        private Boolean enabled = false;
+
+        /**
+         * 压缩阈值字节数，业务参数UTF-8字节数不小于该值时才压缩
+         */
+        private Integer thresholdBytes = 4096;
+
+        /**
+         * 压缩编码（deflate/lz4），lz4需引入lz4-java依赖
+         */
+        private PayloadCodecEnum codec = PayloadCodecEnum.DEFLATE;
+    }
+
+    /**
+     * 链路追踪配置类
+     * <p>
+     * 类路径上存在OpenTelemetry API时生效，优先使用容器中的OpenTelemetry，否则使用GlobalOpenTelemetry。
+     * </p>
+     */
+    @Data
+    public static class Tracing {
+        /**
+         * 是否启用链路追踪，默认true
+         */
+        private Boolean enabled = true;
+
+        /**
+         * 是否把受理时的链路上下文写入trace_parent列，默认关闭；开启前需为表添加该列，
+         * 未开启时只有即时投递能关联受理链路，扫描和延迟投递不再关联
+         */
+        private Boolean persistTraceParent = false;
+    }
 }
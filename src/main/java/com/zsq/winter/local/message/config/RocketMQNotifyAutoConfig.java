@@ -12,11 +12,11 @@ import org.springframework.context.annotation.Configuration;
 /**
  * RocketMQ通知策略自动配置类
  * <p>
- * 只有当RocketMQ相关类存在于classpath时才会加载此配置
+ * 只有当RocketMQ相关类和spring-jdbc存在于classpath时才会加载此配置
  * </p>
  */
 @Configuration
-@ConditionalOnClass(RocketMQTemplate.class)
+@ConditionalOnClass(value = RocketMQTemplate.class, name = "org.springframework.jdbc.datasource.TransactionAwareDataSourceProxy")
 public class RocketMQNotifyAutoConfig {
 
     /**
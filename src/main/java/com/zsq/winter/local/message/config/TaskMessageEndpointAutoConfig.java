@@ -0,0 +1,47 @@
+package com.zsq.winter.local.message.config;
+
+import com.zsq.winter.local.message.endpoint.LocalTaskMessageEndpoint;
+import com.zsq.winter.local.message.service.TaskMessageBacklogEstimator;
+import com.zsq.winter.local.message.trigger.job.DelayedMessageDispatcher;
+import com.zsq.winter.local.message.trigger.job.TaskMessageEventJob;
+import com.zsq.winter.local.message.trigger.listener.PriorityTaskMessageEventListener;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * 本地任务消息Actuator端点自动配置类
+ * <p>
+ * 只有当spring-boot-actuator存在于classpath时才会加载此配置，
+ * 端点是否通过Web暴露仍由management.endpoints.web.exposure配置决定。
+ * </p>
+ */
+@Configuration
+@ConditionalOnClass(name = "org.springframework.boot.actuate.endpoint.annotation.Endpoint")
+public class TaskMessageEndpointAutoConfig {
+
+    /**
+     * 创建本地任务消息端点
+     *
+     * @param taskMessageEventJob              任务消息定时任务
+     * @param scheduler                        任务调度器
+     * @param delayedMessageDispatcher         延迟消息调度器（未启用时不存在）
+     * @param priorityTaskMessageEventListener 按优先级分线程池的事件监听器（未开启时不存在）
+     * @param backlogEstimator                 积压估算器（未开启时不存在）
+     * @return 本地任务消息端点Bean
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public LocalTaskMessageEndpoint localTaskMessageEndpoint(
+            TaskMessageEventJob taskMessageEventJob,
+            ThreadPoolTaskScheduler scheduler,
+            ObjectProvider<DelayedMessageDispatcher> delayedMessageDispatcher,
+            ObjectProvider<PriorityTaskMessageEventListener> priorityTaskMessageEventListener,
+            ObjectProvider<TaskMessageBacklogEstimator> backlogEstimator) {
+        return new LocalTaskMessageEndpoint(taskMessageEventJob, scheduler, delayedMessageDispatcher.getIfAvailable(),
+                priorityTaskMessageEventListener.getIfAvailable(), backlogEstimator.getIfAvailable());
+    }
+}
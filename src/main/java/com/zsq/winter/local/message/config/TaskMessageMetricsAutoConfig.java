@@ -0,0 +1,41 @@
+package com.zsq.winter.local.message.config;
+
+import com.zsq.winter.local.message.metrics.ITaskMessageMetrics;
+import com.zsq.winter.local.message.metrics.MicrometerTaskMessageMetrics;
+import com.zsq.winter.local.message.metrics.NoopTaskMessageMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 任务消息Micrometer指标自动配置类
+ * <p>
+ * 只有当Micrometer相关类存在于classpath时才会加载此配置，
+ * 容器中没有MeterRegistry或关闭了metrics.enabled时使用空实现。
+ * </p>
+ */
+@Configuration
+@ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+public class TaskMessageMetricsAutoConfig {
+
+    /**
+     * 创建任务消息指标
+     *
+     * @param meterRegistry Micrometer指标注册表（未引入actuator时不存在）
+     * @param properties    自动配置属性
+     * @return 任务消息指标Bean
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public ITaskMessageMetrics taskMessageMetrics(ObjectProvider<MeterRegistry> meterRegistry,
+                                                  LocalTaskMessageAutoProperties properties) {
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry == null || !Boolean.TRUE.equals(properties.getMetrics().getEnabled())) {
+            return NoopTaskMessageMetrics.INSTANCE;
+        }
+        return new MicrometerTaskMessageMetrics(registry);
+    }
+}
@@ -0,0 +1,42 @@
+package com.zsq.winter.local.message.config;
+
+import com.zsq.winter.local.message.trace.ITaskMessageTracing;
+import com.zsq.winter.local.message.trace.NoopTaskMessageTracing;
+import com.zsq.winter.local.message.trace.OpenTelemetryTaskMessageTracing;
+import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.opentelemetry.api.OpenTelemetry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 任务消息OpenTelemetry链路追踪自动配置类
+ * <p>
+ * 只有当OpenTelemetry API存在于classpath时才会加载此配置，
+ * 容器中没有OpenTelemetry时使用GlobalOpenTelemetry（如Java Agent注册的实例），关闭了tracing.enabled时使用空实现。
+ * </p>
+ */
+@Configuration
+@ConditionalOnClass(name = "io.opentelemetry.api.OpenTelemetry")
+public class TaskMessageTracingAutoConfig {
+
+    /**
+     * 创建任务消息链路追踪
+     *
+     * @param openTelemetry 容器中的OpenTelemetry实例（可不存在）
+     * @param properties    自动配置属性
+     * @return 任务消息链路追踪Bean
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public ITaskMessageTracing taskMessageTracing(ObjectProvider<OpenTelemetry> openTelemetry,
+                                                  LocalTaskMessageAutoProperties properties) {
+        if (!Boolean.TRUE.equals(properties.getTracing().getEnabled())) {
+            return NoopTaskMessageTracing.INSTANCE;
+        }
+        OpenTelemetry instance = openTelemetry.getIfAvailable();
+        return new OpenTelemetryTaskMessageTracing(instance != null ? instance : GlobalOpenTelemetry.get());
+    }
+}
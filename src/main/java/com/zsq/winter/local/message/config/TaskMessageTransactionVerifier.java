@@ -0,0 +1,75 @@
+package com.zsq.winter.local.message.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.datasource.TransactionAwareDataSourceProxy;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.ReflectionUtils;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 事务管理器检查
+ * <p>
+ * 任务消息只有与业务写入使用同一个事务连接时才能保证原子性。启动完成后检查容器中的事务管理器，
+ * DataSourceTransactionManager、JpaTransactionManager、HibernateTransactionManager都通过getDataSource()暴露绑定连接的数据源，
+ * 没有任何事务管理器管理任务消息使用的数据源时输出告警，此时任务消息会在独立连接上自动提交。
+ * JpaTransactionManager需要JpaDialect支持暴露JDBC连接（HibernateJpaDialect支持）。
+ * </p>
+ */
+@Slf4j
+public class TaskMessageTransactionVerifier implements SmartInitializingSingleton {
+
+    private final DataSource dataSource;
+
+    private final ObjectProvider<PlatformTransactionManager> transactionManagers;
+
+    /**
+     * 构造方法
+     *
+     * @param dataSource          任务消息使用的数据源
+     * @param transactionManagers 容器中的事务管理器
+     */
+    public TaskMessageTransactionVerifier(DataSource dataSource, ObjectProvider<PlatformTransactionManager> transactionManagers) {
+        this.dataSource = dataSource;
+        this.transactionManagers = transactionManagers;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        List<PlatformTransactionManager> managers = transactionManagers.orderedStream().collect(Collectors.toList());
+        for (PlatformTransactionManager manager : managers) {
+            if (managesDataSource(manager)) {
+                log.debug("任务消息写入将加入事务管理器 [{}] 的事务", manager.getClass().getName());
+                return;
+            }
+        }
+        if (managers.stream().anyMatch(manager -> manager.getClass().getName().contains("JtaTransactionManager"))) {
+            log.info("使用JTA事务管理器，任务消息数据源需由JTA管理才能与业务写入处于同一事务");
+            return;
+        }
+        log.warn("容器中没有管理任务消息数据源的事务管理器，任务消息写入不会加入业务事务，事务管理器: {}",
+                managers.stream().map(manager -> manager.getClass().getName()).collect(Collectors.toList()));
+    }
+
+    private boolean managesDataSource(PlatformTransactionManager manager) {
+        Method getDataSource = ReflectionUtils.findMethod(manager.getClass(), "getDataSource");
+        if (getDataSource == null || !DataSource.class.isAssignableFrom(getDataSource.getReturnType())) {
+            return false;
+        }
+        Object managed = ReflectionUtils.invokeMethod(getDataSource, manager);
+        return managed != null && unwrap((DataSource) managed) == unwrap(dataSource);
+    }
+
+    /**
+     * 与事务管理器一致，事务感知代理按目标数据源绑定连接
+     */
+    private static DataSource unwrap(DataSource dataSource) {
+        return dataSource instanceof TransactionAwareDataSourceProxy
+                ? ((TransactionAwareDataSourceProxy) dataSource).getTargetDataSource() : dataSource;
+    }
+}
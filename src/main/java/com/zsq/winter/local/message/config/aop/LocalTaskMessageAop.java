@@ -5,18 +5,14 @@ import com.zsq.winter.local.message.annotation.LocalTaskMessage;
 import com.zsq.winter.local.message.entity.TaskMessageEntityCommand;
 import com.zsq.winter.local.message.LocalTaskMessageTemplate;
 import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
-import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.transaction.support.TransactionTemplate;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
-import java.util.Objects;
-
 /**
  * 本地任务消息AOP切面
  * <p>
@@ -165,181 +161,14 @@ public class LocalTaskMessageAop {
 
     /**
      * 从方法参数中解析TaskMessageEntityCommand对象
-     * 
-     * 该方法支持多种灵活的参数解析方式：
-     * 
-     * <p><b>支持的解析模式：</b></p>
-     * <ol>
-     *   <li><b>直接参数模式：</b> entityAttributeName = "command"
-     *       <br>直接从方法参数中查找名为"command"且类型为TaskMessageEntityCommand的参数</li>
-     *   
-     *   <li><b>对象属性路径模式：</b> entityAttributeName = "request.command" 
-     *       <br>先找到名为"request"的参数，然后调用其getCommand()方法或访问command字段</li>
-     *   
-     *   <li><b>自动发现模式：</b> entityAttributeName为空或null
-     *       <br>自动从所有参数中查找第一个TaskMessageEntityCommand类型的对象</li>
-     * </ol>
-     * 
-     * <p><b>属性访问策略：</b></p>
-     * <ul>
-     *   <li>优先尝试调用getter方法（如getCommand()）</li>
-     *   <li>如果getter方法不存在，则尝试直接访问字段</li>
-     *   <li>支持多级属性路径，如"request.data.command"</li>
-     * </ul>
-     * 
-     * @param joinPoint 连接点，包含方法信息和参数数组
-     * @param entityAttributeName 实体属性名称路径，支持点分隔的多级路径
+     *
+     * @param joinPoint           连接点
+     * @param entityAttributeName 实体属性名称路径
      * @return 解析出的TaskMessageEntityCommand对象，如果解析失败则返回null
+     * @see TaskMessageCommandResolver#resolve(JoinPoint, String)
      */
     private TaskMessageEntityCommand resolveCommand(ProceedingJoinPoint joinPoint, String entityAttributeName) {
-        // 获取方法的所有参数
-        Object[] args = joinPoint.getArgs();
-        MethodSignature methodSignature = (MethodSignature) joinPoint.getSignature();
-        Method method = methodSignature.getMethod();
-
-        // 模式1：自动发现模式 - 如果未配置属性路径，直接从参数列表中查找TaskMessageEntityCommand类型
-        if (entityAttributeName == null || entityAttributeName.trim().isEmpty()) {
-            for (Object arg : args) {
-                if (arg instanceof TaskMessageEntityCommand) {
-                    return (TaskMessageEntityCommand) arg;
-                }
-            }
-            return null;
-        }
-
-        // 解析属性路径，支持多级路径如"request.data.command"
-        String[] path = entityAttributeName.split("\\.");
-        String paramName = path[0]; // 第一段是方法参数名
-
-        // 根据参数名或类型在方法参数中查找根对象
-        Object root = findArgumentByNameOrType(method, args, paramName);
-        if (root == null) {
-            return null;
-        }
-
-        // 模式2：直接参数模式 - 如果路径只有一段且根对象就是TaskMessageEntityCommand类型
-        if (path.length == 1) {
-            return (root instanceof TaskMessageEntityCommand) ? (TaskMessageEntityCommand) root : null;
-        }
-
-        // 模式3：对象属性路径模式 - 沿着属性路径逐级访问对象属性
-        Object current = root;
-        for (int i = 1; i < path.length; i++) {
-            if (current == null) return null;
-            // 从当前对象中提取下一级属性
-            current = extractProperty(current, path[i]);
-        }
-
-        // 检查最终对象是否为TaskMessageEntityCommand类型
-        return (current instanceof TaskMessageEntityCommand) ? (TaskMessageEntityCommand) current : null;
-    }
-
-    /**
-     * 根据参数名或类型在方法参数中查找对应的对象
-     * 
-     * 该方法采用两阶段查找策略：
-     * 1. 首先尝试通过反射获取的参数名进行精确匹配
-     * 2. 如果参数名匹配失败，则根据特定规则进行类型匹配
-     * 
-     * <p><b>注意：</b></p>
-     * <ul>
-     *   <li>参数名匹配需要编译时保留参数名信息（-parameters编译选项或调试信息）</li>
-     *   <li>类型匹配仅在参数名为"command"时启用，避免误匹配其他TaskMessageEntityCommand类型参数</li>
-     * </ul>
-     * 
-     * @param method 目标方法对象
-     * @param args 方法参数数组
-     * @param paramName 要查找的参数名称
-     * @return 匹配的参数对象，如果未找到则返回null
-     */
-    private Object findArgumentByNameOrType(Method method, Object[] args, String paramName) {
-        // 策略1：通过反射获取参数名进行精确匹配
-        // 注意：需要编译时使用-parameters选项或包含调试信息才能获取到真实的参数名
-        java.lang.reflect.Parameter[] parameters = method.getParameters();
-        if (parameters.length == args.length) {
-            for (int i = 0; i < parameters.length; i++) {
-                if (Objects.equals(parameters[i].getName(), paramName)) {
-                    return args[i];
-                }
-            }
-        }
-
-        // 策略2：类型匹配回退机制
-        // 仅在参数名为"command"时启用类型匹配，避免误匹配其他TaskMessageEntityCommand类型的参数
-        // 这是一个安全的回退策略，因为"command"是一个常见的TaskMessageEntityCommand参数名
-        if ("command".equals(paramName)) {
-            for (Object arg : args) {
-                if (arg instanceof TaskMessageEntityCommand) {
-                    return arg;
-                }
-            }
-        }
-
-        return null;
-    }
-
-    /**
-     * 从对象中按属性名提取属性值
-     * 
-     * 该方法采用两阶段属性访问策略：
-     * 1. 优先尝试调用标准的getter方法（如getCommand()）
-     * 2. 如果getter方法不存在或调用失败，则尝试直接访问字段
-     * 
-     * <p><b>访问规则：</b></p>
-     * <ul>
-     *   <li>getter方法名规则：get + 首字母大写的属性名</li>
-     *   <li>字段访问会自动设置accessible=true以访问私有字段</li>
-     *   <li>如果两种方式都失败，返回null而不抛出异常</li>
-     * </ul>
-     * 
-     * @param target 目标对象
-     * @param propertyName 属性名称
-     * @return 属性值，如果获取失败则返回null
-     */
-    private Object extractProperty(Object target, String propertyName) {
-        Class<?> clazz = target.getClass();
-        
-        // 策略1：尝试调用getter方法
-        // 构造getter方法名：get + 首字母大写的属性名
-        String getterName = "get" + capitalize(propertyName);
-        try {
-            Method getter = clazz.getMethod(getterName);
-            return getter.invoke(target);
-        } catch (Exception ignore) {
-            // 忽略异常，继续尝试字段访问
-        }
-
-        // 策略2：直接访问字段
-        // 当getter方法不存在或调用失败时，尝试直接访问同名字段
-        try {
-            Field field = clazz.getDeclaredField(propertyName);
-            // 设置字段可访问，以便访问私有字段
-            field.setAccessible(true);
-            return field.get(target);
-        } catch (Exception e) {
-            // 如果字段访问也失败，返回null
-            return null;
-        }
-    }
-
-    /**
-     * 将字符串首字母大写
-     * 
-     * 用于构造getter方法名，例如：
-     * - "command" -> "Command"
-     * - "taskId" -> "TaskId"
-     * - "Command" -> "Command" (已经大写的保持不变)
-     * 
-     * @param s 输入字符串
-     * @return 首字母大写的字符串，如果输入为null或空字符串则原样返回
-     */
-    private String capitalize(String s) {
-        if (s == null || s.isEmpty()) return s;
-        char first = s.charAt(0);
-        // 如果首字母已经是大写，直接返回原字符串
-        if (Character.isUpperCase(first)) return s;
-        // 将首字母转为大写，其余部分保持不变
-        return Character.toUpperCase(first) + s.substring(1);
+        return TaskMessageCommandResolver.resolve(joinPoint, entityAttributeName);
     }
 
 }
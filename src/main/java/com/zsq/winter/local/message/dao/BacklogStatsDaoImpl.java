@@ -0,0 +1,86 @@
+package com.zsq.winter.local.message.dao;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Slf4j
+public class BacklogStatsDaoImpl implements IBacklogStatsDao {
+
+    private final DataSource dataSource;
+
+    public BacklogStatsDaoImpl(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public void addPending(int houseNumber, long delta) {
+        String sql = "UPDATE local_task_message_backlog SET pending_count = pending_count + ?, update_time = ? WHERE house_number = ?";
+        upsert(sql, houseNumber, delta, "TASK_MESSAGE_BACKLOG_ADD_ERROR 累加积压统计失败 ");
+    }
+
+    @Override
+    public void resetPending(int houseNumber, long count) {
+        String sql = "UPDATE local_task_message_backlog SET pending_count = ?, update_time = ? WHERE house_number = ?";
+        upsert(sql, houseNumber, count, "TASK_MESSAGE_BACKLOG_RESET_ERROR 校准积压统计失败 ");
+    }
+
+    /**
+     * 先UPDATE，影响0行时再INSERT；并发插入同一主键冲突时再UPDATE一次
+     */
+    private void upsert(String updateSql, int houseNumber, long value, String errorMessage) {
+        String insertSql = "INSERT INTO local_task_message_backlog (house_number, pending_count, update_time) VALUES (?, ?, ?)";
+
+        try (Connection connection = dataSource.getConnection()) {
+            if (executeUpdate(connection, updateSql, houseNumber, value) > 0) {
+                return;
+            }
+            try (PreparedStatement ps = connection.prepareStatement(insertSql)) {
+                ps.setInt(1, houseNumber);
+                ps.setLong(2, value);
+                ps.setObject(3, LocalDateTime.now());
+                ps.executeUpdate();
+            } catch (SQLException e) {
+                log.warn("插入积压统计冲突，houseNumber: {}, 错误: {}", houseNumber, e.getMessage());
+                executeUpdate(connection, updateSql, houseNumber, value);
+            }
+        } catch (SQLException e) {
+            log.error("更新积压统计失败，houseNumber: {}, value: {}", houseNumber, value, e);
+            throw new RuntimeException(errorMessage + e.getMessage());
+        }
+    }
+
+    private static int executeUpdate(Connection connection, String sql, int houseNumber, long value) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setLong(1, value);
+            ps.setObject(2, LocalDateTime.now());
+            ps.setInt(3, houseNumber);
+            return ps.executeUpdate();
+        }
+    }
+
+    @Override
+    public Map<Integer, Long> selectPending() {
+        String sql = "SELECT house_number, pending_count FROM local_task_message_backlog ORDER BY house_number ASC";
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            Map<Integer, Long> result = new LinkedHashMap<>();
+            while (rs.next()) {
+                result.put(rs.getInt("house_number"), rs.getLong("pending_count"));
+            }
+            return result;
+        } catch (SQLException e) {
+            log.error("查询积压统计失败", e);
+            throw new RuntimeException("TASK_MESSAGE_BACKLOG_SELECT_ERROR 查询积压统计失败 " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.zsq.winter.local.message.dao;
+
+import java.util.Map;
+
+/**
+ * 积压统计DAO接口
+ * <p>
+ * 操作local_task_message_backlog表，每个门牌号一行，记录该门牌号待处理消息数的估算值。
+ * 表中只有门牌号数量的行，读取和累加都不访问任务消息表。
+ * </p>
+ *
+ * @see com.zsq.winter.local.message.service.TaskMessageBacklogEstimator
+ */
+public interface IBacklogStatsDao {
+
+    /**
+     * 累加门牌号的待处理消息数
+     * <p>
+     * 记录不存在时插入。
+     * </p>
+     *
+     * @param houseNumber 门牌号
+     * @param delta       增量，可以为负
+     */
+    void addPending(int houseNumber, long delta);
+
+    /**
+     * 覆盖门牌号的待处理消息数
+     * <p>
+     * 记录不存在时插入，用于按精确统计结果校准。
+     * </p>
+     *
+     * @param houseNumber 门牌号
+     * @param count       待处理消息数
+     */
+    void resetPending(int houseNumber, long count);
+
+    /**
+     * 查询全部门牌号的待处理消息数
+     *
+     * @return 门牌号到待处理消息数的映射，表为空时返回空映射
+     */
+    Map<Integer, Long> selectPending();
+}
@@ -0,0 +1,55 @@
+package com.zsq.winter.local.message.dao;
+
+import java.util.List;
+
+/**
+ * 门牌号分区归属DAO接口
+ * <p>
+ * 操作local_task_message_partition_owner表，记录每个任务组中存活的实例及其心跳时间。
+ * 各实例根据同一份存活实例列表独立计算门牌号归属，无需选主。
+ * 心跳时间和存活判定都使用数据库时间，不依赖各实例的本地时钟。
+ * </p>
+ *
+ * @see com.zsq.winter.local.message.trigger.job.PartitionAssignmentManager
+ */
+public interface IPartitionOwnerDao {
+
+    /**
+     * 上报心跳
+     * <p>
+     * 将实例的心跳时间更新为数据库当前时间，记录不存在时插入。
+     * </p>
+     *
+     * @param groupId 任务组ID
+     * @param instanceId 实例ID
+     */
+    void heartbeat(String groupId, String instanceId);
+
+    /**
+     * 查询任务组中最近expireMs内（按数据库时间）有心跳的实例
+     *
+     * @param groupId 任务组ID
+     * @param expireMs 心跳过期时间（毫秒）
+     * @return 实例ID列表，按实例ID升序排列
+     */
+    List<String> selectAliveInstances(String groupId, long expireMs);
+
+    /**
+     * 删除任务组中超过expireMs（按数据库时间）没有心跳的实例
+     *
+     * @param groupId 任务组ID
+     * @param expireMs 心跳过期时间（毫秒）
+     * @return 删除的行数
+     */
+    int deleteExpired(String groupId, long expireMs);
+
+    /**
+     * 删除实例，用于实例下线时主动让出分区
+     *
+     * @param groupId 任务组ID
+     * @param instanceId 实例ID
+     * @return 删除的行数
+     */
+    int delete(String groupId, String instanceId);
+
+}
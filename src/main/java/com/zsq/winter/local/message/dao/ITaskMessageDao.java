@@ -1,7 +1,11 @@
 package com.zsq.winter.local.message.dao;
 import com.zsq.winter.local.message.entity.TaskMessagePO;
+import com.zsq.winter.local.message.enums.ScanQueryModeEnum;
 import java.sql.SQLException;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * 任务消息DAO接口
@@ -26,18 +30,45 @@ public interface ITaskMessageDao {
      */
     int insert(TaskMessagePO taskMessagePO) throws SQLException;
 
+    /**
+     * 幂等插入任务消息
+     * <p>
+     * task_id已存在时不插入也不抛出异常：PostgreSQL使用 ON CONFLICT (task_id) DO NOTHING，
+     * 其他数据库捕获唯一键冲突（冲突只回滚当前语句，不影响所在事务）。
+     * </p>
+     *
+     * @param taskMessagePO 任务消息PO对象
+     * @return 新插入时返回1，task_id已存在时返回0
+     * @throws SQLException 唯一键冲突以外的数据库操作异常
+     */
+    int insertIfAbsent(TaskMessagePO taskMessagePO) throws SQLException;
+
     /**
      * 根据任务ID修改状态
      * <p>
      * 更新指定任务的状态，用于标记任务的处理进度。
+     * 更新为已完成时只更新尚未完成的记录，开启metrics.delivered-at时同时记录投递完成时间。
      * </p>
      * 
      * @param taskId 任务ID
      * @param status 状态（0-待处理，1-处理中，2-已完成，3-失败）
-     * @return 影响行数
+     * @return 影响行数，更新为已完成时为0表示记录不存在或已经完成
      */
     int updateStatusByTaskId(String taskId, Integer status);
 
+    /**
+     * 在当前线程上打开数据库会话
+     * <p>
+     * 会话关闭前，当前线程上的{@link #updateStatusByTaskId(String, Integer)}复用同一个连接和预编译语句。
+     * 当前线程已有会话时返回空会话，由外层会话负责关闭。默认不支持会话，返回空会话。
+     * </p>
+     *
+     * @return 数据库会话，需在同一线程上关闭
+     */
+    default TaskMessageSession openSession() {
+        return TaskMessageSession.NOOP;
+    }
+
     /**
      * 根据门牌号查询任务消息列表
      * <p>
@@ -52,6 +83,153 @@ public interface ITaskMessageDao {
      */
     List<TaskMessagePO> selectByHouseNumber(List<Integer> houseNumbers, Long id, Integer limit);
 
+    /**
+     * 按指定查询模式根据门牌号查询任务消息列表
+     * <p>
+     * 查询条件与{@link #selectByHouseNumber(List, Long, Integer)}一致，
+     * {@link ScanQueryModeEnum#INDEX_MERGE}模式下按(门牌号, 状态)逐对走索引查询后多路归并。
+     * </p>
+     *
+     * @param houseNumbers 门牌号列表
+     * @param id 查询ID大于此值的记录
+     * @param limit 限制返回结果数量
+     * @param queryMode 查询模式
+     * @return 任务消息列表，按ID升序排列
+     */
+    List<TaskMessagePO> selectByHouseNumber(List<Integer> houseNumbers, Long id, Integer limit, ScanQueryModeEnum queryMode);
+
+    /**
+     * 根据门牌号流式扫描任务消息
+     * <p>
+     * 查询条件与{@link #selectByHouseNumber(List, Long, Integer)}一致，但不在内存中构建结果列表，
+     * 而是在游标打开期间逐行回调consumer。驱动按fetchSize分批拉取，consumer同步执行，
+     * 处理慢时自然阻塞读取，单次扫描的内存占用与limit无关。
+     * </p>
+     *
+     * @param houseNumbers 门牌号列表
+     * @param id 查询ID大于此值的记录
+     * @param limit 限制返回结果数量
+     * @param fetchSize 驱动每批拉取的行数
+     * @param consumer 逐行处理回调，抛出异常时终止扫描
+     * @return 实际扫描的行数
+     */
+    int streamByHouseNumber(List<Integer> houseNumbers, Long id, Integer limit, Integer fetchSize, Consumer<TaskMessagePO> consumer);
+
+    /**
+     * 根据门牌号流式扫描任务消息，限制游标的最长打开时间
+     * <p>
+     * 游标打开期间只读事务一直存在，PostgreSQL会因此保留事务开始时的快照，期间产生的死元组无法被vacuum回收。
+     * 游标打开超过maxOpenMs后停止读取并结束事务，返回已读取的行数，剩余消息由下次扫描处理。
+     * 默认实现不限制打开时间。
+     * </p>
+     *
+     * @param houseNumbers 门牌号列表
+     * @param id 查询ID大于此值的记录
+     * @param limit 限制返回结果数量
+     * @param fetchSize 驱动每批拉取的行数
+     * @param maxOpenMs 游标最长打开时间（毫秒），小于等于0表示不限制
+     * @param consumer 逐行处理回调，抛出异常时终止扫描
+     * @return 实际扫描的行数
+     */
+    default int streamByHouseNumber(List<Integer> houseNumbers, Long id, Integer limit, Integer fetchSize, long maxOpenMs, Consumer<TaskMessagePO> consumer) {
+        return streamByHouseNumber(houseNumbers, id, limit, fetchSize, consumer);
+    }
+
+    /**
+     * 根据门牌号查询任务消息路由信息
+     * <p>
+     * 与{@link #selectByHouseNumber}条件一致，但只查询id、task_id、notify_type、status、house_number，
+     * 可由覆盖索引直接返回，不读取notify_config、parameter_json等大字段。
+     * 用于两阶段扫描的第一阶段。
+     * </p>
+     *
+     * @param houseNumbers 门牌号列表
+     * @param id 查询ID大于此值的记录
+     * @param limit 限制返回结果数量
+     * @return 只包含路由字段的任务消息列表，按ID升序排列
+     */
+    List<TaskMessagePO> selectRouteByHouseNumber(List<Integer> houseNumbers, Long id, Integer limit);
+
+    /**
+     * 按指定查询模式根据门牌号查询任务消息路由信息
+     *
+     * @param houseNumbers 门牌号列表
+     * @param id 查询ID大于此值的记录
+     * @param limit 限制返回结果数量
+     * @param queryMode 查询模式
+     * @return 只包含路由字段的任务消息列表，按ID升序排列
+     * @see #selectByHouseNumber(List, Long, Integer, ScanQueryModeEnum)
+     */
+    List<TaskMessagePO> selectRouteByHouseNumber(List<Integer> houseNumbers, Long id, Integer limit, ScanQueryModeEnum queryMode);
+
+    /**
+     * 根据ID批量查询完整的任务消息
+     * <p>
+     * 用于两阶段扫描的第二阶段，只为确定要投递的消息加载大字段。
+     * </p>
+     *
+     * @param ids 主键ID列表
+     * @return 任务消息列表，按ID升序排列
+     */
+    List<TaskMessagePO> selectByIds(List<Long> ids);
+
+    /**
+     * 按优先级查询待处理的任务消息
+     * <pre>{@code
+     * SELECT ... FROM local_task_message
+     * WHERE priority = ? AND id >= ?
+     *   AND house_number IN (?, ?, ?, ...)
+     *   AND status IN (0, 3)
+     *   AND deliver_at IS NULL
+     * ORDER BY id ASC
+     * LIMIT ?
+     *}</pre>
+     * 每个优先级使用独立的游标，低优先级的积压不影响高优先级的扫描位置。
+     *
+     * @param houseNumbers 门牌号列表
+     * @param priority     优先级
+     * @param lastId       该优先级上次扫描到的ID
+     * @param limit        限制数量
+     * @return 任务消息列表
+     */
+    List<TaskMessagePO> selectByHouseNumberAndPriority(List<Integer> houseNumbers, Integer priority, Long lastId, Integer limit);
+
+    /**
+     * 按顺序键查询待处理的任务消息
+     * <p>
+     * 查询该顺序键下处于待处理或失败状态的消息，按ID升序排列，用于恢复被阻塞的顺序键。
+     * </p>
+     *
+     * @param orderingKey 顺序键
+     * @param limit       限制数量
+     * @return 任务消息列表
+     */
+    List<TaskMessagePO> selectPendingByOrderingKey(String orderingKey, Integer limit);
+
+    /**
+     * 查询即将到期的延迟消息
+     * <pre>{@code
+     * SELECT ... FROM local_task_message
+     * WHERE status IN (0, 3) AND deliver_at <= ? AND house_number IN (?, ?, ...)
+     * ORDER BY deliver_at ASC LIMIT ?
+     *}</pre>
+     * 包括已经过期仍未投递成功的消息，用于加载到时间轮和重试。
+     *
+     * @param houseNumbers  门牌号列表
+     * @param deliverBefore 计划投递时间上限
+     * @param limit         限制数量
+     * @return 按计划投递时间升序排列的任务消息列表
+     */
+    List<TaskMessagePO> selectDueDelayed(List<Integer> houseNumbers, LocalDateTime deliverBefore, Integer limit);
+
+    /**
+     * 根据任务ID查询任务消息
+     *
+     * @param taskId 任务ID
+     * @return 任务消息，不存在时返回null
+     */
+    TaskMessagePO selectByTaskId(String taskId);
+
     /**
      * 根据门牌号查询符合条件的最小ID
      * <p>
@@ -64,4 +242,46 @@ public interface ITaskMessageDao {
      */
     Long selectMinIdByHouseNumber(List<Integer> houseNumbers);
 
+    /**
+     * 查询门牌号范围内最早一条待处理（待发送和发送失败）的即时消息的创建时间
+     * <p>
+     * 按ID顺序取第一条，用于任务组最早待处理消息等待时长的采样。
+     * </p>
+     *
+     * @param houseNumbers 门牌号列表
+     * @return 创建时间，没有待处理消息时返回null
+     */
+    LocalDateTime selectOldestPendingCreateTime(List<Integer> houseNumbers);
+
+    /**
+     * 查询当前最大ID
+     * <p>
+     * 用于初始化变更探测的起始位置。
+     * </p>
+     *
+     * @return 最大ID，表为空时返回null
+     */
+    Long selectMaxId();
+
+    /**
+     * 查询ID大于指定值的新消息在各门牌号上的最大ID
+     * <p>
+     * 沿主键范围只扫描上次探测之后插入的行，用于无数据库通知能力时探测哪些门牌号有新消息。
+     * </p>
+     *
+     * @param id 上次探测到的最大ID
+     * @return 门牌号到该门牌号新消息最大ID的映射，没有新消息时返回空映射
+     */
+    Map<Integer, Long> selectMaxIdByHouseNumberAfter(Long id);
+
+    /**
+     * 统计各门牌号待处理（待发送和发送失败）的消息数量
+     * <p>
+     * 用于积压指标采样，由监控任务按较长间隔调用，不在扫描路径上执行。
+     * </p>
+     *
+     * @return 门牌号到待处理消息数量的映射，没有待处理消息的门牌号不在结果中
+     */
+    Map<Integer, Long> countPendingByHouseNumber();
+
 }
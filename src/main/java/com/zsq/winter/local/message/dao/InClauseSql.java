@@ -0,0 +1,63 @@
+package com.zsq.winter.local.message.dao;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 带 IN 子句的SQL模板
+ * <p>
+ * IN 子句的占位符只取决于列表长度，按长度缓存拼接好的SQL，同一长度的查询每次返回同一个字符串，
+ * 既省去每次调用的字符串拼接，也让驱动的预编译语句缓存按SQL文本命中。
+ * 门牌号最多10个，批量ID不超过扫描批量，缓存的长度种类有限；超过上限的长度不缓存。
+ * </p>
+ */
+final class InClauseSql {
+
+    /**
+     * 缓存的最大列表长度
+     */
+    private static final int MAX_CACHED_SIZE = 1024;
+
+    private final String prefix;
+
+    private final String suffix;
+
+    private final ConcurrentMap<Integer, String> cache = new ConcurrentHashMap<>();
+
+    /**
+     * 构造方法
+     *
+     * @param prefix IN 子句左括号之前的部分，包含 "IN ("
+     * @param suffix IN 子句右括号及之后的部分，包含 ")"
+     */
+    InClauseSql(String prefix, String suffix) {
+        this.prefix = prefix;
+        this.suffix = suffix;
+    }
+
+    /**
+     * 获取指定列表长度的SQL
+     *
+     * @param size IN 列表长度
+     * @return SQL
+     */
+    String of(int size) {
+        if (size > MAX_CACHED_SIZE) {
+            return build(size);
+        }
+        String sql = cache.get(size);
+        return sql != null ? sql : cache.computeIfAbsent(size, this::build);
+    }
+
+    private String build(int size) {
+        StringBuilder sql = new StringBuilder(prefix.length() + suffix.length() + size * 3);
+        sql.append(prefix);
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append('?');
+        }
+        return sql.append(suffix).toString();
+    }
+}
@@ -0,0 +1,139 @@
+package com.zsq.winter.local.message.dao;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+@Slf4j
+public class PartitionOwnerDaoImpl implements IPartitionOwnerDao {
+
+    private final DataSource dataSource;
+
+    /**
+     * 数据库是否为PostgreSQL，首次使用时探测
+     */
+    private volatile Boolean postgres;
+
+    public PartitionOwnerDaoImpl(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * 先UPDATE，影响0行时再INSERT；并发插入同一主键时忽略冲突，下次心跳会走UPDATE。
+     * 心跳时间取数据库时间，各实例的时钟偏差不影响存活判定
+     */
+    @Override
+    public void heartbeat(String groupId, String instanceId) {
+        String updateSql = "UPDATE local_task_message_partition_owner SET heartbeat_time = CURRENT_TIMESTAMP WHERE group_id = ? AND instance_id = ?";
+        String insertSql = "INSERT INTO local_task_message_partition_owner (group_id, instance_id, heartbeat_time) VALUES (?, ?, CURRENT_TIMESTAMP)";
+
+        try (Connection connection = dataSource.getConnection()) {
+            try (PreparedStatement ps = connection.prepareStatement(updateSql)) {
+                ps.setString(1, groupId);
+                ps.setString(2, instanceId);
+                if (ps.executeUpdate() > 0) {
+                    return;
+                }
+            }
+            try (PreparedStatement ps = connection.prepareStatement(insertSql)) {
+                ps.setString(1, groupId);
+                ps.setString(2, instanceId);
+                ps.executeUpdate();
+            } catch (SQLException e) {
+                if (!TaskMessageDaoImpl.isDuplicateKey(e)) {
+                    throw e;
+                }
+                log.warn("插入分区归属心跳冲突，groupId: {}, instanceId: {}, 错误: {}", groupId, instanceId, e.getMessage());
+            }
+        } catch (SQLException e) {
+            log.error("上报分区归属心跳失败，groupId: {}, instanceId: {}", groupId, instanceId, e);
+            throw new RuntimeException("TASK_MESSAGE_PARTITION_HEARTBEAT_ERROR 上报分区归属心跳失败 " + e.getMessage());
+        }
+    }
+
+    @Override
+    public List<String> selectAliveInstances(String groupId, long expireMs) {
+        List<String> result = new ArrayList<>();
+
+        try (Connection connection = dataSource.getConnection()) {
+            String sql = "SELECT instance_id FROM local_task_message_partition_owner WHERE group_id = ? AND heartbeat_time >= "
+                    + aliveAfter(connection) + " ORDER BY instance_id ASC";
+            try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                ps.setString(1, groupId);
+                ps.setLong(2, expireSeconds(expireMs));
+
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        result.add(rs.getString("instance_id"));
+                    }
+                }
+            }
+            return result;
+
+        } catch (SQLException e) {
+            log.error("查询存活实例失败，groupId: {}", groupId, e);
+            throw new RuntimeException("TASK_MESSAGE_PARTITION_SELECT_ALIVE_ERROR 查询存活实例失败 " + e.getMessage());
+        }
+    }
+
+    @Override
+    public int deleteExpired(String groupId, long expireMs) {
+        try (Connection connection = dataSource.getConnection()) {
+            String sql = "DELETE FROM local_task_message_partition_owner WHERE group_id = ? AND heartbeat_time < " + aliveAfter(connection);
+            try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                ps.setString(1, groupId);
+                ps.setLong(2, expireSeconds(expireMs));
+                return ps.executeUpdate();
+            }
+
+        } catch (SQLException e) {
+            log.error("清理过期实例失败，groupId: {}", groupId, e);
+            throw new RuntimeException("TASK_MESSAGE_PARTITION_DELETE_EXPIRED_ERROR 清理过期实例失败 " + e.getMessage());
+        }
+    }
+
+    /**
+     * 以数据库当前时间减去过期秒数作为存活判定时间的SQL表达式，过期秒数作为参数绑定
+     *
+     * @param connection 数据库连接
+     * @return SQL表达式
+     */
+    private String aliveAfter(Connection connection) throws SQLException {
+        if (postgres == null) {
+            String productName = connection.getMetaData().getDatabaseProductName();
+            postgres = productName != null && productName.toLowerCase().contains("postgresql");
+        }
+        return postgres ? "CURRENT_TIMESTAMP - ? * INTERVAL '1 second'" : "CURRENT_TIMESTAMP - INTERVAL ? SECOND";
+    }
+
+    /**
+     * heartbeat_time精确到秒，过期时间向上取整为秒
+     */
+    private static long expireSeconds(long expireMs) {
+        return (expireMs + 999) / 1000;
+    }
+
+    @Override
+    public int delete(String groupId, String instanceId) {
+        String sql = "DELETE FROM local_task_message_partition_owner WHERE group_id = ? AND instance_id = ?";
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+
+            ps.setString(1, groupId);
+            ps.setString(2, instanceId);
+            return ps.executeUpdate();
+
+        } catch (SQLException e) {
+            log.error("删除实例失败，groupId: {}, instanceId: {}", groupId, instanceId, e);
+            throw new RuntimeException("TASK_MESSAGE_PARTITION_DELETE_ERROR 删除实例失败 " + e.getMessage());
+        }
+    }
+
+}
@@ -0,0 +1,45 @@
+package com.zsq.winter.local.message.dao;
+
+import lombok.Data;
+
+/**
+ * 任务消息表的可选列
+ * <p>
+ * 基础表结构只包含id、task_id、task_name、notify_type、notify_config、status、parameter_json、
+ * house_number、create_time、update_time。其余列随对应功能引入，只有开启该功能时才出现在插入和查询语句中，
+ * 未执行对应ALTER TABLE的表在默认配置下可以直接使用。
+ * </p>
+ */
+@Data
+public class TaskMessageColumns {
+
+    /**
+     * 是否包含payload_codec、parameter_blob列（参数压缩）
+     */
+    private boolean compression;
+
+    /**
+     * 是否包含ordering_key列（顺序消息）
+     */
+    private boolean ordering;
+
+    /**
+     * 是否包含deliver_at列（延迟消息）
+     */
+    private boolean delay;
+
+    /**
+     * 是否包含priority列（优先级）
+     */
+    private boolean priority;
+
+    /**
+     * 是否包含delivered_at列（投递完成时间）
+     */
+    private boolean deliveredAt;
+
+    /**
+     * 是否包含trace_parent列（受理时的链路上下文）
+     */
+    private boolean traceParent;
+}
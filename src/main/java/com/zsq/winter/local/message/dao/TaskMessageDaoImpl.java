@@ -1,43 +1,221 @@
 package com.zsq.winter.local.message.dao;
 
 import com.zsq.winter.local.message.entity.TaskMessagePO;
+import com.zsq.winter.local.message.enums.ScanQueryModeEnum;
+import com.zsq.winter.local.message.enums.TaskPriorityEnum;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.TransactionAwareDataSourceProxy;
+
 import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
 
 @Slf4j
 public class TaskMessageDaoImpl implements ITaskMessageDao {
 
+    /**
+     * 路由查询列，全部包含在覆盖索引 idx_scan_route 中
+     */
+    private static final String ROUTE_COLUMNS = "id, task_id, notify_type, status, house_number";
+
+    /**
+     * 扫描的状态：0-待处理，3-失败
+     */
+    private static final int[] SCAN_STATUSES = {0, 3};
+
+    /**
+     * 流式扫描默认每批拉取行数
+     */
+    private static final int DEFAULT_FETCH_SIZE = 500;
+
+    /**
+     * 事务感知的数据源：处于Spring事务中时获取到的是事务绑定的连接，关闭时只释放引用不归还连接池
+     */
     private final DataSource dataSource;
 
+    /**
+     * 当前线程打开的数据库会话
+     */
+    private final ThreadLocal<Session> currentSession = new ThreadLocal<>();
+
+    /**
+     * 插入后发送PostgreSQL NOTIFY的通道名，为null时不发送
+     */
+    private final String notifyChannel;
+
+    /**
+     * 表中存在的可选列
+     */
+    private final TaskMessageColumns columns;
+
+    /**
+     * 完整查询列，按可选列生成
+     */
+    private final String fullColumns;
+
+    /**
+     * 即时消息条件：游标扫描只处理立即投递的消息，延迟消息由DelayedMessageDispatcher按deliver_at加载；
+     * 未启用延迟消息时为空
+     */
+    private final String immediateCondition;
+
+    /**
+     * 插入语句
+     */
+    private final String insertSql;
+
+    /**
+     * 更新为已完成的语句，只更新尚未完成的记录
+     */
+    private final String updateSuccessSql;
+
+    /**
+     * 扫描查询，按门牌号列表长度缓存
+     */
+    private final InClauseSql scanSql;
+
+    /**
+     * 两阶段扫描的路由查询，按门牌号列表长度缓存
+     */
+    private final InClauseSql routeSql;
+
+    /**
+     * 索引归并模式下单个(门牌号, 状态)组合的路由查询
+     */
+    private final String indexMergeRouteSql;
+
+    /**
+     * 按主键批量加载，按ID列表长度缓存
+     */
+    private final InClauseSql byIdsSql;
+
+    /**
+     * 按优先级扫描，按门牌号列表长度缓存
+     */
+    private final InClauseSql priorityScanSql;
+
+    /**
+     * 延迟消息加载，按门牌号列表长度缓存
+     */
+    private final InClauseSql dueDelayedSql;
+
+    /**
+     * 最小待处理ID查询，按门牌号列表长度缓存
+     */
+    private final InClauseSql minIdSql;
+
+    /**
+     * 最早待处理消息查询，按门牌号列表长度缓存
+     */
+    private final InClauseSql oldestPendingSql;
+
+    /**
+     * 数据库是否为PostgreSQL，首次插入时探测
+     */
+    private volatile Boolean postgres;
+
     public TaskMessageDaoImpl(DataSource dataSource) {
-        this.dataSource = dataSource;
+        this(dataSource, null);
+    }
+
+    public TaskMessageDaoImpl(DataSource dataSource, String notifyChannel) {
+        this(dataSource, notifyChannel, new TaskMessageColumns());
+    }
+
+    /**
+     * 构造方法
+     * <p>
+     * 连接通过{@link TransactionAwareDataSourceProxy}经{@code DataSourceUtils}获取：在业务事务中插入时复用事务管理器绑定的连接，
+     * 与业务写入一起提交或回滚，也不再额外占用一个连接；DataSourceTransactionManager、JpaTransactionManager（Hibernate）
+     * 以及使用mybatis-spring的MyBatis都按数据源绑定连接。不在事务中时与直接从数据源获取连接相同。
+     * </p>
+     *
+     * @param dataSource    数据源，应与事务管理器使用同一个数据源
+     * @param notifyChannel 插入后发送NOTIFY的通道名，为null或数据库不是PostgreSQL时不发送
+     * @param columns       表中存在的可选列，只读写其中开启的列
+     */
+    public TaskMessageDaoImpl(DataSource dataSource, String notifyChannel, TaskMessageColumns columns) {
+        this.dataSource = dataSource instanceof TransactionAwareDataSourceProxy
+                ? dataSource : new TransactionAwareDataSourceProxy(dataSource);
+        this.notifyChannel = notifyChannel;
+        this.columns = columns;
+
+        String insertColumns = insertColumns(columns);
+        StringBuilder placeholders = new StringBuilder("?");
+        for (int i = 0; i < insertColumns.length(); i++) {
+            if (insertColumns.charAt(i) == ',') {
+                placeholders.append(", ?");
+            }
+        }
+        this.fullColumns = "id, " + insertColumns;
+        this.immediateCondition = columns.isDelay() ? " AND deliver_at IS NULL" : "";
+        this.insertSql = "INSERT INTO local_task_message (" + insertColumns + ") VALUES (" + placeholders + ")";
+        this.updateSuccessSql = "UPDATE local_task_message SET status = ?, update_time = NOW()"
+                + (columns.isDeliveredAt() ? ", delivered_at = CURRENT_TIMESTAMP(3)" : "") + " WHERE task_id = ? AND status <> 2";
+        this.scanSql = new InClauseSql("SELECT " + fullColumns + " FROM local_task_message WHERE id >= ? AND house_number IN (",
+                ") AND status IN (0, 3)" + immediateCondition + " ORDER BY id ASC LIMIT ?");
+        this.routeSql = new InClauseSql("SELECT " + ROUTE_COLUMNS + " FROM local_task_message WHERE id >= ? AND house_number IN (",
+                ") AND status IN (0, 3)" + immediateCondition + " ORDER BY id ASC LIMIT ?");
+        this.indexMergeRouteSql = "SELECT " + ROUTE_COLUMNS + " FROM local_task_message WHERE house_number = ? AND status = ? AND id >= ?"
+                + immediateCondition + " ORDER BY id ASC LIMIT ?";
+        this.byIdsSql = new InClauseSql("SELECT " + fullColumns + " FROM local_task_message WHERE id IN (", ") ORDER BY id ASC");
+        this.priorityScanSql = new InClauseSql("SELECT " + fullColumns + " FROM local_task_message WHERE priority = ? AND id >= ? AND house_number IN (",
+                ") AND status IN (0, 3)" + immediateCondition + " ORDER BY id ASC LIMIT ?");
+        this.dueDelayedSql = new InClauseSql("SELECT " + fullColumns + " FROM local_task_message WHERE status IN (0, 3) AND deliver_at <= ? AND house_number IN (",
+                ") ORDER BY deliver_at ASC LIMIT ?");
+        this.minIdSql = new InClauseSql("SELECT MIN(id) as min_id FROM local_task_message WHERE house_number IN (",
+                ") AND status IN (0, 3)" + immediateCondition);
+        this.oldestPendingSql = new InClauseSql("SELECT create_time FROM local_task_message WHERE house_number IN (",
+                ") AND status IN (0, 3)" + immediateCondition + " ORDER BY id LIMIT 1");
+    }
+
+    /**
+     * 生成插入列（完整查询列去掉自增主键），可选列只在开启时加入
+     *
+     * @param columns 表中存在的可选列
+     * @return 逗号分隔的列名
+     */
+    private static String insertColumns(TaskMessageColumns columns) {
+        StringBuilder sql = new StringBuilder("task_id, task_name, notify_type, notify_config, status, parameter_json");
+        if (columns.isCompression()) {
+            sql.append(", payload_codec, parameter_blob");
+        }
+        if (columns.isOrdering()) {
+            sql.append(", ordering_key");
+        }
+        if (columns.isDelay()) {
+            sql.append(", deliver_at");
+        }
+        if (columns.isPriority()) {
+            sql.append(", priority");
+        }
+        if (columns.isTraceParent()) {
+            sql.append(", trace_parent");
+        }
+        return sql.append(", house_number, create_time, update_time").toString();
     }
 
     @Override
     public int insert(TaskMessagePO taskMessagePO) throws SQLException {
-        String sql = "INSERT INTO local_task_message (task_id, task_name, notify_type, notify_config, status, parameter_json, house_number ,create_time, update_time) " +
-                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
-
         try (Connection connection = dataSource.getConnection();
-             PreparedStatement ps = connection.prepareStatement(sql)) {
+             PreparedStatement ps = connection.prepareStatement(insertSql)) {
 
-            ps.setString(1, taskMessagePO.getTaskId());
-            ps.setString(2, taskMessagePO.getTaskName());
-            ps.setString(3, taskMessagePO.getNotifyType());
-            ps.setString(4, taskMessagePO.getNotifyConfig());
-            ps.setInt(5, taskMessagePO.getStatus());
-            ps.setString(6, taskMessagePO.getParameterJson());
-            ps.setInt(7, taskMessagePO.getHouseNumber());
-            ps.setObject(8, taskMessagePO.getCreateTime());
-            ps.setObject(9, taskMessagePO.getUpdateTime());
+            bindInsert(ps, taskMessagePO);
 
-            return ps.executeUpdate();
+            int result = ps.executeUpdate();
+            notifyInsert(connection, taskMessagePO.getHouseNumber());
+            return result;
 
         } catch (SQLException e) {
             log.error("插入任务消息失败，taskId: {}", taskMessagePO.getTaskId(), e);
@@ -46,31 +224,250 @@ public class TaskMessageDaoImpl implements ITaskMessageDao {
     }
 
     @Override
-    public int updateStatusByTaskId(String taskId, Integer status) {
-        String sql = "UPDATE local_task_message SET status = ?, update_time = NOW() WHERE task_id = ?";
+    public int insertIfAbsent(TaskMessagePO taskMessagePO) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            int result;
+            if (isPostgres(connection)) {
+                // PostgreSQL中语句报错会使整个事务失效，只能用ON CONFLICT在语句内忽略冲突
+                try (PreparedStatement ps = connection.prepareStatement(insertSql + " ON CONFLICT (task_id) DO NOTHING")) {
+                    bindInsert(ps, taskMessagePO);
+                    result = ps.executeUpdate();
+                }
+            } else {
+                // MySQL等数据库唯一键冲突只回滚当前语句，不影响所在事务
+                try (PreparedStatement ps = connection.prepareStatement(insertSql)) {
+                    bindInsert(ps, taskMessagePO);
+                    result = ps.executeUpdate();
+                } catch (SQLException e) {
+                    if (!isDuplicateKey(e)) {
+                        throw e;
+                    }
+                    result = 0;
+                }
+            }
+            if (result > 0) {
+                notifyInsert(connection, taskMessagePO.getHouseNumber());
+            }
+            return result;
 
-        try (Connection connection = dataSource.getConnection();
-             PreparedStatement ps = connection.prepareStatement(sql)) {
+        } catch (SQLException e) {
+            log.error("幂等插入任务消息失败，taskId: {}", taskMessagePO.getTaskId(), e);
+            throw e;
+        }
+    }
+
+    /**
+     * 绑定插入语句的参数
+     *
+     * @param ps            插入语句
+     * @param taskMessagePO 任务消息PO对象
+     */
+    private void bindInsert(PreparedStatement ps, TaskMessagePO taskMessagePO) throws SQLException {
+        int paramIndex = 1;
+        ps.setString(paramIndex++, taskMessagePO.getTaskId());
+        ps.setString(paramIndex++, taskMessagePO.getTaskName());
+        ps.setString(paramIndex++, taskMessagePO.getNotifyType());
+        ps.setString(paramIndex++, taskMessagePO.getNotifyConfig());
+        ps.setInt(paramIndex++, taskMessagePO.getStatus());
+        ps.setString(paramIndex++, taskMessagePO.getParameterJson());
+        if (columns.isCompression()) {
+            ps.setString(paramIndex++, taskMessagePO.getPayloadCodec());
+            ps.setBytes(paramIndex++, taskMessagePO.getParameterBlob());
+        }
+        if (columns.isOrdering()) {
+            ps.setString(paramIndex++, taskMessagePO.getOrderingKey());
+        } else if (taskMessagePO.getOrderingKey() != null) {
+            // 门牌号已按顺序键计算，不保存顺序键会使消息被乱序投递且成功后扣减错误门牌号的积压，直接拒绝
+            throw new IllegalStateException("TASK_MESSAGE_ORDERING_DISABLED_ERROR 未启用顺序消息（ordering.enabled），不能设置顺序键 taskId: "
+                    + taskMessagePO.getTaskId());
+        }
+        if (columns.isDelay()) {
+            ps.setObject(paramIndex++, taskMessagePO.getDeliverAt());
+        } else if (taskMessagePO.getDeliverAt() != null) {
+            // 不保存计划投递时间会使消息被立即投递，直接拒绝
+            throw new IllegalStateException("TASK_MESSAGE_DELAY_DISABLED_ERROR 未启用延迟消息（delay.enabled），不能设置计划投递时间 taskId: "
+                    + taskMessagePO.getTaskId());
+        }
+        if (columns.isPriority()) {
+            ps.setInt(paramIndex++, taskMessagePO.getPriority() == null ? TaskPriorityEnum.NORMAL.getCode() : taskMessagePO.getPriority());
+        }
+        if (columns.isTraceParent()) {
+            ps.setString(paramIndex++, taskMessagePO.getTraceParent());
+        }
+        ps.setInt(paramIndex++, taskMessagePO.getHouseNumber());
+        ps.setObject(paramIndex++, taskMessagePO.getCreateTime());
+        ps.setObject(paramIndex, taskMessagePO.getUpdateTime());
+    }
+
+    /**
+     * 判断是否为唯一键冲突异常
+     * <p>
+     * MySQL/MariaDB错误码1062；PostgreSQL、H2、DB2的SQLState为23505；SQL Server错误码2627/2601；Oracle为ORA-00001。
+     * </p>
+     *
+     * @param e SQL异常
+     * @return 唯一键冲突时返回true
+     */
+    static boolean isDuplicateKey(SQLException e) {
+        int errorCode = e.getErrorCode();
+        return "23505".equals(e.getSQLState())
+                || errorCode == 1062
+                || errorCode == 2627
+                || errorCode == 2601
+                || (errorCode == 1 && "23000".equals(e.getSQLState()));
+    }
+
+    /**
+     * 在插入连接上发送PostgreSQL NOTIFY，通知其他节点该门牌号有新消息
+     * <p>
+     * NOTIFY随所在事务提交后才投递，事务回滚时不会发出。
+     * </p>
+     *
+     * @param connection  插入使用的连接
+     * @param houseNumber 门牌号
+     */
+    private void notifyInsert(Connection connection, Integer houseNumber) throws SQLException {
+        if (notifyChannel == null) {
+            return;
+        }
+        if (!isPostgres(connection)) {
+            return;
+        }
+        try (PreparedStatement ps = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+            ps.setString(1, notifyChannel);
+            ps.setString(2, String.valueOf(houseNumber));
+            ps.execute();
+        }
+    }
 
-            ps.setInt(1, status);
-            ps.setString(2, taskId);
+    /**
+     * 判断数据库是否为PostgreSQL，首次调用时探测并缓存
+     *
+     * @param connection 数据库连接
+     * @return 是PostgreSQL时返回true
+     */
+    private boolean isPostgres(Connection connection) throws SQLException {
+        if (postgres == null) {
+            String productName = connection.getMetaData().getDatabaseProductName();
+            postgres = productName != null && productName.toLowerCase().contains("postgresql");
+        }
+        return postgres;
+    }
 
-            return ps.executeUpdate();
+    @Override
+    public int updateStatusByTaskId(String taskId, Integer status) {
+        // 已完成的记录不再更新，影响行数即是否首次完成；开启时在同一条UPDATE中记录投递完成时间
+        String sql = status != null && status == 2
+                ? updateSuccessSql
+                : "UPDATE local_task_message SET status = ?, update_time = NOW() WHERE task_id = ?";
+
+        Session session = currentSession.get();
+        try {
+            if (session != null) {
+                return executeUpdateStatus(session.prepare(sql), taskId, status);
+            }
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement ps = connection.prepareStatement(sql)) {
+                return executeUpdateStatus(ps, taskId, status);
+            }
 
         } catch (SQLException e) {
+            if (session != null) {
+                // 连接可能已失效，会话内的下一次更新重新获取连接
+                session.release();
+            }
             log.error("更新任务消息状态失败，taskId: {}, status: {}", taskId, status, e);
             throw new RuntimeException("TASK_MESSAGE_UPDATE_STATUS_ERROR 更新任务消息状态失败 " + e.getMessage());
         }
     }
+
+    private static int executeUpdateStatus(PreparedStatement ps, String taskId, Integer status) throws SQLException {
+        ps.setInt(1, status);
+        ps.setString(2, taskId);
+        return ps.executeUpdate();
+    }
+
+    @Override
+    public TaskMessageSession openSession() {
+        if (currentSession.get() != null) {
+            return TaskMessageSession.NOOP;
+        }
+        Session session = new Session();
+        currentSession.set(session);
+        return session;
+    }
+
+    /**
+     * 绑定到线程的数据库会话，按SQL缓存预编译语句
+     */
+    private final class Session implements TaskMessageSession {
+
+        private final Map<String, PreparedStatement> statements = new HashMap<>();
+
+        private Connection connection;
+
+        /**
+         * 获取SQL对应的预编译语句，首次使用时获取连接
+         *
+         * @param sql SQL
+         * @return 预编译语句
+         */
+        private PreparedStatement prepare(String sql) throws SQLException {
+            PreparedStatement ps = statements.get(sql);
+            if (ps == null) {
+                if (connection == null) {
+                    connection = dataSource.getConnection();
+                }
+                ps = connection.prepareStatement(sql);
+                statements.put(sql, ps);
+            }
+            return ps;
+        }
+
+        /**
+         * 关闭预编译语句并归还连接，会话仍可继续使用
+         */
+        private void release() {
+            for (PreparedStatement ps : statements.values()) {
+                try {
+                    ps.close();
+                } catch (SQLException e) {
+                    log.debug("关闭预编译语句失败: {}", e.getMessage());
+                }
+            }
+            statements.clear();
+            if (connection != null) {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    log.warn("归还数据库连接失败: {}", e.getMessage());
+                }
+                connection = null;
+            }
+        }
+
+        @Override
+        public void close() {
+            try {
+                release();
+            } finally {
+                if (currentSession.get() == this) {
+                    currentSession.remove();
+                }
+            }
+        }
+    }
+
     /**
      * 实现了一个带有 IN 列表过滤、id 游标分页、status 过滤、limit 限制、按 id 升序排序的数据库查询，并将每条记录转换成 Java 对象返回
      * <pre>{@code
      *     SELECT id, task_id, task_name, notify_type, notify_config, status, parameter_json,
-     *        house_number, create_time, update_time
+     *        payload_codec, parameter_blob, house_number, create_time, update_time
      * FROM local_task_message
      * WHERE id >= ?
      *   AND house_number IN (?, ?, ?, ...)
      *   AND status IN (0, 3)
+     *   AND deliver_at IS NULL    -- 启用延迟消息时
      * ORDER BY id ASC
      * LIMIT ?
      *}</pre>
@@ -86,8 +483,7 @@ public class TaskMessageDaoImpl implements ITaskMessageDao {
             return new ArrayList<>();
         }
 
-        // 构建 IN 子句的占位符
-        String sql = getString(houseNumbers);
+        String sql = scanSql.of(houseNumbers.size());
 
         List<TaskMessagePO> result = new ArrayList<>();
 
@@ -107,47 +503,489 @@ public class TaskMessageDaoImpl implements ITaskMessageDao {
 
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
-                    TaskMessagePO taskMessagePO = new TaskMessagePO();
-                    taskMessagePO.setId(rs.getLong("id"));
-                    taskMessagePO.setTaskId(rs.getString("task_id"));
-                    taskMessagePO.setTaskName(rs.getString("task_name"));
-                    taskMessagePO.setNotifyType(rs.getString("notify_type"));
-                    taskMessagePO.setNotifyConfig(rs.getString("notify_config"));
-                    taskMessagePO.setStatus(rs.getInt("status"));
-                    taskMessagePO.setParameterJson(rs.getString("parameter_json"));
-                    taskMessagePO.setHouseNumber(rs.getInt("house_number"));
-
-                    // 处理时间字段
-                    if (rs.getTimestamp("create_time") != null) {
-                        taskMessagePO.setCreateTime(rs.getTimestamp("create_time").toLocalDateTime());
+                    result.add(mapRow(rs));
+                }
+            }
+
+            return result;
+
+        } catch (SQLException e) {
+            log.error("根据门牌号列表查询任务消息失败，houseNumbers: {}, id: {}, limit: {}", houseNumbers, id, limit, e);
+            throw new RuntimeException("TASK_MESSAGE_SELECT_BY_HOUSE_NUMBER_ERROR 根据门牌号列表查询任务消息失败 " + e.getMessage());
+        }
+    }
+
+    /**
+     * 流式扫描，SQL与{@link #selectByHouseNumber(List, Long, Integer)}相同
+     * <p>
+     * 不同数据库开启流式读取的方式不同：
+     * </p>
+     * <ul>
+     *   <li>MySQL/MariaDB：fetchSize为Integer.MIN_VALUE时逐行流式读取（未开启useCursorFetch时正数fetchSize不生效）</li>
+     *   <li>PostgreSQL等：需在非自动提交模式下设置正数fetchSize才会使用服务端游标</li>
+     * </ul>
+     * 因此扫描期间临时关闭自动提交，结束后恢复。
+     *
+     * @param houseNumbers 门牌号列表
+     * @param id           id
+     * @param limit        限制数量
+     * @param fetchSize    每批拉取的行数
+     * @param consumer     逐行处理回调
+     * @return 实际扫描的行数
+     */
+    @Override
+    public int streamByHouseNumber(List<Integer> houseNumbers, Long id, Integer limit, Integer fetchSize, Consumer<TaskMessagePO> consumer) {
+        return streamByHouseNumber(houseNumbers, id, limit, fetchSize, 0L, consumer);
+    }
+
+    /**
+     * 流式扫描，游标打开超过maxOpenMs后停止读取
+     * <p>
+     * 每处理完一行检查一次打开时长，超时后关闭游标并回滚只读事务，
+     * 避免PostgreSQL长时间持有快照阻碍vacuum，也避免MySQL流式结果集长时间占用连接。
+     * </p>
+     *
+     * @param houseNumbers 门牌号列表
+     * @param id           id
+     * @param limit        限制数量
+     * @param fetchSize    每批拉取的行数
+     * @param maxOpenMs    游标最长打开时间（毫秒），小于等于0表示不限制
+     * @param consumer     逐行处理回调
+     * @return 实际扫描的行数
+     */
+    @Override
+    public int streamByHouseNumber(List<Integer> houseNumbers, Long id, Integer limit, Integer fetchSize, long maxOpenMs, Consumer<TaskMessagePO> consumer) {
+        if (houseNumbers == null || houseNumbers.isEmpty()) {
+            return 0;
+        }
+
+        String sql = scanSql.of(houseNumbers.size());
+
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            if (autoCommit) {
+                connection.setAutoCommit(false);
+            }
+            try (PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                ps.setFetchSize(resolveStreamingFetchSize(connection, fetchSize));
+
+                int paramIndex = 1;
+                ps.setLong(paramIndex++, id);
+                for (Integer houseNumber : houseNumbers) {
+                    ps.setInt(paramIndex++, houseNumber);
+                }
+                ps.setInt(paramIndex, limit);
+
+                long openedAt = System.currentTimeMillis();
+                int count = 0;
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        consumer.accept(mapRow(rs));
+                        count++;
+                        if (maxOpenMs > 0 && System.currentTimeMillis() - openedAt >= maxOpenMs) {
+                            log.info("流式扫描游标已打开{}ms，提前结束本次扫描，已扫描{}条，剩余消息由下次扫描处理", maxOpenMs, count);
+                            break;
+                        }
                     }
-                    if (rs.getTimestamp("update_time") != null) {
-                        taskMessagePO.setUpdateTime(rs.getTimestamp("update_time").toLocalDateTime());
+                }
+                return count;
+            } finally {
+                // 只读扫描，结束事务后恢复连接原有的自动提交设置
+                if (autoCommit) {
+                    connection.rollback();
+                    connection.setAutoCommit(true);
+                }
+            }
+
+        } catch (SQLException e) {
+            log.error("根据门牌号列表流式扫描任务消息失败，houseNumbers: {}, id: {}, limit: {}", houseNumbers, id, limit, e);
+            throw new RuntimeException("TASK_MESSAGE_STREAM_BY_HOUSE_NUMBER_ERROR 根据门牌号列表流式扫描任务消息失败 " + e.getMessage());
+        }
+    }
+
+    /**
+     * 根据数据库类型确定流式读取的fetchSize
+     *
+     * @param connection 数据库连接
+     * @param fetchSize  配置的每批拉取行数
+     * @return 驱动实际使用的fetchSize
+     */
+    private static int resolveStreamingFetchSize(Connection connection, Integer fetchSize) throws SQLException {
+        String productName = connection.getMetaData().getDatabaseProductName();
+        if (productName != null) {
+            String lower = productName.toLowerCase();
+            if (lower.contains("mysql") || lower.contains("mariadb")) {
+                return Integer.MIN_VALUE;
+            }
+        }
+        return fetchSize == null || fetchSize <= 0 ? DEFAULT_FETCH_SIZE : fetchSize;
+    }
+
+    @Override
+    public List<TaskMessagePO> selectByHouseNumber(List<Integer> houseNumbers, Long id, Integer limit, ScanQueryModeEnum queryMode) {
+        if (queryMode != ScanQueryModeEnum.INDEX_MERGE) {
+            return selectByHouseNumber(houseNumbers, id, limit);
+        }
+        // 先在覆盖索引上完成归并，再只为最终的limit条按主键加载完整内容
+        List<TaskMessagePO> routeList = selectRouteByIndexMerge(houseNumbers, id, limit);
+        if (routeList.isEmpty()) {
+            return routeList;
+        }
+        List<Long> ids = new ArrayList<>(routeList.size());
+        for (TaskMessagePO route : routeList) {
+            ids.add(route.getId());
+        }
+        return selectByIds(ids);
+    }
+
+    @Override
+    public List<TaskMessagePO> selectRouteByHouseNumber(List<Integer> houseNumbers, Long id, Integer limit, ScanQueryModeEnum queryMode) {
+        if (queryMode != ScanQueryModeEnum.INDEX_MERGE) {
+            return selectRouteByHouseNumber(houseNumbers, id, limit);
+        }
+        return selectRouteByIndexMerge(houseNumbers, id, limit);
+    }
+
+    /**
+     * 索引归并模式查询路由信息
+     * <p>
+     * 对每个(门牌号, 状态)组合执行：
+     * </p>
+     * <pre>{@code
+     * SELECT id, task_id, notify_type, status, house_number
+     * FROM local_task_message
+     * WHERE house_number = ? AND status = ? AND id >= ? AND deliver_at IS NULL    -- 启用延迟消息时
+     * ORDER BY id ASC
+     * LIMIT ?
+     *}</pre>
+     * 等值条件加id范围可以沿 idx_scan_route(house_number, status, id, ...) 顺序读取，既不回表也不排序。
+     * 各组合的结果本身有序，使用小顶堆做多路归并，取全局最小的limit条。
+     * 所有组合复用同一个连接和同一个PreparedStatement。
+     *
+     * @param houseNumbers 门牌号列表
+     * @param id           id
+     * @param limit        限制数量
+     * @return 只包含路由字段的任务消息列表，按ID升序排列
+     */
+    private List<TaskMessagePO> selectRouteByIndexMerge(List<Integer> houseNumbers, Long id, Integer limit) {
+        if (houseNumbers == null || houseNumbers.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<List<TaskMessagePO>> runs = new ArrayList<>(houseNumbers.size() * SCAN_STATUSES.length);
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(indexMergeRouteSql)) {
+
+            for (Integer houseNumber : houseNumbers) {
+                for (int status : SCAN_STATUSES) {
+                    ps.setInt(1, houseNumber);
+                    ps.setInt(2, status);
+                    ps.setLong(3, id);
+                    ps.setInt(4, limit);
+
+                    List<TaskMessagePO> run = new ArrayList<>();
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            run.add(mapRouteRow(rs));
+                        }
+                    }
+                    if (!run.isEmpty()) {
+                        runs.add(run);
                     }
+                }
+            }
+
+        } catch (SQLException e) {
+            log.error("索引归并模式查询任务消息路由信息失败，houseNumbers: {}, id: {}, limit: {}", houseNumbers, id, limit, e);
+            throw new RuntimeException("TASK_MESSAGE_SELECT_ROUTE_BY_INDEX_MERGE_ERROR 索引归并模式查询任务消息路由信息失败 " + e.getMessage());
+        }
+
+        return mergeById(runs, limit);
+    }
+
+    /**
+     * 多路归并：将若干按ID升序的有序列表合并，取前limit条
+     *
+     * @param runs  有序列表集合
+     * @param limit 限制数量
+     * @return 按ID升序的合并结果
+     */
+    private static List<TaskMessagePO> mergeById(List<List<TaskMessagePO>> runs, int limit) {
+        if (runs.size() == 1) {
+            List<TaskMessagePO> run = runs.get(0);
+            return run.size() <= limit ? run : new ArrayList<>(run.subList(0, limit));
+        }
+
+        // 堆元素为 {列表下标, 列表内位置}
+        PriorityQueue<int[]> heap = new PriorityQueue<>(Math.max(1, runs.size()),
+                Comparator.comparingLong(cursor -> runs.get(cursor[0]).get(cursor[1]).getId()));
+        for (int i = 0; i < runs.size(); i++) {
+            heap.add(new int[]{i, 0});
+        }
+
+        List<TaskMessagePO> result = new ArrayList<>(limit);
+        while (result.size() < limit && !heap.isEmpty()) {
+            int[] cursor = heap.poll();
+            List<TaskMessagePO> run = runs.get(cursor[0]);
+            result.add(run.get(cursor[1]));
+            if (++cursor[1] < run.size()) {
+                heap.add(cursor);
+            }
+        }
+        return result;
+    }
 
-                    result.add(taskMessagePO);
+    /**
+     * 两阶段扫描第一阶段：只查询路由字段
+     * <pre>{@code
+     * SELECT id, task_id, notify_type, status, house_number
+     * FROM local_task_message
+     * WHERE id >= ?
+     *   AND house_number IN (?, ?, ?, ...)
+     *   AND status IN (0, 3)
+     *   AND deliver_at IS NULL    -- 启用延迟消息时
+     * ORDER BY id ASC
+     * LIMIT ?
+     *}</pre>
+     * 查询列全部包含在 idx_scan_route(house_number, status, id, notify_type, task_id) 中，无需回表。
+     *
+     * @param houseNumbers 门牌号列表
+     * @param id           id
+     * @param limit        限制数量
+     * @return 只包含路由字段的任务消息列表
+     */
+    @Override
+    public List<TaskMessagePO> selectRouteByHouseNumber(List<Integer> houseNumbers, Long id, Integer limit) {
+        if (houseNumbers == null || houseNumbers.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        String sql = routeSql.of(houseNumbers.size());
+
+        List<TaskMessagePO> result = new ArrayList<>();
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+
+            int paramIndex = 1;
+            ps.setLong(paramIndex++, id);
+            for (Integer houseNumber : houseNumbers) {
+                ps.setInt(paramIndex++, houseNumber);
+            }
+            ps.setInt(paramIndex, limit);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    result.add(mapRouteRow(rs));
                 }
             }
 
             return result;
 
         } catch (SQLException e) {
-            log.error("根据门牌号列表查询任务消息失败，houseNumbers: {}, id: {}, limit: {}", houseNumbers, id, limit, e);
-            throw new RuntimeException("TASK_MESSAGE_SELECT_BY_HOUSE_NUMBER_ERROR 根据门牌号列表查询任务消息失败 " + e.getMessage());
+            log.error("根据门牌号列表查询任务消息路由信息失败，houseNumbers: {}, id: {}, limit: {}", houseNumbers, id, limit, e);
+            throw new RuntimeException("TASK_MESSAGE_SELECT_ROUTE_BY_HOUSE_NUMBER_ERROR 根据门牌号列表查询任务消息路由信息失败 " + e.getMessage());
         }
     }
 
-    private static String getString(List<Integer> houseNumbers) {
-        StringBuilder placeholders = new StringBuilder();
-        for (int i = 0; i < houseNumbers.size(); i++) {
-            if (i > 0) {
-                placeholders.append(", ");
+    /**
+     * 两阶段扫描第二阶段：按主键批量加载完整消息
+     *
+     * @param ids 主键ID列表
+     * @return 任务消息列表
+     */
+    @Override
+    public List<TaskMessagePO> selectByIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        String sql = byIdsSql.of(ids.size());
+
+        List<TaskMessagePO> result = new ArrayList<>(ids.size());
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+
+            for (int i = 0; i < ids.size(); i++) {
+                ps.setLong(i + 1, ids.get(i));
+            }
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    result.add(mapRow(rs));
+                }
             }
-            placeholders.append("?");
+
+            return result;
+
+        } catch (SQLException e) {
+            log.error("根据ID列表查询任务消息失败，ids: {}", ids, e);
+            throw new RuntimeException("TASK_MESSAGE_SELECT_BY_IDS_ERROR 根据ID列表查询任务消息失败 " + e.getMessage());
         }
+    }
 
-        return "SELECT id, task_id, task_name, notify_type, notify_config, status, parameter_json, house_number, create_time, update_time " +
-                "FROM local_task_message WHERE id >= ? AND house_number IN (" + placeholders + ") AND status IN (0, 3) ORDER BY id ASC LIMIT ?";
+    @Override
+    public List<TaskMessagePO> selectByHouseNumberAndPriority(List<Integer> houseNumbers, Integer priority, Long lastId, Integer limit) {
+        if (houseNumbers == null || houseNumbers.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        String sql = priorityScanSql.of(houseNumbers.size());
+
+        List<TaskMessagePO> result = new ArrayList<>();
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+
+            int paramIndex = 1;
+            ps.setInt(paramIndex++, priority);
+            ps.setLong(paramIndex++, lastId);
+            for (Integer houseNumber : houseNumbers) {
+                ps.setInt(paramIndex++, houseNumber);
+            }
+            ps.setInt(paramIndex, limit);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    result.add(mapRow(rs));
+                }
+            }
+
+            return result;
+
+        } catch (SQLException e) {
+            log.error("按优先级查询任务消息失败，houseNumbers: {}, priority: {}, lastId: {}", houseNumbers, priority, lastId, e);
+            throw new RuntimeException("TASK_MESSAGE_SELECT_BY_PRIORITY_ERROR 按优先级查询任务消息失败 " + e.getMessage());
+        }
+    }
+
+    @Override
+    public List<TaskMessagePO> selectPendingByOrderingKey(String orderingKey, Integer limit) {
+        String sql = "SELECT " + fullColumns + " FROM local_task_message WHERE ordering_key = ? AND status IN (0, 3)" + immediateCondition + " ORDER BY id ASC LIMIT ?";
+
+        List<TaskMessagePO> result = new ArrayList<>();
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+
+            ps.setString(1, orderingKey);
+            ps.setInt(2, limit);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    result.add(mapRow(rs));
+                }
+            }
+
+            return result;
+
+        } catch (SQLException e) {
+            log.error("按顺序键查询待处理任务消息失败，orderingKey: {}", orderingKey, e);
+            throw new RuntimeException("TASK_MESSAGE_SELECT_BY_ORDERING_KEY_ERROR 按顺序键查询待处理任务消息失败 " + e.getMessage());
+        }
+    }
+
+    @Override
+    public List<TaskMessagePO> selectDueDelayed(List<Integer> houseNumbers, LocalDateTime deliverBefore, Integer limit) {
+        if (houseNumbers == null || houseNumbers.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        String sql = dueDelayedSql.of(houseNumbers.size());
+
+        List<TaskMessagePO> result = new ArrayList<>();
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+
+            int paramIndex = 1;
+            ps.setObject(paramIndex++, deliverBefore);
+            for (Integer houseNumber : houseNumbers) {
+                ps.setInt(paramIndex++, houseNumber);
+            }
+            ps.setInt(paramIndex, limit);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    result.add(mapRow(rs));
+                }
+            }
+
+            return result;
+
+        } catch (SQLException e) {
+            log.error("查询即将到期的延迟消息失败，houseNumbers: {}, deliverBefore: {}", houseNumbers, deliverBefore, e);
+            throw new RuntimeException("TASK_MESSAGE_SELECT_DUE_DELAYED_ERROR 查询即将到期的延迟消息失败 " + e.getMessage());
+        }
+    }
+
+    @Override
+    public TaskMessagePO selectByTaskId(String taskId) {
+        String sql = "SELECT " + fullColumns + " FROM local_task_message WHERE task_id = ?";
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+
+            ps.setString(1, taskId);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? mapRow(rs) : null;
+            }
+
+        } catch (SQLException e) {
+            log.error("根据任务ID查询任务消息失败，taskId: {}", taskId, e);
+            throw new RuntimeException("TASK_MESSAGE_SELECT_BY_TASK_ID_ERROR 根据任务ID查询任务消息失败 " + e.getMessage());
+        }
+    }
+
+    /**
+     * 将结果集当前行映射为完整的任务消息PO
+     */
+    private TaskMessagePO mapRow(ResultSet rs) throws SQLException {
+        TaskMessagePO taskMessagePO = mapRouteRow(rs);
+        taskMessagePO.setTaskName(rs.getString("task_name"));
+        taskMessagePO.setNotifyConfig(rs.getString("notify_config"));
+        taskMessagePO.setParameterJson(rs.getString("parameter_json"));
+        if (columns.isCompression()) {
+            taskMessagePO.setPayloadCodec(rs.getString("payload_codec"));
+            taskMessagePO.setParameterBlob(rs.getBytes("parameter_blob"));
+        }
+        if (columns.isOrdering()) {
+            taskMessagePO.setOrderingKey(rs.getString("ordering_key"));
+        }
+        if (columns.isPriority()) {
+            taskMessagePO.setPriority(rs.getInt("priority"));
+        }
+        if (columns.isTraceParent()) {
+            taskMessagePO.setTraceParent(rs.getString("trace_parent"));
+        }
+        if (columns.isDelay() && rs.getTimestamp("deliver_at") != null) {
+            taskMessagePO.setDeliverAt(rs.getTimestamp("deliver_at").toLocalDateTime());
+        }
+
+        // 处理时间字段
+        if (rs.getTimestamp("create_time") != null) {
+            taskMessagePO.setCreateTime(rs.getTimestamp("create_time").toLocalDateTime());
+        }
+        if (rs.getTimestamp("update_time") != null) {
+            taskMessagePO.setUpdateTime(rs.getTimestamp("update_time").toLocalDateTime());
+        }
+        return taskMessagePO;
+    }
+
+    /**
+     * 将结果集当前行映射为只包含路由字段的任务消息PO
+     */
+    private static TaskMessagePO mapRouteRow(ResultSet rs) throws SQLException {
+        TaskMessagePO taskMessagePO = new TaskMessagePO();
+        taskMessagePO.setId(rs.getLong("id"));
+        taskMessagePO.setTaskId(rs.getString("task_id"));
+        taskMessagePO.setNotifyType(rs.getString("notify_type"));
+        taskMessagePO.setStatus(rs.getInt("status"));
+        taskMessagePO.setHouseNumber(rs.getInt("house_number"));
+        return taskMessagePO;
     }
 
     /**
@@ -162,16 +1000,7 @@ public class TaskMessageDaoImpl implements ITaskMessageDao {
             return null;
         }
 
-        // 构建 IN 子句的占位符
-        StringBuilder placeholders = new StringBuilder();
-        for (int i = 0; i < houseNumbers.size(); i++) {
-            if (i > 0) {
-                placeholders.append(", ");
-            }
-            placeholders.append("?");
-        }
-
-        String sql = "SELECT MIN(id) as min_id FROM local_task_message WHERE house_number IN (" + placeholders + ") AND status IN (0, 3)";
+        String sql = minIdSql.of(houseNumbers.size());
 
         try (Connection connection = dataSource.getConnection();
              PreparedStatement ps = connection.prepareStatement(sql)) {
@@ -194,4 +1023,87 @@ public class TaskMessageDaoImpl implements ITaskMessageDao {
         }
     }
 
+    @Override
+    public LocalDateTime selectOldestPendingCreateTime(List<Integer> houseNumbers) {
+        if (houseNumbers == null || houseNumbers.isEmpty()) {
+            return null;
+        }
+
+        // 沿扫描索引按ID取第一条待处理消息，只回表读取一行的创建时间
+        String sql = oldestPendingSql.of(houseNumbers.size());
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            for (int i = 0; i < houseNumbers.size(); i++) {
+                ps.setInt(i + 1, houseNumbers.get(i));
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next() && rs.getTimestamp("create_time") != null) {
+                    return rs.getTimestamp("create_time").toLocalDateTime();
+                }
+                return null;
+            }
+        } catch (SQLException e) {
+            log.error("查询最早待处理消息失败，houseNumbers: {}", houseNumbers, e);
+            throw new RuntimeException("TASK_MESSAGE_SELECT_OLDEST_PENDING_ERROR 查询最早待处理消息失败 " + e.getMessage());
+        }
+    }
+
+    @Override
+    public Long selectMaxId() {
+        String sql = "SELECT MAX(id) as max_id FROM local_task_message";
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            if (rs.next()) {
+                long maxId = rs.getLong("max_id");
+                return rs.wasNull() ? null : maxId;
+            }
+            return null;
+        } catch (SQLException e) {
+            log.error("查询最大ID失败", e);
+            throw new RuntimeException("TASK_MESSAGE_SELECT_MAX_ID_ERROR 查询最大ID失败 " + e.getMessage());
+        }
+    }
+
+    @Override
+    public Map<Integer, Long> selectMaxIdByHouseNumberAfter(Long id) {
+        String sql = "SELECT house_number, MAX(id) as max_id FROM local_task_message WHERE id > ? GROUP BY house_number";
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setLong(1, id);
+
+            Map<Integer, Long> result = new LinkedHashMap<>();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    result.put(rs.getInt("house_number"), rs.getLong("max_id"));
+                }
+            }
+            return result;
+        } catch (SQLException e) {
+            log.error("探测新消息失败，id: {}", id, e);
+            throw new RuntimeException("TASK_MESSAGE_SELECT_MAX_ID_BY_HOUSE_NUMBER_ERROR 探测新消息失败 " + e.getMessage());
+        }
+    }
+
+    @Override
+    public Map<Integer, Long> countPendingByHouseNumber() {
+        String sql = "SELECT house_number, COUNT(*) as pending_count FROM local_task_message WHERE status IN (0, 3) GROUP BY house_number";
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            Map<Integer, Long> result = new LinkedHashMap<>();
+            while (rs.next()) {
+                result.put(rs.getInt("house_number"), rs.getLong("pending_count"));
+            }
+            return result;
+        } catch (SQLException e) {
+            log.error("统计待处理消息数量失败", e);
+            throw new RuntimeException("TASK_MESSAGE_COUNT_PENDING_ERROR 统计待处理消息数量失败 " + e.getMessage());
+        }
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.zsq.winter.local.message.dao;
+
+/**
+ * 任务消息数据库会话
+ * <p>
+ * 会话打开期间，当前线程上的状态更新复用同一个数据库连接和同一个PreparedStatement，
+ * 一次扫描投递数百条消息时不再为每条消息借还连接、重新预编译语句。
+ * 连接在第一次更新时才从连接池获取，关闭会话时归还；会话内的更新仍然逐条自动提交。
+ * 会话只作用于打开它的线程，在其他线程上（如顺序消息通道）执行的更新仍各自获取连接。
+ * </p>
+ *
+ * @see ITaskMessageDao#openSession()
+ */
+public interface TaskMessageSession extends AutoCloseable {
+
+    /**
+     * 空会话，不持有连接
+     */
+    TaskMessageSession NOOP = () -> {
+    };
+
+    /**
+     * 关闭会话，释放预编译语句并归还连接
+     */
+    @Override
+    void close();
+}
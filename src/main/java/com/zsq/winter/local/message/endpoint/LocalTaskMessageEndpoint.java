@@ -0,0 +1,211 @@
+package com.zsq.winter.local.message.endpoint;
+
+import com.zsq.winter.local.message.service.TaskMessageBacklogEstimator;
+import com.zsq.winter.local.message.trigger.job.DelayedMessageDispatcher;
+import com.zsq.winter.local.message.trigger.job.GroupScheduleStats;
+import com.zsq.winter.local.message.trigger.job.TaskMessageEventJob;
+import com.zsq.winter.local.message.trigger.listener.PriorityTaskMessageEventListener;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+/**
+ * 本地任务消息Actuator端点
+ * <p>
+ * 暴露为 /actuator/localtaskmessage，查看各任务组的运行状态并在运行期调整，不需要直接修改数据库：
+ * </p>
+ * <ul>
+ *   <li>GET /actuator/localtaskmessage：全部任务组状态、线程池排队数、积压估算</li>
+ *   <li>GET /actuator/localtaskmessage/{groupId}：单个任务组状态</li>
+ *   <li>POST /actuator/localtaskmessage/{groupId}：对任务组执行操作，
+ *       请求体 {"action": "tick|pause|resume|reset-cursor", "lastId": 0}</li>
+ *   <li>POST /actuator/localtaskmessage：按任务ID重新投递，请求体 {"taskIds": "id1,id2"}</li>
+ * </ul>
+ * 写操作会改变投递行为，暴露到Web时应配合访问控制。
+ *
+ * @see TaskMessageEventJob
+ */
+@Slf4j
+@Endpoint(id = "localtaskmessage")
+public class LocalTaskMessageEndpoint {
+
+    private final TaskMessageEventJob taskMessageEventJob;
+
+    private final ThreadPoolTaskScheduler scheduler;
+
+    private final DelayedMessageDispatcher delayedMessageDispatcher;
+
+    private final PriorityTaskMessageEventListener priorityTaskMessageEventListener;
+
+    private final TaskMessageBacklogEstimator backlogEstimator;
+
+    /**
+     * 构造方法
+     *
+     * @param taskMessageEventJob              任务消息定时任务
+     * @param scheduler                        任务调度器
+     * @param delayedMessageDispatcher         延迟消息调度器，可以为null
+     * @param priorityTaskMessageEventListener 按优先级分线程池的事件监听器，可以为null
+     * @param backlogEstimator                 积压估算器，可以为null
+     */
+    public LocalTaskMessageEndpoint(TaskMessageEventJob taskMessageEventJob, ThreadPoolTaskScheduler scheduler,
+                                    DelayedMessageDispatcher delayedMessageDispatcher,
+                                    PriorityTaskMessageEventListener priorityTaskMessageEventListener,
+                                    TaskMessageBacklogEstimator backlogEstimator) {
+        this.taskMessageEventJob = taskMessageEventJob;
+        this.scheduler = scheduler;
+        this.delayedMessageDispatcher = delayedMessageDispatcher;
+        this.priorityTaskMessageEventListener = priorityTaskMessageEventListener;
+        this.backlogEstimator = backlogEstimator;
+    }
+
+    /**
+     * 查看全部任务组状态
+     *
+     * @return 任务组状态、线程池排队数和积压估算
+     */
+    @ReadOperation
+    public Map<String, Object> state() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        List<Map<String, Object>> groups = new ArrayList<>();
+        for (String groupId : taskMessageEventJob.getCursors().keySet()) {
+            groups.add(groupState(groupId));
+        }
+        result.put("groups", groups);
+        result.put("executors", executorState());
+        if (backlogEstimator != null) {
+            Map<String, Object> backlog = new LinkedHashMap<>();
+            backlog.put("total", backlogEstimator.getEstimatedTotal());
+            backlog.put("houseNumbers", backlogEstimator.getEstimatedBacklog());
+            result.put("backlogEstimate", backlog);
+        }
+        return result;
+    }
+
+    /**
+     * 查看单个任务组状态
+     *
+     * @param groupId 任务组ID
+     * @return 任务组状态，任务组不存在时返回null（响应404）
+     */
+    @ReadOperation
+    public Map<String, Object> group(@Selector String groupId) {
+        if (!taskMessageEventJob.getCursors().containsKey(groupId)) {
+            return null;
+        }
+        return groupState(groupId);
+    }
+
+    /**
+     * 对任务组执行操作
+     *
+     * @param groupId 任务组ID
+     * @param action  操作：tick-立即扫描一次，pause-暂停，resume-恢复，reset-cursor-重置游标
+     * @param lastId  reset-cursor的新游标，为空时重置为0（从头扫描）
+     * @return 执行后的任务组状态，任务组不存在时返回null（响应404）
+     */
+    @WriteOperation
+    public Map<String, Object> operate(@Selector String groupId, String action, @Nullable Long lastId) {
+        boolean found;
+        switch (action == null ? "" : action) {
+            case "tick":
+                found = taskMessageEventJob.triggerTick(groupId);
+                break;
+            case "pause":
+                found = taskMessageEventJob.pauseGroup(groupId);
+                break;
+            case "resume":
+                found = taskMessageEventJob.resumeGroup(groupId);
+                break;
+            case "reset-cursor":
+                found = taskMessageEventJob.resetCursor(groupId, lastId == null ? 0L : lastId);
+                break;
+            default:
+                throw new InvalidEndpointRequestException("不支持的操作: " + action, "action must be one of tick, pause, resume, reset-cursor");
+        }
+        log.info("通过端点对任务组 [{}] 执行操作: {}，lastId: {}", groupId, action, lastId);
+        return found ? groupState(groupId) : null;
+    }
+
+    /**
+     * 按任务ID批量重新投递
+     *
+     * @param taskIds 以逗号或空白分隔的任务ID
+     * @return 任务ID到投递结果
+     */
+    @WriteOperation
+    public Map<String, String> replay(String taskIds) {
+        List<String> ids = new ArrayList<>();
+        if (taskIds != null) {
+            for (String taskId : taskIds.split("[,\\s]+")) {
+                if (!taskId.isEmpty()) {
+                    ids.add(taskId);
+                }
+            }
+        }
+        if (ids.isEmpty()) {
+            throw new InvalidEndpointRequestException("taskIds不能为空", "taskIds is required");
+        }
+        return taskMessageEventJob.replay(ids);
+    }
+
+    private Map<String, Object> groupState(String groupId) {
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("groupId", groupId);
+        state.put("paused", taskMessageEventJob.isPaused(groupId));
+        state.put("cursor", taskMessageEventJob.getCursors().get(groupId));
+        state.put("houseNumbers", taskMessageEventJob.getGroupHouseNumbers().get(groupId));
+        state.put("inFlight", taskMessageEventJob.getInFlightCounts().get(groupId));
+        GroupScheduleStats stats = taskMessageEventJob.getScheduleStats().get(groupId);
+        if (stats != null) {
+            state.put("lastTickTime", stats.getLastStartTime() > 0 ? Instant.ofEpochMilli(stats.getLastStartTime()).toString() : null);
+            state.put("lastDurationMs", stats.getLastDurationMs());
+            state.put("lastLagMs", stats.getLastLagMs());
+            state.put("tickCount", stats.getTickCount());
+            state.put("overrunCount", stats.getOverrunCount());
+            state.put("intervalMs", stats.getIntervalMs());
+        }
+        Integer adaptiveLimit = taskMessageEventJob.getAdaptiveLimits().get(groupId);
+        if (adaptiveLimit != null) {
+            state.put("adaptiveLimit", adaptiveLimit);
+        }
+        Set<String> blockedKeys = taskMessageEventJob.getBlockedKeys().get(groupId);
+        state.put("blockedOrderingKeys", blockedKeys == null ? new ArrayList<String>() : blockedKeys);
+        return state;
+    }
+
+    private Map<String, Object> executorState() {
+        Map<String, Object> executors = new LinkedHashMap<>();
+        ScheduledThreadPoolExecutor schedulerExecutor = scheduler.getScheduledThreadPoolExecutor();
+        Map<String, Object> schedulerState = new LinkedHashMap<>();
+        schedulerState.put("poolSize", schedulerExecutor.getPoolSize());
+        schedulerState.put("activeCount", schedulerExecutor.getActiveCount());
+        schedulerState.put("queueSize", schedulerExecutor.getQueue().size());
+        executors.put("scheduler", schedulerState);
+        executors.put("orderingLanes", Arrays.stream(taskMessageEventJob.getOrderingLaneQueueDepths()).boxed().toArray());
+        if (priorityTaskMessageEventListener != null) {
+            executors.put("priority", priorityTaskMessageEventListener.getQueueDepths());
+        }
+        if (delayedMessageDispatcher != null) {
+            Map<String, Object> delay = new LinkedHashMap<>();
+            delay.put("scheduled", delayedMessageDispatcher.getScheduledCount());
+            delay.put("deliveryQueueSize", delayedMessageDispatcher.getDeliveryQueueDepth());
+            executors.put("delay", delay);
+        }
+        return executors;
+    }
+}
@@ -1,10 +1,17 @@
 package com.zsq.winter.local.message.entity;
 
+import cn.hutool.core.annotation.PropIgnore;
+import com.zsq.winter.local.message.codec.PayloadCodecFactory;
 import com.zsq.winter.local.message.enums.TaskNotifyEnum;
+import com.zsq.winter.local.message.enums.TaskPriorityEnum;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
 
 /**
  * 任务消息实体命令
@@ -12,9 +19,11 @@ import lombok.NoArgsConstructor;
  * 该类为领域实体命令对象，用于封装任务消息的核心信息。
  * 包含任务基本信息、通知配置以及业务参数等内容。
  * 支持HTTP、RabbitMQ、Kafka和RocketMQ四种通知方式。
+ * toString直接读取字段，避免打印日志时触发压缩业务参数的解压。
  * </p>
  */
 @Data
+@ToString(doNotUseGetters = true)
 public class TaskMessageEntityCommand {
 
     /**
@@ -54,11 +63,87 @@ public class TaskMessageEntityCommand {
      */
     private String parameterJson;
 
+    /**
+     * 顺序键（可选，如订单号）
+     * <p>
+     * 相同顺序键的消息按插入顺序投递：门牌号按顺序键计算，只由扫描任务按ID顺序投递，
+     * 某条消息投递失败时只阻塞该顺序键的后续消息，其他顺序键不受影响。
+     * </p>
+     */
+    private String orderingKey;
+
+    /**
+     * 计划投递时间（可选）
+     * <p>
+     * 为空或已到期时立即投递；晚于当前时间时不走即时投递和常规扫描，
+     * 临近到期时加载到内存时间轮中，到期后毫秒级触发投递，适用于所有通知类型。
+     * </p>
+     */
+    private LocalDateTime deliverAt;
+
+    /**
+     * 优先级（0-高，1-普通，2-低），为空时按普通优先级保存
+     * <p>
+     * 开启优先级扫描的任务组按优先级分别扫描，高优先级消息不会被大量低优先级消息（如历史补发）延迟。
+     * </p>
+     *
+     * @see TaskPriorityEnum
+     */
+    private Integer priority;
+
     /**
      * 扩展，保留字段
      */
     private String extension;
 
+    /**
+     * 受理时的链路上下文（W3C traceparent，可选）
+     * <p>
+     * 为空时由模板在受理时记录当前链路，投递时作为投递span的链接，使延后投递的消息仍能关联到发起请求的链路。
+     * </p>
+     */
+    private String traceParent;
+
+    /**
+     * 创建时间（保存时回填，扫描出的消息为数据库中的创建时间），用于统计端到端投递延迟
+     */
+    private LocalDateTime createTime;
+
+    /**
+     * 投递路径（listener-事件监听器即时投递，delay-延迟消息到期投递，为空表示扫描任务投递）
+     */
+    @PropIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private String deliveryPath;
+
+    /**
+     * 本次投递span的traceparent，由投递链路追踪设置，通知策略写入下游的消息头
+     */
+    @PropIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private String deliveryTraceParent;
+
+    /**
+     * 压缩后的业务参数（仅扫描出的压缩行有值）
+     * <p>
+     * 首次调用{@link #getParameterJson()}时才解压，未真正发送的消息不产生解压开销。
+     * </p>
+     */
+    @PropIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private byte[] compressedParameter;
+
+    /**
+     * 压缩业务参数的编码（none/deflate/lz4）
+     */
+    @PropIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private String parameterCodec;
+
     /**
      * 默认构造方法
      */
@@ -83,6 +168,46 @@ public class TaskMessageEntityCommand {
         this.parameterJson = parameterJson;
     }
 
+    /**
+     * 不指定任务ID的构造方法
+     * <p>
+     * 任务ID在保存时由任务ID生成器生成（默认雪花算法，按时间递增），保存后可通过{@link #getTaskId()}读取。
+     * </p>
+     *
+     * @param taskName       任务名称
+     * @param taskNotifyEnum 任务通知类型枚举
+     * @param notifyConfig   通知配置
+     * @param parameterJson  业务参数JSON
+     */
+    public TaskMessageEntityCommand(String taskName, TaskNotifyEnum taskNotifyEnum, NotifyConfig notifyConfig, String parameterJson) {
+        this(null, taskName, taskNotifyEnum, notifyConfig, parameterJson);
+    }
+
+    /**
+     * 获取业务参数JSON字符串
+     * <p>
+     * 若为扫描出的压缩行，则在首次读取时解压并缓存结果。
+     * </p>
+     *
+     * @return 业务参数JSON字符串
+     */
+    public String getParameterJson() {
+        if (parameterJson == null && compressedParameter != null) {
+            parameterJson = PayloadCodecFactory.decompress(parameterCodec, compressedParameter);
+            compressedParameter = null;
+        }
+        return parameterJson;
+    }
+
+    /**
+     * 写入下游消息头的traceparent
+     *
+     * @return 投递span的traceparent，未开启投递span时为受理时记录的traceparent，均为空时返回null
+     */
+    public String outboundTraceParent() {
+        return deliveryTraceParent != null ? deliveryTraceParent : traceParent;
+    }
+
     /**
      * 通知配置类
      * <p>
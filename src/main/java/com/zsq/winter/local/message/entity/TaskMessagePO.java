@@ -51,6 +51,36 @@ public class TaskMessagePO {
      */
     private String parameterJson;
 
+    /**
+     * 业务参数压缩编码（none/deflate/lz4），为none时业务参数存储在parameterJson
+     */
+    private String payloadCodec;
+
+    /**
+     * 压缩后的业务参数，仅在payloadCodec不为none时有值
+     */
+    private byte[] parameterBlob;
+
+    /**
+     * 顺序键，相同顺序键的消息按插入顺序投递，为空表示不要求顺序
+     */
+    private String orderingKey;
+
+    /**
+     * 计划投递时间，为空表示立即投递
+     */
+    private LocalDateTime deliverAt;
+
+    /**
+     * 优先级，0-高 1-普通 2-低
+     */
+    private Integer priority;
+
+    /**
+     * 受理时的链路上下文（W3C traceparent），为空表示未记录
+     */
+    private String traceParent;
+
     /**
      * 门牌号
      */
@@ -0,0 +1,46 @@
+package com.zsq.winter.local.message.enums;
+
+import lombok.Getter;
+
+/**
+ * 跨节点变更通知方式枚举
+ * <p>
+ * 决定其他节点插入新消息后，本节点扫描任务如何得知并被唤醒。
+ * </p>
+ *
+ * @see com.zsq.winter.local.message.trigger.listener.TaskMessageChangeWatcher
+ */
+@Getter
+public enum ChangeNotifyTransportEnum {
+
+    /**
+     * 自动选择：PostgreSQL且存在pgjdbc驱动时使用LISTEN/NOTIFY，否则使用最大ID探测
+     */
+    AUTO("auto", "自动选择"),
+
+    /**
+     * PostgreSQL LISTEN/NOTIFY：插入时在同一连接上NOTIFY，提交后其他节点立即收到
+     */
+    PG_NOTIFY("pg_notify", "PostgreSQL LISTEN/NOTIFY"),
+
+    /**
+     * 最大ID探测：定期沿主键范围查询上次探测后的新消息所在门牌号，适用于任意数据库
+     */
+    PROBE("probe", "最大ID探测"),
+    ;
+
+    private final String code;
+
+    private final String desc;
+
+    /**
+     * 构造方法
+     *
+     * @param code 方式代码
+     * @param desc 方式描述
+     */
+    ChangeNotifyTransportEnum(String code, String desc) {
+        this.code = code;
+        this.desc = desc;
+    }
+}
@@ -0,0 +1,66 @@
+package com.zsq.winter.local.message.enums;
+
+import lombok.Getter;
+
+/**
+ * 业务参数压缩编码枚举
+ * <p>
+ * 标记local_task_message表中payload_codec列的取值，用于扫描时识别parameter_blob的解码方式。
+ * NONE表示未压缩，业务参数仍以明文存储在parameter_json列。
+ * </p>
+ *
+ * @see com.zsq.winter.local.message.codec.PayloadCodecFactory
+ */
+@Getter
+public enum PayloadCodecEnum {
+
+    /**
+     * 不压缩：业务参数存储在parameter_json列
+     */
+    NONE("none", "不压缩"),
+
+    /**
+     * Deflate压缩：JDK内置实现，无需额外依赖
+     */
+    DEFLATE("deflate", "Deflate压缩"),
+
+    /**
+     * LZ4压缩：压缩率略低但速度更快，需要引入lz4-java依赖
+     */
+    LZ4("lz4", "LZ4压缩"),
+    ;
+
+    private final String code;
+
+    private final String desc;
+
+    /**
+     * 构造方法
+     *
+     * @param code 编码标识（写入payload_codec列）
+     * @param desc 编码描述
+     */
+    PayloadCodecEnum(String code, String desc) {
+        this.code = code;
+        this.desc = desc;
+    }
+
+    /**
+     * 根据编码标识获取枚举
+     *
+     * @param code 编码标识，为空时视为NONE
+     * @return 对应的编码枚举
+     * @throws IllegalArgumentException 未知的编码标识
+     */
+    public static PayloadCodecEnum of(String code) {
+        if (code == null || code.isEmpty()) {
+            return NONE;
+        }
+        for (PayloadCodecEnum value : values()) {
+            if (value.code.equalsIgnoreCase(code)) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("未知的业务参数压缩编码: " + code);
+    }
+}
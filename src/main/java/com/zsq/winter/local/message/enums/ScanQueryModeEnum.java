@@ -0,0 +1,45 @@
+package com.zsq.winter.local.message.enums;
+
+import lombok.Getter;
+
+/**
+ * 扫描查询模式枚举
+ * <p>
+ * 决定任务组扫描待处理消息时生成的SQL形态。
+ * </p>
+ *
+ * @see com.zsq.winter.local.message.dao.ITaskMessageDao
+ */
+@Getter
+public enum ScanQueryModeEnum {
+
+    /**
+     * IN列表模式：单条SQL，house_number IN (...) AND status IN (0, 3) ORDER BY id
+     * <p>
+     * 门牌号较多或数据量较小时简单高效；大表上MySQL无法同时利用门牌号索引和id排序，可能出现filesort。
+     * </p>
+     */
+    IN_LIST("in_list", "IN列表查询"),
+
+    /**
+     * 索引归并模式：按(门牌号, 状态)逐对查询，每条SQL都能沿(house_number, status, id)索引顺序读取，
+     * 再在内存中做多路归并取前limit条
+     */
+    INDEX_MERGE("index_merge", "逐对索引查询后多路归并"),
+    ;
+
+    private final String code;
+
+    private final String desc;
+
+    /**
+     * 构造方法
+     *
+     * @param code 模式代码
+     * @param desc 模式描述
+     */
+    ScanQueryModeEnum(String code, String desc) {
+        this.code = code;
+        this.desc = desc;
+    }
+}
@@ -0,0 +1,63 @@
+package com.zsq.winter.local.message.enums;
+
+import lombok.Getter;
+
+/**
+ * 任务消息优先级枚举
+ * <p>
+ * 代码值越小优先级越高，开启优先级扫描的任务组按优先级分别维护游标，高优先级先扫描并获得更多批量配额。
+ * </p>
+ *
+ * @see com.zsq.winter.local.message.trigger.job.TaskMessageEventJob
+ */
+@Getter
+public enum TaskPriorityEnum {
+
+    /**
+     * 高优先级：如支付结果通知
+     */
+    HIGH(0, "高优先级"),
+
+    /**
+     * 普通优先级：未设置优先级的消息
+     */
+    NORMAL(1, "普通优先级"),
+
+    /**
+     * 低优先级：如历史数据补发
+     */
+    LOW(2, "低优先级"),
+    ;
+
+    private final Integer code;
+
+    private final String desc;
+
+    /**
+     * 构造方法
+     *
+     * @param code 优先级代码
+     * @param desc 优先级描述
+     */
+    TaskPriorityEnum(Integer code, String desc) {
+        this.code = code;
+        this.desc = desc;
+    }
+
+    /**
+     * 根据代码获取优先级
+     *
+     * @param code 优先级代码
+     * @return 对应的优先级，代码为空或未知时返回NORMAL
+     */
+    public static TaskPriorityEnum of(Integer code) {
+        if (code != null) {
+            for (TaskPriorityEnum priority : values()) {
+                if (priority.code.equals(code)) {
+                    return priority;
+                }
+            }
+        }
+        return NORMAL;
+    }
+}
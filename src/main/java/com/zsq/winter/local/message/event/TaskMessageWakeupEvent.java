@@ -0,0 +1,55 @@
+package com.zsq.winter.local.message.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * 任务消息扫描唤醒事件
+ * <p>
+ * 当某个门牌号出现需要扫描任务处理的消息时发布（例如即时投递失败、异步线程池拒绝），
+ * TaskMessageEventJob收到后提前触发负责该门牌号的任务组扫描，而不必等待下一次定时调度。
+ * 同一任务组在合并窗口内的多次唤醒只触发一次扫描。
+ * </p>
+ *
+ * @see com.zsq.winter.local.message.trigger.job.TaskMessageEventJob
+ */
+@Getter
+public class TaskMessageWakeupEvent extends ApplicationEvent {
+
+    /**
+     * 序列化版本号
+     */
+    private static final long serialVersionUID = 4215336279138541790L;
+
+    /**
+     * 需要扫描的门牌号，为null时唤醒全部任务组
+     */
+    private final Integer houseNumber;
+
+    /**
+     * 唤醒原因，用于日志
+     */
+    private final String reason;
+
+    /**
+     * 构造方法
+     *
+     * @param source      事件源
+     * @param houseNumber 需要扫描的门牌号，为null时唤醒全部任务组
+     * @param reason      唤醒原因
+     */
+    public TaskMessageWakeupEvent(Object source, Integer houseNumber, String reason) {
+        super(source);
+        this.houseNumber = houseNumber;
+        this.reason = reason;
+    }
+
+    @Override
+    public String toString() {
+        return "TaskMessageWakeupEvent{" +
+                "houseNumber=" + houseNumber +
+                ", reason='" + reason + '\'' +
+                '}';
+    }
+
+}
@@ -0,0 +1,21 @@
+package com.zsq.winter.local.message.id;
+
+/**
+ * 任务ID生成器接口
+ * <p>
+ * 调用方未设置taskId时由仓储服务在保存前生成。实现类需保证线程安全，
+ * 生成的ID应尽量按时间递增，使uk_task_id唯一索引的插入集中在索引末端。
+ * </p>
+ *
+ * @see SnowflakeTaskIdGenerator
+ */
+public interface ITaskIdGenerator {
+
+    /**
+     * 生成任务ID
+     *
+     * @return 任务ID，长度不超过64
+     */
+    String nextTaskId();
+
+}
@@ -0,0 +1,109 @@
+package com.zsq.winter.local.message.id;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 雪花算法任务ID生成器
+ * <p>
+ * 64位ID由 41位毫秒时间戳（相对2024-01-01）+ 10位节点ID + 12位序列号 组成，
+ * 输出为左补零的19位十进制字符串，字符串顺序与生成顺序一致。
+ * 相比随机UUID，按时间递增的ID使InnoDB的uk_task_id索引只在末端页插入，热点页常驻缓冲池，避免页分裂。
+ * </p>
+ *
+ * <p><b>无锁实现：</b>时间戳和序列号合并保存在一个AtomicLong中，通过CAS推进。
+ * 同一毫秒内序列号用尽时向下一毫秒借位；系统时钟回拨时沿用上次的时间戳继续递增，
+ * 两种情况都不阻塞等待，ID保持单调递增，时间戳部分会暂时领先于实际时间。</p>
+ */
+@Slf4j
+public class SnowflakeTaskIdGenerator implements ITaskIdGenerator {
+
+    /**
+     * 起始时间 2024-01-01 00:00:00 UTC
+     */
+    private static final long EPOCH_MS = 1704067200000L;
+
+    private static final int WORKER_ID_BITS = 10;
+
+    private static final int SEQUENCE_BITS = 12;
+
+    /**
+     * 最大节点ID（1023）
+     */
+    public static final long MAX_WORKER_ID = (1L << WORKER_ID_BITS) - 1;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    /**
+     * 十进制ID的固定长度，Long.MAX_VALUE为19位
+     */
+    private static final int ID_LENGTH = 19;
+
+    private static final String ZEROS = "0000000000000000000";
+
+    private final long workerId;
+
+    /**
+     * 上一次生成的 (相对时间戳 &lt;&lt; 序列号位数 | 序列号)
+     */
+    private final AtomicLong lastState = new AtomicLong();
+
+    /**
+     * 构造方法
+     *
+     * @param workerId 节点ID（0-1023），多个节点必须不同
+     */
+    public SnowflakeTaskIdGenerator(long workerId) {
+        if (workerId < 0 || workerId > MAX_WORKER_ID) {
+            throw new IllegalArgumentException("TASK_MESSAGE_ID_GENERATOR_ERROR 节点ID必须在0到" + MAX_WORKER_ID + "之间: " + workerId);
+        }
+        this.workerId = workerId;
+    }
+
+    @Override
+    public String nextTaskId() {
+        String id = Long.toString(nextId());
+        return id.length() >= ID_LENGTH ? id : ZEROS.substring(id.length()) + id;
+    }
+
+    /**
+     * 生成数值ID
+     *
+     * @return 单调递增的64位ID
+     */
+    public long nextId() {
+        while (true) {
+            long previous = lastState.get();
+            long now = System.currentTimeMillis() - EPOCH_MS;
+            // 进入新的毫秒时序列号归零，否则（同一毫秒或时钟回拨）在上次基础上加一，序列号溢出时进位到时间戳
+            long next = now > (previous >>> SEQUENCE_BITS) ? now << SEQUENCE_BITS : previous + 1;
+            if (lastState.compareAndSet(previous, next)) {
+                long timestamp = next >>> SEQUENCE_BITS;
+                return (timestamp << (WORKER_ID_BITS + SEQUENCE_BITS)) | (workerId << SEQUENCE_BITS) | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    public long getWorkerId() {
+        return workerId;
+    }
+
+    /**
+     * 根据实例标识计算默认节点ID
+     * <p>
+     * 未配置节点ID时使用，不同实例仍有小概率得到相同的节点ID，多节点部署建议显式配置。
+     * </p>
+     *
+     * @param instanceKey 实例标识，如 主机名 + 进程号
+     * @return 节点ID（0-1023）
+     */
+    public static long defaultWorkerId(String instanceKey) {
+        int hash = instanceKey == null ? 0 : instanceKey.hashCode();
+        // 混合高低位，避免只用到低位
+        hash ^= (hash >>> 16);
+        long workerId = hash & MAX_WORKER_ID;
+        log.warn("未配置任务ID生成器节点ID，按实例标识 {} 计算为 {}，多节点部署建议通过 id-generator.worker-id 显式配置", instanceKey, workerId);
+        return workerId;
+    }
+}
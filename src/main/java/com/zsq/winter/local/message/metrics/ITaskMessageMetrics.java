@@ -0,0 +1,121 @@
+package com.zsq.winter.local.message.metrics;
+
+import java.util.Map;
+
+/**
+ * 任务消息指标接口
+ * <p>
+ * 覆盖受理、扫描、投递三个环节。所有标签取值都来自有限集合（任务组、门牌号、通知类型、目标地址、结果），
+ * 不使用taskId等高基数字段。默认实现为NoopTaskMessageMetrics，classpath中存在Micrometer且容器中有MeterRegistry时
+ * 使用MicrometerTaskMessageMetrics。实现类需保证线程安全。
+ * </p>
+ *
+ * @see NoopTaskMessageMetrics
+ * @see MicrometerTaskMessageMetrics
+ */
+public interface ITaskMessageMetrics {
+
+    /**
+     * 受理结果：新插入
+     */
+    String OUTCOME_CREATED = "created";
+
+    /**
+     * 受理结果：幂等受理判定为重复
+     */
+    String OUTCOME_DUPLICATE = "duplicate";
+
+    /**
+     * 受理或投递结果：成功
+     */
+    String OUTCOME_SUCCESS = "success";
+
+    /**
+     * 受理或投递结果：失败
+     */
+    String OUTCOME_FAILURE = "failure";
+
+    /**
+     * 投递路径：事件监听器在事务提交后即时投递
+     */
+    String PATH_LISTENER = "listener";
+
+    /**
+     * 投递路径：扫描任务投递（即时投递失败后的重试、顺序消息、其他节点插入的消息）
+     */
+    String PATH_SCAN = "scan";
+
+    /**
+     * 投递路径：延迟消息到期后由时间轮投递
+     */
+    String PATH_DELAY = "delay";
+
+    /**
+     * 记录一次受理
+     *
+     * @param outcome      受理结果（created/duplicate/failure）
+     * @param acceptNanos  受理总耗时（纳秒）
+     * @param insertNanos  数据库插入耗时（纳秒），未访问数据库时为0
+     */
+    void recordAccept(String outcome, long acceptNanos, long insertNanos);
+
+    /**
+     * 记录一次任务组扫描
+     *
+     * @param groupId       任务组ID
+     * @param rows          本次扫描到的消息条数，执行异常时为-1
+     * @param durationNanos 扫描耗时（纳秒）
+     */
+    void recordTick(String groupId, int rows, long durationNanos);
+
+    /**
+     * 记录任务组游标落后的ID数量（表中最大ID与游标之差）
+     *
+     * @param groupId 任务组ID
+     * @param lag     落后的ID数量
+     */
+    void recordCursorLag(String groupId, long lag);
+
+    /**
+     * 记录各门牌号的积压消息数（待处理和失败状态）
+     *
+     * @param backlogByHouseNumber 门牌号到积压消息数，未出现的门牌号视为0
+     */
+    void recordBacklog(Map<Integer, Long> backlogByHouseNumber);
+
+    /**
+     * 记录一次通知发送
+     *
+     * @param notifyType    通知类型
+     * @param destination   目标地址（HTTP主机名、交换机或主题）
+     * @param durationNanos 发送耗时（纳秒）
+     * @param success       是否成功
+     */
+    void recordSend(String notifyType, String destination, long durationNanos, boolean success);
+
+    /**
+     * 记录一次成功投递的端到端延迟（从创建时间到下游确认）
+     *
+     * @param notifyType   通知类型
+     * @param path         投递路径（listener/scan/delay）
+     * @param latencyNanos 端到端延迟（纳秒）
+     */
+    void recordDeliveryLatency(String notifyType, String path, long latencyNanos);
+
+    /**
+     * 记录任务组最早一条待处理消息的等待时长
+     *
+     * @param groupId 任务组ID
+     * @param ageMs   等待时长（毫秒），没有待处理消息时为0
+     */
+    void recordOldestPendingAge(String groupId, long ageMs);
+
+    /**
+     * 是否实际记录指标，为false时调用方可以跳过只为指标服务的额外查询
+     *
+     * @return 记录指标时返回true
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+}
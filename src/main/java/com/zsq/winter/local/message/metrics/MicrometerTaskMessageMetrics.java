@@ -0,0 +1,182 @@
+package com.zsq.winter.local.message.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 基于Micrometer的任务消息指标实现
+ * <p>
+ * 指标名称统一以 local.task.message 开头：
+ * </p>
+ * <ul>
+ *   <li>local.task.message.accept（Timer，标签outcome）：受理耗时</li>
+ *   <li>local.task.message.insert（Timer，标签outcome）：受理时的数据库插入耗时</li>
+ *   <li>local.task.message.scan（Timer，标签group）：单次扫描耗时</li>
+ *   <li>local.task.message.scan.rows（DistributionSummary，标签group）：单次扫描的消息条数</li>
+ *   <li>local.task.message.scan.errors（Counter，标签group）：扫描异常次数</li>
+ *   <li>local.task.message.cursor.lag（Gauge，标签group）：游标落后的ID数量</li>
+ *   <li>local.task.message.backlog（Gauge，标签house）：各门牌号积压消息数</li>
+ *   <li>local.task.message.send（Timer，标签type、destination、outcome，发布百分位直方图）：发送耗时</li>
+ *   <li>local.task.message.send.result（Counter，标签type、destination、outcome）：发送成功/失败次数</li>
+ *   <li>local.task.message.delivery.latency（Timer，标签type、path，发布百分位）：从创建到下游确认的端到端延迟</li>
+ *   <li>local.task.message.oldest.pending.age（Gauge，标签group，单位秒）：任务组最早一条待处理消息的等待时长</li>
+ * </ul>
+ * 同一标签组合的指标只注册一次并缓存，记录时不再查找注册表。
+ * Timer的百分位由Micrometer基于HdrHistogram的滑动窗口直方图计算，记录时不分配对象。
+ */
+public class MicrometerTaskMessageMetrics implements ITaskMessageMetrics {
+
+    private static final String PREFIX = "local.task.message";
+
+    private final MeterRegistry registry;
+
+    private final Map<String, Timer> acceptTimers = new ConcurrentHashMap<>();
+
+    private final Map<String, Timer> insertTimers = new ConcurrentHashMap<>();
+
+    private final Map<String, Timer> scanTimers = new ConcurrentHashMap<>();
+
+    private final Map<String, DistributionSummary> scanRowSummaries = new ConcurrentHashMap<>();
+
+    private final Map<String, Counter> scanErrorCounters = new ConcurrentHashMap<>();
+
+    private final Map<String, AtomicLong> cursorLags = new ConcurrentHashMap<>();
+
+    private final Map<Integer, AtomicLong> backlogs = new ConcurrentHashMap<>();
+
+    private final Map<String, Timer> sendTimers = new ConcurrentHashMap<>();
+
+    private final Map<String, Counter> sendCounters = new ConcurrentHashMap<>();
+
+    private final Map<String, Timer> latencyTimers = new ConcurrentHashMap<>();
+
+    private final Map<String, AtomicLong> oldestPendingAges = new ConcurrentHashMap<>();
+
+    /**
+     * 构造方法
+     *
+     * @param registry Micrometer指标注册表
+     */
+    public MicrometerTaskMessageMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void recordAccept(String outcome, long acceptNanos, long insertNanos) {
+        acceptTimers.computeIfAbsent(outcome, k -> Timer.builder(PREFIX + ".accept")
+                .description("任务消息受理耗时")
+                .tags("outcome", k)
+                .register(registry)).record(acceptNanos, TimeUnit.NANOSECONDS);
+        if (insertNanos > 0) {
+            insertTimers.computeIfAbsent(outcome, k -> Timer.builder(PREFIX + ".insert")
+                    .description("任务消息受理时的数据库插入耗时")
+                    .tags("outcome", k)
+                    .register(registry)).record(insertNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public void recordTick(String groupId, int rows, long durationNanos) {
+        scanTimers.computeIfAbsent(groupId, k -> Timer.builder(PREFIX + ".scan")
+                .description("任务组单次扫描耗时")
+                .tags("group", k)
+                .register(registry)).record(durationNanos, TimeUnit.NANOSECONDS);
+        if (rows < 0) {
+            scanErrorCounters.computeIfAbsent(groupId, k -> Counter.builder(PREFIX + ".scan.errors")
+                    .description("任务组扫描异常次数")
+                    .tags("group", k)
+                    .register(registry)).increment();
+            return;
+        }
+        scanRowSummaries.computeIfAbsent(groupId, k -> DistributionSummary.builder(PREFIX + ".scan.rows")
+                .description("任务组单次扫描的消息条数")
+                .baseUnit("messages")
+                .tags("group", k)
+                .register(registry)).record(rows);
+    }
+
+    @Override
+    public void recordCursorLag(String groupId, long lag) {
+        cursorLags.computeIfAbsent(groupId, k -> {
+            AtomicLong holder = new AtomicLong();
+            Gauge.builder(PREFIX + ".cursor.lag", holder, AtomicLong::get)
+                    .description("任务组游标落后于表中最大ID的数量")
+                    .tags("group", k)
+                    .register(registry);
+            return holder;
+        }).set(lag);
+    }
+
+    @Override
+    public void recordBacklog(Map<Integer, Long> backlogByHouseNumber) {
+        // 已注册但本次未出现的门牌号置0，避免积压清空后仍显示旧值
+        for (Map.Entry<Integer, AtomicLong> entry : backlogs.entrySet()) {
+            if (!backlogByHouseNumber.containsKey(entry.getKey())) {
+                entry.getValue().set(0L);
+            }
+        }
+        for (Map.Entry<Integer, Long> entry : backlogByHouseNumber.entrySet()) {
+            backlogs.computeIfAbsent(entry.getKey(), k -> {
+                AtomicLong holder = new AtomicLong();
+                Gauge.builder(PREFIX + ".backlog", holder, AtomicLong::get)
+                        .description("门牌号中待处理和失败状态的消息数")
+                        .tags("house", String.valueOf(k))
+                        .register(registry);
+                return holder;
+            }).set(entry.getValue() == null ? 0L : entry.getValue());
+        }
+    }
+
+    @Override
+    public void recordSend(String notifyType, String destination, long durationNanos, boolean success) {
+        String type = notifyType == null ? "unknown" : notifyType;
+        String dest = destination == null ? "unknown" : destination;
+        String outcome = success ? OUTCOME_SUCCESS : OUTCOME_FAILURE;
+        String key = type + '\u0000' + dest + '\u0000' + outcome;
+        sendTimers.computeIfAbsent(key, k -> Timer.builder(PREFIX + ".send")
+                .description("任务消息通知发送耗时")
+                .tags("type", type, "destination", dest, "outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry)).record(durationNanos, TimeUnit.NANOSECONDS);
+        sendCounters.computeIfAbsent(key, k -> Counter.builder(PREFIX + ".send.result")
+                .description("任务消息通知发送次数")
+                .tags("type", type, "destination", dest, "outcome", outcome)
+                .register(registry)).increment();
+    }
+
+    @Override
+    public void recordDeliveryLatency(String notifyType, String path, long latencyNanos) {
+        String type = notifyType == null ? "unknown" : notifyType;
+        String deliveryPath = path == null ? PATH_SCAN : path;
+        latencyTimers.computeIfAbsent(type + '\u0000' + deliveryPath, k -> Timer.builder(PREFIX + ".delivery.latency")
+                .description("任务消息从创建到下游确认的端到端延迟")
+                .tags("type", type, "path", deliveryPath)
+                .publishPercentiles(0.5, 0.9, 0.99, 0.999)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofHours(1))
+                .register(registry)).record(Math.max(0L, latencyNanos), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordOldestPendingAge(String groupId, long ageMs) {
+        oldestPendingAges.computeIfAbsent(groupId, k -> {
+            AtomicLong holder = new AtomicLong();
+            Gauge.builder(PREFIX + ".oldest.pending.age", holder, h -> h.get() / 1000.0)
+                    .description("任务组最早一条待处理消息的等待时长")
+                    .baseUnit("seconds")
+                    .tags("group", k)
+                    .register(registry);
+            return holder;
+        }).set(ageMs);
+    }
+}
@@ -0,0 +1,50 @@
+package com.zsq.winter.local.message.metrics;
+
+import java.util.Map;
+
+/**
+ * 不记录任何指标的默认实现
+ * <p>
+ * classpath中没有Micrometer或未开启指标时使用。
+ * </p>
+ */
+public class NoopTaskMessageMetrics implements ITaskMessageMetrics {
+
+    /**
+     * 共享实例
+     */
+    public static final NoopTaskMessageMetrics INSTANCE = new NoopTaskMessageMetrics();
+
+    @Override
+    public void recordAccept(String outcome, long acceptNanos, long insertNanos) {
+    }
+
+    @Override
+    public void recordTick(String groupId, int rows, long durationNanos) {
+    }
+
+    @Override
+    public void recordCursorLag(String groupId, long lag) {
+    }
+
+    @Override
+    public void recordBacklog(Map<Integer, Long> backlogByHouseNumber) {
+    }
+
+    @Override
+    public void recordSend(String notifyType, String destination, long durationNanos, boolean success) {
+    }
+
+    @Override
+    public void recordDeliveryLatency(String notifyType, String path, long latencyNanos) {
+    }
+
+    @Override
+    public void recordOldestPendingAge(String groupId, long ageMs) {
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return false;
+    }
+}
@@ -1,9 +1,13 @@
 package com.zsq.winter.local.message.service;
 
 
+import com.zsq.winter.local.message.dao.TaskMessageSession;
 import com.zsq.winter.local.message.entity.TaskMessageEntityCommand;
+import com.zsq.winter.local.message.enums.ScanQueryModeEnum;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * 本地任务消息仓储接口
@@ -28,6 +32,18 @@ public interface ILocalTaskMessageService {
      */
     void saveTaskMessage(TaskMessageEntityCommand command) throws Exception;
 
+    /**
+     * 幂等保存任务消息
+     * <p>
+     * 任务ID已存在时不保存也不抛出异常，不会导致业务事务失败。
+     * </p>
+     *
+     * @param command 任务消息实体命令
+     * @return 新保存时返回true，任务ID已存在时返回false
+     * @throws Exception 保存失败时抛出异常
+     */
+    boolean saveTaskMessageIfAbsent(TaskMessageEntityCommand command) throws Exception;
+
     /**
      * 更新任务状态为成功
      * <p>
@@ -38,6 +54,19 @@ public interface ILocalTaskMessageService {
      */
     void updateTaskStatusToSuccess(String taskId);
 
+    /**
+     * 更新任务状态为成功
+     * <p>
+     * 与{@link #updateTaskStatusToSuccess(String)}相同，额外携带消息的门牌号信息（顺序键），
+     * 内置通知策略使用该方法，开启积压估算时直接按命令计算门牌号扣减计数，不需要再读取记录。
+     * </p>
+     *
+     * @param command 任务消息命令
+     */
+    default void updateTaskStatusToSuccess(TaskMessageEntityCommand command) {
+        updateTaskStatusToSuccess(command.getTaskId());
+    }
+
     /**
      * 更新任务状态为失败
      * <p>
@@ -48,6 +77,20 @@ public interface ILocalTaskMessageService {
      */
     void updateTaskStatusToFailed(String taskId);
 
+    /**
+     * 在当前线程上打开数据库会话
+     * <p>
+     * 定时任务在每次扫描期间打开会话，投递后的状态更新复用同一个连接和预编译语句。
+     * 默认返回空会话。
+     * </p>
+     *
+     * @return 数据库会话，需在同一线程上关闭
+     * @see com.zsq.winter.local.message.dao.ITaskMessageDao#openSession()
+     */
+    default TaskMessageSession openSession() {
+        return TaskMessageSession.NOOP;
+    }
+
     /**
      * 根据门牌号查询任务消息列表
      * <p>
@@ -62,6 +105,129 @@ public interface ILocalTaskMessageService {
      */
     List<TaskMessageEntityCommand> selectByHouseNumber(List<Integer> houseNumbers, Long id, Integer limit);
 
+    /**
+     * 按指定查询模式根据门牌号查询任务消息列表
+     *
+     * @param houseNumbers 门牌号列表
+     * @param id 查询ID大于此值的记录
+     * @param limit 限制返回结果数量
+     * @param queryMode 查询模式
+     * @return 任务消息列表
+     * @see ScanQueryModeEnum
+     */
+    List<TaskMessageEntityCommand> selectByHouseNumber(List<Integer> houseNumbers, Long id, Integer limit, ScanQueryModeEnum queryMode);
+
+    /**
+     * 根据门牌号流式扫描任务消息
+     * <p>
+     * 在数据库游标打开期间逐条转换并回调consumer，不构建完整的结果列表，
+     * 单次扫描的内存占用与limit无关。consumer同步执行，处理速度即读取速度。
+     * </p>
+     *
+     * @param houseNumbers 门牌号列表
+     * @param id 查询ID大于此值的记录
+     * @param limit 限制返回结果数量
+     * @param fetchSize 驱动每批拉取的行数
+     * @param consumer 逐条处理回调，抛出异常时终止扫描
+     * @return 实际扫描的条数
+     */
+    int streamByHouseNumber(List<Integer> houseNumbers, Long id, Integer limit, Integer fetchSize, Consumer<TaskMessageEntityCommand> consumer);
+
+    /**
+     * 根据门牌号流式扫描任务消息，限制游标的最长打开时间
+     * <p>
+     * 游标打开超过maxOpenMs后停止读取并结束只读事务，返回已扫描的条数，剩余消息由下次扫描处理。
+     * 默认实现不限制打开时间。
+     * </p>
+     *
+     * @param houseNumbers 门牌号列表
+     * @param id 查询ID大于此值的记录
+     * @param limit 限制返回结果数量
+     * @param fetchSize 驱动每批拉取的行数
+     * @param maxOpenMs 游标最长打开时间（毫秒），小于等于0表示不限制
+     * @param consumer 逐条处理回调，抛出异常时终止扫描
+     * @return 实际扫描的条数
+     * @see com.zsq.winter.local.message.dao.ITaskMessageDao#streamByHouseNumber(List, Long, Integer, Integer, long, Consumer)
+     */
+    default int streamByHouseNumber(List<Integer> houseNumbers, Long id, Integer limit, Integer fetchSize, long maxOpenMs, Consumer<TaskMessageEntityCommand> consumer) {
+        return streamByHouseNumber(houseNumbers, id, limit, fetchSize, consumer);
+    }
+
+    /**
+     * 根据门牌号查询任务消息路由信息
+     * <p>
+     * 两阶段扫描的第一阶段，返回的命令只包含id、taskId、notifyType和status，
+     * 不加载通知配置和业务参数。
+     * </p>
+     *
+     * @param houseNumbers 门牌号列表
+     * @param id 查询ID大于此值的记录
+     * @param limit 限制返回结果数量
+     * @return 只包含路由信息的任务消息列表
+     */
+    List<TaskMessageEntityCommand> selectRouteByHouseNumber(List<Integer> houseNumbers, Long id, Integer limit);
+
+    /**
+     * 按指定查询模式根据门牌号查询任务消息路由信息
+     *
+     * @param houseNumbers 门牌号列表
+     * @param id 查询ID大于此值的记录
+     * @param limit 限制返回结果数量
+     * @param queryMode 查询模式
+     * @return 只包含路由信息的任务消息列表
+     * @see ScanQueryModeEnum
+     */
+    List<TaskMessageEntityCommand> selectRouteByHouseNumber(List<Integer> houseNumbers, Long id, Integer limit, ScanQueryModeEnum queryMode);
+
+    /**
+     * 根据ID批量查询完整的任务消息
+     * <p>
+     * 两阶段扫描的第二阶段，只为确定要投递的消息加载通知配置和业务参数。
+     * </p>
+     *
+     * @param ids 主键ID列表
+     * @return 任务消息列表
+     */
+    List<TaskMessageEntityCommand> selectByIds(List<Long> ids);
+
+    /**
+     * 按优先级查询待处理的任务消息，每个优先级使用独立的游标
+     *
+     * @param houseNumbers 门牌号列表
+     * @param priority     优先级
+     * @param lastId       该优先级上次扫描到的ID
+     * @param limit        限制数量
+     * @return 任务消息列表
+     */
+    List<TaskMessageEntityCommand> selectByHouseNumberAndPriority(List<Integer> houseNumbers, Integer priority, Long lastId, Integer limit);
+
+    /**
+     * 按顺序键查询待处理的任务消息
+     *
+     * @param orderingKey 顺序键
+     * @param limit       限制数量
+     * @return 按ID升序排列的任务消息列表
+     */
+    List<TaskMessageEntityCommand> selectPendingByOrderingKey(String orderingKey, Integer limit);
+
+    /**
+     * 查询即将到期的延迟消息（含已过期未投递成功的）
+     *
+     * @param houseNumbers  门牌号列表
+     * @param deliverBefore 计划投递时间上限
+     * @param limit         限制数量
+     * @return 按计划投递时间升序排列的任务消息列表
+     */
+    List<TaskMessageEntityCommand> selectDueDelayed(List<Integer> houseNumbers, LocalDateTime deliverBefore, Integer limit);
+
+    /**
+     * 根据任务ID查询任务消息
+     *
+     * @param taskId 任务ID
+     * @return 任务消息，不存在时返回null
+     */
+    TaskMessageEntityCommand selectByTaskId(String taskId);
+
     /**
      * 根据门牌号查询符合条件的最小ID
      * <p>
@@ -2,14 +2,21 @@ package com.zsq.winter.local.message.service;
 
 
 import cn.hutool.json.JSONUtil;
+import com.zsq.winter.local.message.config.LocalTaskMessageAutoProperties;
 import com.zsq.winter.local.message.entity.TaskMessageEntityCommand;
 import com.zsq.winter.local.message.dao.ITaskMessageDao;
+import com.zsq.winter.local.message.dao.TaskMessageSession;
 import com.zsq.winter.local.message.entity.TaskMessagePO;
+import com.zsq.winter.local.message.enums.ScanQueryModeEnum;
+import com.zsq.winter.local.message.id.ITaskIdGenerator;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * 本地任务消息仓储实现类
@@ -17,44 +24,53 @@ import java.util.List;
  * 实现任务消息的仓储层操作，包括保存、更新和查询等功能。
  * 负责将领域实体命令转换为PO对象，并调用DAO层进行数据库操作。
  * 实现了通过taskId的hashCode计算门牌号的分表策略。
+ * 开启压缩后，超过阈值的业务参数会被压缩存储，扫描时延迟到策略读取时才解压。
  * </p>
  */
 @Slf4j
 public class LocalTaskMessageServiceImpl implements ILocalTaskMessageService {
     private final ITaskMessageDao taskMessageDao;
 
+    /**
+     * 任务消息命令与PO的转换器，负责生成任务ID、计算门牌号和压缩业务参数
+     */
+    private final TaskMessageConverter converter;
+
+    /**
+     * 积压估算器，未开启积压估算时为null
+     */
+    private final TaskMessageBacklogEstimator backlogEstimator;
+
     public LocalTaskMessageServiceImpl(ITaskMessageDao taskMessageDao) {
-        this.taskMessageDao = taskMessageDao;
+        this(taskMessageDao, new LocalTaskMessageAutoProperties.Compression());
     }
 
-    @Override
-    public void saveTaskMessage(TaskMessageEntityCommand command) throws Exception {
-
-        TaskMessagePO po = new TaskMessagePO();
-        po.setTaskId(command.getTaskId());
-        po.setTaskName(command.getTaskName());
-        po.setNotifyType(command.getNotifyType());
-        po.setStatus(command.getStatus());
-        po.setParameterJson(command.getParameterJson());
+    public LocalTaskMessageServiceImpl(ITaskMessageDao taskMessageDao, LocalTaskMessageAutoProperties.Compression compression) {
+        this(taskMessageDao, compression, null);
+    }
 
-        // 将NotifyConfig对象转换为JSON字符串
-        if (command.getNotifyConfig() != null) {
-            po.setNotifyConfig(JSONUtil.toJsonStr(command.getNotifyConfig()));
-        }
+    public LocalTaskMessageServiceImpl(ITaskMessageDao taskMessageDao, LocalTaskMessageAutoProperties.Compression compression,
+                                       ITaskIdGenerator taskIdGenerator) {
+        this(taskMessageDao, compression, taskIdGenerator, null);
+    }
 
-        // 根据任务ID计算哈希值，取正数，获取最后一位数字作为门牌号
-        int hashCode = Math.abs(command.getTaskId().hashCode());
-        int houseNumber = hashCode % 10;
-        po.setHouseNumber(houseNumber);
+    public LocalTaskMessageServiceImpl(ITaskMessageDao taskMessageDao, LocalTaskMessageAutoProperties.Compression compression,
+                                       ITaskIdGenerator taskIdGenerator, TaskMessageBacklogEstimator backlogEstimator) {
+        this.taskMessageDao = taskMessageDao;
+        this.converter = new TaskMessageConverter(compression, taskIdGenerator);
+        this.backlogEstimator = backlogEstimator;
+    }
 
-        po.setCreateTime(LocalDateTime.now());
-        po.setUpdateTime(LocalDateTime.now());
+    @Override
+    public void saveTaskMessage(TaskMessageEntityCommand command) throws Exception {
+        TaskMessagePO po = converter.toPO(command);
 
         try {
             int result = taskMessageDao.insert(po);
             if (1 != result) {
                 throw new RuntimeException("result is not 1 taskId:{}" + command.getTaskId());
             }
+            countAccepted(po.getHouseNumber());
         } catch (Exception e) {
             log.error("保存任务消息失败，taskId: {} {}", command.getTaskId(), JSONUtil.toJsonStr(command), e);
             throw e;
@@ -62,15 +78,97 @@ public class LocalTaskMessageServiceImpl implements ILocalTaskMessageService {
 
     }
 
+    @Override
+    public boolean saveTaskMessageIfAbsent(TaskMessageEntityCommand command) throws Exception {
+        TaskMessagePO po = converter.toPO(command);
+
+        try {
+            boolean inserted = taskMessageDao.insertIfAbsent(po) > 0;
+            if (inserted) {
+                countAccepted(po.getHouseNumber());
+            }
+            return inserted;
+        } catch (Exception e) {
+            log.error("幂等保存任务消息失败，taskId: {} {}", command.getTaskId(), JSONUtil.toJsonStr(command), e);
+            throw e;
+        }
+    }
+
+    /**
+     * 计算任务消息的门牌号
+     * <p>
+     * 设置了顺序键时按顺序键计算，保证相同顺序键的消息落在同一门牌号、由同一任务组按顺序扫描；否则按任务ID计算。
+     * </p>
+     *
+     * @param command 任务消息命令
+     * @return 门牌号（0-9）
+     */
+    public static int houseNumberOf(TaskMessageEntityCommand command) {
+        String key = command.getOrderingKey() != null ? command.getOrderingKey() : command.getTaskId();
+        return houseNumberOf(key);
+    }
+
+    /**
+     * 计算任务ID对应的门牌号
+     *
+     * @param taskId 任务ID
+     * @return 门牌号（0-9）
+     */
+    public static int houseNumberOf(String taskId) {
+        // 根据任务ID计算哈希值，取正数，获取最后一位数字作为门牌号
+        // 按long取绝对值，避免hashCode为Integer.MIN_VALUE时Math.abs仍为负数，其余取值与原算法一致
+        return (int) (Math.abs((long) taskId.hashCode()) % 10);
+    }
+
+    /**
+     * 插入成功后计入积压估算，存在事务时等待提交后再计入
+     *
+     * @param houseNumber 门牌号
+     */
+    private void countAccepted(int houseNumber) {
+        if (backlogEstimator == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    backlogEstimator.onAccepted(houseNumber);
+                }
+            });
+            return;
+        }
+        backlogEstimator.onAccepted(houseNumber);
+    }
+
     @Override
     public void updateTaskStatusToSuccess(String taskId) {
+        // 顺序消息的门牌号按顺序键计算，只有任务ID时无法推算，更新成功后按记录中的门牌号扣减
+        updateTaskStatusToSuccess(taskId, null);
+    }
+
+    @Override
+    public void updateTaskStatusToSuccess(TaskMessageEntityCommand command) {
+        updateTaskStatusToSuccess(command.getTaskId(), houseNumberOf(command));
+    }
+
+    /**
+     * 更新任务状态为成功，状态首次变为已完成时扣减积压估算
+     *
+     * @param taskId      任务ID
+     * @param houseNumber 门牌号，为null时从数据库读取记录的门牌号
+     */
+    private void updateTaskStatusToSuccess(String taskId, Integer houseNumber) {
         try {
-            // 状态 2 表示已完成
+            // 状态 2 表示已完成，已是完成状态的记录不再更新
             int result = taskMessageDao.updateStatusByTaskId(taskId, 2);
             if (result > 0) {
+                if (backlogEstimator != null) {
+                    deductBacklog(taskId, houseNumber);
+                }
                 log.info("更新任务状态为成功，taskId: {}", taskId);
             } else {
-                log.warn("更新任务状态为成功失败，未找到对应任务，taskId: {}", taskId);
+                log.warn("更新任务状态为成功失败，未找到对应任务或任务已完成，taskId: {}", taskId);
             }
         } catch (Exception e) {
             log.error("更新任务状态为成功失败，taskId: {}", taskId, e);
@@ -78,6 +176,23 @@ public class LocalTaskMessageServiceImpl implements ILocalTaskMessageService {
         }
     }
 
+    /**
+     * 扣减积压估算
+     *
+     * @param taskId      任务ID
+     * @param houseNumber 门牌号，为null时从数据库读取记录的门牌号，记录不存在时不扣减
+     */
+    private void deductBacklog(String taskId, Integer houseNumber) {
+        if (houseNumber == null) {
+            TaskMessagePO po = taskMessageDao.selectByTaskId(taskId);
+            if (po == null || po.getHouseNumber() == null) {
+                return;
+            }
+            houseNumber = po.getHouseNumber();
+        }
+        backlogEstimator.onDelivered(houseNumber);
+    }
+
     @Override
     public void updateTaskStatusToFailed(String taskId) {
         try {
@@ -94,10 +209,20 @@ public class LocalTaskMessageServiceImpl implements ILocalTaskMessageService {
         }
     }
 
+    @Override
+    public TaskMessageSession openSession() {
+        return taskMessageDao.openSession();
+    }
+
     @Override
     public List<TaskMessageEntityCommand> selectByHouseNumber(List<Integer> houseNumbers, Long id, Integer limit) {
+        return selectByHouseNumber(houseNumbers, id, limit, ScanQueryModeEnum.IN_LIST);
+    }
+
+    @Override
+    public List<TaskMessageEntityCommand> selectByHouseNumber(List<Integer> houseNumbers, Long id, Integer limit, ScanQueryModeEnum queryMode) {
         try {
-            List<TaskMessagePO> poList = taskMessageDao.selectByHouseNumber(houseNumbers, id, limit);
+            List<TaskMessagePO> poList = taskMessageDao.selectByHouseNumber(houseNumbers, id, limit, queryMode);
             List<TaskMessageEntityCommand> result = new ArrayList<>();
             if (poList == null || poList.isEmpty()) {
                 return result;
@@ -112,6 +237,123 @@ public class LocalTaskMessageServiceImpl implements ILocalTaskMessageService {
         }
     }
 
+    @Override
+    public int streamByHouseNumber(List<Integer> houseNumbers, Long id, Integer limit, Integer fetchSize, Consumer<TaskMessageEntityCommand> consumer) {
+        return streamByHouseNumber(houseNumbers, id, limit, fetchSize, 0L, consumer);
+    }
+
+    @Override
+    public int streamByHouseNumber(List<Integer> houseNumbers, Long id, Integer limit, Integer fetchSize, long maxOpenMs, Consumer<TaskMessageEntityCommand> consumer) {
+        try {
+            return taskMessageDao.streamByHouseNumber(houseNumbers, id, limit, fetchSize, maxOpenMs, po -> consumer.accept(convertToCommand(po)));
+        } catch (Exception e) {
+            log.error("根据门牌号流式扫描任务消息失败，houseNumbers: {} id: {} limit: {}", houseNumbers, id, limit, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<TaskMessageEntityCommand> selectRouteByHouseNumber(List<Integer> houseNumbers, Long id, Integer limit) {
+        return selectRouteByHouseNumber(houseNumbers, id, limit, ScanQueryModeEnum.IN_LIST);
+    }
+
+    @Override
+    public List<TaskMessageEntityCommand> selectRouteByHouseNumber(List<Integer> houseNumbers, Long id, Integer limit, ScanQueryModeEnum queryMode) {
+        try {
+            List<TaskMessagePO> poList = taskMessageDao.selectRouteByHouseNumber(houseNumbers, id, limit, queryMode);
+            List<TaskMessageEntityCommand> result = new ArrayList<>();
+            if (poList == null || poList.isEmpty()) {
+                return result;
+            }
+            for (TaskMessagePO po : poList) {
+                TaskMessageEntityCommand cmd = new TaskMessageEntityCommand();
+                cmd.setId(po.getId());
+                cmd.setTaskId(po.getTaskId());
+                cmd.setNotifyType(po.getNotifyType());
+                cmd.setStatus(po.getStatus());
+                result.add(cmd);
+            }
+            return result;
+        } catch (Exception e) {
+            log.error("根据门牌号查询任务消息路由信息失败，houseNumbers: {} id: {} limit: {}", houseNumbers, id, limit, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<TaskMessageEntityCommand> selectByIds(List<Long> ids) {
+        try {
+            List<TaskMessagePO> poList = taskMessageDao.selectByIds(ids);
+            List<TaskMessageEntityCommand> result = new ArrayList<>();
+            if (poList == null || poList.isEmpty()) {
+                return result;
+            }
+            for (TaskMessagePO po : poList) {
+                result.add(convertToCommand(po));
+            }
+            return result;
+        } catch (Exception e) {
+            log.error("根据ID列表查询任务消息失败，ids: {}", ids, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<TaskMessageEntityCommand> selectByHouseNumberAndPriority(List<Integer> houseNumbers, Integer priority, Long lastId, Integer limit) {
+        try {
+            List<TaskMessagePO> poList = taskMessageDao.selectByHouseNumberAndPriority(houseNumbers, priority, lastId, limit);
+            List<TaskMessageEntityCommand> result = new ArrayList<>();
+            for (TaskMessagePO po : poList) {
+                result.add(convertToCommand(po));
+            }
+            return result;
+        } catch (Exception e) {
+            log.error("按优先级查询任务消息失败，houseNumbers: {} priority: {} lastId: {}", houseNumbers, priority, lastId, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<TaskMessageEntityCommand> selectPendingByOrderingKey(String orderingKey, Integer limit) {
+        try {
+            List<TaskMessagePO> poList = taskMessageDao.selectPendingByOrderingKey(orderingKey, limit);
+            List<TaskMessageEntityCommand> result = new ArrayList<>();
+            for (TaskMessagePO po : poList) {
+                result.add(convertToCommand(po));
+            }
+            return result;
+        } catch (Exception e) {
+            log.error("按顺序键查询待处理任务消息失败，orderingKey: {}", orderingKey, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<TaskMessageEntityCommand> selectDueDelayed(List<Integer> houseNumbers, LocalDateTime deliverBefore, Integer limit) {
+        try {
+            List<TaskMessagePO> poList = taskMessageDao.selectDueDelayed(houseNumbers, deliverBefore, limit);
+            List<TaskMessageEntityCommand> result = new ArrayList<>();
+            for (TaskMessagePO po : poList) {
+                result.add(convertToCommand(po));
+            }
+            return result;
+        } catch (Exception e) {
+            log.error("查询即将到期的延迟消息失败，houseNumbers: {} deliverBefore: {}", houseNumbers, deliverBefore, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public TaskMessageEntityCommand selectByTaskId(String taskId) {
+        try {
+            TaskMessagePO po = taskMessageDao.selectByTaskId(taskId);
+            return po == null ? null : convertToCommand(po);
+        } catch (Exception e) {
+            log.error("根据任务ID查询任务消息失败，taskId: {}", taskId, e);
+            throw e;
+        }
+    }
+
     @Override
     public Long selectMinIdByHouseNumber(List<Integer> houseNumbers) {
         try {
@@ -126,24 +368,7 @@ public class LocalTaskMessageServiceImpl implements ILocalTaskMessageService {
      * 将PO对象转换为领域实体命令
      */
     private TaskMessageEntityCommand convertToCommand(TaskMessagePO po) {
-        TaskMessageEntityCommand cmd = new TaskMessageEntityCommand();
-        cmd.setId(po.getId());
-        cmd.setTaskId(po.getTaskId());
-        cmd.setTaskName(po.getTaskName());
-        cmd.setNotifyType(po.getNotifyType());
-        cmd.setStatus(po.getStatus());
-        cmd.setParameterJson(po.getParameterJson());
-
-        if (po.getNotifyConfig() != null) {
-            try {
-                TaskMessageEntityCommand.NotifyConfig notifyConfig = JSONUtil.toBean(po.getNotifyConfig(), TaskMessageEntityCommand.NotifyConfig.class);
-                cmd.setNotifyConfig(notifyConfig);
-            } catch (Exception e) {
-                log.warn("解析 notifyConfig 失败，taskId:{} notifyConfig:{}", po.getTaskId(), po.getNotifyConfig(), e);
-            }
-        }
-
-        return cmd;
+        return converter.toCommand(po);
     }
 
 }
@@ -0,0 +1,81 @@
+package com.zsq.winter.local.message.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 最近受理的任务ID缓存
+ * <p>
+ * 有界LRU缓存，记录最近确认已入库的任务ID及记录时间。幂等受理时先查此缓存，
+ * 客户端重试等明显的重复提交无需访问数据库即可判定为重复；未命中时仍由数据库唯一键兜底，
+ * 因此缓存淘汰或过期只会多一次数据库访问，不影响正确性。
+ * </p>
+ *
+ * @see com.zsq.winter.local.message.LocalTaskMessageTemplate
+ */
+public class RecentTaskIdCache {
+
+    private final int maxSize;
+
+    private final long ttlMs;
+
+    /**
+     * 任务ID到记录时间（毫秒时间戳），按访问顺序排列，超出容量时淘汰最久未访问的
+     */
+    private final LinkedHashMap<String, Long> entries;
+
+    /**
+     * 构造方法
+     *
+     * @param maxSize 最大缓存数量，小于1时按1处理
+     * @param ttlMs   缓存有效期（毫秒），小于等于0表示不过期
+     */
+    public RecentTaskIdCache(int maxSize, long ttlMs) {
+        this.maxSize = Math.max(1, maxSize);
+        this.ttlMs = ttlMs;
+        this.entries = new LinkedHashMap<String, Long>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > RecentTaskIdCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * 判断任务ID是否在缓存中且未过期
+     *
+     * @param taskId 任务ID
+     * @return 已缓存时返回true
+     */
+    public synchronized boolean contains(String taskId) {
+        Long recordTime = entries.get(taskId);
+        if (recordTime == null) {
+            return false;
+        }
+        if (ttlMs > 0 && System.currentTimeMillis() - recordTime > ttlMs) {
+            entries.remove(taskId);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 记录任务ID，应在确认已入库（事务已提交或数据库判定重复）后调用
+     *
+     * @param taskId 任务ID
+     */
+    public synchronized void put(String taskId) {
+        entries.put(taskId, System.currentTimeMillis());
+    }
+
+    /**
+     * 当前缓存数量
+     *
+     * @return 缓存数量
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,236 @@
+package com.zsq.winter.local.message.service;
+
+import com.zsq.winter.local.message.config.LocalTaskMessageAutoProperties;
+import com.zsq.winter.local.message.dao.IBacklogStatsDao;
+import com.zsq.winter.local.message.dao.ITaskMessageDao;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 任务消息积压估算器
+ * <p>
+ * 在local_task_message_backlog统计表中按门牌号维护待处理消息数，代替对任务消息表的 COUNT(*)：
+ * 消息插入的事务提交后加1，状态首次变为已完成时减1。增减先累加在本地内存中，
+ * 按刷新间隔合并为每个门牌号一条UPDATE写入统计表，再读取统计表（只有门牌号数量的行）得到全部节点汇总后的估算值。
+ * </p>
+ *
+ * <p><b>误差与校准：</b></p>
+ * <ul>
+ *   <li>进程异常退出时未刷新的增减会丢失，直接修改数据库时计数不准</li>
+ *   <li>统计表为空时启动即按精确统计初始化，全部门牌号各写入一行（没有待处理消息时为0）；
+ *       之后按校准间隔执行一次分组COUNT覆盖统计表，间隔为0时不校准</li>
+ *   <li>刷新任务只读写统计表，任何情况下都不访问任务消息表</li>
+ *   <li>估算值小于0时按0返回</li>
+ * </ul>
+ *
+ * @see IBacklogStatsDao
+ */
+@Slf4j
+public class TaskMessageBacklogEstimator {
+
+    /**
+     * 门牌号数量，与{@link LocalTaskMessageServiceImpl#houseNumberOf(String)}的取模一致
+     */
+    private static final int HOUSE_NUMBER_COUNT = 10;
+
+    private final IBacklogStatsDao backlogStatsDao;
+
+    private final ITaskMessageDao taskMessageDao;
+
+    private final ThreadPoolTaskScheduler scheduler;
+
+    private final LocalTaskMessageAutoProperties.BacklogEstimate config;
+
+    /**
+     * 尚未写入统计表的本地增减，按门牌号累加
+     */
+    private final Map<Integer, AtomicLong> pendingDeltas = new ConcurrentHashMap<>();
+
+    /**
+     * 最近一次从统计表读取的估算值
+     */
+    private volatile Map<Integer, Long> estimates = Collections.emptyMap();
+
+    private ScheduledFuture<?> flushFuture;
+
+    private ScheduledFuture<?> calibrateFuture;
+
+    /**
+     * 构造方法
+     *
+     * @param backlogStatsDao 积压统计DAO
+     * @param taskMessageDao  任务消息DAO，仅用于校准
+     * @param scheduler       任务调度器
+     * @param config          积压估算配置
+     */
+    public TaskMessageBacklogEstimator(IBacklogStatsDao backlogStatsDao, ITaskMessageDao taskMessageDao,
+                                       ThreadPoolTaskScheduler scheduler, LocalTaskMessageAutoProperties.BacklogEstimate config) {
+        this.backlogStatsDao = backlogStatsDao;
+        this.taskMessageDao = taskMessageDao;
+        this.scheduler = scheduler;
+        this.config = config;
+    }
+
+    /**
+     * 启动刷新和校准任务
+     */
+    @PostConstruct
+    public synchronized void start() {
+        // 启动时只检查一次统计表，为空时在调度线程上初始化，不阻塞容器启动
+        scheduler.execute(this::initialize);
+        flushFuture = scheduler.scheduleWithFixedDelay(this::flushAndRefresh, Math.max(100L, config.getFlushIntervalMs()));
+        if (config.getCalibrateIntervalMs() != null && config.getCalibrateIntervalMs() > 0) {
+            calibrateFuture = scheduler.scheduleWithFixedDelay(this::calibrate, config.getCalibrateIntervalMs());
+        }
+        log.info("任务消息积压估算已启动，刷新间隔: {}ms，校准间隔: {}ms", config.getFlushIntervalMs(), config.getCalibrateIntervalMs());
+    }
+
+    /**
+     * 停止刷新和校准任务，并写入剩余的本地增减
+     */
+    @PreDestroy
+    public synchronized void stop() {
+        if (flushFuture != null) {
+            flushFuture.cancel(false);
+        }
+        if (calibrateFuture != null) {
+            calibrateFuture.cancel(false);
+        }
+        try {
+            flush();
+        } catch (Exception e) {
+            log.warn("停止时写入积压统计失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 记录一条新插入的消息，应在事务提交后调用
+     *
+     * @param houseNumber 门牌号
+     */
+    public void onAccepted(int houseNumber) {
+        pendingDeltas.computeIfAbsent(houseNumber, k -> new AtomicLong()).incrementAndGet();
+    }
+
+    /**
+     * 记录一条消息投递完成，应只在状态首次变为已完成时调用
+     *
+     * @param houseNumber 门牌号
+     */
+    public void onDelivered(int houseNumber) {
+        pendingDeltas.computeIfAbsent(houseNumber, k -> new AtomicLong()).decrementAndGet();
+    }
+
+    /**
+     * 获取各门牌号待处理消息数的估算值
+     * <p>
+     * 统计表中的汇总值加上本节点尚未写入的增减，不访问数据库。
+     * </p>
+     *
+     * @return 门牌号到估算值的映射，按门牌号升序
+     */
+    public Map<Integer, Long> getEstimatedBacklog() {
+        Map<Integer, Long> result = new TreeMap<>(estimates);
+        for (Map.Entry<Integer, AtomicLong> entry : pendingDeltas.entrySet()) {
+            result.merge(entry.getKey(), entry.getValue().get(), Long::sum);
+        }
+        result.replaceAll((houseNumber, count) -> Math.max(0L, count));
+        return result;
+    }
+
+    /**
+     * 获取全部门牌号待处理消息数的估算值之和
+     *
+     * @return 估算的积压总数
+     */
+    public long getEstimatedTotal() {
+        long total = 0L;
+        for (Long count : getEstimatedBacklog().values()) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * 统计表为空时按精确统计初始化
+     */
+    void initialize() {
+        try {
+            if (backlogStatsDao.selectPending().isEmpty()) {
+                calibrate();
+            }
+        } catch (Exception e) {
+            log.warn("初始化积压统计失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 写入本地增减并重新读取统计表，不访问任务消息表
+     */
+    void flushAndRefresh() {
+        try {
+            flush();
+            estimates = backlogStatsDao.selectPending();
+        } catch (Exception e) {
+            log.warn("刷新积压估算失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 按门牌号分组COUNT待处理消息，覆盖统计表
+     * <p>
+     * 全部门牌号都写入一行，没有待处理消息的门牌号写入0，之后统计表不会再为空。
+     * 校准期间其他节点写入的增减可能被覆盖或重复计入，误差在下次校准时修正。
+     * </p>
+     */
+    public synchronized void calibrate() {
+        try {
+            flush();
+            Map<Integer, Long> exact = taskMessageDao.countPendingByHouseNumber();
+            Map<Integer, Long> calibrated = new LinkedHashMap<>();
+            // 没有待处理消息的门牌号同样写入0
+            for (int houseNumber = 0; houseNumber < HOUSE_NUMBER_COUNT; houseNumber++) {
+                calibrated.put(houseNumber, 0L);
+            }
+            for (Integer houseNumber : backlogStatsDao.selectPending().keySet()) {
+                calibrated.put(houseNumber, 0L);
+            }
+            calibrated.putAll(exact);
+            for (Map.Entry<Integer, Long> entry : calibrated.entrySet()) {
+                backlogStatsDao.resetPending(entry.getKey(), entry.getValue());
+            }
+            estimates = calibrated;
+            log.info("积压统计校准完成: {}", calibrated);
+        } catch (Exception e) {
+            log.warn("积压统计校准失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 将本地增减写入统计表，写入失败的增减放回本地，下次刷新时重试
+     */
+    private void flush() {
+        for (Map.Entry<Integer, AtomicLong> entry : pendingDeltas.entrySet()) {
+            long delta = entry.getValue().getAndSet(0L);
+            if (delta == 0L) {
+                continue;
+            }
+            try {
+                backlogStatsDao.addPending(entry.getKey(), delta);
+            } catch (Exception e) {
+                entry.getValue().addAndGet(delta);
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.zsq.winter.local.message.service;
+
+import cn.hutool.json.JSONUtil;
+import com.zsq.winter.local.message.codec.IPayloadCodec;
+import com.zsq.winter.local.message.codec.PayloadCodecFactory;
+import com.zsq.winter.local.message.config.LocalTaskMessageAutoProperties;
+import com.zsq.winter.local.message.entity.TaskMessageEntityCommand;
+import com.zsq.winter.local.message.entity.TaskMessagePO;
+import com.zsq.winter.local.message.enums.PayloadCodecEnum;
+import com.zsq.winter.local.message.id.ITaskIdGenerator;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+/**
+ * 任务消息命令与PO的转换器
+ * <p>
+ * 不涉及数据库访问，由JDBC仓储服务和响应式仓储服务共用：
+ * 保存前生成任务ID、计算门牌号并按压缩配置处理业务参数，扫描后解析通知配置。
+ * </p>
+ *
+ * @see LocalTaskMessageServiceImpl
+ */
+@Slf4j
+public class TaskMessageConverter {
+
+    /**
+     * 业务参数压缩编解码，未开启压缩时为null
+     */
+    private final IPayloadCodec payloadCodec;
+
+    /**
+     * 压缩阈值字节数
+     */
+    private final int compressThresholdBytes;
+
+    /**
+     * 任务ID生成器，调用方未设置taskId时使用，为null时不生成
+     */
+    private final ITaskIdGenerator taskIdGenerator;
+
+    /**
+     * 构造方法
+     *
+     * @param compression     压缩配置
+     * @param taskIdGenerator 任务ID生成器，可为null
+     */
+    public TaskMessageConverter(LocalTaskMessageAutoProperties.Compression compression, ITaskIdGenerator taskIdGenerator) {
+        this.payloadCodec = resolvePayloadCodec(compression);
+        this.compressThresholdBytes = compression.getThresholdBytes() == null ? 0 : compression.getThresholdBytes();
+        this.taskIdGenerator = taskIdGenerator;
+    }
+
+    /**
+     * 将任务消息命令转换为PO对象，计算门牌号并按压缩配置处理业务参数
+     * <p>
+     * 命令未设置taskId时先生成并回填到命令上，调用方保存后可以读取。
+     * </p>
+     *
+     * @param command 任务消息命令
+     * @return 任务消息PO
+     */
+    public TaskMessagePO toPO(TaskMessageEntityCommand command) {
+        if ((command.getTaskId() == null || command.getTaskId().isEmpty()) && taskIdGenerator != null) {
+            command.setTaskId(taskIdGenerator.nextTaskId());
+        }
+        TaskMessagePO po = new TaskMessagePO();
+        po.setTaskId(command.getTaskId());
+        po.setTaskName(command.getTaskName());
+        po.setNotifyType(command.getNotifyType());
+        po.setStatus(command.getStatus());
+        fillParameter(po, command.getParameterJson());
+        po.setOrderingKey(command.getOrderingKey());
+        po.setDeliverAt(command.getDeliverAt());
+        po.setPriority(command.getPriority());
+        po.setTraceParent(command.getTraceParent());
+
+        // 将NotifyConfig对象转换为JSON字符串
+        if (command.getNotifyConfig() != null) {
+            po.setNotifyConfig(JSONUtil.toJsonStr(command.getNotifyConfig()));
+        }
+
+        po.setHouseNumber(LocalTaskMessageServiceImpl.houseNumberOf(command));
+
+        po.setCreateTime(LocalDateTime.now());
+        po.setUpdateTime(LocalDateTime.now());
+        command.setCreateTime(po.getCreateTime());
+        return po;
+    }
+
+    /**
+     * 填充业务参数
+     * <p>
+     * 未开启压缩、参数为空、未达到阈值或压缩后没有变小时，按明文写入parameter_json；
+     * 否则写入parameter_blob并记录压缩编码。
+     * </p>
+     */
+    private void fillParameter(TaskMessagePO po, String parameterJson) {
+        po.setPayloadCodec(PayloadCodecEnum.NONE.getCode());
+        if (payloadCodec == null || parameterJson == null) {
+            po.setParameterJson(parameterJson);
+            return;
+        }
+
+        byte[] raw = parameterJson.getBytes(StandardCharsets.UTF_8);
+        if (raw.length < compressThresholdBytes) {
+            po.setParameterJson(parameterJson);
+            return;
+        }
+
+        byte[] compressed = payloadCodec.compress(raw);
+        if (compressed.length >= raw.length) {
+            po.setParameterJson(parameterJson);
+            return;
+        }
+
+        po.setPayloadCodec(payloadCodec.getCodecType().getCode());
+        po.setParameterBlob(compressed);
+    }
+
+    /**
+     * 解析压缩编解码实现
+     *
+     * @param compression 压缩配置
+     * @return 编解码实现，未开启压缩时返回null
+     */
+    private static IPayloadCodec resolvePayloadCodec(LocalTaskMessageAutoProperties.Compression compression) {
+        if (compression == null || !Boolean.TRUE.equals(compression.getEnabled())) {
+            return null;
+        }
+        PayloadCodecEnum codecType = compression.getCodec() == null ? PayloadCodecEnum.DEFLATE : compression.getCodec();
+        if (codecType == PayloadCodecEnum.NONE) {
+            return null;
+        }
+        if (!PayloadCodecFactory.isAvailable(codecType)) {
+            log.warn("业务参数压缩编码 {} 不可用（缺少依赖？），回退为 {}", codecType.getCode(), PayloadCodecEnum.DEFLATE.getCode());
+            codecType = PayloadCodecEnum.DEFLATE;
+        }
+        log.info("业务参数压缩已开启，编码: {} 阈值: {} 字节", codecType.getCode(), compression.getThresholdBytes());
+        return PayloadCodecFactory.getCodec(codecType);
+    }
+
+    /**
+     * 将PO对象转换为领域实体命令
+     * <p>
+     * 压缩的业务参数不在此解压，只挂载字节，由策略读取时再解压。
+     * </p>
+     *
+     * @param po 任务消息PO
+     * @return 任务消息命令
+     */
+    public TaskMessageEntityCommand toCommand(TaskMessagePO po) {
+        TaskMessageEntityCommand cmd = new TaskMessageEntityCommand();
+        cmd.setId(po.getId());
+        cmd.setTaskId(po.getTaskId());
+        cmd.setTaskName(po.getTaskName());
+        cmd.setNotifyType(po.getNotifyType());
+        cmd.setStatus(po.getStatus());
+        cmd.setOrderingKey(po.getOrderingKey());
+        cmd.setPriority(po.getPriority());
+        cmd.setTraceParent(po.getTraceParent());
+        cmd.setDeliverAt(po.getDeliverAt());
+        cmd.setCreateTime(po.getCreateTime());
+        if (po.getParameterBlob() != null && PayloadCodecEnum.of(po.getPayloadCodec()) != PayloadCodecEnum.NONE) {
+            // 压缩行只挂载字节，由策略读取业务参数时再解压
+            cmd.setCompressedParameter(po.getParameterBlob());
+            cmd.setParameterCodec(po.getPayloadCodec());
+        } else {
+            cmd.setParameterJson(po.getParameterJson());
+        }
+
+        if (po.getNotifyConfig() != null) {
+            try {
+                TaskMessageEntityCommand.NotifyConfig notifyConfig = JSONUtil.toBean(po.getNotifyConfig(), TaskMessageEntityCommand.NotifyConfig.class);
+                cmd.setNotifyConfig(notifyConfig);
+            } catch (Exception e) {
+                log.warn("解析 notifyConfig 失败，taskId:{} notifyConfig:{}", po.getTaskId(), po.getNotifyConfig(), e);
+            }
+        }
+
+        return cmd;
+    }
+}
@@ -1,8 +1,12 @@
 package com.zsq.winter.local.message.strategy;
 import com.zsq.winter.design.strategy.AbstractStrategyFactory;
 import com.zsq.winter.local.message.enums.TaskNotifyEnum;
+import com.zsq.winter.local.message.metrics.ITaskMessageMetrics;
+import com.zsq.winter.local.message.trace.ITaskMessageTracing;
+import com.zsq.winter.local.message.trace.NoopTaskMessageTracing;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -25,4 +29,45 @@ public class LocalTaskMessageNotifyFactory extends AbstractStrategyFactory<TaskN
         super(INotifyStrategy.class, notifyStrategyList);
     }
 
+    /**
+     * 构造方法
+     * <p>
+     * 指标实现实际记录指标时，为每个策略包装一层发送耗时和结果的记录。
+     * </p>
+     *
+     * @param notifyStrategyList 所有通知策略列表
+     * @param metrics            任务消息指标
+     */
+    public LocalTaskMessageNotifyFactory(List<INotifyStrategy> notifyStrategyList, ITaskMessageMetrics metrics) {
+        this(notifyStrategyList, metrics, NoopTaskMessageTracing.INSTANCE);
+    }
+
+    /**
+     * 构造方法
+     * <p>
+     * 链路追踪开启时在指标包装内再包装一层投递span，指标记录的发送耗时包含span的开销。
+     * </p>
+     *
+     * @param notifyStrategyList 所有通知策略列表
+     * @param metrics            任务消息指标
+     * @param tracing            任务消息链路追踪
+     */
+    public LocalTaskMessageNotifyFactory(List<INotifyStrategy> notifyStrategyList, ITaskMessageMetrics metrics, ITaskMessageTracing tracing) {
+        super(INotifyStrategy.class, wrap(notifyStrategyList, metrics, tracing));
+    }
+
+    private static List<INotifyStrategy> wrap(List<INotifyStrategy> notifyStrategyList, ITaskMessageMetrics metrics, ITaskMessageTracing tracing) {
+        boolean metered = metrics != null && metrics.isEnabled();
+        boolean traced = tracing != null && tracing.isEnabled();
+        if (!metered && !traced) {
+            return notifyStrategyList;
+        }
+        List<INotifyStrategy> wrapped = new ArrayList<>(notifyStrategyList.size());
+        for (INotifyStrategy strategy : notifyStrategyList) {
+            INotifyStrategy decorated = traced ? new TracedNotifyStrategy(strategy, tracing) : strategy;
+            wrapped.add(metered ? new MeteredNotifyStrategy(decorated, metrics) : decorated);
+        }
+        return wrapped;
+    }
+
 }
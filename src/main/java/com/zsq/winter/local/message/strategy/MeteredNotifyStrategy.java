@@ -0,0 +1,85 @@
+package com.zsq.winter.local.message.strategy;
+
+import com.zsq.winter.local.message.entity.TaskMessageEntityCommand;
+import com.zsq.winter.local.message.enums.TaskNotifyEnum;
+import com.zsq.winter.local.message.metrics.ITaskMessageMetrics;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * 记录发送指标的通知策略包装类
+ * <p>
+ * 由LocalTaskMessageNotifyFactory包装每一个注册的通知策略（包括使用者自定义的策略），
+ * 记录发送耗时和成功/失败次数，发送成功时按投递路径记录从创建时间起的端到端延迟。
+ * 目标地址标签只取HTTP的主机名或MQ的交换机/主题，保证标签基数可控。
+ * </p>
+ */
+class MeteredNotifyStrategy implements INotifyStrategy {
+
+    private final INotifyStrategy delegate;
+
+    private final ITaskMessageMetrics metrics;
+
+    MeteredNotifyStrategy(INotifyStrategy delegate, ITaskMessageMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public String notify(TaskMessageEntityCommand command) throws Exception {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            String result = delegate.notify(command);
+            success = true;
+            return result;
+        } finally {
+            String notifyType = delegate.getStrategyType().getCode();
+            metrics.recordSend(notifyType, destinationOf(command), System.nanoTime() - start, success);
+            if (success && command.getCreateTime() != null) {
+                String path = command.getDeliveryPath() == null ? ITaskMessageMetrics.PATH_SCAN : command.getDeliveryPath();
+                metrics.recordDeliveryLatency(notifyType, path, Duration.between(command.getCreateTime(), LocalDateTime.now()).toNanos());
+            }
+        }
+    }
+
+    @Override
+    public void execute(Object... params) {
+        delegate.execute(params);
+    }
+
+    @Override
+    public TaskNotifyEnum getStrategyType() {
+        return delegate.getStrategyType();
+    }
+
+    /**
+     * 解析低基数的目标地址标签
+     *
+     * @param command 任务消息命令
+     * @return HTTP主机名、RabbitMQ交换机或Kafka/RocketMQ主题，无法解析时返回unknown
+     */
+    static String destinationOf(TaskMessageEntityCommand command) {
+        TaskMessageEntityCommand.NotifyConfig config = command == null ? null : command.getNotifyConfig();
+        if (config == null) {
+            return "unknown";
+        }
+        String destination = null;
+        if (config.getHttp() != null && config.getHttp().getUrl() != null) {
+            try {
+                destination = URI.create(config.getHttp().getUrl().trim()).getHost();
+            } catch (IllegalArgumentException e) {
+                destination = null;
+            }
+        } else if (config.getMq() != null) {
+            destination = config.getMq().getExchange();
+        } else if (config.getKafka() != null) {
+            destination = config.getKafka().getTopic();
+        } else if (config.getRocketMQ() != null) {
+            destination = config.getRocketMQ().getTopic();
+        }
+        return destination == null || destination.isEmpty() ? "unknown" : destination;
+    }
+}
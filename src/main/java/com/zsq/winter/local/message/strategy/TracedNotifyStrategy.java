@@ -0,0 +1,47 @@
+package com.zsq.winter.local.message.strategy;
+
+import com.zsq.winter.local.message.entity.TaskMessageEntityCommand;
+import com.zsq.winter.local.message.enums.TaskNotifyEnum;
+import com.zsq.winter.local.message.trace.ITaskMessageTracing;
+
+/**
+ * 记录投递链路的通知策略包装类
+ * <p>
+ * 由LocalTaskMessageNotifyFactory包装每一个注册的通知策略，投递前开启以受理链路为链接的投递span，
+ * 并把投递span的traceparent设置到命令上，由内置策略写入下游的请求头或消息头。
+ * </p>
+ */
+class TracedNotifyStrategy implements INotifyStrategy {
+
+    private final INotifyStrategy delegate;
+
+    private final ITaskMessageTracing tracing;
+
+    TracedNotifyStrategy(INotifyStrategy delegate, ITaskMessageTracing tracing) {
+        this.delegate = delegate;
+        this.tracing = tracing;
+    }
+
+    @Override
+    public String notify(TaskMessageEntityCommand command) throws Exception {
+        try (ITaskMessageTracing.DeliverySpan span = tracing.startDelivery(command)) {
+            command.setDeliveryTraceParent(span.traceParent());
+            try {
+                return delegate.notify(command);
+            } catch (Exception e) {
+                span.error(e);
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public void execute(Object... params) {
+        delegate.execute(params);
+    }
+
+    @Override
+    public TaskNotifyEnum getStrategyType() {
+        return delegate.getStrategyType();
+    }
+}
@@ -9,6 +9,7 @@ import com.zsq.winter.local.message.enums.TaskNotifyEnum;
 import com.zsq.winter.local.message.service.ILocalTaskMessageService;
 import com.zsq.winter.local.message.entity.TaskMessageEntityCommand;
 import com.zsq.winter.local.message.strategy.INotifyStrategy;
+import com.zsq.winter.local.message.trace.ITaskMessageTracing;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -54,7 +55,7 @@ public class HTTPNotifyStrategy implements INotifyStrategy {
             TaskMessageEntityCommand.NotifyConfig.HTTP http = command.getNotifyConfig().getHttp();
 
             // 2. 构建并执行HTTP请求
-            HttpRequest request = buildHttpRequest(http, command.getParameterJson());
+            HttpRequest request = buildHttpRequest(http, command.getParameterJson(), command.outboundTraceParent());
             
             String result;
             try (HttpResponse response = request.execute()) {
@@ -62,7 +63,7 @@ public class HTTPNotifyStrategy implements INotifyStrategy {
             }
 
             // 3. 通知成功，更新状态
-            repository.updateTaskStatusToSuccess(command.getTaskId());
+            repository.updateTaskStatusToSuccess(command);
             log.info("HTTP通知成功 - TaskId: {}, URL: {}", command.getTaskId(), http.getUrl());
             
             return result;
@@ -80,9 +81,10 @@ public class HTTPNotifyStrategy implements INotifyStrategy {
      *
      * @param http HTTP配置
      * @param bodyJson 请求体JSON
+     * @param traceParent 链路上下文，不为空时写入traceparent请求头
      * @return HTTP请求对象
      */
-    private HttpRequest buildHttpRequest(TaskMessageEntityCommand.NotifyConfig.HTTP http, String bodyJson) {
+    private HttpRequest buildHttpRequest(TaskMessageEntityCommand.NotifyConfig.HTTP http, String bodyJson, String traceParent) {
         HttpRequest request = HttpRequest.post(http.getUrl()).body(bodyJson);
 
         // 设置Content-Type
@@ -96,6 +98,11 @@ public class HTTPNotifyStrategy implements INotifyStrategy {
             request.header("Authorization", http.getAuthorization());
         }
 
+        // 传递链路上下文
+        if (traceParent != null) {
+            request.header(ITaskMessageTracing.TRACEPARENT, traceParent);
+        }
+
         return request;
     }
 
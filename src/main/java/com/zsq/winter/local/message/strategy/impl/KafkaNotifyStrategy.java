@@ -5,11 +5,16 @@ import com.zsq.winter.local.message.entity.TaskMessageEntityCommand;
 import com.zsq.winter.local.message.enums.TaskNotifyEnum;
 import com.zsq.winter.local.message.service.ILocalTaskMessageService;
 import com.zsq.winter.local.message.strategy.INotifyStrategy;
+import com.zsq.winter.local.message.trace.ITaskMessageTracing;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.internals.RecordHeader;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.util.concurrent.ListenableFutureCallback;
 
+import java.nio.charset.StandardCharsets;
+
 /**
  * Kafka通知策略实现
  * <p>
@@ -55,10 +60,10 @@ public class KafkaNotifyStrategy implements INotifyStrategy {
             TaskMessageEntityCommand.NotifyConfig.Kafka kafka = command.getNotifyConfig().getKafka();
             
             // 发送Kafka消息
-            sendKafkaMessage(kafka, command.getParameterJson(), command.getTaskId());
+            sendKafkaMessage(kafka, command.getParameterJson(), command.getTaskId(), command.outboundTraceParent());
             
             // 通知成功，更新状态为成功
-            repository.updateTaskStatusToSuccess(command.getTaskId());
+            repository.updateTaskStatusToSuccess(command);
             log.info("Kafka通知成功 - TaskId: {}, Topic: {}", command.getTaskId(), kafka.getTopic());
             
             return "success";
@@ -77,8 +82,9 @@ public class KafkaNotifyStrategy implements INotifyStrategy {
      * @param kafka Kafka配置
      * @param message 消息内容
      * @param taskId 任务ID
+     * @param traceParent 链路上下文，不为空时写入traceparent消息头
      */
-    private void sendKafkaMessage(TaskMessageEntityCommand.NotifyConfig.Kafka kafka, String message, String taskId) {
+    private void sendKafkaMessage(TaskMessageEntityCommand.NotifyConfig.Kafka kafka, String message, String taskId, String traceParent) {
         try {
             if (null == kafkaTemplate) {
                 log.error("应用服务方，尚未配置 Kafka Template 不能完成 Kafka 发送");
@@ -88,7 +94,7 @@ public class KafkaNotifyStrategy implements INotifyStrategy {
             // 根据配置选择发送方式
             if (kafka.getPartition() != null) {
                 // 发送到指定分区
-                kafkaTemplate.send(kafka.getTopic(), kafka.getPartition(), kafka.getPartitionKey(), message)
+                kafkaTemplate.send(buildRecord(kafka.getTopic(), kafka.getPartition(), kafka.getPartitionKey(), message, traceParent))
                     .addCallback(new ListenableFutureCallback<SendResult<String, String>>() {
                         @Override
                         public void onSuccess(SendResult<String, String> result) {
@@ -106,12 +112,12 @@ public class KafkaNotifyStrategy implements INotifyStrategy {
                     });
             } else if (kafka.getPartitionKey() != null) {
                 // 使用分区键发送
-                kafkaTemplate.send(kafka.getTopic(), kafka.getPartitionKey(), message);
+                kafkaTemplate.send(buildRecord(kafka.getTopic(), null, kafka.getPartitionKey(), message, traceParent));
                 log.info("Kafka消息发送成功 - TaskId: {}, Topic: {}, PartitionKey: {}", 
                     taskId, kafka.getTopic(), kafka.getPartitionKey());
             } else {
                 // 普通发送
-                kafkaTemplate.send(kafka.getTopic(), message);
+                kafkaTemplate.send(buildRecord(kafka.getTopic(), null, null, message, traceParent));
                 log.info("Kafka消息发送成功 - TaskId: {}, Topic: {}", taskId, kafka.getTopic());
             }
 
@@ -121,6 +127,23 @@ public class KafkaNotifyStrategy implements INotifyStrategy {
         }
     }
 
+    /**
+     * 构建Kafka消息记录
+     *
+     * @param topic 主题
+     * @param partition 分区，为空时由分区键或默认分区器决定
+     * @param key 分区键
+     * @param message 消息内容
+     * @param traceParent 链路上下文，不为空时写入traceparent消息头
+     * @return 消息记录
+     */
+    private static ProducerRecord<String, String> buildRecord(String topic, Integer partition, String key, String message, String traceParent) {
+        ProducerRecord<String, String> record = new ProducerRecord<>(topic, partition, key, message);
+        if (traceParent != null) {
+            record.headers().add(new RecordHeader(ITaskMessageTracing.TRACEPARENT, traceParent.getBytes(StandardCharsets.UTF_8)));
+        }
+        return record;
+    }
 
     @Override
     public void execute(Object... params) {
@@ -6,6 +6,7 @@ import com.zsq.winter.local.message.enums.TaskNotifyEnum;
 import com.zsq.winter.local.message.service.ILocalTaskMessageService;
 import com.zsq.winter.local.message.entity.TaskMessageEntityCommand;
 import com.zsq.winter.local.message.strategy.INotifyStrategy;
+import com.zsq.winter.local.message.trace.ITaskMessageTracing;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.core.MessageDeliveryMode;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
@@ -56,9 +57,9 @@ public class RabbitMQNotifyStrategy implements INotifyStrategy {
     public String notify(TaskMessageEntityCommand command) throws Exception {
         try {
             TaskMessageEntityCommand.NotifyConfig.MQ mq = command.getNotifyConfig().getMq();
-            publish(mq.getExchange(), mq.getTopic(), command.getParameterJson());
+            publish(mq.getExchange(), mq.getTopic(), command.getParameterJson(), command.outboundTraceParent());
              // 通知成功，更新状态为成功
-            repository.updateTaskStatusToSuccess(command.getTaskId());
+            repository.updateTaskStatusToSuccess(command);
             return "success";
         } catch (Exception e) {
             log.error("rabbitmq notify error {}", JSONUtil.toJsonStr(command), e);
@@ -69,6 +70,18 @@ public class RabbitMQNotifyStrategy implements INotifyStrategy {
     }
 
     public void publish(String exchange, String routingKey, String message) {
+        publish(exchange, routingKey, message, null);
+    }
+
+    /**
+     * 发送持久化消息
+     *
+     * @param exchange    交换机
+     * @param routingKey  路由键
+     * @param message     消息内容
+     * @param traceParent 链路上下文，不为空时写入traceparent消息头
+     */
+    public void publish(String exchange, String routingKey, String message, String traceParent) {
         try {
             if (null == rabbitTemplate){
                 log.error("应用服务方，尚未配置 RabbitMQ Template 不能完成 MQ 发送");
@@ -78,6 +91,9 @@ public class RabbitMQNotifyStrategy implements INotifyStrategy {
             rabbitTemplate.convertAndSend(exchange, routingKey, message, m -> {
                 // 持久化消息配置
                 m.getMessageProperties().setDeliveryMode(MessageDeliveryMode.PERSISTENT);
+                if (traceParent != null) {
+                    m.getMessageProperties().setHeader(ITaskMessageTracing.TRACEPARENT, traceParent);
+                }
                 return m;
             });
         } catch (Exception e) {
@@ -5,6 +5,7 @@ import com.zsq.winter.local.message.entity.TaskMessageEntityCommand;
 import com.zsq.winter.local.message.enums.TaskNotifyEnum;
 import com.zsq.winter.local.message.service.ILocalTaskMessageService;
 import com.zsq.winter.local.message.strategy.INotifyStrategy;
+import com.zsq.winter.local.message.trace.ITaskMessageTracing;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.rocketmq.spring.core.RocketMQTemplate;
 import org.springframework.messaging.Message;
@@ -55,10 +56,10 @@ public class RocketMQNotifyStrategy implements INotifyStrategy {
             TaskMessageEntityCommand.NotifyConfig.RocketMQ rocketMQ = command.getNotifyConfig().getRocketMQ();
             
             // 发送RocketMQ消息
-            sendRocketMQMessage(rocketMQ, command.getParameterJson(), command.getTaskId());
+            sendRocketMQMessage(rocketMQ, command.getParameterJson(), command.getTaskId(), command.outboundTraceParent());
             
             // 通知成功，更新状态为成功
-            repository.updateTaskStatusToSuccess(command.getTaskId());
+            repository.updateTaskStatusToSuccess(command);
             log.info("RocketMQ通知成功 - TaskId: {}, Topic: {}", command.getTaskId(), rocketMQ.getTopic());
             
             return "success";
@@ -77,9 +78,10 @@ public class RocketMQNotifyStrategy implements INotifyStrategy {
      * @param rocketMQ RocketMQ配置
      * @param messageContent 消息内容
      * @param taskId 任务ID
+     * @param traceParent 链路上下文，不为空时写入traceparent用户属性
      */
     private void sendRocketMQMessage(TaskMessageEntityCommand.NotifyConfig.RocketMQ rocketMQ, 
-                                   String messageContent, String taskId) {
+                                   String messageContent, String taskId, String traceParent) {
         try {
             if (null == rocketMQTemplate) {
                 log.error("应用服务方，尚未配置 RocketMQ Template 不能完成 RocketMQ 发送");
@@ -93,6 +95,8 @@ public class RocketMQNotifyStrategy implements INotifyStrategy {
             Message<String> message = MessageBuilder
                 .withPayload(messageContent)
                 .setHeader("taskId", taskId)
+                // 值为null时不设置该属性
+                .setHeader(ITaskMessageTracing.TRACEPARENT, traceParent)
                 .build();
 
             // 根据是否有延迟级别选择发送方式
@@ -0,0 +1,73 @@
+package com.zsq.winter.local.message.trace;
+
+import com.zsq.winter.local.message.entity.TaskMessageEntityCommand;
+
+/**
+ * 任务消息链路追踪接口
+ * <p>
+ * 受理时记录当前链路的W3C traceparent并随消息入库，投递时以该traceparent为链接（span link）开启投递span，
+ * 再把投递span的traceparent写入HTTP头、Kafka头、RocketMQ属性或AMQP头，
+ * 使扫描任务延后投递的消息仍能关联到发起请求的链路。
+ * 默认实现为NoopTaskMessageTracing，classpath中存在OpenTelemetry API时使用OpenTelemetryTaskMessageTracing。
+ * </p>
+ *
+ * @see NoopTaskMessageTracing
+ * @see OpenTelemetryTaskMessageTracing
+ */
+public interface ITaskMessageTracing {
+
+    /**
+     * W3C Trace Context传播头名称
+     */
+    String TRACEPARENT = "traceparent";
+
+    /**
+     * 获取当前链路的traceparent
+     *
+     * @return traceparent，当前没有有效链路时返回null
+     */
+    String currentTraceParent();
+
+    /**
+     * 开启一次投递的span并设为当前上下文
+     *
+     * @param command 任务消息命令
+     * @return 投递span，投递结束后关闭
+     */
+    DeliverySpan startDelivery(TaskMessageEntityCommand command);
+
+    /**
+     * 是否实际记录链路
+     *
+     * @return 记录链路时返回true
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * 一次投递的span
+     */
+    interface DeliverySpan extends AutoCloseable {
+
+        /**
+         * 向下游传递的traceparent
+         *
+         * @return 投递span的traceparent，未开启span时为null
+         */
+        String traceParent();
+
+        /**
+         * 记录投递异常
+         *
+         * @param error 异常
+         */
+        void error(Throwable error);
+
+        /**
+         * 结束span并恢复之前的上下文
+         */
+        @Override
+        void close();
+    }
+}
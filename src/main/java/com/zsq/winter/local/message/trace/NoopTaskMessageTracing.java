@@ -0,0 +1,48 @@
+package com.zsq.winter.local.message.trace;
+
+import com.zsq.winter.local.message.entity.TaskMessageEntityCommand;
+
+/**
+ * 不记录链路的默认实现
+ * <p>
+ * classpath中没有OpenTelemetry API或未开启链路追踪时使用。受理时不记录traceparent，
+ * 调用方自行设置的traceparent在投递时原样传递给下游。
+ * </p>
+ */
+public class NoopTaskMessageTracing implements ITaskMessageTracing {
+
+    /**
+     * 共享实例
+     */
+    public static final NoopTaskMessageTracing INSTANCE = new NoopTaskMessageTracing();
+
+    private static final DeliverySpan NOOP_SPAN = new DeliverySpan() {
+        @Override
+        public String traceParent() {
+            return null;
+        }
+
+        @Override
+        public void error(Throwable error) {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    @Override
+    public String currentTraceParent() {
+        return null;
+    }
+
+    @Override
+    public DeliverySpan startDelivery(TaskMessageEntityCommand command) {
+        return NOOP_SPAN;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return false;
+    }
+}
@@ -0,0 +1,116 @@
+package com.zsq.winter.local.message.trace;
+
+import com.zsq.winter.local.message.entity.TaskMessageEntityCommand;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanBuilder;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+
+/**
+ * 基于OpenTelemetry的任务消息链路追踪实现
+ * <p>
+ * 投递span命名为 local-task-message notify，类型为PRODUCER，以受理时记录的traceparent为链接而不是父span：
+ * 投递可能在受理后很久才由扫描任务执行，作为链接不会把发起请求的链路拉长，同时仍可从投递span跳转到发起链路。
+ * </p>
+ */
+public class OpenTelemetryTaskMessageTracing implements ITaskMessageTracing {
+
+    private static final String INSTRUMENTATION_NAME = "winter-local-task-message";
+
+    private static final String SPAN_NAME = "local-task-message notify";
+
+    private static final AttributeKey<String> TASK_ID = AttributeKey.stringKey("messaging.message.id");
+
+    private static final AttributeKey<String> NOTIFY_TYPE = AttributeKey.stringKey("local_task_message.notify_type");
+
+    private static final AttributeKey<String> DELIVERY_PATH = AttributeKey.stringKey("local_task_message.delivery_path");
+
+    private final Tracer tracer;
+
+    /**
+     * 构造方法
+     *
+     * @param openTelemetry OpenTelemetry实例
+     */
+    public OpenTelemetryTaskMessageTracing(OpenTelemetry openTelemetry) {
+        this.tracer = openTelemetry.getTracer(INSTRUMENTATION_NAME);
+    }
+
+    @Override
+    public String currentTraceParent() {
+        return format(Span.current().getSpanContext());
+    }
+
+    @Override
+    public DeliverySpan startDelivery(TaskMessageEntityCommand command) {
+        SpanBuilder builder = tracer.spanBuilder(SPAN_NAME)
+                .setSpanKind(SpanKind.PRODUCER)
+                .setAttribute(TASK_ID, command.getTaskId() == null ? "" : command.getTaskId())
+                .setAttribute(NOTIFY_TYPE, command.getNotifyType() == null ? "" : command.getNotifyType())
+                .setAttribute(DELIVERY_PATH, command.getDeliveryPath() == null ? "scan" : command.getDeliveryPath());
+        SpanContext origin = parse(command.getTraceParent());
+        if (origin != null) {
+            builder.addLink(origin);
+        }
+        Span span = builder.startSpan();
+        Scope scope = span.makeCurrent();
+        String traceParent = format(span.getSpanContext());
+        return new DeliverySpan() {
+            @Override
+            public String traceParent() {
+                return traceParent;
+            }
+
+            @Override
+            public void error(Throwable error) {
+                span.recordException(error);
+                span.setStatus(StatusCode.ERROR);
+            }
+
+            @Override
+            public void close() {
+                scope.close();
+                span.end();
+            }
+        };
+    }
+
+    /**
+     * 将span上下文格式化为traceparent
+     *
+     * @param spanContext span上下文
+     * @return traceparent，上下文无效时返回null
+     */
+    static String format(SpanContext spanContext) {
+        if (spanContext == null || !spanContext.isValid()) {
+            return null;
+        }
+        return "00-" + spanContext.getTraceId() + "-" + spanContext.getSpanId() + "-" + spanContext.getTraceFlags().asHex();
+    }
+
+    /**
+     * 解析traceparent
+     *
+     * @param traceParent traceparent（00-32位traceId-16位spanId-2位flags）
+     * @return 远端span上下文，格式不正确时返回null
+     */
+    static SpanContext parse(String traceParent) {
+        if (traceParent == null || traceParent.length() != 55 || traceParent.charAt(2) != '-'
+                || traceParent.charAt(35) != '-' || traceParent.charAt(52) != '-') {
+            return null;
+        }
+        SpanContext spanContext = SpanContext.createFromRemoteParent(
+                traceParent.substring(3, 35),
+                traceParent.substring(36, 52),
+                TraceFlags.fromHex(traceParent, 53),
+                TraceState.getDefault());
+        return spanContext.isValid() ? spanContext : null;
+    }
+}
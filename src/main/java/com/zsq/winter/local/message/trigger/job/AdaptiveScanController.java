@@ -0,0 +1,119 @@
+package com.zsq.winter.local.message.trigger.job;
+
+import com.zsq.winter.local.message.config.LocalTaskMessageAutoProperties;
+import lombok.Getter;
+
+/**
+ * 自适应扫描控制器
+ * <p>
+ * 每个开启自适应调度的任务组持有一个实例，根据每次扫描的结果决定下一次的批量大小和调度间隔：
+ * </p>
+ * <ul>
+ *   <li>拉满一批：说明存在积压，立即再次扫描，但受每秒最大扫描次数限制</li>
+ *   <li>拉到部分数据：按基础间隔调度，并重置退避</li>
+ *   <li>没有数据或执行异常：间隔按指数退避，直到空闲间隔上限</li>
+ *   <li>因唤醒扫描正在执行而跳过：保持当前的批量大小和调度间隔</li>
+ * </ul>
+ * <p>
+ * 批量大小按单次扫描耗时调整：耗时低于目标的一半且拉满一批时翻倍，超过目标时减半，始终限制在[minLimit, maxLimit]内。
+ * </p>
+ * 该类只在所属任务组的调度线程中使用，无需同步；字段声明为volatile以便监控读取。
+ *
+ * @see TaskMessageEventJob
+ */
+@Getter
+public class AdaptiveScanController {
+
+    /**
+     * 扫描结果：任务组正在被其他扫描（如唤醒扫描）处理，本次未执行
+     */
+    public static final int TICK_SKIPPED = -2;
+
+    /**
+     * 最小批量大小
+     */
+    private final int minLimit;
+
+    /**
+     * 最大批量大小
+     */
+    private final int maxLimit;
+
+    /**
+     * 基础调度间隔（毫秒），有数据但未拉满时使用
+     */
+    private final long baseDelayMs;
+
+    /**
+     * 空闲退避上限（毫秒）
+     */
+    private final long idleDelayMs;
+
+    /**
+     * 连续拉满时两次扫描的最小间隔（毫秒），由每秒最大扫描次数换算
+     */
+    private final long minIntervalMs;
+
+    /**
+     * 单次扫描的目标耗时（毫秒）
+     */
+    private final long targetTickMs;
+
+    /**
+     * 当前批量大小
+     */
+    private volatile int currentLimit;
+
+    /**
+     * 当前调度间隔（毫秒）
+     */
+    private volatile long currentDelayMs;
+
+    /**
+     * 构造方法
+     *
+     * @param group 任务组配置
+     */
+    public AdaptiveScanController(LocalTaskMessageAutoProperties.TaskGroupConfig group) {
+        LocalTaskMessageAutoProperties.Adaptive adaptive = group.getAdaptive();
+        this.minLimit = Math.max(1, adaptive.getMinLimit());
+        this.maxLimit = Math.max(this.minLimit, adaptive.getMaxLimit());
+        this.baseDelayMs = group.getFixedDelayMs() != null ? group.getFixedDelayMs() : 5000L;
+        this.idleDelayMs = Math.max(this.baseDelayMs, adaptive.getIdleDelayMs());
+        this.minIntervalMs = adaptive.getMaxTicksPerSecond() > 0 ? 1000L / adaptive.getMaxTicksPerSecond() : 0L;
+        this.targetTickMs = Math.max(1L, adaptive.getTargetTickMs());
+        int initialLimit = group.getLimit() != null ? group.getLimit() : this.minLimit;
+        this.currentLimit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+        this.currentDelayMs = this.baseDelayMs;
+    }
+
+    /**
+     * 记录一次扫描结果并计算下一次调度间隔
+     *
+     * @param scanned    本次扫描到的消息条数，执行异常时传-1，跳过时传{@link #TICK_SKIPPED}
+     * @param durationMs 本次扫描耗时（毫秒）
+     * @return 下一次调度间隔（毫秒）
+     */
+    public long onTickCompleted(int scanned, long durationMs) {
+        if (scanned == TICK_SKIPPED) {
+            // 任务组正在被其他扫描处理，不能据此判断空闲
+            return currentDelayMs;
+        }
+        if (scanned <= 0) {
+            // 空闲或异常：指数退避
+            currentDelayMs = Math.min(idleDelayMs, Math.max(baseDelayMs, currentDelayMs * 2));
+            return currentDelayMs;
+        }
+
+        boolean full = scanned >= currentLimit;
+        if (full && durationMs * 2 < targetTickMs) {
+            currentLimit = Math.min(maxLimit, currentLimit * 2);
+        } else if (durationMs > targetTickMs) {
+            currentLimit = Math.max(minLimit, currentLimit / 2);
+        }
+
+        currentDelayMs = full ? minIntervalMs : baseDelayMs;
+        return currentDelayMs;
+    }
+
+}
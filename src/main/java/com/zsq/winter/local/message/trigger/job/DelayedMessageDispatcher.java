@@ -0,0 +1,254 @@
+package com.zsq.winter.local.message.trigger.job;
+
+import com.zsq.winter.local.message.config.LocalTaskMessageAutoProperties;
+import com.zsq.winter.local.message.entity.TaskMessageEntityCommand;
+import com.zsq.winter.local.message.enums.TaskNotifyEnum;
+import com.zsq.winter.local.message.metrics.ITaskMessageMetrics;
+import com.zsq.winter.local.message.service.ILocalTaskMessageService;
+import com.zsq.winter.local.message.strategy.INotifyStrategy;
+import com.zsq.winter.local.message.strategy.LocalTaskMessageNotifyFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 延迟消息调度器
+ * <p>
+ * 设置了deliverAt的消息不参与任务组的游标扫描，由本调度器负责投递：
+ * 按加载间隔查询计划投递时间在加载窗口（horizonMs）内的消息放入时间轮，到期后按毫秒精度投递，
+ * 数据库只在加载时被查询，不需要高频轮询。
+ * </p>
+ *
+ * <p><b>处理流程：</b></p>
+ * <ol>
+ *   <li>新插入的延迟消息由事件监听器直接放入时间轮（计划时间在加载窗口内时）</li>
+ *   <li>加载任务定期查询本实例负责门牌号内即将到期和已过期未成功的延迟消息，放入时间轮</li>
+ *   <li>到期时按任务ID重新读取消息，仍为待处理或失败状态时投递，避免重复投递已成功的消息</li>
+ *   <li>投递失败的消息保持失败状态，在下一次加载时重新放入时间轮重试</li>
+ * </ol>
+ * 延迟消息不参与顺序投递，设置了顺序键的延迟消息到期后直接投递。
+ *
+ * @see HashedTimingWheel
+ * @see TaskMessageEventJob
+ */
+@Slf4j
+public class DelayedMessageDispatcher {
+
+    private final ILocalTaskMessageService localTaskMessageService;
+
+    private final LocalTaskMessageNotifyFactory factory;
+
+    private final ThreadPoolTaskScheduler scheduler;
+
+    private final TaskMessageEventJob taskMessageEventJob;
+
+    private final LocalTaskMessageAutoProperties.Delay config;
+
+    /**
+     * 已放入时间轮尚未投递的任务ID，避免加载任务和事件监听器重复放入
+     */
+    private final Set<String> scheduledTaskIds = ConcurrentHashMap.newKeySet();
+
+    private HashedTimingWheel timingWheel;
+
+    /**
+     * 投递线程池，时间轮工作线程只负责触发
+     */
+    private ExecutorService deliveryExecutor;
+
+    private ScheduledFuture<?> loadFuture;
+
+    /**
+     * 构造方法
+     *
+     * @param localTaskMessageService 任务消息仓储服务
+     * @param factory                 任务消息通知工厂
+     * @param scheduler               任务调度器，用于执行加载任务
+     * @param taskMessageEventJob     任务消息定时任务，提供本实例负责的门牌号
+     * @param config                  延迟消息配置
+     */
+    public DelayedMessageDispatcher(ILocalTaskMessageService localTaskMessageService, LocalTaskMessageNotifyFactory factory,
+                                    ThreadPoolTaskScheduler scheduler, TaskMessageEventJob taskMessageEventJob,
+                                    LocalTaskMessageAutoProperties.Delay config) {
+        this.localTaskMessageService = localTaskMessageService;
+        this.factory = factory;
+        this.scheduler = scheduler;
+        this.taskMessageEventJob = taskMessageEventJob;
+        this.config = config;
+    }
+
+    /**
+     * 启动时间轮和加载任务
+     */
+    @PostConstruct
+    public synchronized void start() {
+        timingWheel = new HashedTimingWheel(config.getTickMs(), config.getWheelSize(), "TaskMessageDelayWheel");
+        AtomicInteger threadIndex = new AtomicInteger();
+        deliveryExecutor = Executors.newFixedThreadPool(Math.max(1, config.getDeliveryThreads()), r -> {
+            Thread thread = new Thread(r, "TaskMessageDelayDelivery-" + threadIndex.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        loadFuture = scheduler.scheduleWithFixedDelay(this::load, Math.max(1L, config.getLoadIntervalMs()));
+        log.info("延迟消息调度器已启动，刻度: {}ms，槽位: {}，加载窗口: {}ms，加载间隔: {}ms",
+                config.getTickMs(), config.getWheelSize(), config.getHorizonMs(), config.getLoadIntervalMs());
+    }
+
+    /**
+     * 停止加载任务、时间轮和投递线程池
+     * <p>
+     * 时间轮中未投递的消息仍在数据库中，重启后由加载任务重新加载。
+     * </p>
+     */
+    @PreDestroy
+    public synchronized void stop() {
+        if (loadFuture != null) {
+            loadFuture.cancel(false);
+        }
+        if (timingWheel != null) {
+            timingWheel.stop();
+        }
+        if (deliveryExecutor != null) {
+            deliveryExecutor.shutdown();
+        }
+        scheduledTaskIds.clear();
+    }
+
+    /**
+     * 尝试将新插入的延迟消息放入时间轮
+     * <p>
+     * 计划投递时间超出加载窗口时不放入，由之后的加载任务负责。
+     * </p>
+     *
+     * @param command 任务消息命令
+     * @return 已放入时间轮或已在时间轮中时返回true
+     */
+    public boolean offer(TaskMessageEntityCommand command) {
+        if (command.getDeliverAt() == null || command.getTaskId() == null) {
+            return false;
+        }
+        long delayMs = delayMillis(command.getDeliverAt());
+        if (delayMs > config.getHorizonMs()) {
+            return false;
+        }
+        schedule(command.getTaskId(), delayMs);
+        return true;
+    }
+
+    /**
+     * 执行一次加载
+     * <p>
+     * 查询本实例负责门牌号内计划投递时间早于当前时间加加载窗口的延迟消息，包括已过期仍未投递成功的消息。
+     * </p>
+     */
+    private void load() {
+        try {
+            List<Integer> houseNumbers = taskMessageEventJob.getActiveHouseNumbers();
+            if (houseNumbers.isEmpty()) {
+                return;
+            }
+            LocalDateTime deliverBefore = LocalDateTime.now().plus(Duration.ofMillis(config.getHorizonMs()));
+            List<TaskMessageEntityCommand> dueList = localTaskMessageService.selectDueDelayed(houseNumbers, deliverBefore, config.getLoadLimit());
+            int scheduled = 0;
+            for (TaskMessageEntityCommand cmd : dueList) {
+                if (schedule(cmd.getTaskId(), delayMillis(cmd.getDeliverAt()))) {
+                    scheduled++;
+                }
+            }
+            if (scheduled > 0) {
+                log.info("加载延迟消息 {} 条，时间轮中待投递 {} 条", scheduled, timingWheel.size());
+            }
+            if (dueList.size() >= config.getLoadLimit()) {
+                log.warn("延迟消息加载数量达到上限 {}，剩余消息将在下次加载", config.getLoadLimit());
+            }
+        } catch (Exception e) {
+            log.warn("加载延迟消息失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 将任务放入时间轮
+     *
+     * @param taskId  任务ID
+     * @param delayMs 延迟毫秒
+     * @return 本次放入时返回true，已在时间轮中时返回false
+     */
+    private boolean schedule(String taskId, long delayMs) {
+        if (!scheduledTaskIds.add(taskId)) {
+            return false;
+        }
+        try {
+            timingWheel.schedule(() -> {
+                try {
+                    deliveryExecutor.execute(() -> deliver(taskId));
+                } catch (RejectedExecutionException e) {
+                    scheduledTaskIds.remove(taskId);
+                }
+            }, delayMs);
+            return true;
+        } catch (IllegalStateException e) {
+            scheduledTaskIds.remove(taskId);
+            return false;
+        }
+    }
+
+    /**
+     * 投递到期的延迟消息
+     *
+     * @param taskId 任务ID
+     */
+    private void deliver(String taskId) {
+        try {
+            // 重新读取最新状态，加载与投递并发时可能已被投递成功
+            TaskMessageEntityCommand cmd = localTaskMessageService.selectByTaskId(taskId);
+            if (cmd == null || cmd.getStatus() == null || (cmd.getStatus() != 0 && cmd.getStatus() != 3)) {
+                return;
+            }
+            cmd.setDeliveryPath(ITaskMessageMetrics.PATH_DELAY);
+            INotifyStrategy strategy = factory.getStrategy(cmd.getNotifyType(), TaskNotifyEnum.class);
+            strategy.notify(cmd);
+        } catch (Exception e) {
+            log.warn("延迟消息投递失败，等待下次加载重试 taskId: {} 错误: {}", taskId, e.getMessage());
+        } finally {
+            scheduledTaskIds.remove(taskId);
+        }
+    }
+
+    /**
+     * 时间轮中尚未触发的延迟消息数
+     *
+     * @return 未触发数量，未启动时为0
+     */
+    public int getScheduledCount() {
+        HashedTimingWheel wheel = timingWheel;
+        return wheel == null ? 0 : wheel.size();
+    }
+
+    /**
+     * 投递线程池排队的延迟消息数
+     *
+     * @return 排队数量，未启动时为0
+     */
+    public int getDeliveryQueueDepth() {
+        ExecutorService executor = deliveryExecutor;
+        return executor instanceof ThreadPoolExecutor ? ((ThreadPoolExecutor) executor).getQueue().size() : 0;
+    }
+
+    private static long delayMillis(LocalDateTime deliverAt) {
+        return Duration.between(LocalDateTime.now(), deliverAt).toMillis();
+    }
+
+}
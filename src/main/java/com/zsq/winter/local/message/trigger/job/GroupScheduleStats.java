@@ -0,0 +1,184 @@
+package com.zsq.winter.local.message.trigger.job;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 任务组调度统计
+ * <p>
+ * 每个任务组持有一个实例，记录调度延迟（实际开始时间与计划开始时间之差）和单次扫描耗时，
+ * 单次扫描耗时超过调度间隔时计为一次超时（overrun）。
+ * 调度延迟持续升高说明调度线程不足或被其他任务组占用，超时说明该组的投递速度跟不上调度间隔。
+ * </p>
+ *
+ * @see TaskMessageEventJob
+ */
+public class GroupScheduleStats {
+
+    /**
+     * 任务组ID
+     */
+    private final String groupId;
+
+    /**
+     * 已执行的扫描次数
+     */
+    private final AtomicLong tickCount = new AtomicLong();
+
+    /**
+     * 扫描耗时超过调度间隔的次数
+     */
+    private final AtomicLong overrunCount = new AtomicLong();
+
+    /**
+     * 累计调度延迟（毫秒）
+     */
+    private final AtomicLong totalLagMs = new AtomicLong();
+
+    /**
+     * 最大调度延迟（毫秒）
+     */
+    private final AtomicLong maxLagMs = new AtomicLong();
+
+    /**
+     * 最大扫描耗时（毫秒）
+     */
+    private final AtomicLong maxDurationMs = new AtomicLong();
+
+    /**
+     * 最近一次调度延迟（毫秒）
+     */
+    private volatile long lastLagMs;
+
+    /**
+     * 最近一次扫描耗时（毫秒）
+     */
+    private volatile long lastDurationMs;
+
+    /**
+     * 最近一次扫描开始时间（毫秒时间戳），0表示未执行过
+     */
+    private volatile long lastStartTime;
+
+    /**
+     * 下一次计划开始时间（毫秒时间戳），0表示未知
+     */
+    private volatile long expectedStartTime;
+
+    /**
+     * 当前调度间隔（毫秒），0表示未知
+     */
+    private volatile long intervalMs;
+
+    /**
+     * 构造方法
+     *
+     * @param groupId 任务组ID
+     */
+    public GroupScheduleStats(String groupId) {
+        this.groupId = groupId;
+    }
+
+    /**
+     * 记录下一次计划执行的时间
+     *
+     * @param expectedStartTime 计划开始时间（毫秒时间戳）
+     * @param intervalMs        调度间隔（毫秒）
+     */
+    public void onScheduled(long expectedStartTime, long intervalMs) {
+        this.expectedStartTime = expectedStartTime;
+        this.intervalMs = intervalMs;
+    }
+
+    /**
+     * 扫描开始时记录调度延迟
+     *
+     * @param startTime 实际开始时间（毫秒时间戳）
+     * @return 本次调度延迟（毫秒），计划时间未知时为0
+     */
+    public long onTickStarted(long startTime) {
+        long expected = expectedStartTime;
+        long lag = expected > 0 ? Math.max(0L, startTime - expected) : 0L;
+        lastStartTime = startTime;
+        lastLagMs = lag;
+        totalLagMs.addAndGet(lag);
+        maxLagMs.accumulateAndGet(lag, Math::max);
+        tickCount.incrementAndGet();
+        return lag;
+    }
+
+    /**
+     * 扫描结束时记录耗时并判断是否超时
+     *
+     * @param durationMs 本次扫描耗时（毫秒）
+     * @return 耗时超过调度间隔时返回true
+     */
+    public boolean onTickCompleted(long durationMs) {
+        lastDurationMs = durationMs;
+        maxDurationMs.accumulateAndGet(durationMs, Math::max);
+        long interval = intervalMs;
+        if (interval > 0 && durationMs > interval) {
+            overrunCount.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    public String getGroupId() {
+        return groupId;
+    }
+
+    public long getTickCount() {
+        return tickCount.get();
+    }
+
+    public long getOverrunCount() {
+        return overrunCount.get();
+    }
+
+    public long getLastLagMs() {
+        return lastLagMs;
+    }
+
+    public long getMaxLagMs() {
+        return maxLagMs.get();
+    }
+
+    /**
+     * 平均调度延迟（毫秒）
+     *
+     * @return 平均调度延迟，未执行过时为0
+     */
+    public long getAverageLagMs() {
+        long ticks = tickCount.get();
+        return ticks == 0 ? 0L : totalLagMs.get() / ticks;
+    }
+
+    public long getLastDurationMs() {
+        return lastDurationMs;
+    }
+
+    public long getLastStartTime() {
+        return lastStartTime;
+    }
+
+    public long getMaxDurationMs() {
+        return maxDurationMs.get();
+    }
+
+    public long getIntervalMs() {
+        return intervalMs;
+    }
+
+    @Override
+    public String toString() {
+        return "GroupScheduleStats{groupId=" + groupId
+                + ", tickCount=" + getTickCount()
+                + ", overrunCount=" + getOverrunCount()
+                + ", lastLagMs=" + lastLagMs
+                + ", maxLagMs=" + getMaxLagMs()
+                + ", averageLagMs=" + getAverageLagMs()
+                + ", lastDurationMs=" + lastDurationMs
+                + ", maxDurationMs=" + getMaxDurationMs()
+                + ", intervalMs=" + intervalMs + "}";
+    }
+}
@@ -0,0 +1,196 @@
+package com.zsq.winter.local.message.trigger.job;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 哈希时间轮
+ * <p>
+ * 单个工作线程按固定刻度推进指针，每个刻度只处理当前槽位中的任务，超出一圈的任务记录剩余圈数，
+ * 添加和触发都是O(1)，适合在内存中持有大量即将到期的延迟消息。
+ * 到期任务在工作线程上直接执行，调用方应在任务中把耗时操作交给其他线程池。
+ * </p>
+ *
+ * <p><b>精度：</b>任务在到期后的下一个刻度触发，误差不超过一个刻度（tickMs）。</p>
+ *
+ * @see DelayedMessageDispatcher
+ */
+@Slf4j
+public class HashedTimingWheel {
+
+    /**
+     * 刻度时长（毫秒）
+     */
+    private final long tickMs;
+
+    /**
+     * 槽位，长度为2的幂，下标通过位运算计算
+     */
+    private final LinkedList<Timeout>[] buckets;
+
+    private final int mask;
+
+    /**
+     * 新添加的任务，由工作线程在每个刻度开始时转移到槽位，槽位本身只被工作线程访问
+     */
+    private final ConcurrentLinkedQueue<Timeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+
+    /**
+     * 尚未触发的任务数量
+     */
+    private final AtomicInteger pendingCount = new AtomicInteger();
+
+    private final Thread workerThread;
+
+    /**
+     * 时间轮启动时间（纳秒），刻度从该时间开始计算
+     */
+    private final long startTime;
+
+    private volatile boolean running = true;
+
+    /**
+     * 已推进的刻度数，只被工作线程访问
+     */
+    private long tick;
+
+    /**
+     * 构造方法，创建后立即启动工作线程
+     *
+     * @param tickMs     刻度时长（毫秒），小于1时按1处理
+     * @param wheelSize  槽位数量，向上取整为2的幂
+     * @param threadName 工作线程名称
+     */
+    @SuppressWarnings("unchecked")
+    public HashedTimingWheel(long tickMs, int wheelSize, String threadName) {
+        this.tickMs = Math.max(1L, tickMs);
+        int size = 1;
+        while (size < Math.max(1, wheelSize)) {
+            size <<= 1;
+        }
+        this.buckets = new LinkedList[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new LinkedList<>();
+        }
+        this.mask = size - 1;
+        this.startTime = System.nanoTime();
+        this.workerThread = new Thread(this::workLoop, threadName);
+        this.workerThread.setDaemon(true);
+        this.workerThread.start();
+    }
+
+    /**
+     * 添加延迟任务
+     *
+     * @param task    到期后执行的任务
+     * @param delayMs 延迟毫秒，小于等于0时在下一个刻度执行
+     */
+    public void schedule(Runnable task, long delayMs) {
+        if (!running) {
+            throw new IllegalStateException("TASK_MESSAGE_TIMING_WHEEL_ERROR 时间轮已停止");
+        }
+        long deadline = System.nanoTime() - startTime + TimeUnit.MILLISECONDS.toNanos(Math.max(0L, delayMs));
+        pendingCount.incrementAndGet();
+        pendingTimeouts.add(new Timeout(task, deadline));
+    }
+
+    /**
+     * 尚未触发的任务数量
+     *
+     * @return 任务数量
+     */
+    public int size() {
+        return pendingCount.get();
+    }
+
+    /**
+     * 停止时间轮，未触发的任务被丢弃
+     */
+    public void stop() {
+        running = false;
+        workerThread.interrupt();
+    }
+
+    private void workLoop() {
+        long tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMs);
+        while (running) {
+            long deadline = tickNanos * (tick + 1);
+            long sleepNanos = deadline - (System.nanoTime() - startTime);
+            if (sleepNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } catch (InterruptedException e) {
+                    if (!running) {
+                        break;
+                    }
+                    continue;
+                }
+            }
+            transferPendingTimeouts(tickNanos);
+            expireBucket(buckets[(int) (tick & mask)], deadline);
+            tick++;
+        }
+        log.info("时间轮 [{}] 已停止，丢弃未触发任务 {} 个", workerThread.getName(), pendingCount.get());
+    }
+
+    /**
+     * 将新添加的任务放入对应槽位，已过期的任务放入当前槽位
+     */
+    private void transferPendingTimeouts(long tickNanos) {
+        Timeout timeout;
+        while ((timeout = pendingTimeouts.poll()) != null) {
+            long targetTick = Math.max(timeout.deadline / tickNanos, tick);
+            timeout.remainingRounds = (targetTick - tick) / buckets.length;
+            buckets[(int) (targetTick & mask)].add(timeout);
+        }
+    }
+
+    private void expireBucket(LinkedList<Timeout> bucket, long deadline) {
+        Iterator<Timeout> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            Timeout timeout = iterator.next();
+            if (timeout.remainingRounds > 0) {
+                timeout.remainingRounds--;
+                continue;
+            }
+            if (timeout.deadline > deadline) {
+                continue;
+            }
+            iterator.remove();
+            pendingCount.decrementAndGet();
+            try {
+                timeout.task.run();
+            } catch (Throwable t) {
+                log.warn("时间轮任务执行异常: {}", t.getMessage(), t);
+            }
+        }
+    }
+
+    /**
+     * 时间轮中的单个任务
+     */
+    private static final class Timeout {
+
+        private final Runnable task;
+
+        /**
+         * 到期时间（相对启动时间的纳秒）
+         */
+        private final long deadline;
+
+        /**
+         * 剩余圈数
+         */
+        private long remainingRounds;
+
+        private Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+    }
+}
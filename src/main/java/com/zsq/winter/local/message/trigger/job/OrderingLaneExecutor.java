@@ -0,0 +1,83 @@
+package com.zsq.winter.local.message.trigger.job;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 顺序消息投递通道
+ * <p>
+ * 由固定数量的单线程通道组成，顺序键按哈希值固定映射到某个通道，
+ * 同一顺序键的投递始终在同一线程上串行执行，不同顺序键分散到各通道并行投递。
+ * </p>
+ *
+ * @see TaskMessageEventJob
+ */
+public class OrderingLaneExecutor {
+
+    private final ThreadPoolExecutor[] lanes;
+
+    /**
+     * 构造方法
+     *
+     * @param laneCount 通道数量，小于1时按1处理
+     */
+    public OrderingLaneExecutor(int laneCount) {
+        int count = Math.max(1, laneCount);
+        this.lanes = new ThreadPoolExecutor[count];
+        for (int i = 0; i < count; i++) {
+            String threadName = "TaskMessageOrderingLane-" + i;
+            AtomicInteger created = new AtomicInteger();
+            lanes[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), r -> {
+                Thread thread = new Thread(r, created.getAndIncrement() == 0 ? threadName : threadName + "-" + created.get());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * 在顺序键对应的通道上执行投递
+     *
+     * @param orderingKey 顺序键
+     * @param task        投递任务
+     * @return 投递完成的Future
+     */
+    public CompletableFuture<Void> submit(String orderingKey, Runnable task) {
+        return CompletableFuture.runAsync(task, lanes[laneOf(orderingKey)]);
+    }
+
+    /**
+     * 计算顺序键对应的通道下标
+     *
+     * @param orderingKey 顺序键
+     * @return 通道下标
+     */
+    public int laneOf(String orderingKey) {
+        return (orderingKey.hashCode() & Integer.MAX_VALUE) % lanes.length;
+    }
+
+    /**
+     * 各通道当前排队的投递任务数
+     *
+     * @return 按通道下标排列的排队数
+     */
+    public int[] getQueueDepths() {
+        int[] depths = new int[lanes.length];
+        for (int i = 0; i < lanes.length; i++) {
+            depths[i] = lanes[i].getQueue().size();
+        }
+        return depths;
+    }
+
+    /**
+     * 关闭全部通道，已提交的投递会继续执行完
+     */
+    public void shutdown() {
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.shutdown();
+        }
+    }
+}
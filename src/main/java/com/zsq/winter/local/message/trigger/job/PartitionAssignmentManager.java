@@ -0,0 +1,216 @@
+package com.zsq.winter.local.message.trigger.job;
+
+import com.zsq.winter.local.message.config.LocalTaskMessageAutoProperties;
+import com.zsq.winter.local.message.dao.IPartitionOwnerDao;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.TaskScheduler;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 门牌号分区动态分配管理器
+ * <p>
+ * 开启动态分区后，同一任务组的多个实例不再扫描全部门牌号，而是各自认领一部分：
+ * </p>
+ * <ol>
+ *   <li>每个实例定期向local_task_message_partition_owner表上报心跳</li>
+ *   <li>读取该任务组心跳未过期的实例列表，按实例ID排序</li>
+ *   <li>将任务组的门牌号排序后轮流分配给各实例，第i个门牌号归属第 i % 实例数 个实例</li>
+ * </ol>
+ * <p>
+ * 所有实例基于同一份实例列表独立计算，结果一致，无需选主。实例加入或下线（心跳过期、主动删除）后，
+ * 其他实例在下一次心跳时自动重新分配。重新分配期间的一个心跳周期内可能出现两个实例扫描同一门牌号，
+ * 通知本身是至少一次语义，下游需保证幂等。
+ * </p>
+ *
+ * @see IPartitionOwnerDao
+ * @see TaskMessageEventJob
+ */
+@Slf4j
+public class PartitionAssignmentManager {
+
+    private final IPartitionOwnerDao partitionOwnerDao;
+
+    private final TaskScheduler scheduler;
+
+    private final LocalTaskMessageAutoProperties.Partition partition;
+
+    /**
+     * 当前实例ID
+     */
+    @Getter
+    private final String instanceId;
+
+    /**
+     * 已注册任务组的全部门牌号
+     * <p>
+     * key: 任务组ID（groupId）
+     * value: 该任务组参与分配的门牌号（升序）
+     * </p>
+     */
+    private final Map<String, List<Integer>> groupHouseNumbersMap = new ConcurrentHashMap<>();
+
+    /**
+     * 当前实例在各任务组分得的门牌号
+     * <p>
+     * key: 任务组ID（groupId）
+     * value: 当前实例负责扫描的门牌号（升序，不可变）
+     * </p>
+     */
+    private final Map<String, List<Integer>> ownedHouseNumbersMap = new ConcurrentHashMap<>();
+
+    /**
+     * 构造方法
+     *
+     * @param partitionOwnerDao 分区归属DAO
+     * @param scheduler         任务调度器，用于定期心跳
+     * @param partition         动态分区配置
+     */
+    public PartitionAssignmentManager(IPartitionOwnerDao partitionOwnerDao, TaskScheduler scheduler,
+                                      LocalTaskMessageAutoProperties.Partition partition) {
+        this.partitionOwnerDao = partitionOwnerDao;
+        this.scheduler = scheduler;
+        this.partition = partition;
+        this.instanceId = partition.getInstanceId() != null && !partition.getInstanceId().trim().isEmpty()
+                ? partition.getInstanceId().trim()
+                : defaultInstanceId();
+    }
+
+    /**
+     * 启动定期心跳
+     */
+    @PostConstruct
+    public void start() {
+        long interval = partition.getHeartbeatIntervalMs();
+        scheduler.scheduleWithFixedDelay(this::refreshAll, new Date(System.currentTimeMillis() + interval), interval);
+        log.info("门牌号动态分区已开启，实例ID: {}，心跳间隔 {}ms，过期时间 {}ms", instanceId, interval, partition.getExpireMs());
+    }
+
+    /**
+     * 实例下线时删除心跳记录，让其他实例尽快接管
+     */
+    @PreDestroy
+    public void shutdown() {
+        for (String groupId : groupHouseNumbersMap.keySet()) {
+            try {
+                partitionOwnerDao.delete(groupId, instanceId);
+            } catch (Exception e) {
+                log.warn("任务组 [{}] 下线时删除分区归属失败: {}", groupId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 注册任务组并立即完成一次分配
+     *
+     * @param groupId      任务组ID
+     * @param houseNumbers 参与分配的全部门牌号
+     */
+    public void register(String groupId, List<Integer> houseNumbers) {
+        List<Integer> sorted = new ArrayList<>(houseNumbers);
+        Collections.sort(sorted);
+        groupHouseNumbersMap.put(groupId, Collections.unmodifiableList(sorted));
+        try {
+            refresh(groupId);
+        } catch (Exception e) {
+            log.error("任务组 [{}] 初始化分区分配失败: {}", groupId, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 取消注册任务组并让出其全部分区
+     *
+     * @param groupId 任务组ID
+     */
+    public void unregister(String groupId) {
+        if (groupHouseNumbersMap.remove(groupId) == null) {
+            return;
+        }
+        ownedHouseNumbersMap.remove(groupId);
+        try {
+            partitionOwnerDao.delete(groupId, instanceId);
+        } catch (Exception e) {
+            log.warn("任务组 [{}] 取消注册时删除分区归属失败: {}", groupId, e.getMessage());
+        }
+    }
+
+    /**
+     * 获取当前实例在任务组中分得的门牌号
+     *
+     * @param groupId 任务组ID
+     * @return 门牌号列表，未分得任何门牌号时返回空列表
+     */
+    public List<Integer> getOwnedHouseNumbers(String groupId) {
+        return ownedHouseNumbersMap.getOrDefault(groupId, Collections.emptyList());
+    }
+
+    /**
+     * 刷新全部已注册任务组的心跳和分配结果
+     */
+    public void refreshAll() {
+        for (String groupId : groupHouseNumbersMap.keySet()) {
+            try {
+                refresh(groupId);
+            } catch (Exception e) {
+                // 心跳失败时保留上一次的分配结果，心跳过期后其他实例会接管
+                log.error("任务组 [{}] 分区心跳失败: {}", groupId, e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * 上报心跳并重新计算分配结果
+     *
+     * @param groupId 任务组ID
+     */
+    private void refresh(String groupId) {
+        List<Integer> houseNumbers = groupHouseNumbersMap.get(groupId);
+        if (houseNumbers == null) {
+            return;
+        }
+
+        // 心跳和过期判定都使用数据库时间，避免各实例时钟偏差导致互相清理心跳
+        long expireMs = partition.getExpireMs();
+        partitionOwnerDao.heartbeat(groupId, instanceId);
+        partitionOwnerDao.deleteExpired(groupId, expireMs);
+
+        List<String> aliveInstances = new ArrayList<>(partitionOwnerDao.selectAliveInstances(groupId, expireMs));
+        if (!aliveInstances.contains(instanceId)) {
+            aliveInstances.add(instanceId);
+            Collections.sort(aliveInstances);
+        }
+
+        int index = aliveInstances.indexOf(instanceId);
+        int size = aliveInstances.size();
+        List<Integer> owned = new ArrayList<>();
+        for (int i = 0; i < houseNumbers.size(); i++) {
+            if (i % size == index) {
+                owned.add(houseNumbers.get(i));
+            }
+        }
+
+        List<Integer> previous = ownedHouseNumbersMap.put(groupId, Collections.unmodifiableList(owned));
+        if (!owned.equals(previous)) {
+            log.info("任务组 [{}] 分区重新分配：存活实例{}个 {}，本实例 {} 负责门牌号 {}", groupId, size, aliveInstances, instanceId, owned);
+        }
+    }
+
+    /**
+     * 生成默认实例ID：进程号@主机名#随机后缀，随机后缀保证同一主机重启后不会沿用旧的心跳记录
+     */
+    private static String defaultInstanceId() {
+        String runtimeName = ManagementFactory.getRuntimeMXBean().getName();
+        return runtimeName + "#" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+}
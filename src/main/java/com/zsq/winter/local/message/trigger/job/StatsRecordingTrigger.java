@@ -0,0 +1,45 @@
+package com.zsq.winter.local.message.trigger.job;
+
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.TriggerContext;
+
+import java.util.Date;
+
+/**
+ * 记录计划执行时间的触发器
+ * <p>
+ * 包装cron或固定延迟触发器，每次计算出下一次执行时间后写入任务组调度统计，
+ * 扫描开始时据此计算调度延迟；调度间隔取相邻两次计划时间之差（固定延迟模式直接取延迟）。
+ * </p>
+ */
+class StatsRecordingTrigger implements Trigger {
+
+    private final Trigger delegate;
+
+    private final GroupScheduleStats stats;
+
+    /**
+     * 固定延迟毫秒，cron模式为0
+     */
+    private final long fixedDelayMs;
+
+    StatsRecordingTrigger(Trigger delegate, GroupScheduleStats stats, long fixedDelayMs) {
+        this.delegate = delegate;
+        this.stats = stats;
+        this.fixedDelayMs = fixedDelayMs;
+    }
+
+    @Override
+    public Date nextExecutionTime(TriggerContext triggerContext) {
+        Date next = delegate.nextExecutionTime(triggerContext);
+        if (next != null) {
+            long interval = fixedDelayMs;
+            Date lastScheduled = triggerContext.lastScheduledExecutionTime();
+            if (interval <= 0 && lastScheduled != null) {
+                interval = next.getTime() - lastScheduled.getTime();
+            }
+            stats.onScheduled(next.getTime(), interval);
+        }
+        return next;
+    }
+}
@@ -0,0 +1,178 @@
+package com.zsq.winter.local.message.trigger.job;
+
+import com.zsq.winter.local.message.dao.ITaskMessageDao;
+import com.zsq.winter.local.message.metrics.ITaskMessageMetrics;
+import com.zsq.winter.local.message.service.TaskMessageBacklogEstimator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * 任务消息积压监控
+ * <p>
+ * 按采样间隔计算各任务组游标与当前最大ID之间的差值（游标滞后）以及各任务组最早一条待处理消息的等待时长，
+ * 写入任务消息指标。
+ * 各门牌号的积压在开启积压估算时取估算值，随采样一起记录，不访问任务消息表；未开启时需要对任务消息表执行分组COUNT，
+ * 默认不采样，只有显式配置了COUNT间隔时才按该间隔单独执行。
+ * </p>
+ *
+ * @see ITaskMessageMetrics
+ * @see TaskMessageEventJob
+ */
+@Slf4j
+public class TaskMessageBacklogMonitor {
+
+    private final ITaskMessageDao taskMessageDao;
+
+    private final TaskMessageEventJob taskMessageEventJob;
+
+    private final ThreadPoolTaskScheduler scheduler;
+
+    private final ITaskMessageMetrics metrics;
+
+    private final long intervalMs;
+
+    /**
+     * 未开启积压估算时按分组COUNT统计积压的间隔（毫秒），小于等于0时不统计
+     */
+    private final long countIntervalMs;
+
+    /**
+     * 积压估算器，未开启积压估算时为null
+     */
+    private final TaskMessageBacklogEstimator backlogEstimator;
+
+    private ScheduledFuture<?> sampleFuture;
+
+    private ScheduledFuture<?> countFuture;
+
+    /**
+     * 构造方法
+     *
+     * @param taskMessageDao      任务消息数据访问对象
+     * @param taskMessageEventJob 任务消息定时任务，提供各任务组的游标
+     * @param scheduler           任务调度器
+     * @param metrics             任务消息指标
+     * @param intervalMs          采样间隔（毫秒），小于等于0时不采样
+     */
+    public TaskMessageBacklogMonitor(ITaskMessageDao taskMessageDao, TaskMessageEventJob taskMessageEventJob,
+                                     ThreadPoolTaskScheduler scheduler, ITaskMessageMetrics metrics, long intervalMs) {
+        this(taskMessageDao, taskMessageEventJob, scheduler, metrics, intervalMs, null);
+    }
+
+    /**
+     * 构造方法
+     *
+     * @param taskMessageDao      任务消息数据访问对象
+     * @param taskMessageEventJob 任务消息定时任务，提供各任务组的游标
+     * @param scheduler           任务调度器
+     * @param metrics             任务消息指标
+     * @param intervalMs          采样间隔（毫秒），小于等于0时不采样
+     * @param backlogEstimator    积压估算器，为null时不记录积压
+     */
+    public TaskMessageBacklogMonitor(ITaskMessageDao taskMessageDao, TaskMessageEventJob taskMessageEventJob,
+                                     ThreadPoolTaskScheduler scheduler, ITaskMessageMetrics metrics, long intervalMs,
+                                     TaskMessageBacklogEstimator backlogEstimator) {
+        this(taskMessageDao, taskMessageEventJob, scheduler, metrics, intervalMs, 0L, backlogEstimator);
+    }
+
+    /**
+     * 构造方法
+     *
+     * @param taskMessageDao      任务消息数据访问对象
+     * @param taskMessageEventJob 任务消息定时任务，提供各任务组的游标
+     * @param scheduler           任务调度器
+     * @param metrics             任务消息指标
+     * @param intervalMs          采样间隔（毫秒），小于等于0时不采样
+     * @param countIntervalMs     积压估算器为null时按分组COUNT统计积压的间隔（毫秒），小于等于0时不统计
+     * @param backlogEstimator    积压估算器，不为null时积压取估算值，忽略countIntervalMs
+     */
+    public TaskMessageBacklogMonitor(ITaskMessageDao taskMessageDao, TaskMessageEventJob taskMessageEventJob,
+                                     ThreadPoolTaskScheduler scheduler, ITaskMessageMetrics metrics, long intervalMs,
+                                     long countIntervalMs, TaskMessageBacklogEstimator backlogEstimator) {
+        this.taskMessageDao = taskMessageDao;
+        this.taskMessageEventJob = taskMessageEventJob;
+        this.scheduler = scheduler;
+        this.metrics = metrics;
+        this.intervalMs = intervalMs;
+        this.countIntervalMs = countIntervalMs;
+        this.backlogEstimator = backlogEstimator;
+    }
+
+    /**
+     * 启动采样任务
+     */
+    @PostConstruct
+    public synchronized void start() {
+        if (!metrics.isEnabled()) {
+            return;
+        }
+        if (intervalMs > 0) {
+            sampleFuture = scheduler.scheduleWithFixedDelay(this::sample, intervalMs);
+            log.info("任务消息积压监控已启动，采样间隔: {}ms", intervalMs);
+        }
+        if (backlogEstimator == null && countIntervalMs > 0) {
+            countFuture = scheduler.scheduleWithFixedDelay(this::sampleCount, countIntervalMs);
+            log.info("任务消息积压按分组COUNT统计，统计间隔: {}ms", countIntervalMs);
+        }
+    }
+
+    /**
+     * 停止采样任务
+     */
+    @PreDestroy
+    public synchronized void stop() {
+        if (sampleFuture != null) {
+            sampleFuture.cancel(false);
+            sampleFuture = null;
+        }
+        if (countFuture != null) {
+            countFuture.cancel(false);
+            countFuture = null;
+        }
+    }
+
+    /**
+     * 执行一次采样
+     */
+    void sample() {
+        try {
+            if (backlogEstimator != null) {
+                metrics.recordBacklog(backlogEstimator.getEstimatedBacklog());
+            }
+            LocalDateTime now = LocalDateTime.now();
+            for (Map.Entry<String, List<Integer>> entry : taskMessageEventJob.getGroupHouseNumbers().entrySet()) {
+                LocalDateTime oldest = taskMessageDao.selectOldestPendingCreateTime(entry.getValue());
+                long ageMs = oldest == null ? 0L : Math.max(0L, Duration.between(oldest, now).toMillis());
+                metrics.recordOldestPendingAge(entry.getKey(), ageMs);
+            }
+            Long maxId = taskMessageDao.selectMaxId();
+            if (maxId == null) {
+                return;
+            }
+            for (Map.Entry<String, Long> entry : taskMessageEventJob.getCursors().entrySet()) {
+                metrics.recordCursorLag(entry.getKey(), Math.max(0L, maxId - entry.getValue()));
+            }
+        } catch (Exception e) {
+            log.warn("任务消息积压采样失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 按分组COUNT统计一次积压
+     */
+    void sampleCount() {
+        try {
+            metrics.recordBacklog(taskMessageDao.countPendingByHouseNumber());
+        } catch (Exception e) {
+            log.warn("任务消息积压统计失败: {}", e.getMessage());
+        }
+    }
+}
@@ -2,21 +2,48 @@ package com.zsq.winter.local.message.trigger.job;
 
 
 import com.zsq.winter.local.message.config.LocalTaskMessageAutoProperties;
+import com.zsq.winter.local.message.dao.TaskMessageSession;
 import com.zsq.winter.local.message.entity.TaskMessageEntityCommand;
+import com.zsq.winter.local.message.event.TaskMessageWakeupEvent;
+import com.zsq.winter.local.message.metrics.ITaskMessageMetrics;
+import com.zsq.winter.local.message.metrics.NoopTaskMessageMetrics;
 import com.zsq.winter.local.message.enums.TaskNotifyEnum;
+import com.zsq.winter.local.message.enums.TaskPriorityEnum;
 import com.zsq.winter.local.message.service.ILocalTaskMessageService;
 import com.zsq.winter.local.message.strategy.INotifyStrategy;
 import com.zsq.winter.local.message.strategy.LocalTaskMessageNotifyFactory;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.scheduling.support.CronTrigger;
+import org.springframework.scheduling.support.PeriodicTrigger;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * 任务消息事件定时任务
@@ -28,10 +55,17 @@ import java.util.concurrent.atomic.AtomicLong;
  * 
  * <p><b>功能特点：</b></p>
  * <ul>
- *   <li>支持cron表达式和固定延迟两种调度方式</li>
+ *   <li>支持cron表达式、固定延迟和自适应三种调度方式</li>
  *   <li>每个任务组独立维护lastId，实现增量扫描</li>
  *   <li>支持配置批量大小，控制单次处理量</li>
+ *   <li>支持两阶段扫描，先查路由字段，只为可投递的消息加载大字段</li>
+ *   <li>支持流式扫描，游标打开期间逐条投递，内存占用与批量大小无关</li>
  *   <li>自动重试处理失败的任务（status=0或3）</li>
+ *   <li>支持门牌号动态分区，多实例自动均分门牌号</li>
+ *   <li>支持运行期重新加载任务组配置，调整后保留游标继续扫描</li>
+ *   <li>支持为任务组配置独立调度器，记录调度延迟和扫描超时</li>
+ *   <li>支持唤醒事件提前触发扫描，合并窗口内的多次唤醒只扫描一次</li>
+ *   <li>支持按顺序键顺序投递，投递失败只阻塞该顺序键的后续消息</li>
  * </ul>
  * 
  * 
@@ -51,6 +85,120 @@ public class TaskMessageEventJob {
      */
     private final Map<String, AtomicLong> groupLastIdMap = new ConcurrentHashMap<>();
 
+    /**
+     * 全部门牌号（0-9），门牌号由 taskId 哈希值对10取模得到
+     */
+    private static final List<Integer> ALL_HOUSE_NUMBERS = Collections.unmodifiableList(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9));
+
+    /**
+     * 流式扫描的结束标记，读取线程结束读取后放入缓冲队列
+     */
+    private static final TaskMessageEntityCommand END_OF_STREAM = new TaskMessageEntityCommand();
+
+    /**
+     * 开启自适应调度的任务组对应的控制器
+     * <p>
+     * key: 任务组ID（groupId）
+     * value: 该任务组的自适应扫描控制器，记录当前批量大小和调度间隔
+     * </p>
+     */
+    private final Map<String, AdaptiveScanController> adaptiveControllerMap = new ConcurrentHashMap<>();
+
+    /**
+     * 各任务组当前游标对应的门牌号
+     * <p>
+     * key: 任务组ID（groupId）
+     * value: 初始化lastId时使用的门牌号列表；动态分区重新分配后与之不同时重置游标
+     * </p>
+     */
+    private final Map<String, List<Integer>> groupHouseNumbersMap = new ConcurrentHashMap<>();
+
+    /**
+     * 各任务组当前生效的配置
+     * <p>
+     * key: 任务组ID（groupId）
+     * value: 正在调度的任务组配置，重新加载时用于比对是否变化
+     * </p>
+     */
+    private final Map<String, LocalTaskMessageAutoProperties.TaskGroupConfig> groupConfigMap = new ConcurrentHashMap<>();
+
+    /**
+     * 各任务组当前的调度句柄
+     * <p>
+     * key: 任务组ID（groupId）
+     * value: 调度返回的ScheduledFuture，重新加载或移除任务组时用于取消调度；
+     * 自适应模式下为最近一次调度的句柄
+     * </p>
+     */
+    private final Map<String, ScheduledFuture<?>> groupFutureMap = new ConcurrentHashMap<>();
+
+    /**
+     * 开启独立调度器的任务组对应的单线程调度器
+     * <p>
+     * key: 任务组ID（groupId）
+     * value: 该任务组专用的调度器，任务组移除或重新调度时关闭
+     * </p>
+     */
+    private final Map<String, ThreadPoolTaskScheduler> groupSchedulerMap = new ConcurrentHashMap<>();
+
+    /**
+     * 各任务组的调度统计（调度延迟、扫描耗时、超时次数）
+     * <p>
+     * key: 任务组ID（groupId）
+     * value: 该任务组的调度统计，重新调度时保留，移除任务组时清理
+     * </p>
+     */
+    private final Map<String, GroupScheduleStats> groupStatsMap = new ConcurrentHashMap<>();
+
+    /**
+     * 各任务组的扫描锁，保证定时扫描与唤醒扫描不会并发执行
+     */
+    private final Map<String, ReentrantLock> groupLockMap = new ConcurrentHashMap<>();
+
+    /**
+     * 各任务组是否已有待执行的唤醒扫描，用于合并唤醒
+     */
+    private final Map<String, AtomicBoolean> groupWakeupPendingMap = new ConcurrentHashMap<>();
+
+    /**
+     * 各任务组中被阻塞的顺序键
+     * <p>
+     * key: 任务组ID（groupId）
+     * value: 有消息投递失败的顺序键集合，这些顺序键的后续消息在扫描时跳过，
+     * 每次调度先按顺序键重新加载待处理消息并依次重试，全部投递成功后解除阻塞
+     * </p>
+     */
+    private final Map<String, Set<String>> groupBlockedKeysMap = new ConcurrentHashMap<>();
+
+    /**
+     * 开启优先级扫描的任务组各优先级的游标
+     * <p>
+     * key: 任务组ID（groupId）
+     * value: 优先级代码到该优先级上次扫描到的ID，首次扫描时取任务组游标作为起点，门牌号变化时清空
+     * </p>
+     */
+    private final Map<String, Map<Integer, AtomicLong>> groupPriorityCursorMap = new ConcurrentHashMap<>();
+
+    /**
+     * 已暂停的任务组，暂停期间调度照常触发但不扫描投递
+     */
+    private final Set<String> pausedGroups = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 各任务组正在投递的消息数
+     */
+    private final Map<String, AtomicInteger> groupInFlightMap = new ConcurrentHashMap<>();
+
+    /**
+     * 顺序消息投递通道，首次投递顺序消息时创建
+     */
+    private volatile OrderingLaneExecutor orderingLaneExecutor;
+
+    /**
+     * 流式扫描的读取线程池，首次流式扫描时创建
+     */
+    private volatile ExecutorService streamReaderExecutor;
+
     /**
      * 自动配置属性，包含所有任务组的配置信息
      */
@@ -71,6 +219,16 @@ public class TaskMessageEventJob {
      */
     private final ILocalTaskMessageService localTaskMessageService;
 
+    /**
+     * 门牌号动态分区管理器，未开启动态分区时为null
+     */
+    private final PartitionAssignmentManager partitionAssignmentManager;
+
+    /**
+     * 任务消息指标
+     */
+    private final ITaskMessageMetrics metrics;
+
     /**
      * 构造方法
      *
@@ -80,10 +238,41 @@ public class TaskMessageEventJob {
      * @param localTaskMessageService 任务消息仓储服务
      */
     public TaskMessageEventJob(LocalTaskMessageAutoProperties properties, ThreadPoolTaskScheduler scheduler, LocalTaskMessageNotifyFactory factory, ILocalTaskMessageService localTaskMessageService) {
+        this(properties, scheduler, factory, localTaskMessageService, null);
+    }
+
+    /**
+     * 构造方法
+     *
+     * @param properties 自动配置属性
+     * @param scheduler 线程池调度器
+     * @param factory 任务消息通知工厂
+     * @param localTaskMessageService 任务消息仓储服务
+     * @param partitionAssignmentManager 门牌号动态分区管理器，为null时按配置的houseNumbers扫描
+     */
+    public TaskMessageEventJob(LocalTaskMessageAutoProperties properties, ThreadPoolTaskScheduler scheduler, LocalTaskMessageNotifyFactory factory, ILocalTaskMessageService localTaskMessageService,
+                               PartitionAssignmentManager partitionAssignmentManager) {
+        this(properties, scheduler, factory, localTaskMessageService, partitionAssignmentManager, NoopTaskMessageMetrics.INSTANCE);
+    }
+
+    /**
+     * 构造方法
+     *
+     * @param properties 自动配置属性
+     * @param scheduler 线程池调度器
+     * @param factory 任务消息通知工厂
+     * @param localTaskMessageService 任务消息仓储服务
+     * @param partitionAssignmentManager 门牌号动态分区管理器，为null时按配置的houseNumbers扫描
+     * @param metrics 任务消息指标
+     */
+    public TaskMessageEventJob(LocalTaskMessageAutoProperties properties, ThreadPoolTaskScheduler scheduler, LocalTaskMessageNotifyFactory factory, ILocalTaskMessageService localTaskMessageService,
+                               PartitionAssignmentManager partitionAssignmentManager, ITaskMessageMetrics metrics) {
         this.properties = properties;
         this.scheduler = scheduler;
         this.factory = factory;
         this.localTaskMessageService = localTaskMessageService;
+        this.partitionAssignmentManager = partitionAssignmentManager;
+        this.metrics = metrics == null ? NoopTaskMessageMetrics.INSTANCE : metrics;
     }
 
     /**
@@ -111,6 +300,28 @@ public class TaskMessageEventJob {
         }
     }
 
+    /**
+     * 销毁方法
+     * <p>
+     * 取消全部任务组调度并关闭各任务组的独立调度器，共享调度器由Spring容器负责关闭。
+     * </p>
+     */
+    @PreDestroy
+    public synchronized void destroy() {
+        for (String groupId : new ArrayList<>(groupFutureMap.keySet())) {
+            cancelGroup(groupId);
+        }
+        for (String groupId : new ArrayList<>(groupSchedulerMap.keySet())) {
+            shutdownIsolatedScheduler(groupId);
+        }
+        if (orderingLaneExecutor != null) {
+            orderingLaneExecutor.shutdown();
+        }
+        if (streamReaderExecutor != null) {
+            streamReaderExecutor.shutdown();
+        }
+    }
+
     /**
      * 为指定任务组启动定时调度
      * <p>
@@ -123,82 +334,1151 @@ public class TaskMessageEventJob {
      *
      * @param group 任务组配置
      */
-    private void scheduleGroup(LocalTaskMessageAutoProperties.TaskGroupConfig group) {
+    private synchronized void scheduleGroup(LocalTaskMessageAutoProperties.TaskGroupConfig group) {
         String groupId = group.getGroupId();
         List<Integer> houseNumbers = group.getHouseNumbers();
         
-        // 验证门牌号配置
-        if (houseNumbers == null || houseNumbers.isEmpty()) {
+        if (partitionAssignmentManager != null) {
+            // 动态分区：配置的门牌号（为空时为0-9）作为待分配的全部门牌号，由存活实例均分
+            List<Integer> allHouseNumbers = (houseNumbers == null || houseNumbers.isEmpty()) ? ALL_HOUSE_NUMBERS : houseNumbers;
+            partitionAssignmentManager.register(groupId, allHouseNumbers);
+        } else if (houseNumbers == null || houseNumbers.isEmpty()) {
+            // 验证门牌号配置
             log.warn("任务组 [{}] 未配置 houseNumbers，跳过该组调度", groupId);
             return;
         }
+        if (Boolean.TRUE.equals(group.getPriorityScan()) && !Boolean.TRUE.equals(properties.getPriority().getEnabled())) {
+            log.warn("任务组 [{}] 开启了 priorityScan，但未启用 priority.enabled，按普通扫描执行", groupId);
+        }
 
-        // 初始化该任务组的lastId（上次扫描到的最大ID）
-        // 使用computeIfAbsent确保每个groupId只初始化一次
-        groupLastIdMap.computeIfAbsent(groupId, k -> {
-            // 查询该门牌号范围内的最小ID作为起始点
-            Long minId = localTaskMessageService.selectMinIdByHouseNumber(houseNumbers);
-            long startId = (minId == null ? 0L : minId);
-            log.info("任务组 [{}] 初始化起始ID为 {}，houseNumbers={}", groupId, startId, houseNumbers);
-            // 返回AtomicLong保证并发安全
-            return new AtomicLong(startId);
-        });
-
-        /**
-         * 定时任务执行逻辑（lambada表达式）
-         * <p>
-         * 执行步骤：
-         * 1. 获取上次扫描到的最大ID（lastId）
-         * 2. 查询ID大于lastId的待处理消息（status=0或3）
-         * 3. 遍历消息列表，调用通知工厂发送通知
-         * 4. 更新lastId为本次处理的最大ID
-         * </p>
-         * 
-         * 注意：
-         * - 如果没有待处理消息，直接返回
-         * - 异常会被捕获并记录日志，不影响下次调度
-         */
-        Runnable task = () -> {
-            try {
-                // 1. 获取上次扫描到的最大ID
-                long lastId = groupLastIdMap.get(groupId).get();
-                
-                // 2. 查询待处理的任务消息列表（ID >= lastId，status=0或3）
-                List<TaskMessageEntityCommand> cmdList = localTaskMessageService.selectByHouseNumber(houseNumbers, lastId, group.getLimit());
-                if (cmdList == null || cmdList.isEmpty()) {
-                    return; // 没有待处理消息，直接返回
-                }
-
-                // 3. 遍历消息列表，逐个发送通知
-                for (TaskMessageEntityCommand cmd : cmdList) {
-                    INotifyStrategy strategy = factory.getStrategy(cmd.getNotifyType(), TaskNotifyEnum.class);
-                    strategy.notify(cmd);
-                }
+        // 初始化该任务组的lastId（上次扫描到的最大ID），门牌号未变化时沿用已有游标
+        resolveHouseNumbers(group);
+        groupConfigMap.put(groupId, group);
+        GroupScheduleStats stats = groupStatsMap.computeIfAbsent(groupId, GroupScheduleStats::new);
+        ThreadPoolTaskScheduler groupScheduler = resolveScheduler(group);
 
-                // 4. 更新lastId为本次处理的最大ID，用于下次增量扫描
-                long maxId = cmdList.stream()
-                    .map(TaskMessageEntityCommand::getId)
-                    .max(Comparator.naturalOrder())
-                    .orElse(lastId);
-                groupLastIdMap.get(groupId).set(maxId);
+        // 自适应调度：每次执行后根据扫描结果计算下一次的批量大小和间隔
+        if (group.getAdaptive() != null && Boolean.TRUE.equals(group.getAdaptive().getEnabled())) {
+            AdaptiveScanController controller = new AdaptiveScanController(group);
+            adaptiveControllerMap.put(groupId, controller);
+            scheduleAdaptive(group, controller, controller.getCurrentDelayMs());
+            log.info("任务组 [{}] 已按自适应模式调度，limit 范围 [{}, {}]，空闲间隔上限 {}ms",
+                    groupId, controller.getMinLimit(), controller.getMaxLimit(), controller.getIdleDelayMs());
+            return;
+        }
 
-                log.info("任务组 [{}] 处理完成：拉取{}条，lastId: {} -> {}", groupId, cmdList.size(), lastId, maxId);
-            } catch (Exception e) {
-                log.error("任务组 [{}] 执行异常: {}", groupId, e.getMessage(), e);
-            }
-        };
+        // 定时任务执行逻辑
+        Runnable task = () -> executeTick(group, group.getLimit());
 
-        // 根据配置选择调度方式
+        // 根据配置选择调度方式，触发器记录每次的计划执行时间用于计算调度延迟
         if (group.getCron() != null && !group.getCron().trim().isEmpty()) {
             // 使用cron表达式调度（如："0 0/5 * * * ?" 表示每5分钟执行一次）
-            scheduler.schedule(task, new CronTrigger(group.getCron()));
+            StatsRecordingTrigger trigger = new StatsRecordingTrigger(new CronTrigger(group.getCron()), stats, 0L);
+            groupFutureMap.put(groupId, groupScheduler.schedule(task, trigger));
             log.info("任务组 [{}] 已按 cron [{}] 调度", groupId, group.getCron());
         } else {
             // 使用固定延迟调度（默认5秒）
             long delay = group.getFixedDelayMs() != null ? group.getFixedDelayMs() : 5000L;
-            scheduler.scheduleWithFixedDelay(task, delay);
+            StatsRecordingTrigger trigger = new StatsRecordingTrigger(new PeriodicTrigger(delay), stats, delay);
+            groupFutureMap.put(groupId, groupScheduler.schedule(task, trigger));
             log.info("任务组 [{}] 已按 fixedDelayMs [{}] 调度", groupId, delay);
         }
     }
 
+    /**
+     * 获取任务组使用的调度器
+     * <p>
+     * 开启isolatedScheduler时为该组创建单线程调度器，否则使用共享调度器。
+     * </p>
+     *
+     * @param group 任务组配置
+     * @return 调度器
+     */
+    private ThreadPoolTaskScheduler resolveScheduler(LocalTaskMessageAutoProperties.TaskGroupConfig group) {
+        if (!Boolean.TRUE.equals(group.getIsolatedScheduler())) {
+            return scheduler;
+        }
+        return groupSchedulerMap.computeIfAbsent(group.getGroupId(), groupId -> {
+            ThreadPoolTaskScheduler isolated = new ThreadPoolTaskScheduler();
+            isolated.setPoolSize(1);
+            isolated.setThreadNamePrefix("TaskMessageScheduler-" + groupId + "-");
+            // 关闭时不中断正在执行的扫描
+            isolated.setWaitForTasksToCompleteOnShutdown(true);
+            isolated.initialize();
+            log.info("任务组 [{}] 使用独立调度器", groupId);
+            return isolated;
+        });
+    }
+
+    /**
+     * 关闭任务组的独立调度器
+     *
+     * @param groupId 任务组ID
+     */
+    private void shutdownIsolatedScheduler(String groupId) {
+        ThreadPoolTaskScheduler isolated = groupSchedulerMap.remove(groupId);
+        if (isolated != null) {
+            isolated.shutdown();
+        }
+    }
+
+    /**
+     * 获取各任务组的调度统计
+     *
+     * @return 任务组ID到调度统计的映射（只读）
+     */
+    public Map<String, GroupScheduleStats> getScheduleStats() {
+        return Collections.unmodifiableMap(groupStatsMap);
+    }
+
+    /**
+     * 重新加载全部任务组配置
+     * <p>
+     * 与当前生效的配置按groupId比对：
+     * 1. 新增的任务组立即开始调度
+     * 2. 配置变化的任务组取消原调度后按新配置重新调度，门牌号不变时保留lastId
+     * 3. 不再存在的任务组取消调度并清理状态
+     * 4. 配置未变化的任务组不受影响
+     * </p>
+     * 取消调度不会中断正在执行的扫描，本次扫描结束后才停止。
+     *
+     * @param groups 新的任务组配置列表，为null时视为空
+     */
+    public synchronized void reload(List<LocalTaskMessageAutoProperties.TaskGroupConfig> groups) {
+        Map<String, LocalTaskMessageAutoProperties.TaskGroupConfig> newGroups = new LinkedHashMap<>();
+        if (groups != null) {
+            for (LocalTaskMessageAutoProperties.TaskGroupConfig group : groups) {
+                newGroups.put(group.getGroupId(), group);
+            }
+        }
+
+        for (String groupId : new ArrayList<>(groupConfigMap.keySet())) {
+            if (!newGroups.containsKey(groupId)) {
+                removeGroup(groupId);
+            }
+        }
+        for (LocalTaskMessageAutoProperties.TaskGroupConfig group : newGroups.values()) {
+            updateGroup(group);
+        }
+        properties.setGroups(new ArrayList<>(newGroups.values()));
+    }
+
+    /**
+     * 新增或更新单个任务组
+     * <p>
+     * 配置与当前生效的一致时不做处理；否则取消原调度并按新配置重新调度，门牌号不变时保留lastId。
+     * </p>
+     *
+     * @param group 任务组配置
+     */
+    public synchronized void updateGroup(LocalTaskMessageAutoProperties.TaskGroupConfig group) {
+        String groupId = group.getGroupId();
+        LocalTaskMessageAutoProperties.TaskGroupConfig current = groupConfigMap.get(groupId);
+        if (group.equals(current)) {
+            return;
+        }
+        if (current != null) {
+            cancelGroup(groupId);
+            log.info("任务组 [{}] 配置已变化，重新调度：{} -> {}", groupId, current, group);
+        } else {
+            log.info("任务组 [{}] 新增调度", groupId);
+        }
+        scheduleGroup(group);
+    }
+
+    /**
+     * 移除任务组
+     * <p>
+     * 取消调度并清理该组的游标、门牌号分配等状态。
+     * </p>
+     *
+     * @param groupId 任务组ID
+     * @return 任务组存在并已移除时返回true
+     */
+    public synchronized boolean removeGroup(String groupId) {
+        if (groupConfigMap.remove(groupId) == null) {
+            return false;
+        }
+        cancelGroup(groupId);
+        groupLastIdMap.remove(groupId);
+        groupHouseNumbersMap.remove(groupId);
+        groupStatsMap.remove(groupId);
+        groupLockMap.remove(groupId);
+        groupWakeupPendingMap.remove(groupId);
+        groupBlockedKeysMap.remove(groupId);
+        groupPriorityCursorMap.remove(groupId);
+        pausedGroups.remove(groupId);
+        groupInFlightMap.remove(groupId);
+        if (partitionAssignmentManager != null) {
+            partitionAssignmentManager.unregister(groupId);
+        }
+        log.info("任务组 [{}] 已移除调度", groupId);
+        return true;
+    }
+
+    /**
+     * 获取当前生效的任务组配置
+     *
+     * @return 任务组配置列表（只读）
+     */
+    public List<LocalTaskMessageAutoProperties.TaskGroupConfig> getGroups() {
+        return Collections.unmodifiableList(new ArrayList<>(groupConfigMap.values()));
+    }
+
+    /**
+     * 获取各任务组当前的扫描游标
+     * <p>
+     * 开启优先级扫描的任务组取各优先级游标中的最小值。
+     * </p>
+     *
+     * @return 任务组ID到游标（lastId）
+     */
+    public Map<String, Long> getCursors() {
+        Map<String, Long> cursors = new LinkedHashMap<>();
+        for (Map.Entry<String, AtomicLong> entry : groupLastIdMap.entrySet()) {
+            long cursor = entry.getValue().get();
+            Map<Integer, AtomicLong> priorityCursors = groupPriorityCursorMap.get(entry.getKey());
+            if (priorityCursors != null && !priorityCursors.isEmpty()) {
+                cursor = Long.MAX_VALUE;
+                for (AtomicLong priorityCursor : priorityCursors.values()) {
+                    cursor = Math.min(cursor, priorityCursor.get());
+                }
+            }
+            cursors.put(entry.getKey(), cursor);
+        }
+        return cursors;
+    }
+
+    /**
+     * 获取各任务组正在投递的消息数
+     *
+     * @return 任务组ID到正在投递的消息数
+     */
+    public Map<String, Integer> getInFlightCounts() {
+        Map<String, Integer> result = new LinkedHashMap<>();
+        for (String groupId : groupConfigMap.keySet()) {
+            AtomicInteger inFlight = groupInFlightMap.get(groupId);
+            result.put(groupId, inFlight == null ? 0 : inFlight.get());
+        }
+        return result;
+    }
+
+    /**
+     * 获取各任务组当前被阻塞的顺序键
+     *
+     * @return 任务组ID到被阻塞的顺序键（副本）
+     */
+    public Map<String, Set<String>> getBlockedKeys() {
+        Map<String, Set<String>> result = new LinkedHashMap<>();
+        for (Map.Entry<String, Set<String>> entry : groupBlockedKeysMap.entrySet()) {
+            result.put(entry.getKey(), new TreeSet<>(entry.getValue()));
+        }
+        return result;
+    }
+
+    /**
+     * 获取自适应调度任务组当前的批量大小
+     *
+     * @return 任务组ID到当前批量大小，未开启自适应的任务组不在结果中
+     */
+    public Map<String, Integer> getAdaptiveLimits() {
+        Map<String, Integer> result = new LinkedHashMap<>();
+        for (Map.Entry<String, AdaptiveScanController> entry : adaptiveControllerMap.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().getCurrentLimit());
+        }
+        return result;
+    }
+
+    /**
+     * 获取各顺序消息投递通道的排队数
+     *
+     * @return 各通道排队数，尚未投递过顺序消息时返回空数组
+     */
+    public int[] getOrderingLaneQueueDepths() {
+        OrderingLaneExecutor executor = orderingLaneExecutor;
+        return executor == null ? new int[0] : executor.getQueueDepths();
+    }
+
+    /**
+     * 判断任务组是否已暂停
+     *
+     * @param groupId 任务组ID
+     * @return 已暂停时返回true
+     */
+    public boolean isPaused(String groupId) {
+        return pausedGroups.contains(groupId);
+    }
+
+    /**
+     * 暂停任务组
+     * <p>
+     * 调度照常触发，但不再扫描投递；正在执行的一次扫描不受影响。
+     * </p>
+     *
+     * @param groupId 任务组ID
+     * @return 任务组存在时返回true
+     */
+    public boolean pauseGroup(String groupId) {
+        if (!groupConfigMap.containsKey(groupId)) {
+            return false;
+        }
+        pausedGroups.add(groupId);
+        log.info("任务组 [{}] 已暂停", groupId);
+        return true;
+    }
+
+    /**
+     * 恢复已暂停的任务组
+     *
+     * @param groupId 任务组ID
+     * @return 任务组存在时返回true
+     */
+    public boolean resumeGroup(String groupId) {
+        if (!groupConfigMap.containsKey(groupId)) {
+            return false;
+        }
+        pausedGroups.remove(groupId);
+        log.info("任务组 [{}] 已恢复", groupId);
+        return true;
+    }
+
+    /**
+     * 立即触发一次任务组扫描
+     * <p>
+     * 与扫描唤醒共用合并窗口，不要求任务组开启wakeupEnabled；该组已有待执行的唤醒时不重复触发。
+     * </p>
+     *
+     * @param groupId 任务组ID
+     * @return 任务组存在时返回true
+     */
+    public synchronized boolean triggerTick(String groupId) {
+        LocalTaskMessageAutoProperties.TaskGroupConfig group = groupConfigMap.get(groupId);
+        if (group == null) {
+            return false;
+        }
+        AtomicBoolean pending = groupWakeupPendingMap.computeIfAbsent(groupId, k -> new AtomicBoolean());
+        if (pending.compareAndSet(false, true)) {
+            scheduleWakeup(group, pending);
+        }
+        return true;
+    }
+
+    /**
+     * 重置任务组的扫描游标
+     * <p>
+     * 开启优先级扫描的任务组同时重置各优先级游标。下一次扫描从新游标开始，
+     * 游标之前的待处理消息不会再被扫描到，通常用于回退游标以重新扫描。
+     * </p>
+     *
+     * @param groupId 任务组ID
+     * @param lastId  新的游标
+     * @return 任务组存在时返回true
+     */
+    public boolean resetCursor(String groupId, long lastId) {
+        AtomicLong cursor = groupLastIdMap.get(groupId);
+        if (cursor == null) {
+            return false;
+        }
+        long previous = cursor.getAndSet(lastId);
+        Map<Integer, AtomicLong> priorityCursors = groupPriorityCursorMap.get(groupId);
+        if (priorityCursors != null) {
+            for (AtomicLong priorityCursor : priorityCursors.values()) {
+                priorityCursor.set(lastId);
+            }
+        }
+        log.info("任务组 [{}] 游标已重置：{} -> {}", groupId, previous, lastId);
+        return true;
+    }
+
+    /**
+     * 按任务ID重新投递消息
+     * <p>
+     * 不论当前状态（包括已完成）都重新调用通知策略投递一次，逐条执行，单条失败不影响其他消息。
+     * </p>
+     *
+     * @param taskIds 任务ID列表
+     * @return 任务ID到投递结果（success、not_found或失败原因）
+     */
+    public Map<String, String> replay(List<String> taskIds) {
+        Map<String, String> result = new LinkedHashMap<>();
+        for (String taskId : taskIds) {
+            try {
+                TaskMessageEntityCommand cmd = localTaskMessageService.selectByTaskId(taskId);
+                if (cmd == null) {
+                    result.put(taskId, "not_found");
+                    continue;
+                }
+                factory.getStrategy(cmd.getNotifyType(), TaskNotifyEnum.class).notify(cmd);
+                result.put(taskId, "success");
+            } catch (Exception e) {
+                log.warn("重新投递消息失败 taskId: {} 错误: {}", taskId, e.getMessage());
+                result.put(taskId, "failed: " + e.getMessage());
+            }
+        }
+        log.info("按任务ID重新投递消息 {} 条", taskIds.size());
+        return result;
+    }
+
+    /**
+     * 获取各任务组最近一次扫描使用的门牌号
+     *
+     * @return 任务组ID到门牌号列表，尚未扫描过的任务组不在结果中
+     */
+    public Map<String, List<Integer>> getGroupHouseNumbers() {
+        return new LinkedHashMap<>(groupHouseNumbersMap);
+    }
+
+    /**
+     * 获取本实例全部任务组当前负责的门牌号
+     * <p>
+     * 取各任务组最近一次扫描使用的门牌号的并集，尚未扫描过的任务组不计入。
+     * </p>
+     *
+     * @return 升序排列的门牌号列表
+     */
+    public List<Integer> getActiveHouseNumbers() {
+        Set<Integer> houseNumbers = new TreeSet<>();
+        for (List<Integer> groupHouseNumbers : groupHouseNumbersMap.values()) {
+            houseNumbers.addAll(groupHouseNumbers);
+        }
+        return new ArrayList<>(houseNumbers);
+    }
+
+    /**
+     * 取消任务组的调度
+     * <p>
+     * 自适应模式下同时移除控制器，正在执行的一次扫描结束后不会再自行调度；
+     * 使用独立调度器时关闭该调度器，重新调度时按新配置决定是否再创建。
+     * </p>
+     *
+     * @param groupId 任务组ID
+     */
+    private void cancelGroup(String groupId) {
+        adaptiveControllerMap.remove(groupId);
+        ScheduledFuture<?> future = groupFutureMap.remove(groupId);
+        if (future != null) {
+            future.cancel(false);
+        }
+        shutdownIsolatedScheduler(groupId);
+    }
+
+    /**
+     * 处理扫描唤醒事件
+     * <p>
+     * 找到开启唤醒且负责该门牌号的任务组，在合并窗口后提前执行一次扫描；
+     * 同一任务组已有待执行的唤醒时直接忽略，避免突发失败造成扫描风暴。
+     * 任务组配置和唤醒标记都在并发容器中，不加锁，事件发布线程之间不会互相等待；
+     * 任务组在此期间被重新加载或移除时，由执行唤醒扫描前的检查丢弃这次唤醒。
+     * </p>
+     *
+     * @param event 扫描唤醒事件
+     */
+    @EventListener
+    public void handleWakeupEvent(TaskMessageWakeupEvent event) {
+        Integer houseNumber = event.getHouseNumber();
+        for (LocalTaskMessageAutoProperties.TaskGroupConfig group : groupConfigMap.values()) {
+            if (!Boolean.TRUE.equals(group.getWakeupEnabled())) {
+                continue;
+            }
+            List<Integer> houseNumbers = groupHouseNumbersMap.get(group.getGroupId());
+            if (houseNumber != null && (houseNumbers == null || !houseNumbers.contains(houseNumber))) {
+                continue;
+            }
+            AtomicBoolean pending = groupWakeupPendingMap.computeIfAbsent(group.getGroupId(), k -> new AtomicBoolean());
+            if (pending.compareAndSet(false, true)) {
+                log.debug("任务组 [{}] 收到扫描唤醒：{}", group.getGroupId(), event.getReason());
+                scheduleWakeup(group, pending);
+            }
+        }
+    }
+
+    /**
+     * 在合并窗口后调度一次唤醒扫描
+     *
+     * @param group   任务组配置
+     * @param pending 该任务组的唤醒标记
+     */
+    private void scheduleWakeup(LocalTaskMessageAutoProperties.TaskGroupConfig group, AtomicBoolean pending) {
+        long delayMs = group.getWakeupDelayMs() != null ? group.getWakeupDelayMs() : 200L;
+        // 只使用已有的独立调度器，任务组被移除后不会为它重新创建
+        ThreadPoolTaskScheduler wakeupScheduler = Boolean.TRUE.equals(group.getIsolatedScheduler())
+                ? groupSchedulerMap.get(group.getGroupId()) : scheduler;
+        if (wakeupScheduler != null) {
+            try {
+                wakeupScheduler.schedule(() -> executeWakeup(group, pending), new Date(System.currentTimeMillis() + delayMs));
+                return;
+            } catch (TaskRejectedException e) {
+                // 独立调度器已随任务组移除而关闭
+            }
+        }
+        pending.set(false);
+        log.debug("任务组 [{}] 调度器已关闭，丢弃扫描唤醒", group.getGroupId());
+    }
+
+    /**
+     * 执行一次唤醒扫描
+     * <p>
+     * 该组正在扫描时不并发执行，而是在合并窗口后再试，保证扫描能看到触发唤醒的消息。
+     * </p>
+     *
+     * @param group   任务组配置
+     * @param pending 该任务组的唤醒标记
+     */
+    private void executeWakeup(LocalTaskMessageAutoProperties.TaskGroupConfig group, AtomicBoolean pending) {
+        String groupId = group.getGroupId();
+        if (groupConfigMap.get(groupId) != group) {
+            pending.set(false);
+            return;
+        }
+        ReentrantLock lock = groupLockMap.computeIfAbsent(groupId, k -> new ReentrantLock());
+        if (!lock.tryLock()) {
+            // 再次执行时仍会检查任务组是否已被移除
+            scheduleWakeup(group, pending);
+            return;
+        }
+        try {
+            // 先清除标记，扫描期间到达的唤醒会再触发一次扫描
+            pending.set(false);
+            AdaptiveScanController controller = adaptiveControllerMap.get(groupId);
+            executeTick(group, controller != null ? controller.getCurrentLimit() : group.getLimit());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 按自适应间隔调度下一次执行
+     *
+     * @param group      任务组配置
+     * @param controller 自适应扫描控制器
+     * @param delayMs    距离下一次执行的毫秒数
+     */
+    private void scheduleAdaptive(LocalTaskMessageAutoProperties.TaskGroupConfig group, AdaptiveScanController controller, long delayMs) {
+        long startTime = System.currentTimeMillis() + delayMs;
+        // 自适应模式的间隔随扫描结果变化，只记录调度延迟，不做超时判断
+        GroupScheduleStats stats = groupStatsMap.get(group.getGroupId());
+        if (stats != null) {
+            stats.onScheduled(startTime, 0L);
+        }
+        groupFutureMap.put(group.getGroupId(),
+                resolveScheduler(group).schedule(() -> executeAdaptive(group, controller), new Date(startTime)));
+    }
+
+    /**
+     * 执行一次自适应扫描，并根据结果调度下一次执行
+     *
+     * @param group      任务组配置
+     * @param controller 自适应扫描控制器
+     */
+    private void executeAdaptive(LocalTaskMessageAutoProperties.TaskGroupConfig group, AdaptiveScanController controller) {
+        long nextDelayMs = controller.getIdleDelayMs();
+        try {
+            long start = System.currentTimeMillis();
+            int scanned = executeTick(group, controller.getCurrentLimit());
+            nextDelayMs = controller.onTickCompleted(scanned, System.currentTimeMillis() - start);
+            if (log.isDebugEnabled()) {
+                log.debug("任务组 [{}] 自适应调度：扫描{}条，下次limit {}，{}ms后执行",
+                        group.getGroupId(), scanned, controller.getCurrentLimit(), nextDelayMs);
+            }
+        } finally {
+            synchronized (this) {
+                // 任务组已被重新加载或移除时，控制器已被替换，不再继续调度
+                if (adaptiveControllerMap.get(group.getGroupId()) == controller) {
+                    scheduleAdaptive(group, controller, nextDelayMs);
+                }
+            }
+        }
+    }
+
+    /**
+     * 执行一次任务组扫描并记录调度统计
+     * <p>
+     * 记录本次的调度延迟和扫描耗时，耗时超过调度间隔时输出告警。
+     * </p>
+     *
+     * @param group 任务组配置
+     * @param limit 本次扫描的批量大小
+     * @return 本次扫描到的消息条数，执行异常时返回-1，上一次扫描尚未结束而跳过时返回{@link AdaptiveScanController#TICK_SKIPPED}
+     */
+    private int executeTick(LocalTaskMessageAutoProperties.TaskGroupConfig group, Integer limit) {
+        String groupId = group.getGroupId();
+        // 同一任务组的定时扫描与唤醒扫描互斥，上一次扫描未结束时跳过
+        ReentrantLock lock = groupLockMap.computeIfAbsent(groupId, k -> new ReentrantLock());
+        if (!lock.tryLock()) {
+            log.debug("任务组 [{}] 上一次扫描尚未结束，跳过本次执行", groupId);
+            return AdaptiveScanController.TICK_SKIPPED;
+        }
+        long startNanos = System.nanoTime();
+        int rows = -1;
+        try {
+            GroupScheduleStats stats = groupStatsMap.get(groupId);
+            if (stats == null) {
+                rows = executeGroup(group, limit);
+                return rows;
+            }
+            long start = System.currentTimeMillis();
+            long lagMs = stats.onTickStarted(start);
+            try {
+                rows = executeGroup(group, limit);
+                return rows;
+            } finally {
+                long durationMs = System.currentTimeMillis() - start;
+                if (stats.onTickCompleted(durationMs)) {
+                    log.warn("任务组 [{}] 扫描超时：耗时{}ms，超过调度间隔{}ms，本次调度延迟{}ms，累计超时{}次",
+                            groupId, durationMs, stats.getIntervalMs(), lagMs, stats.getOverrunCount());
+                }
+            }
+        } finally {
+            metrics.recordTick(groupId, rows, System.nanoTime() - startNanos);
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 执行一次任务组扫描
+     * <p>
+     * 执行步骤：
+     * 1. 获取上次扫描到的最大ID（lastId）
+     * 2. 查询ID大于lastId的待处理消息（status=0或3）；
+     *    开启lazyPayload时先只查路由字段，过滤后再按ID加载完整消息
+     * 3. 遍历消息列表，调用通知工厂发送通知
+     * 4. 更新lastId为本次扫描到的最大ID
+     * </p>
+     *
+     * 注意：
+     * - 如果没有待处理消息，直接返回
+     * - 异常会被捕获并记录日志，不影响下次调度
+     *
+     * @param group 任务组配置
+     * @param limit 本次扫描的批量大小
+     * @return 本次扫描到的消息条数，执行异常时返回-1
+     */
+    private int executeGroup(LocalTaskMessageAutoProperties.TaskGroupConfig group, Integer limit) {
+        String groupId = group.getGroupId();
+        // 任务组已被重新加载替换或移除时，旧调度不再执行
+        if (groupConfigMap.get(groupId) != group) {
+            return 0;
+        }
+        if (pausedGroups.contains(groupId)) {
+            return 0;
+        }
+        // 本次扫描在当前线程上的状态更新复用同一个连接和预编译语句
+        try (TaskMessageSession session = openTickSession()) {
+            // 0. 确定本次扫描的门牌号，动态分区下可能为空
+            List<Integer> houseNumbers = resolveHouseNumbers(group);
+            if (houseNumbers.isEmpty()) {
+                return 0;
+            }
+
+            // 1. 获取上次扫描到的最大ID，任务组在本次执行前已被移除时直接返回
+            AtomicLong cursor = groupLastIdMap.get(groupId);
+            if (cursor == null) {
+                return 0;
+            }
+            long lastId = cursor.get();
+
+            // 先重试被阻塞的顺序键，解除阻塞后其消息已投递完成，不会在下面的扫描中重复投递
+            recoverBlockedKeys(groupId, limit);
+
+            // 优先级扫描依赖priority列，未启用优先级时按普通扫描执行
+            if (Boolean.TRUE.equals(group.getPriorityScan()) && Boolean.TRUE.equals(properties.getPriority().getEnabled())) {
+                return executeGroupByPriority(group, houseNumbers, lastId, limit);
+            }
+
+            if (Boolean.TRUE.equals(group.getStreaming())) {
+                return executeGroupStreaming(group, houseNumbers, cursor, limit);
+            }
+
+            // 2. 查询待处理的任务消息列表（ID >= lastId，status=0或3）
+            List<TaskMessageEntityCommand> scannedList;
+            List<TaskMessageEntityCommand> cmdList;
+            if (Boolean.TRUE.equals(group.getLazyPayload())) {
+                // 两阶段扫描：先查路由字段，只为可投递的消息加载大字段
+                scannedList = localTaskMessageService.selectRouteByHouseNumber(houseNumbers, lastId, limit, group.getQueryMode());
+                if (scannedList == null || scannedList.isEmpty()) {
+                    return 0; // 没有待处理消息，直接返回
+                }
+                cmdList = loadDeliverable(groupId, scannedList);
+            } else {
+                scannedList = localTaskMessageService.selectByHouseNumber(houseNumbers, lastId, limit, group.getQueryMode());
+                if (scannedList == null || scannedList.isEmpty()) {
+                    return 0; // 没有待处理消息，直接返回
+                }
+                cmdList = scannedList;
+            }
+
+            // 3. 遍历消息列表，逐个发送通知（顺序消息按顺序键分通道投递）
+            deliver(groupId, cmdList);
+
+            // 4. 更新lastId为本次扫描到的最大ID，用于下次增量扫描
+            long maxId = scannedList.stream()
+                .map(TaskMessageEntityCommand::getId)
+                .max(Comparator.naturalOrder())
+                .orElse(lastId);
+            cursor.set(maxId);
+
+            log.info("任务组 [{}] 处理完成：扫描{}条，投递{}条，lastId: {} -> {}", groupId, scannedList.size(), cmdList.size(), lastId, maxId);
+            return scannedList.size();
+        } catch (Exception e) {
+            log.error("任务组 [{}] 执行异常: {}", groupId, e.getMessage(), e);
+            return -1;
+        }
+    }
+
+    /**
+     * 按优先级执行一次任务组扫描
+     * <p>
+     * 每个优先级维护独立游标，从高到低依次扫描投递：第一轮按权重分配本次批量配额，
+     * 第二轮把未用完的配额按优先级顺序分给第一轮拉满的优先级。
+     * 低优先级即使积压大量消息，每次也只占用其权重对应的配额，高优先级消息总在本次扫描的最前面投递。
+     * </p>
+     *
+     * @param group        任务组配置
+     * @param houseNumbers 本次扫描的门牌号
+     * @param startId      优先级游标的初始值（任务组游标）
+     * @param limit        本次扫描的批量大小
+     * @return 本次扫描到的消息条数
+     * @throws Exception 投递或查询异常
+     */
+    private int executeGroupByPriority(LocalTaskMessageAutoProperties.TaskGroupConfig group, List<Integer> houseNumbers, long startId, Integer limit) throws Exception {
+        String groupId = group.getGroupId();
+        Map<Integer, AtomicLong> cursors = groupPriorityCursorMap.computeIfAbsent(groupId, k -> new ConcurrentHashMap<>());
+        TaskPriorityEnum[] priorities = TaskPriorityEnum.values();
+        int[] quotas = priorityQuotas(group.getPriorityWeights(), limit, priorities.length);
+        boolean[] drained = new boolean[priorities.length];
+
+        int remaining = limit;
+        int total = 0;
+        for (int round = 0; round < 2 && remaining > 0; round++) {
+            for (int i = 0; i < priorities.length && remaining > 0; i++) {
+                int quota = round == 0 ? Math.min(quotas[i], remaining) : remaining;
+                if (drained[i] || quota <= 0) {
+                    continue;
+                }
+                AtomicLong cursor = cursors.computeIfAbsent(priorities[i].getCode(), k -> new AtomicLong(startId));
+                int scanned = executePriority(groupId, houseNumbers, priorities[i], cursor, quota);
+                if (scanned < quota) {
+                    drained[i] = true;
+                }
+                remaining -= scanned;
+                total += scanned;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 扫描并投递单个优先级的一批消息
+     *
+     * @param groupId      任务组ID
+     * @param houseNumbers 本次扫描的门牌号
+     * @param priority     优先级
+     * @param cursor       该优先级的游标
+     * @param limit        本批数量
+     * @return 本批扫描到的消息条数
+     * @throws Exception 投递或查询异常
+     */
+    private int executePriority(String groupId, List<Integer> houseNumbers, TaskPriorityEnum priority, AtomicLong cursor, int limit) throws Exception {
+        long lastId = cursor.get();
+        List<TaskMessageEntityCommand> cmdList = localTaskMessageService.selectByHouseNumberAndPriority(houseNumbers, priority.getCode(), lastId, limit);
+        if (cmdList == null || cmdList.isEmpty()) {
+            return 0;
+        }
+
+        deliver(groupId, cmdList);
+
+        long maxId = cmdList.stream()
+            .map(TaskMessageEntityCommand::getId)
+            .max(Comparator.naturalOrder())
+            .orElse(lastId);
+        cursor.set(maxId);
+
+        log.info("任务组 [{}] {}处理完成：扫描{}条，lastId: {} -> {}", groupId, priority.getDesc(), cmdList.size(), lastId, maxId);
+        return cmdList.size();
+    }
+
+    /**
+     * 按权重计算各优先级的批量配额
+     * <p>
+     * 权重缺失或不合法时按1处理；权重为0的优先级第一轮不分配配额，只使用其他优先级剩余的配额。
+     * </p>
+     *
+     * @param weights 各优先级权重，按优先级从高到低
+     * @param limit   本次扫描的批量大小
+     * @param count   优先级数量
+     * @return 各优先级的配额
+     */
+    private static int[] priorityQuotas(List<Integer> weights, int limit, int count) {
+        int[] normalized = new int[count];
+        int sum = 0;
+        for (int i = 0; i < count; i++) {
+            Integer weight = weights != null && i < weights.size() ? weights.get(i) : null;
+            normalized[i] = weight == null || weight < 0 ? 1 : weight;
+            sum += normalized[i];
+        }
+        int[] quotas = new int[count];
+        for (int i = 0; i < count; i++) {
+            quotas[i] = sum == 0 || normalized[i] == 0 ? 0 : Math.max(1, (int) ((long) limit * normalized[i] / sum));
+        }
+        return quotas;
+    }
+
+    /**
+     * 流式执行一次任务组扫描
+     * <p>
+     * 读取线程在数据库游标打开期间把消息放入容量为fetchSize的缓冲队列，当前线程从队列中取出逐条投递，
+     * 不构建整批结果列表。队列满时读取线程阻塞，投递变慢时读取随之放缓，内存占用与limit无关；
+     * 游标打开超过streamMaxOpenMs后读取线程停止读取并结束只读事务，队列中已读取的消息投递完后结束本次扫描。
+     * 全部投递完成后才推进lastId，与批量模式保持一致。
+     * </p>
+     *
+     * @param group        任务组配置
+     * @param houseNumbers 本次扫描的门牌号
+     * @param cursor       任务组的lastId游标
+     * @param limit        本次扫描的批量大小
+     * @return 本次扫描到的消息条数
+     * @throws Exception 投递或查询异常
+     */
+    private int executeGroupStreaming(LocalTaskMessageAutoProperties.TaskGroupConfig group, List<Integer> houseNumbers, AtomicLong cursor, Integer limit) throws Exception {
+        String groupId = group.getGroupId();
+        long lastId = cursor.get();
+        Integer fetchSize = group.getFetchSize();
+        long maxOpenMs = group.getStreamMaxOpenMs() == null ? 0L : group.getStreamMaxOpenMs();
+        BlockingQueue<TaskMessageEntityCommand> buffer = new ArrayBlockingQueue<>(fetchSize == null || fetchSize <= 0 ? 500 : fetchSize);
+        AtomicBoolean cancelled = new AtomicBoolean();
+
+        CompletableFuture<Integer> reader = CompletableFuture.supplyAsync(() -> {
+            try {
+                return localTaskMessageService.streamByHouseNumber(houseNumbers, lastId, limit, fetchSize, maxOpenMs, cmd -> {
+                    if (!offerStreamed(buffer, cmd, cancelled)) {
+                        throw new StreamingCancelledException();
+                    }
+                });
+            } finally {
+                offerStreamed(buffer, END_OF_STREAM, cancelled);
+            }
+        }, streamReaderExecutor());
+
+        long maxId = lastId;
+        try {
+            Set<String> blockedKeys = blockedKeys(groupId);
+            TaskMessageEntityCommand cmd;
+            while ((cmd = buffer.take()) != END_OF_STREAM) {
+                String orderingKey = cmd.getOrderingKey();
+                if (orderingKey != null) {
+                    // 顺序消息按ID顺序在当前线程上投递，失败只阻塞该顺序键
+                    if (!blockedKeys.contains(orderingKey)) {
+                        deliverOrdered(groupId, orderingKey, Collections.singletonList(cmd));
+                    }
+                } else {
+                    notifyTracked(groupId, cmd);
+                }
+                maxId = Math.max(maxId, cmd.getId());
+            }
+        } catch (Exception e) {
+            // 通知读取线程停止读取，尽快关闭游标
+            cancelled.set(true);
+            throw e;
+        }
+
+        int count;
+        try {
+            count = reader.get();
+        } catch (ExecutionException e) {
+            // 还原读取时抛出的原始异常
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+        if (count == 0) {
+            return 0; // 没有待处理消息，直接返回
+        }
+
+        cursor.set(maxId);
+        log.info("任务组 [{}] 流式处理完成：扫描{}条，lastId: {} -> {}", groupId, count, lastId, maxId);
+        return count;
+    }
+
+    /**
+     * 把读取到的消息放入流式扫描的缓冲队列，队列满时等待投递线程取出
+     *
+     * @param buffer    缓冲队列
+     * @param cmd       任务消息
+     * @param cancelled 投递线程是否已放弃本次扫描
+     * @return 是否放入成功，本次扫描已取消或线程被中断时返回false
+     */
+    private static boolean offerStreamed(BlockingQueue<TaskMessageEntityCommand> buffer, TaskMessageEntityCommand cmd, AtomicBoolean cancelled) {
+        try {
+            while (!buffer.offer(cmd, 100, TimeUnit.MILLISECONDS)) {
+                if (cancelled.get()) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * 投递一批消息
+     * <p>
+     * 没有顺序键的消息在当前线程上依次投递，异常直接抛出，与原有行为一致；
+     * 顺序消息按顺序键分组，每组在顺序键对应的通道上按ID顺序串行投递，被阻塞的顺序键跳过。
+     * 返回前等待全部顺序消息投递完成。
+     * </p>
+     *
+     * @param groupId 任务组ID
+     * @param cmdList 按ID升序排列的消息列表
+     * @throws Exception 无顺序键的消息投递异常
+     */
+    private void deliver(String groupId, List<TaskMessageEntityCommand> cmdList) throws Exception {
+        Set<String> blockedKeys = blockedKeys(groupId);
+        Map<String, List<TaskMessageEntityCommand>> orderedMap = new LinkedHashMap<>();
+        List<TaskMessageEntityCommand> unorderedList = new ArrayList<>(cmdList.size());
+        for (TaskMessageEntityCommand cmd : cmdList) {
+            String orderingKey = cmd.getOrderingKey();
+            if (orderingKey == null) {
+                unorderedList.add(cmd);
+            } else if (blockedKeys.contains(orderingKey)) {
+                log.debug("任务组 [{}] 顺序键 [{}] 已阻塞，跳过消息 taskId: {}", groupId, orderingKey, cmd.getTaskId());
+            } else {
+                orderedMap.computeIfAbsent(orderingKey, k -> new ArrayList<>()).add(cmd);
+            }
+        }
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>(orderedMap.size());
+        for (Map.Entry<String, List<TaskMessageEntityCommand>> entry : orderedMap.entrySet()) {
+            futures.add(laneExecutor().submit(entry.getKey(), () -> deliverOrdered(groupId, entry.getKey(), entry.getValue())));
+        }
+        try {
+            for (TaskMessageEntityCommand cmd : unorderedList) {
+                notifyTracked(groupId, cmd);
+            }
+        } finally {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        }
+    }
+
+    /**
+     * 按ID顺序投递同一顺序键的消息
+     * <p>
+     * 遇到投递失败时阻塞该顺序键并停止投递其后续消息，等待下次调度从失败的消息开始重试。
+     * </p>
+     *
+     * @param groupId     任务组ID
+     * @param orderingKey 顺序键
+     * @param cmdList     该顺序键下按ID升序排列的消息
+     * @return 全部投递成功时返回true
+     */
+    private boolean deliverOrdered(String groupId, String orderingKey, List<TaskMessageEntityCommand> cmdList) {
+        for (TaskMessageEntityCommand cmd : cmdList) {
+            try {
+                notifyTracked(groupId, cmd);
+            } catch (Exception e) {
+                blockedKeys(groupId).add(orderingKey);
+                log.warn("任务组 [{}] 顺序键 [{}] 投递失败，阻塞该顺序键的后续消息 taskId: {} 错误: {}",
+                        groupId, orderingKey, cmd.getTaskId(), e.getMessage());
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 重试被阻塞的顺序键
+     * <p>
+     * 按顺序键重新加载待处理的消息（包括失败的队首消息和被跳过的后续消息），在对应通道上依次投递；
+     * 全部投递成功且未达到limit时解除阻塞。
+     * </p>
+     *
+     * @param groupId 任务组ID
+     * @param limit   每个顺序键单次加载的最大条数
+     */
+    private void recoverBlockedKeys(String groupId, Integer limit) {
+        Set<String> blockedKeys = groupBlockedKeysMap.get(groupId);
+        if (blockedKeys == null || blockedKeys.isEmpty()) {
+            return;
+        }
+        List<CompletableFuture<Void>> futures = new ArrayList<>(blockedKeys.size());
+        for (String orderingKey : new ArrayList<>(blockedKeys)) {
+            futures.add(laneExecutor().submit(orderingKey, () -> {
+                List<TaskMessageEntityCommand> pending = localTaskMessageService.selectPendingByOrderingKey(orderingKey, limit);
+                if (deliverOrdered(groupId, orderingKey, pending) && pending.size() < limit) {
+                    blockedKeys.remove(orderingKey);
+                    log.info("任务组 [{}] 顺序键 [{}] 已恢复，重试投递{}条", groupId, orderingKey, pending.size());
+                }
+            }));
+        }
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        } catch (Exception e) {
+            log.error("任务组 [{}] 重试阻塞顺序键异常: {}", groupId, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 调用通知策略投递一条消息，并计入任务组正在投递的消息数
+     *
+     * @param groupId 任务组ID
+     * @param cmd     任务消息命令
+     * @throws Exception 投递异常
+     */
+    private void notifyTracked(String groupId, TaskMessageEntityCommand cmd) throws Exception {
+        AtomicInteger inFlight = groupInFlightMap.computeIfAbsent(groupId, k -> new AtomicInteger());
+        inFlight.incrementAndGet();
+        try {
+            INotifyStrategy strategy = factory.getStrategy(cmd.getNotifyType(), TaskNotifyEnum.class);
+            strategy.notify(cmd);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    /**
+     * 打开一次扫描的数据库会话，关闭了jdbc.tick-session时返回空会话
+     *
+     * @return 数据库会话
+     */
+    private TaskMessageSession openTickSession() {
+        return Boolean.TRUE.equals(properties.getJdbc().getTickSession())
+                ? localTaskMessageService.openSession() : TaskMessageSession.NOOP;
+    }
+
+    /**
+     * 获取任务组被阻塞的顺序键集合
+     *
+     * @param groupId 任务组ID
+     * @return 线程安全的顺序键集合
+     */
+    private Set<String> blockedKeys(String groupId) {
+        return groupBlockedKeysMap.computeIfAbsent(groupId, k -> ConcurrentHashMap.newKeySet());
+    }
+
+    /**
+     * 获取顺序消息投递通道，首次使用时按配置创建
+     *
+     * @return 顺序消息投递通道
+     */
+    private OrderingLaneExecutor laneExecutor() {
+        OrderingLaneExecutor executor = orderingLaneExecutor;
+        if (executor == null) {
+            synchronized (this) {
+                executor = orderingLaneExecutor;
+                if (executor == null) {
+                    Integer laneCount = properties.getOrdering().getLaneCount();
+                    executor = new OrderingLaneExecutor(laneCount == null ? 4 : laneCount);
+                    orderingLaneExecutor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * 获取流式扫描的读取线程池，首次使用时创建
+     *
+     * @return 读取线程池
+     */
+    private ExecutorService streamReaderExecutor() {
+        ExecutorService executor = streamReaderExecutor;
+        if (executor == null) {
+            synchronized (this) {
+                executor = streamReaderExecutor;
+                if (executor == null) {
+                    AtomicInteger created = new AtomicInteger();
+                    executor = Executors.newCachedThreadPool(r -> {
+                        Thread thread = new Thread(r, "TaskMessageStreamReader-" + created.getAndIncrement());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    streamReaderExecutor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * 确定任务组本次扫描的门牌号，并在门牌号变化时重置游标
+     * <p>
+     * 未开启动态分区时使用配置的houseNumbers；开启后使用当前实例分得的门牌号。
+     * 首次调用或分配结果变化时，以新门牌号范围内待处理消息的最小ID作为lastId重新开始扫描。
+     * </p>
+     *
+     * @param group 任务组配置
+     * @return 本次扫描的门牌号，动态分区下未分得门牌号时返回空列表
+     */
+    private List<Integer> resolveHouseNumbers(LocalTaskMessageAutoProperties.TaskGroupConfig group) {
+        String groupId = group.getGroupId();
+        List<Integer> houseNumbers = partitionAssignmentManager != null
+                ? partitionAssignmentManager.getOwnedHouseNumbers(groupId)
+                : group.getHouseNumbers();
+
+        List<Integer> previous = groupHouseNumbersMap.get(groupId);
+        if (houseNumbers.isEmpty() || houseNumbers.equals(previous)) {
+            return houseNumbers;
+        }
+
+        // 查询该门牌号范围内的最小ID作为起始点
+        Long minId = localTaskMessageService.selectMinIdByHouseNumber(houseNumbers);
+        long startId = (minId == null ? 0L : minId);
+        // AtomicLong保证并发安全
+        groupLastIdMap.computeIfAbsent(groupId, k -> new AtomicLong()).set(startId);
+        groupPriorityCursorMap.remove(groupId);
+        groupHouseNumbersMap.put(groupId, houseNumbers);
+        log.info("任务组 [{}] 初始化起始ID为 {}，houseNumbers={}", groupId, startId, houseNumbers);
+        return houseNumbers;
+    }
+
+    /**
+     * 两阶段扫描第二阶段：过滤可投递的消息并批量加载完整内容
+     * <p>
+     * 当前过滤规则为通知类型存在对应策略，没有策略的消息不加载大字段，记录告警后跳过。
+     * </p>
+     *
+     * @param groupId   任务组ID
+     * @param routeList 第一阶段查询出的路由信息
+     * @return 可投递的完整消息列表
+     */
+    private List<TaskMessageEntityCommand> loadDeliverable(String groupId, List<TaskMessageEntityCommand> routeList) {
+        List<Long> ids = new ArrayList<>(routeList.size());
+        for (TaskMessageEntityCommand route : routeList) {
+            if (resolveStrategy(route.getNotifyType()) == null) {
+                log.warn("任务组 [{}] 跳过无可用通知策略的消息，taskId: {} notifyType: {}", groupId, route.getTaskId(), route.getNotifyType());
+                continue;
+            }
+            ids.add(route.getId());
+        }
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return localTaskMessageService.selectByIds(ids);
+    }
+
+    /**
+     * 获取通知策略
+     *
+     * @param notifyType 通知类型
+     * @return 通知策略，不存在时返回null
+     */
+    private INotifyStrategy resolveStrategy(String notifyType) {
+        try {
+            return factory.getStrategy(notifyType, TaskNotifyEnum.class);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * 投递线程放弃本次流式扫描时，在读取回调中抛出以终止读取并关闭游标
+     */
+    private static final class StreamingCancelledException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        StreamingCancelledException() {
+            super("TASK_MESSAGE_STREAM_CANCELLED 投递失败，流式扫描已取消", null, false, false);
+        }
+    }
+
 }
@@ -0,0 +1,96 @@
+package com.zsq.winter.local.message.trigger.listener;
+
+
+import com.zsq.winter.local.message.config.LocalTaskMessageAutoProperties;
+import com.zsq.winter.local.message.enums.TaskPriorityEnum;
+import com.zsq.winter.local.message.event.SpringTaskMessageEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import javax.annotation.PreDestroy;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 按优先级分线程池的任务消息事件监听器
+ * <p>
+ * 开启priority.separate-executors后替代TaskMessageEventListener的异步处理：
+ * 收到SpringTaskMessageEvent后按消息优先级提交到对应的线程池，由TaskMessageEventListener执行实际投递。
+ * 各优先级的线程和队列互相独立，大量低优先级消息占满其线程池时，高优先级消息的即时投递不受影响。
+ * </p>
+ *
+ * <p>
+ * 线程池队列已满时抛出TaskRejectedException，与默认异步线程池一致，由LocalTaskMessageTemplate捕获后交给扫描任务投递。
+ * </p>
+ *
+ * @see TaskMessageEventListener
+ * @see TaskPriorityEnum
+ */
+@Slf4j
+public class PriorityTaskMessageEventListener {
+
+    private final TaskMessageEventListener delegate;
+
+    /**
+     * 各优先级的投递线程池
+     */
+    private final Map<TaskPriorityEnum, ThreadPoolTaskExecutor> executors = new EnumMap<>(TaskPriorityEnum.class);
+
+    /**
+     * 构造方法
+     *
+     * @param delegate 执行实际投递的事件监听器
+     * @param config   优先级投递配置
+     */
+    public PriorityTaskMessageEventListener(TaskMessageEventListener delegate, LocalTaskMessageAutoProperties.Priority config) {
+        this.delegate = delegate;
+        executors.put(TaskPriorityEnum.HIGH, createExecutor("TaskMessageHigh-", config.getHighPoolSize(), config.getQueueCapacity()));
+        executors.put(TaskPriorityEnum.NORMAL, createExecutor("TaskMessageNormal-", config.getNormalPoolSize(), config.getQueueCapacity()));
+        executors.put(TaskPriorityEnum.LOW, createExecutor("TaskMessageLow-", config.getLowPoolSize(), config.getQueueCapacity()));
+        log.info("按优先级投递线程池已创建，高: {}，普通: {}，低: {}，队列容量: {}",
+                config.getHighPoolSize(), config.getNormalPoolSize(), config.getLowPoolSize(), config.getQueueCapacity());
+    }
+
+    @EventListener
+    public void handleTaskMessageEvent(SpringTaskMessageEvent event) {
+        TaskPriorityEnum priority = TaskPriorityEnum.of(event.getTaskMessageEntityCommand().getPriority());
+        executors.get(priority).execute(() -> delegate.process(event));
+    }
+
+    /**
+     * 各优先级线程池当前排队的任务数
+     *
+     * @return 优先级名称到排队数
+     */
+    public Map<String, Integer> getQueueDepths() {
+        Map<String, Integer> depths = new LinkedHashMap<>();
+        for (Map.Entry<TaskPriorityEnum, ThreadPoolTaskExecutor> entry : executors.entrySet()) {
+            depths.put(entry.getKey().name(), entry.getValue().getThreadPoolExecutor().getQueue().size());
+        }
+        return depths;
+    }
+
+    /**
+     * 关闭全部线程池
+     */
+    @PreDestroy
+    public void destroy() {
+        for (ThreadPoolTaskExecutor executor : executors.values()) {
+            executor.shutdown();
+        }
+    }
+
+    private static ThreadPoolTaskExecutor createExecutor(String threadNamePrefix, Integer poolSize, Integer queueCapacity) {
+        int size = poolSize == null || poolSize < 1 ? 1 : poolSize;
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(size);
+        executor.setMaxPoolSize(size);
+        executor.setQueueCapacity(queueCapacity == null || queueCapacity < 0 ? 0 : queueCapacity);
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.initialize();
+        return executor;
+    }
+
+}
@@ -0,0 +1,105 @@
+package com.zsq.winter.local.message.trigger.listener;
+
+
+import com.zsq.winter.local.message.config.LocalTaskMessageAutoProperties;
+import com.zsq.winter.local.message.trigger.job.TaskMessageEventJob;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+
+/**
+ * 任务组配置刷新监听器
+ * <p>
+ * 监听Spring Cloud的配置刷新事件（EnvironmentChangeEvent、RefreshScopeRefreshedEvent），
+ * 从最新的Environment重新绑定任务组配置并交给TaskMessageEventJob重新加载，无需重启即可调整批量大小、间隔和门牌号。
+ * </p>
+ *
+ * <p>
+ * 按类名识别事件，未引入spring-cloud-context时该监听器不会被触发，也不会产生类加载错误。
+ * </p>
+ *
+ * @see TaskMessageEventJob#reload(java.util.List)
+ */
+@Slf4j
+public class TaskGroupRefreshListener {
+
+    /**
+     * 配置前缀
+     */
+    private static final String PROPERTIES_PREFIX = "winter-local-task-message";
+
+    /**
+     * 配置变更事件，携带发生变化的配置键
+     */
+    private static final String ENVIRONMENT_CHANGE_EVENT = "org.springframework.cloud.context.environment.EnvironmentChangeEvent";
+
+    /**
+     * RefreshScope刷新完成事件
+     */
+    private static final String REFRESH_SCOPE_REFRESHED_EVENT = "org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent";
+
+    private final Environment environment;
+
+    private final TaskMessageEventJob taskMessageEventJob;
+
+    /**
+     * 构造方法
+     *
+     * @param environment         Spring环境
+     * @param taskMessageEventJob 任务消息定时任务
+     */
+    public TaskGroupRefreshListener(Environment environment, TaskMessageEventJob taskMessageEventJob) {
+        this.environment = environment;
+        this.taskMessageEventJob = taskMessageEventJob;
+    }
+
+    @EventListener
+    public void handleRefreshEvent(ApplicationEvent event) {
+        String eventClass = event.getClass().getName();
+        if (ENVIRONMENT_CHANGE_EVENT.equals(eventClass)) {
+            if (!containsGroupKey(event)) {
+                return;
+            }
+        } else if (!REFRESH_SCOPE_REFRESHED_EVENT.equals(eventClass)) {
+            return;
+        }
+
+        try {
+            LocalTaskMessageAutoProperties refreshed = Binder.get(environment)
+                    .bind(PROPERTIES_PREFIX, Bindable.of(LocalTaskMessageAutoProperties.class))
+                    .orElseGet(LocalTaskMessageAutoProperties::new);
+            log.info("检测到配置刷新，重新加载任务组配置，共{}个任务组", refreshed.getGroups().size());
+            taskMessageEventJob.reload(refreshed.getGroups());
+        } catch (Exception e) {
+            log.error("重新加载任务组配置失败，保持原有调度: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 判断EnvironmentChangeEvent中是否包含任务组相关的配置键
+     *
+     * @param event EnvironmentChangeEvent事件
+     * @return 包含任务组配置键或无法读取变更键时返回true
+     */
+    private boolean containsGroupKey(ApplicationEvent event) {
+        try {
+            Method getKeys = event.getClass().getMethod("getKeys");
+            Collection<?> keys = (Collection<?>) getKeys.invoke(event);
+            for (Object key : keys) {
+                if (String.valueOf(key).startsWith(PROPERTIES_PREFIX + ".groups")) {
+                    return true;
+                }
+            }
+            return false;
+        } catch (Exception e) {
+            return true;
+        }
+    }
+
+}
@@ -0,0 +1,313 @@
+package com.zsq.winter.local.message.trigger.listener;
+
+
+import com.zsq.winter.local.message.config.LocalTaskMessageAutoProperties;
+import com.zsq.winter.local.message.dao.ITaskMessageDao;
+import com.zsq.winter.local.message.enums.ChangeNotifyTransportEnum;
+import com.zsq.winter.local.message.event.TaskMessageWakeupEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ScheduledFuture;
+import java.util.regex.Pattern;
+
+/**
+ * 跨节点任务消息变更监听器
+ * <p>
+ * 感知其他节点插入的新消息，并按门牌号发布TaskMessageWakeupEvent，唤醒本节点负责该门牌号的任务组扫描，
+ * 使扫描任务只在有数据时才执行，不必依赖短间隔轮询。
+ * </p>
+ *
+ * <p><b>通知方式：</b></p>
+ * <ul>
+ *   <li>PostgreSQL：插入时在同一连接上执行pg_notify，本监听器持有一个专用连接LISTEN该通道，
+ *       通过pgjdbc的PGConnection#getNotifications读取通知（反射调用，驱动为可选依赖）</li>
+ *   <li>其他数据库：按探测间隔执行 id &gt; 上次最大ID 的分组查询，沿主键范围只读取新插入的行，
+ *       不需要额外的探测表，也不在插入路径上增加写入</li>
+ * </ul>
+ *
+ * @see TaskMessageWakeupEvent
+ * @see com.zsq.winter.local.message.trigger.job.TaskMessageEventJob
+ */
+@Slf4j
+public class TaskMessageChangeWatcher {
+
+    /**
+     * pgjdbc连接接口类名
+     */
+    private static final String PG_CONNECTION_CLASS = "org.postgresql.PGConnection";
+
+    /**
+     * pgjdbc通知接口类名
+     */
+    private static final String PG_NOTIFICATION_CLASS = "org.postgresql.PGNotification";
+
+    /**
+     * 合法的通道名，LISTEN不支持参数绑定，只允许标识符
+     */
+    private static final Pattern CHANNEL_PATTERN = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
+    /**
+     * 单次等待通知的超时时间（毫秒），超时后检查是否需要退出
+     */
+    private static final int LISTEN_TIMEOUT_MS = 1000;
+
+    /**
+     * LISTEN连接异常后的重连间隔（毫秒）
+     */
+    private static final long RECONNECT_DELAY_MS = 5000L;
+
+    private final DataSource dataSource;
+
+    private final ITaskMessageDao taskMessageDao;
+
+    private final ThreadPoolTaskScheduler scheduler;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final LocalTaskMessageAutoProperties.ChangeNotify config;
+
+    /**
+     * 是否运行中
+     */
+    private volatile boolean running;
+
+    /**
+     * LISTEN线程，使用最大ID探测时为null
+     */
+    private Thread listenThread;
+
+    /**
+     * 最大ID探测的调度句柄，使用LISTEN/NOTIFY时为null
+     */
+    private ScheduledFuture<?> probeFuture;
+
+    /**
+     * 最大ID探测已看到的最大ID，-1表示尚未初始化
+     */
+    private volatile long probeLastId = -1L;
+
+    /**
+     * 构造方法
+     *
+     * @param dataSource     数据源
+     * @param taskMessageDao 任务消息DAO
+     * @param scheduler      任务调度器，用于执行最大ID探测
+     * @param eventPublisher Spring事件发布器
+     * @param config         变更通知配置
+     */
+    public TaskMessageChangeWatcher(DataSource dataSource, ITaskMessageDao taskMessageDao, ThreadPoolTaskScheduler scheduler,
+                                    ApplicationEventPublisher eventPublisher, LocalTaskMessageAutoProperties.ChangeNotify config) {
+        if (config.getChannel() == null || !CHANNEL_PATTERN.matcher(config.getChannel()).matches()) {
+            throw new IllegalArgumentException("TASK_MESSAGE_CHANGE_NOTIFY_CHANNEL_ERROR 通道名只能包含字母、数字和下划线: " + config.getChannel());
+        }
+        this.dataSource = dataSource;
+        this.taskMessageDao = taskMessageDao;
+        this.scheduler = scheduler;
+        this.eventPublisher = eventPublisher;
+        this.config = config;
+    }
+
+    /**
+     * 启动监听
+     * <p>
+     * 按配置的通知方式启动LISTEN线程或最大ID探测。
+     * </p>
+     */
+    @PostConstruct
+    public synchronized void start() {
+        running = true;
+        if (resolveTransport() == ChangeNotifyTransportEnum.PG_NOTIFY) {
+            listenThread = new Thread(this::listenLoop, "TaskMessageChangeListener");
+            listenThread.setDaemon(true);
+            listenThread.start();
+            log.info("任务消息变更通知已启动，方式: PostgreSQL LISTEN，通道: {}", config.getChannel());
+        } else {
+            long interval = config.getProbeIntervalMs() != null && config.getProbeIntervalMs() > 0 ? config.getProbeIntervalMs() : 1000L;
+            probeFuture = scheduler.scheduleWithFixedDelay(this::probe, interval);
+            log.info("任务消息变更通知已启动，方式: 最大ID探测，间隔: {}ms", interval);
+        }
+    }
+
+    /**
+     * 停止监听
+     */
+    @PreDestroy
+    public synchronized void stop() {
+        running = false;
+        if (probeFuture != null) {
+            probeFuture.cancel(false);
+        }
+        if (listenThread != null) {
+            // LISTEN线程最多在一次等待超时后退出
+            listenThread.interrupt();
+        }
+    }
+
+    /**
+     * 确定实际使用的通知方式
+     *
+     * @return PG_NOTIFY或PROBE
+     */
+    private ChangeNotifyTransportEnum resolveTransport() {
+        ChangeNotifyTransportEnum transport = config.getTransport();
+        if (transport == ChangeNotifyTransportEnum.PROBE) {
+            return transport;
+        }
+        boolean driverPresent = isClassPresent(PG_CONNECTION_CLASS);
+        if (transport == ChangeNotifyTransportEnum.PG_NOTIFY) {
+            if (!driverPresent) {
+                throw new IllegalStateException("TASK_MESSAGE_CHANGE_NOTIFY_ERROR pg_notify 需要 PostgreSQL JDBC 驱动");
+            }
+            return transport;
+        }
+        if (driverPresent) {
+            try (Connection connection = dataSource.getConnection()) {
+                String productName = connection.getMetaData().getDatabaseProductName();
+                if (productName != null && productName.toLowerCase().contains("postgresql")) {
+                    return ChangeNotifyTransportEnum.PG_NOTIFY;
+                }
+            } catch (SQLException e) {
+                log.warn("识别数据库类型失败，使用最大ID探测: {}", e.getMessage());
+            }
+        }
+        return ChangeNotifyTransportEnum.PROBE;
+    }
+
+    /**
+     * LISTEN循环
+     * <p>
+     * 持有一个专用连接等待通知，连接异常时按重连间隔重建，直到停止。
+     * 正常退出前执行UNLISTEN，避免归还连接池的连接继续接收通知。
+     * </p>
+     */
+    private void listenLoop() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + config.getChannel());
+                }
+                Class<?> pgConnectionClass = Class.forName(PG_CONNECTION_CLASS);
+                Object pgConnection = connection.unwrap(pgConnectionClass);
+                Method getNotifications = pgConnectionClass.getMethod("getNotifications", int.class);
+                Method getParameter = Class.forName(PG_NOTIFICATION_CLASS).getMethod("getParameter");
+
+                while (running) {
+                    Object[] notifications = (Object[]) getNotifications.invoke(pgConnection, LISTEN_TIMEOUT_MS);
+                    if (notifications == null || notifications.length == 0) {
+                        continue;
+                    }
+                    // 同一批通知按门牌号去重
+                    Set<Integer> houseNumbers = new TreeSet<>();
+                    boolean wakeupAll = false;
+                    for (Object notification : notifications) {
+                        Integer houseNumber = parseHouseNumber((String) getParameter.invoke(notification));
+                        if (houseNumber != null) {
+                            houseNumbers.add(houseNumber);
+                        } else {
+                            wakeupAll = true;
+                        }
+                    }
+                    if (wakeupAll) {
+                        publishWakeup(null, "pg_notify");
+                        continue;
+                    }
+                    for (Integer houseNumber : houseNumbers) {
+                        publishWakeup(houseNumber, "pg_notify");
+                    }
+                }
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("UNLISTEN " + config.getChannel());
+                }
+            } catch (Exception e) {
+                if (!running) {
+                    break;
+                }
+                log.warn("任务消息变更监听连接异常，{}ms后重连: {}", RECONNECT_DELAY_MS, e.getMessage());
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MS);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        log.info("任务消息变更监听已停止");
+    }
+
+    /**
+     * 执行一次最大ID探测
+     * <p>
+     * 首次执行只记录当前最大ID；之后查询ID大于该值的新消息所在门牌号，逐个发布唤醒事件并推进最大ID。
+     * </p>
+     */
+    private void probe() {
+        try {
+            if (probeLastId < 0) {
+                Long maxId = taskMessageDao.selectMaxId();
+                probeLastId = maxId == null ? 0L : maxId;
+                return;
+            }
+            Map<Integer, Long> changed = taskMessageDao.selectMaxIdByHouseNumberAfter(probeLastId);
+            long maxId = probeLastId;
+            for (Map.Entry<Integer, Long> entry : changed.entrySet()) {
+                publishWakeup(entry.getKey(), "probe");
+                maxId = Math.max(maxId, entry.getValue());
+            }
+            probeLastId = maxId;
+        } catch (Exception e) {
+            log.warn("任务消息变更探测失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 发布扫描唤醒事件
+     *
+     * @param houseNumber 有新消息的门牌号
+     * @param reason      唤醒原因
+     */
+    private void publishWakeup(Integer houseNumber, String reason) {
+        if (log.isDebugEnabled()) {
+            log.debug("检测到门牌号 {} 有新消息，来源: {}", houseNumber, reason);
+        }
+        eventPublisher.publishEvent(new TaskMessageWakeupEvent(this, houseNumber, reason));
+    }
+
+    /**
+     * 解析通知负载中的门牌号
+     *
+     * @param payload 通知负载
+     * @return 门牌号，无法解析时返回null（唤醒全部任务组）
+     */
+    private static Integer parseHouseNumber(String payload) {
+        if (payload == null || payload.isEmpty()) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(payload.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static boolean isClassPresent(String className) {
+        try {
+            Class.forName(className, false, TaskMessageChangeWatcher.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+}
@@ -4,12 +4,19 @@ package com.zsq.winter.local.message.trigger.listener;
 import com.zsq.winter.local.message.entity.TaskMessageEntityCommand;
 import com.zsq.winter.local.message.enums.TaskNotifyEnum;
 import com.zsq.winter.local.message.event.SpringTaskMessageEvent;
+import com.zsq.winter.local.message.event.TaskMessageWakeupEvent;
+import com.zsq.winter.local.message.metrics.ITaskMessageMetrics;
+import com.zsq.winter.local.message.service.LocalTaskMessageServiceImpl;
 import com.zsq.winter.local.message.strategy.INotifyStrategy;
 import com.zsq.winter.local.message.strategy.LocalTaskMessageNotifyFactory;
+import com.zsq.winter.local.message.trigger.job.DelayedMessageDispatcher;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Async;
 
+import java.time.LocalDateTime;
+
 /**
  * 任务消息事件监听器
  * <p>
@@ -23,7 +30,10 @@ import org.springframework.scheduling.annotation.Async;
  *   <li>接收SpringTaskMessageEvent事件</li>
  *   <li>调用通知工厂执行通知（HTTP或RabbitMQ）</li>
  *   <li>根据通知结果更新任务状态</li>
+ *   <li>通知失败时发布唤醒事件，由扫描任务提前重试</li>
  * </ol>
+ * 设置了顺序键的消息不在此处即时投递，而是唤醒扫描任务按ID顺序投递，避免与扫描任务并发投递造成乱序。
+ * 计划投递时间在未来的延迟消息交给延迟消息调度器，到期后再投递。
  * 
  * 
  * @see SpringTaskMessageEvent
@@ -34,22 +44,81 @@ public class TaskMessageEventListener {
 
     private final LocalTaskMessageNotifyFactory factory;
 
+    /**
+     * Spring事件发布器，用于发布扫描唤醒事件，为null时不唤醒
+     */
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * 延迟消息调度器，为null时延迟消息只由其加载任务负责（或未启用延迟消息）
+     */
+    private final DelayedMessageDispatcher delayedMessageDispatcher;
+
     /**
      * 构造方法
      *
      * @param factory 任务消息通知工厂
      */
     public TaskMessageEventListener(LocalTaskMessageNotifyFactory factory) {
+        this(factory, null);
+    }
+
+    /**
+     * 构造方法
+     *
+     * @param factory        任务消息通知工厂
+     * @param eventPublisher Spring事件发布器
+     */
+    public TaskMessageEventListener(LocalTaskMessageNotifyFactory factory, ApplicationEventPublisher eventPublisher) {
+        this(factory, eventPublisher, null);
+    }
+
+    /**
+     * 构造方法
+     *
+     * @param factory                  任务消息通知工厂
+     * @param eventPublisher           Spring事件发布器
+     * @param delayedMessageDispatcher 延迟消息调度器
+     */
+    public TaskMessageEventListener(LocalTaskMessageNotifyFactory factory, ApplicationEventPublisher eventPublisher,
+                                    DelayedMessageDispatcher delayedMessageDispatcher) {
         this.factory = factory;
+        this.eventPublisher = eventPublisher;
+        this.delayedMessageDispatcher = delayedMessageDispatcher;
     }
 
     @EventListener
     @Async // 默认使用Spring创建ThreadPoolTaskExecutor，我们已经在配置中重新覆盖了这个线程池
     public void handleTaskMessageEvent(SpringTaskMessageEvent event) {
+        process(event);
+    }
+
+    /**
+     * 执行一次即时投递
+     * <p>
+     * 由异步事件处理方法调用；按优先级使用独立线程池时，由PriorityTaskMessageEventListener在对应线程池中调用。
+     * </p>
+     *
+     * @param event 任务消息事件
+     */
+    public void process(SpringTaskMessageEvent event) {
         try {
             TaskMessageEntityCommand command = event.getTaskMessageEntityCommand();
             log.info("收到任务消息事件 - 消息内容: {}, 事件时间戳: {}", command, event.getTimestamp());
+            if (command.getDeliverAt() != null && command.getDeliverAt().isAfter(LocalDateTime.now())) {
+                // 延迟消息到期后再投递
+                boolean offered = delayedMessageDispatcher != null && delayedMessageDispatcher.offer(command);
+                log.info("延迟消息暂不投递 - taskId: {}, deliverAt: {}, 已放入时间轮: {}", command.getTaskId(), command.getDeliverAt(), offered);
+                return;
+            }
+            if (command.getOrderingKey() != null) {
+                // 顺序消息只由扫描任务投递
+                log.info("顺序消息交由扫描任务投递 - taskId: {}, orderingKey: {}", command.getTaskId(), command.getOrderingKey());
+                wakeupScanner(command, "ordered: ");
+                return;
+            }
             String notifyType = command.getNotifyType();
+            command.setDeliveryPath(ITaskMessageMetrics.PATH_LISTENER);
             // 获取通知策略
             INotifyStrategy notifyStrategy = factory.getStrategy(notifyType, TaskNotifyEnum.class);
             // 执行通知操作
@@ -58,6 +127,25 @@ public class TaskMessageEventListener {
         } catch (Exception e) {
             log.error("处理任务消息事件失败 - 消息: {}, 错误: {}",
                     event.getTaskMessageEntityCommand(), e.getMessage(), e);
+            wakeupScanner(event.getTaskMessageEntityCommand(), "notify failed: ");
+        }
+    }
+
+    /**
+     * 唤醒负责该消息门牌号的扫描任务
+     *
+     * @param command 任务消息命令
+     * @param reason  唤醒原因前缀
+     */
+    private void wakeupScanner(TaskMessageEntityCommand command, String reason) {
+        if (eventPublisher == null || command == null || command.getTaskId() == null) {
+            return;
+        }
+        try {
+            int houseNumber = LocalTaskMessageServiceImpl.houseNumberOf(command);
+            eventPublisher.publishEvent(new TaskMessageWakeupEvent(this, houseNumber, reason + command.getTaskId()));
+        } catch (Exception e) {
+            log.warn("发布扫描唤醒事件失败 - taskId: {}, 错误: {}", command.getTaskId(), e.getMessage());
         }
     }
 
@@ -0,0 +1,170 @@
+package com.zsq.winter.local.message.trigger.listener;
+
+import com.zsq.winter.local.message.config.LocalTaskMessageAutoProperties;
+import com.zsq.winter.local.message.dao.TaskMessageDaoImpl;
+import com.zsq.winter.local.message.enums.ChangeNotifyTransportEnum;
+import com.zsq.winter.local.message.event.TaskMessageWakeupEvent;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ScheduledFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 最大ID探测方式的跨节点变更监听测试
+ * <p>
+ * 使用H2内存库和基础表结构，手动执行探测任务，验证只唤醒有新消息的门牌号，且探测位置随之推进。
+ * </p>
+ */
+class TaskMessageChangeWatcherTest {
+
+    private JdbcDataSource dataSource;
+
+    private final List<TaskMessageWakeupEvent> events = new ArrayList<>();
+
+    private CapturingScheduler scheduler;
+
+    private TaskMessageChangeWatcher watcher;
+
+    private int taskSeq;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:change_watcher;DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS local_task_message");
+            statement.execute("CREATE TABLE local_task_message (" +
+                    "id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+                    "task_id VARCHAR(64) NOT NULL, " +
+                    "task_name VARCHAR(128) NOT NULL, " +
+                    "notify_type VARCHAR(32) NOT NULL, " +
+                    "notify_config VARCHAR(4096) NOT NULL, " +
+                    "status TINYINT DEFAULT 0 NOT NULL, " +
+                    "parameter_json VARCHAR(4096), " +
+                    "house_number INT NOT NULL, " +
+                    "create_time TIMESTAMP NOT NULL, " +
+                    "update_time TIMESTAMP NOT NULL, " +
+                    "CONSTRAINT uk_task_id UNIQUE (task_id))");
+        }
+
+        LocalTaskMessageAutoProperties.ChangeNotify config = new LocalTaskMessageAutoProperties.ChangeNotify();
+        config.setEnabled(true);
+        config.setTransport(ChangeNotifyTransportEnum.PROBE);
+        scheduler = new CapturingScheduler();
+        watcher = new TaskMessageChangeWatcher(dataSource, new TaskMessageDaoImpl(dataSource), scheduler,
+                event -> events.add((TaskMessageWakeupEvent) event), config);
+        watcher.start();
+        assertNotNull(scheduler.task, "探测方式应注册定时探测任务");
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        watcher.stop();
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE local_task_message");
+        }
+    }
+
+    @Test
+    void firstProbeOnlyRecordsExistingMaxId() throws SQLException {
+        insert(1);
+        insert(2);
+
+        scheduler.task.run();
+
+        assertTrue(events.isEmpty(), "首次探测只记录当前最大ID，不唤醒已有消息");
+    }
+
+    @Test
+    void probeWakesOnlyHouseNumbersWithNewRows() throws SQLException {
+        insert(1);
+        scheduler.task.run();
+
+        insert(3);
+        insert(7);
+        insert(3);
+        scheduler.task.run();
+
+        assertEquals(new TreeSet<>(Arrays.asList(3, 7)), wokenHouseNumbers());
+        for (TaskMessageWakeupEvent event : events) {
+            assertEquals("probe", event.getReason());
+        }
+    }
+
+    @Test
+    void probeAdvancesPastDeliveredRows() throws SQLException {
+        scheduler.task.run();
+
+        insert(5);
+        scheduler.task.run();
+        assertEquals(Collections.singleton(5), wokenHouseNumbers());
+
+        // 没有新消息时不再唤醒
+        events.clear();
+        scheduler.task.run();
+        assertTrue(events.isEmpty(), "探测位置应推进到已唤醒消息的最大ID");
+
+        // 只唤醒推进之后插入的门牌号
+        insert(8);
+        scheduler.task.run();
+        assertEquals(Collections.singleton(8), wokenHouseNumbers());
+    }
+
+    private TreeSet<Integer> wokenHouseNumbers() {
+        TreeSet<Integer> houseNumbers = new TreeSet<>();
+        for (TaskMessageWakeupEvent event : events) {
+            houseNumbers.add(event.getHouseNumber());
+        }
+        return houseNumbers;
+    }
+
+    private void insert(int houseNumber) throws SQLException {
+        String sql = "INSERT INTO local_task_message (task_id, task_name, notify_type, notify_config, status, parameter_json, " +
+                "house_number, create_time, update_time) VALUES (?, 'test', 'HTTP', '{}', 0, '{}', ?, ?, ?)";
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, "TASK-" + (++taskSeq));
+            ps.setInt(2, houseNumber);
+            ps.setTimestamp(3, now);
+            ps.setTimestamp(4, now);
+            ps.executeUpdate();
+        }
+    }
+
+    /**
+     * 只记录探测任务、不实际调度的调度器，由测试手动执行探测
+     */
+    private static final class CapturingScheduler extends ThreadPoolTaskScheduler {
+
+        private static final long serialVersionUID = 1L;
+
+        private Runnable task;
+
+        @Override
+        public ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, long delay) {
+            this.task = task;
+            return null;
+        }
+    }
+}